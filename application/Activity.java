@@ -1,7 +1,7 @@
 ///////////////////////////////////////////////////////////////////////////////
 // Title: Opti-List
 // File: Activity.java
-// Last Changed: 9/1/2020
+// Last Changed: 10/19/2026
 //
 // Author: Luis Finol
 // Email: lfinol@wisc.edu
@@ -18,9 +18,20 @@ package application;
 public class Activity {
 
   private boolean deadline = false; // indicates if activity has due date or not
-  private String description; // the description of the activity
+  private byte[] description; // the description, as encoded by DescriptionPool
   private int priority; // the priority number of the activity
   private String date; // the due date the activity possesses, null if it doesn't have one
+  private String time; // the due time as hh:mm, null if the activity is due on a day only
+  private String zone; // the zone of the due date and time, null for the system default zone
+  private long id; // stable identifier of the activity, 0 until it is added to a model
+  private long sequence; // order of insertion in a model, breaks ties between sort keys
+  private long position; // place among the activities of its priority, 0 until it is placed
+  private long dueMinute = -1; // cached SortKey.dueMinute(), -1 until calculated
+  private RenderModel render; // cached RenderModel, null until built
+  private long created; // time the activity was created in epoch milliseconds, 0 until added
+  private long completed; // time the activity was completed in epoch milliseconds, 0 if it isn't
+  private long parent; // identifier of the activity this is a subtask of, 0 if none
+  private long[] dependencies = new long[0]; // identifiers of the activities blocking this one
 
   /**
    * Constructor of activity without due date
@@ -30,7 +41,7 @@ public class Activity {
    */
   public Activity(String description, int priority) {
 
-    this.description = description;
+    this.description = DescriptionPool.encode(description);
     this.priority = priority;
   }
 
@@ -43,12 +54,28 @@ public class Activity {
    */
   public Activity(String description, int priority, String date) {
 
-    this.description = description;
+    this.description = DescriptionPool.encode(description);
     this.priority = priority;
     this.date = date;
     deadline = true;
   }
 
+  /**
+   * Constructor of activity with due date, time and zone
+   * 
+   * @param description, The activity description
+   * @param priority, The activity priority number
+   * @param date, The activity due date
+   * @param time, The activity due time as hh:mm, null if only due on the date
+   * @param zone, The zone of the due date and time, null for the system default zone
+   */
+  public Activity(String description, int priority, String date, String time, String zone) {
+
+    this(description, priority, date);
+    this.time = time;
+    this.zone = zone;
+  }
+
   /**
    * Getter method for activity's priority
    * 
@@ -69,6 +96,93 @@ public class Activity {
     return date;
   }
 
+  /**
+   * Getter method for activity's due time
+   * 
+   * @return due time as hh:mm, null if the activity is due on a day only
+   */
+  public String getTime() {
+
+    return time;
+  }
+
+  /**
+   * Getter method for the zone of activity's due date
+   * 
+   * @return zone identifier, null for the system default zone
+   */
+  public String getZone() {
+
+    return zone;
+  }
+
+  /**
+   * Indicates if activity is due at a specific time of its due date
+   * 
+   * @return true if activity has due time, false otherwise
+   */
+  public boolean hasTime() {
+
+    return time != null && !time.trim().isEmpty();
+  }
+
+  /**
+   * Getter method for activity's due minute, calculated once from its date, time and zone
+   * 
+   * @return due minute as defined by SortKey
+   */
+  public long getDueMinute() {
+
+    if (dueMinute < 0) {
+      dueMinute = SortKey.dueMinute(this);
+    }
+    return dueMinute;
+  }
+
+  /**
+   * Getter method for the key ordering activity by due date
+   * 
+   * @return date key as defined by SortKey
+   */
+  public long getDateKey() {
+
+    return SortKey.dateKey(getDueMinute(), priority);
+  }
+
+  /**
+   * Getter method for the key ordering activity by priority
+   * 
+   * @return priority key as defined by SortKey
+   */
+  public long getPriorityKey() {
+
+    return SortKey.priorityKey(getDueMinute(), priority);
+  }
+
+  /**
+   * Compares activity with another one by due date, then by greater priority, then by insertion
+   * 
+   * @param other, The other activity
+   * @return a negative number, zero or a positive number as activity sorts before, with or after
+   *         the other one in date order
+   */
+  public int compareByDate(Activity other) {
+
+    return SortKey.compare(getDateKey(), sequence, other.getDateKey(), other.sequence);
+  }
+
+  /**
+   * Compares activity with another one by greater priority, then by due date, then by insertion
+   * 
+   * @param other, The other activity
+   * @return a negative number, zero or a positive number as activity sorts before, with or after
+   *         the other one in priority order
+   */
+  public int compareByPriority(Activity other) {
+
+    return SortKey.compare(getPriorityKey(), sequence, other.getPriorityKey(), other.sequence);
+  }
+
   /**
    * Getter method for activity's description
    * 
@@ -76,9 +190,69 @@ public class Activity {
    */
   public String getDescription() {
 
+    return DescriptionPool.decode(description);
+  }
+
+  /**
+   * Getter method for activity's description as encoded by DescriptionPool
+   * 
+   * @return encoded description, shared with other activities of the model with the same one
+   */
+  byte[] getEncodedDescription() {
+
     return description;
   }
 
+  /**
+   * Getter method for activity's identifier
+   * 
+   * @return identifier, 0 if the activity has not been added to a model yet
+   */
+  public long getId() {
+
+    return id;
+  }
+
+  /**
+   * Getter method for the time activity was created
+   * 
+   * @return creation time in epoch milliseconds, 0 if the activity has not been added to a model
+   */
+  public long getCreated() {
+
+    return created;
+  }
+
+  /**
+   * Getter method for the time activity was completed
+   * 
+   * @return completion time in epoch milliseconds, 0 if the activity is not completed
+   */
+  public long getCompleted() {
+
+    return completed;
+  }
+
+  /**
+   * Getter method for the activity this activity is a subtask of
+   * 
+   * @return identifier of the parent activity, 0 if the activity is not a subtask
+   */
+  public long getParent() {
+
+    return parent;
+  }
+
+  /**
+   * Getter method for the activities that have to be done before this one
+   * 
+   * @return identifiers of the activities this activity depends on
+   */
+  public long[] getDependencies() {
+
+    return dependencies.clone();
+  }
+
   /**
    * Indicates if activity has due date
    * 
@@ -90,12 +264,24 @@ public class Activity {
   }
 
   /**
-   * Setter method for activity's description
+   * Setter method for activity's description, only to be used while the activity isn't in a model
+   * since the model shares the descriptions of its activities
    * 
-   * @return activity description
+   * @param description, The activity description
    */
   public void setDescription(String description) {
 
+    this.description = DescriptionPool.encode(description);
+    render = null;
+  }
+
+  /**
+   * Setter method for activity's description as encoded by DescriptionPool
+   * 
+   * @param description, The encoded description
+   */
+  void setEncodedDescription(byte[] description) {
+
     this.description = description;
   }
 
@@ -107,6 +293,30 @@ public class Activity {
   public void setDate(String date) {
 
     this.date = date;
+    dueMinute = -1;
+    render = null;
+  }
+
+  /**
+   * Setter method for activity's due time
+   * 
+   */
+  public void setTime(String time) {
+
+    this.time = time;
+    dueMinute = -1;
+    render = null;
+  }
+
+  /**
+   * Setter method for the zone of activity's due date
+   * 
+   */
+  public void setZone(String zone) {
+
+    this.zone = zone;
+    dueMinute = -1;
+    render = null;
   }
 
   /**
@@ -116,5 +326,113 @@ public class Activity {
   public void setPriority(int priority) {
 
     this.priority = priority;
+    render = null;
+  }
+
+  /**
+   * Setter method for activity's identifier
+   * 
+   */
+  public void setId(long id) {
+
+    this.id = id;
+  }
+
+  /**
+   * Setter method for the time activity was created
+   * 
+   */
+  public void setCreated(long created) {
+
+    this.created = created;
+  }
+
+  /**
+   * Setter method for the time activity was completed
+   * 
+   */
+  public void setCompleted(long completed) {
+
+    this.completed = completed;
+  }
+
+  /**
+   * Setter method for the activity this activity is a subtask of, kept up to date by a
+   * DependencyGraph
+   * 
+   */
+  public void setParent(long parent) {
+
+    this.parent = parent;
+  }
+
+  /**
+   * Setter method for the activities that have to be done before this one, kept up to date by a
+   * DependencyGraph
+   * 
+   */
+  public void setDependencies(long[] dependencies) {
+
+    this.dependencies = dependencies.clone();
+  }
+
+  /**
+   * Getter method for activity's insertion sequence
+   * 
+   * @return insertion sequence assigned by the model, 0 if it wasn't added to one
+   */
+  long getSequence() {
+
+    return sequence;
+  }
+
+  /**
+   * Setter method for activity's insertion sequence, assigned by the model
+   * 
+   */
+  void setSequence(long sequence) {
+
+    this.sequence = sequence;
+  }
+
+  /**
+   * Getter method for activity's place among the activities of its priority, which keeps the order
+   * they were given by hand when they are saved and loaded again
+   * 
+   * @return position assigned by the priority index, 0 if the activity was never placed
+   */
+  long getPosition() {
+
+    return position;
+  }
+
+  /**
+   * Setter method for activity's place among the activities of its priority, assigned by the
+   * priority index or read back from a file
+   * 
+   */
+  void setPosition(long position) {
+
+    this.position = position;
+  }
+
+  /**
+   * Getter method for activity's cached render model
+   * 
+   * @return the render model, null if it wasn't built since the activity last changed
+   */
+  RenderModel getRender() {
+
+    return render;
+  }
+
+  /**
+   * Setter method for activity's cached render model, built by RenderModel.of()
+   * 
+   * @param render, The render model
+   */
+  void setRender(RenderModel render) {
+
+    this.render = render;
   }
 }
@@ -0,0 +1,383 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityArchive.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The following class keeps completed activities out of the model, in an append-only file on disk.
+ * Completed activities are gathered into blocks of BLOCK_SIZE which are deflated and appended to
+ * the end of the file, and are never rewritten afterwards. Only the small header of every block is
+ * read to index the file, and a block is decompressed when a page or a query actually needs its
+ * activities, so the history can grow without slowing down the program or filling up memory.
+ *
+ * File layout: magic number and format, then blocks, each with the length of its deflated data,
+ * the number of activities, the first and last completion times, and the deflated records.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ActivityArchive implements ActivityListener, Closeable, Flushable {
+
+  public static final int PAGE_SIZE = ActivityModel.PAGE_SIZE; // activities per history page
+
+  static final int BLOCK_SIZE = 64; // completed activities compressed together
+
+  private static final int MAGIC = 0x4F504C41; // "OPLA"
+  private static final int FORMAT = 1;
+  private static final int FILE_HEADER = 8;
+  private static final int BLOCK_HEADER = 24;
+
+  /**
+   * Position and summary of a block in the file
+   */
+  private static class Block {
+
+    long offset; // position of the block header
+    int length; // length of the deflated records
+    int count; // number of activities in the block
+    long first; // earliest completion time in the block
+    long last; // latest completion time in the block
+  }
+
+  private final File file;
+
+  private final List<Block> blocks = new ArrayList<Block>(); // oldest block first
+  private boolean indexed = false; // indicates if the block headers have been read
+  private long end; // position the next block is appended at
+  private int archived; // number of activities in the file
+
+  // completed activities not written yet, in order of completion
+  private final List<Activity> pending = new ArrayList<Activity>();
+
+  // the last block decompressed, pages next to each other usually fall in the same block
+  private Block cachedBlock;
+  private List<Activity> cachedActivities;
+
+  /**
+   * Creates an archive kept in a file, which is only read once the archive is first used
+   *
+   * @param file, The archive file, created when the first block is written
+   */
+  public ActivityArchive(File file) {
+
+    this.file = file;
+  }
+
+  /**
+   * Getter method for the archive kept next to an activities file
+   *
+   * @param dataFile, The activities file
+   * @return the archive file in the same directory
+   */
+  public static File fileFor(File dataFile) {
+
+    return new File(dataFile.getAbsoluteFile().getParentFile(), "archive.dat");
+  }
+
+  @Override
+  public synchronized void activityCompleted(Activity activity) {
+
+    pending.add(activity);
+    if (pending.size() >= BLOCK_SIZE) {
+      try {
+        flush();
+      } catch (IOException e) {
+        // the activities are kept pending and written with the next block
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Appends the pending activities to the file as a new block
+   *
+   * @throws IOException if the block could not be written
+   */
+  @Override
+  public synchronized void flush() throws IOException {
+
+    if (pending.isEmpty()) {
+      return;
+    }
+    index();
+
+    Block block = new Block();
+    block.count = pending.size();
+    block.first = Long.MAX_VALUE;
+    block.last = Long.MIN_VALUE;
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+      for (Activity activity : pending) {
+        ActivityFile.writeRecord(out, activity);
+        out.writeLong(activity.getCompleted());
+        block.first = Math.min(block.first, activity.getCompleted());
+        block.last = Math.max(block.last, activity.getCompleted());
+      }
+    } finally {
+      deflater.end();
+    }
+    block.length = bytes.size();
+
+    File directory = file.getAbsoluteFile().getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+
+    try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+      if (end == 0) {
+        out.setLength(0);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        end = FILE_HEADER;
+      } else if (out.length() > end) {
+        // a block left half written by a crash is dropped
+        out.setLength(end);
+      }
+
+      out.seek(end);
+      out.writeInt(block.length);
+      out.writeInt(block.count);
+      out.writeLong(block.first);
+      out.writeLong(block.last);
+      out.write(bytes.toByteArray());
+      out.getChannel().force(false);
+    }
+
+    block.offset = end;
+    end += BLOCK_HEADER + block.length;
+    blocks.add(block);
+    archived += block.count;
+    pending.clear();
+  }
+
+  /**
+   * Writes the pending activities
+   *
+   * @throws IOException if they could not be written
+   */
+  @Override
+  public void close() throws IOException {
+
+    flush();
+  }
+
+  /**
+   * Getter method for the number of completed activities
+   *
+   * @return number of activities in the archive, written or pending
+   */
+  public synchronized int size() {
+
+    index();
+    return archived + pending.size();
+  }
+
+  /**
+   * Getter method for a page of completed activities, the most recently completed first. Whole
+   * blocks before the page are skipped by their count without being decompressed.
+   *
+   * @param pageRank, The page, starting at 1
+   * @return at most PAGE_SIZE completed activities
+   */
+  public synchronized List<Activity> page(int pageRank) {
+
+    index();
+    List<Activity> page = new ArrayList<Activity>(PAGE_SIZE);
+    int skip = (pageRank - 1) * PAGE_SIZE;
+
+    for (int i = pending.size() - 1; i >= 0 && page.size() < PAGE_SIZE; --i) {
+      if (skip > 0) {
+        --skip;
+      } else {
+        page.add(pending.get(i));
+      }
+    }
+
+    for (int b = blocks.size() - 1; b >= 0 && page.size() < PAGE_SIZE; --b) {
+      Block block = blocks.get(b);
+      if (skip >= block.count) {
+        skip -= block.count;
+        continue;
+      }
+
+      List<Activity> activities = read(block);
+      for (int i = activities.size() - 1 - skip; i >= 0 && page.size() < PAGE_SIZE; --i) {
+        page.add(activities.get(i));
+      }
+      skip = 0;
+    }
+
+    return page;
+  }
+
+  /**
+   * Getter method for the activities completed within a period of time. Only the blocks whose
+   * completion times overlap the period are decompressed.
+   *
+   * @param from, Start of the period in epoch milliseconds, inclusive
+   * @param to, End of the period in epoch milliseconds, exclusive
+   * @return the activities completed in the period, in order of completion
+   */
+  public synchronized List<Activity> completedBetween(long from, long to) {
+
+    index();
+    List<Activity> completed = new ArrayList<Activity>();
+
+    for (Block block : blocks) {
+      if (block.last < from || block.first >= to) {
+        continue;
+      }
+      for (Activity activity : read(block)) {
+        if (activity.getCompleted() >= from && activity.getCompleted() < to) {
+          completed.add(activity);
+        }
+      }
+    }
+
+    for (Activity activity : pending) {
+      if (activity.getCompleted() >= from && activity.getCompleted() < to) {
+        completed.add(activity);
+      }
+    }
+    return completed;
+  }
+
+  /**
+   * Getter method for the completed activities whose description contains some text, ignoring
+   * case
+   *
+   * @param text, The text to be found
+   * @return the matching activities, in order of completion
+   */
+  public synchronized List<Activity> search(String text) {
+
+    index();
+    String lower = text.toLowerCase(Locale.ROOT);
+    List<Activity> found = new ArrayList<Activity>();
+
+    for (Block block : blocks) {
+      for (Activity activity : read(block)) {
+        if (activity.getDescription().toLowerCase(Locale.ROOT).contains(lower)) {
+          found.add(activity);
+        }
+      }
+    }
+
+    for (Activity activity : pending) {
+      if (activity.getDescription().toLowerCase(Locale.ROOT).contains(lower)) {
+        found.add(activity);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Reads the header of every block, the first time the archive is used. A block cut short by a
+   * crash ends the index, and is overwritten by the next block appended.
+   */
+  private void index() {
+
+    if (indexed) {
+      return;
+    }
+    indexed = true;
+
+    if (!file.exists()) {
+      return;
+    }
+
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      long length = in.length();
+      if (length < FILE_HEADER) {
+        return;
+      }
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+        throw new IOException(file + " is not an activity archive");
+      }
+
+      long position = FILE_HEADER;
+      while (position + BLOCK_HEADER <= length) {
+        in.seek(position);
+        Block block = new Block();
+        block.offset = position;
+        block.length = in.readInt();
+        block.count = in.readInt();
+        block.first = in.readLong();
+        block.last = in.readLong();
+
+        if (block.length < 0 || position + BLOCK_HEADER + block.length > length) {
+          break;
+        }
+        blocks.add(block);
+        archived += block.count;
+        position += BLOCK_HEADER + block.length;
+      }
+      end = position;
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Decompresses the activities of a block
+   *
+   * @param block, The block to be read
+   * @return the activities of the block, in order of completion
+   */
+  private List<Activity> read(Block block) {
+
+    if (block == cachedBlock) {
+      return cachedActivities;
+    }
+
+    byte[] deflated = new byte[block.length];
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      in.seek(block.offset + BLOCK_HEADER);
+      in.readFully(deflated);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    List<Activity> activities = new ArrayList<Activity>(block.count);
+    try (DataInputStream in =
+        new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(deflated)))) {
+      for (int i = 0; i < block.count; ++i) {
+        Activity activity = ActivityFile.readRecord(in);
+        activity.setCompleted(in.readLong());
+        activities.add(activity);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    cachedBlock = block;
+    cachedActivities = Collections.unmodifiableList(activities);
+    return cachedActivities;
+  }
+}
@@ -0,0 +1,118 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityEvent.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+/**
+ * The following class records one change made to the activities of a model, as kept by an
+ * EventLog. An event holds a copy of the activity as it was right after the change, so later
+ * changes made to the activity in place don't alter the events already recorded.
+ *
+ * @author Luis J Finol
+ *
+ */
+public final class ActivityEvent {
+
+  /**
+   * The kinds of change
+   */
+  public enum Type {
+    ADDED, // an activity was added
+    EDITED, // an activity was replaced by its edited version
+    MOVED, // an activity was moved by hand to another place of the priority order
+    DELETED, // an activity was deleted
+    COMPLETED, // an activity was completed and taken out of the model
+    CLEARED // every activity was deleted
+  }
+
+  private final Type type;
+  private final long id; // identifier of the activity changed, 0 for CLEARED
+  private final Activity state; // the activity after the change, null if it left the model
+  private final int rank; // place in the priority order an activity was moved to, -1 otherwise
+
+  /**
+   * Creates an event
+   *
+   * @param type, The kind of change
+   * @param activity, The activity changed, null for CLEARED
+   * @param rank, Place in the priority order a MOVED activity was moved to, -1 otherwise
+   */
+  ActivityEvent(Type type, Activity activity, int rank) {
+
+    this.type = type;
+    this.id = activity == null ? 0 : activity.getId();
+    this.state = activity == null || type == Type.DELETED || type == Type.COMPLETED ? null
+        : copy(activity);
+    this.rank = rank;
+  }
+
+  /**
+   * Getter method for the kind of change
+   *
+   * @return the type
+   */
+  public Type getType() {
+
+    return type;
+  }
+
+  /**
+   * Getter method for the identifier of the activity changed
+   *
+   * @return the identifier, 0 for CLEARED
+   */
+  public long getId() {
+
+    return id;
+  }
+
+  /**
+   * Getter method for the place in the priority order a MOVED activity was moved to
+   *
+   * @return number of other activities before it, -1 for other events
+   */
+  public int getRank() {
+
+    return rank;
+  }
+
+  /**
+   * Creates a new copy of the activity as it was right after the change, which can be added to a
+   * model
+   *
+   * @return the copy, null if the activity left the model
+   */
+  public Activity newState() {
+
+    return state == null ? null : copy(state);
+  }
+
+  /**
+   * Copies the fields of an activity that outlive the model it is in
+   *
+   * @param activity, The activity
+   * @return a new activity with the same fields
+   */
+  static Activity copy(Activity activity) {
+
+    Activity copy;
+    if (activity.hasDeadline()) {
+      copy = new Activity(activity.getDescription(), activity.getPriority(), activity.getDate(),
+          activity.getTime(), activity.getZone());
+    } else {
+      copy = new Activity(activity.getDescription(), activity.getPriority());
+    }
+    copy.setId(activity.getId());
+    copy.setCreated(activity.getCreated());
+    copy.setCompleted(activity.getCompleted());
+    copy.setParent(activity.getParent());
+    copy.setDependencies(activity.getDependencies().clone());
+    copy.setPosition(activity.getPosition());
+    return copy;
+  }
+}
@@ -0,0 +1,443 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityFile.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The following class saves activities to a file and loads them back, so they outlive the program.
+ * Activities are kept in a compact binary file, and can also be exported to and imported from a
+ * plain text format with one activity per line and its fields separated by tabs.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ActivityFile {
+
+  private static final int MAGIC = 0x4F504C53; // "OPLS"
+  private static final int FORMAT = 3;
+
+  // files of format 2 have no positions, their activities are ordered by due date within a priority
+  private static final int UNPOSITIONED_FORMAT = 2;
+
+  // files of format 1 have priorities between 1 and 10, which are scaled to the current range
+  private static final int LEGACY_FORMAT = 1;
+  private static final int LEGACY_SCALE = ActivityModel.MAX_PRIORITY / 10;
+
+  // flags of every record indicating which optional fields follow
+  private static final int HAS_DATE = 1;
+  private static final int HAS_TIME = 2;
+  private static final int HAS_ZONE = 4;
+  private static final int HAS_RELATIONS = 8;
+  private static final int HAS_CREATED = 16;
+  private static final int HAS_POSITION = 32;
+
+  private static final String EMPTY = "-"; // text format placeholder for a missing field
+
+  /**
+   * Getter method for the file activities are kept in when no other is given
+   *
+   * @return the activities file in the user's home directory
+   */
+  public static File defaultFile() {
+
+    return new File(new File(System.getProperty("user.home"), ".opti-list"), "activities.dat");
+  }
+
+  /**
+   * Loads the activities saved in a file
+   *
+   * @param file, The file to be read
+   * @return the activities in the file, none if the file doesn't exist
+   * @throws IOException if the file could not be read or is not an activities file
+   */
+  public static List<Activity> load(File file) throws IOException {
+
+    List<Activity> activities = new ArrayList<Activity>();
+    if (!file.exists()) {
+      return activities;
+    }
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+
+      int format = in.readInt() == MAGIC ? in.readInt() : -1;
+      if (format != FORMAT && format != UNPOSITIONED_FORMAT && format != LEGACY_FORMAT) {
+        throw new IOException(file + " is not an activities file");
+      }
+
+      int count = in.readInt();
+      for (int i = 0; i < count; ++i) {
+        Activity activity = readRecord(in);
+        if (format == LEGACY_FORMAT) {
+          activity.setPriority(activity.getPriority() * LEGACY_SCALE);
+        }
+        activities.add(activity);
+      }
+    }
+
+    return activities;
+  }
+
+  /**
+   * Saves activities to a file, replacing its contents. The activities are written to a temporary
+   * file first, so the previous contents are kept if anything goes wrong.
+   *
+   * @param file, The file to be written
+   * @param activities, The activities to be saved
+   * @throws IOException if the file could not be written
+   */
+  public static void save(File file, Collection<Activity> activities) throws IOException {
+
+    File temporary = temporaryFor(file);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary), 1 << 16))) {
+      write(out, activities);
+    }
+    replace(temporary, file);
+  }
+
+  /**
+   * Saves the contents of an activities file already written in memory, replacing the file's
+   * contents the same way save() does
+   *
+   * @param file, The file to be written
+   * @param contents, The contents, as written by write()
+   * @throws IOException if the file could not be written
+   */
+  public static void save(File file, ByteArrayOutputStream contents) throws IOException {
+
+    File temporary = temporaryFor(file);
+    try (FileOutputStream out = new FileOutputStream(temporary)) {
+      contents.writeTo(out);
+    }
+    replace(temporary, file);
+  }
+
+  /**
+   * Writes the contents of an activities file
+   *
+   * @param out, Where the activities are written
+   * @param activities, The activities to be saved
+   * @throws IOException if the activities could not be written
+   */
+  public static void write(DataOutput out, Collection<Activity> activities) throws IOException {
+
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT);
+    out.writeInt(activities.size());
+
+    for (Activity activity : activities) {
+      writeRecord(out, activity);
+    }
+  }
+
+  /**
+   * Getter method for the temporary file a file is written to before replacing it, creating the
+   * directory both are in if needed
+   *
+   * @param file, The file to be written
+   * @return the temporary file next to it
+   * @throws IOException if the directory could not be created
+   */
+  private static File temporaryFor(File file) throws IOException {
+
+    File directory = file.getAbsoluteFile().getParentFile();
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+    return new File(directory, file.getName() + ".tmp");
+  }
+
+  /**
+   * Replaces a file with the temporary file it was written to
+   *
+   * @param temporary, The temporary file
+   * @param file, The file replaced
+   * @throws IOException if the file could not be replaced
+   */
+  private static void replace(File temporary, File file) throws IOException {
+
+    Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Writes activities in the text format, one per line as priority, date, time, zone and
+   * description separated by tabs, with "-" for missing fields
+   *
+   * @param writer, Where the activities are written
+   * @param activities, The activities to be written
+   * @throws IOException if the activities could not be written
+   */
+  public static void exportText(Writer writer, Collection<Activity> activities)
+      throws IOException {
+
+    StringBuilder line = new StringBuilder();
+    for (Activity activity : activities) {
+      line.setLength(0);
+      line.append(activity.getPriority()).append('\t');
+
+      if (activity.hasDeadline()) {
+        line.append(activity.getDate().trim()).append('\t');
+        line.append(activity.hasTime() ? activity.getTime().trim() : EMPTY).append('\t');
+        line.append(activity.getZone() != null ? activity.getZone() : EMPTY).append('\t');
+      } else {
+        line.append(EMPTY).append('\t').append(EMPTY).append('\t').append(EMPTY).append('\t');
+      }
+
+      escape(activity.getDescription(), line);
+      line.append('\n');
+      writer.write(line.toString());
+    }
+    writer.flush();
+  }
+
+  /**
+   * Reads activities written in the text format, skipping empty lines and lines starting with #
+   *
+   * @param reader, Where the activities are read from
+   * @return the activities read
+   * @throws IOException if a line is not in the text format
+   */
+  public static List<Activity> importText(Reader reader) throws IOException {
+
+    List<Activity> activities = new ArrayList<Activity>();
+    BufferedReader lines = new BufferedReader(reader);
+    String line;
+    int number = 0;
+
+    while ((line = lines.readLine()) != null) {
+      ++number;
+      if (line.trim().isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+
+      String[] fields = line.split("\t", 5);
+      if (fields.length != 5) {
+        throw new IOException("Line " + number + ": expected 5 tab separated fields");
+      }
+
+      int priority;
+      try {
+        priority = Integer.parseInt(fields[0].trim());
+      } catch (NumberFormatException e) {
+        throw new IOException("Line " + number + ": priority must be a number");
+      }
+
+      String description = unescape(fields[4]);
+      if (fields[1].equals(EMPTY)) {
+        activities.add(new Activity(description, priority));
+      } else {
+        String time = fields[2].equals(EMPTY) ? null : fields[2];
+        String zone = fields[3].equals(EMPTY) ? null : fields[3];
+        activities.add(new Activity(description, priority, fields[1], time, zone));
+      }
+    }
+
+    return activities;
+  }
+
+  /**
+   * Writes the fields of an activity as one record: identifier, priority, flags telling which
+   * optional fields follow, description, then due date, time and zone if it has them, its parent
+   * and dependencies if it has any, its creation time and its position within its priority
+   *
+   * @param out, Where the record is written
+   * @param activity, The activity to be written
+   * @throws IOException if the record could not be written
+   */
+  public static void writeRecord(DataOutput out, Activity activity) throws IOException {
+
+    long[] dependencies = activity.getDependencies();
+    int flags = 0;
+    if (activity.getParent() != 0 || dependencies.length > 0) {
+      flags |= HAS_RELATIONS;
+    }
+    if (activity.getCreated() != 0) {
+      flags |= HAS_CREATED;
+    }
+    if (activity.getPosition() != 0) {
+      flags |= HAS_POSITION;
+    }
+    if (activity.hasDeadline()) {
+      flags |= HAS_DATE;
+      if (activity.hasTime()) {
+        flags |= HAS_TIME;
+      }
+      if (activity.getZone() != null) {
+        flags |= HAS_ZONE;
+      }
+    }
+
+    out.writeLong(activity.getId());
+    out.writeInt(activity.getPriority());
+    out.writeByte(flags);
+    writeString(out, activity.getDescription());
+
+    if ((flags & HAS_DATE) != 0) {
+      writeString(out, activity.getDate());
+    }
+    if ((flags & HAS_TIME) != 0) {
+      writeString(out, activity.getTime());
+    }
+    if ((flags & HAS_ZONE) != 0) {
+      writeString(out, activity.getZone());
+    }
+    if ((flags & HAS_RELATIONS) != 0) {
+      out.writeLong(activity.getParent());
+      out.writeInt(dependencies.length);
+      for (long dependency : dependencies) {
+        out.writeLong(dependency);
+      }
+    }
+    if ((flags & HAS_CREATED) != 0) {
+      out.writeLong(activity.getCreated());
+    }
+    if ((flags & HAS_POSITION) != 0) {
+      out.writeLong(activity.getPosition());
+    }
+  }
+
+  /**
+   * Reads a record written by writeRecord()
+   *
+   * @param in, Where the record is read from
+   * @return the activity of the record
+   * @throws IOException if the record could not be read
+   */
+  public static Activity readRecord(DataInput in) throws IOException {
+
+    long id = in.readLong();
+    int priority = in.readInt();
+    int flags = in.readByte();
+    String description = readString(in);
+
+    Activity activity;
+    if ((flags & HAS_DATE) != 0) {
+      String date = readString(in);
+      String time = (flags & HAS_TIME) != 0 ? readString(in) : null;
+      String zone = (flags & HAS_ZONE) != 0 ? readString(in) : null;
+      activity = new Activity(description, priority, date, time, zone);
+    } else {
+      activity = new Activity(description, priority);
+    }
+    activity.setId(id);
+
+    if ((flags & HAS_RELATIONS) != 0) {
+      activity.setParent(in.readLong());
+      long[] dependencies = new long[in.readInt()];
+      for (int i = 0; i < dependencies.length; ++i) {
+        dependencies[i] = in.readLong();
+      }
+      activity.setDependencies(dependencies);
+    }
+    if ((flags & HAS_CREATED) != 0) {
+      activity.setCreated(in.readLong());
+    }
+    if ((flags & HAS_POSITION) != 0) {
+      activity.setPosition(in.readLong());
+    }
+    return activity;
+  }
+
+  private static void writeString(DataOutput out, String value) throws IOException {
+
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInput in) throws IOException {
+
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Corrupted activities file");
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Appends a description with its tabs, line breaks and backslashes escaped
+   *
+   * @param text, The description
+   * @param line, Where the escaped description is appended
+   */
+  private static void escape(String text, StringBuilder line) {
+
+    for (int i = 0; i < text.length(); ++i) {
+      char c = text.charAt(i);
+      if (c == '\\') {
+        line.append("\\\\");
+      } else if (c == '\t') {
+        line.append("\\t");
+      } else if (c == '\n') {
+        line.append("\\n");
+      } else if (c == '\r') {
+        line.append("\\r");
+      } else {
+        line.append(c);
+      }
+    }
+  }
+
+  /**
+   * Reverses escape()
+   *
+   * @param text, The escaped description
+   * @return the original description
+   */
+  private static String unescape(String text) {
+
+    if (text.indexOf('\\') < 0) {
+      return text;
+    }
+
+    StringBuilder result = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); ++i) {
+      char c = text.charAt(i);
+      if (c == '\\' && i + 1 < text.length()) {
+        char next = text.charAt(++i);
+        if (next == 't') {
+          result.append('\t');
+        } else if (next == 'n') {
+          result.append('\n');
+        } else if (next == 'r') {
+          result.append('\r');
+        } else {
+          result.append(next);
+        }
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,79 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityListener.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.Collection;
+
+/**
+ * The following interface is implemented by anything that needs to be told when the activities of
+ * an ActivityModel change. Every method does nothing by default so implementations only override
+ * the changes they care about.
+ *
+ * @author Luis J Finol
+ *
+ */
+public interface ActivityListener {
+
+  /**
+   * Called after an activity is added to the model
+   *
+   * @param activity, The added activity
+   */
+  default void activityAdded(Activity activity) {}
+
+  /**
+   * Called after an activity is replaced by its edited version
+   *
+   * @param previous, The activity before the edit, no longer in the model, or the same object as
+   *        updated when the activity was changed in place
+   * @param updated, The activity after the edit, with the same identifier
+   */
+  default void activityEdited(Activity previous, Activity updated) {}
+
+  /**
+   * Called after the dependencies or parent of an activity are changed in place, by default
+   * reported as an edit of the activity into itself
+   *
+   * @param activity, The activity whose relations changed
+   */
+  default void relationsChanged(Activity activity) {
+
+    activityEdited(activity, activity);
+  }
+
+  /**
+   * Called after an activity is deleted from the model
+   *
+   * @param activity, The deleted activity
+   */
+  default void activityDeleted(Activity activity) {}
+
+  /**
+   * Called after an activity is completed and taken out of the model, by default reported as a
+   * deletion
+   *
+   * @param activity, The completed activity, with its completion time set
+   */
+  default void activityCompleted(Activity activity) {
+
+    activityDeleted(activity);
+  }
+
+  /**
+   * Called after all the activities are deleted at once, by default reported as single deletions
+   *
+   * @param deleted, The activities that were in the model
+   */
+  default void activitiesCleared(Collection<Activity> deleted) {
+
+    for (Activity activity : deleted) {
+      activityDeleted(activity);
+    }
+  }
+}
@@ -0,0 +1,787 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityModel.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * The following class holds the activities of the program independently of the GUI. It keeps two
+ * orderings of the same activities, one is a priority index with a bucket for every priority in
+ * use between MIN_PRIORITY and MAX_PRIORITY, and the other is a date index of the activities
+ * ordered by which has a sooner due date.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ActivityModel implements ActivityPager {
+
+  public static final int PAGE_SIZE = 10; // number of activities displayed per page
+
+  public static final int MIN_PRIORITY = 0; // the least priority an activity can have
+  public static final int MAX_PRIORITY = 1000; // the greatest priority an activity can have
+  public static final int DEFAULT_PRIORITY = 100; // priority of activities unless chosen
+
+  // batches smaller than this are inserted one at a time instead of rebuilding both orderings
+  private static final int BULK_THRESHOLD = 64;
+
+  // activities ordered by greater priority, with a bucket only for the priorities in use
+  private PriorityIndex priorityIndex = new PriorityIndex();
+
+  // activities ordered by sooner due date, and the view of them handed out
+  private final DateIndex dateList = new DateIndex();
+  private final List<Activity> dateView = Collections.unmodifiableList(dateList);
+
+  // each element corresponds to the number of days in a certain month, and their position
+  // corresponds to the specific month
+  private final int[] validDate = new int[] {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+  // each element is the total number of days in the year so far at the start of the corresponding
+  // month
+  private final int[] daysSoFar = new int[] {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+
+  private int activityNum = 0; // total number of activities
+
+  // every activity of the model by its identifier
+  private final Map<Long, Activity> byId = new HashMap<Long, Activity>();
+
+  // one copy of every description, shared by the activities holding it
+  private final DescriptionPool descriptions = new DescriptionPool();
+
+  private long sequence = 0; // insertion sequence given to the next activity inserted
+
+  // notified after every change to the activities
+  private List<ActivityListener> listeners = new ArrayList<ActivityListener>();
+
+  /**
+   * Getter method for the activities ordered by priority
+   *
+   * @return the priority index, greater priority first
+   */
+  public PriorityIndex getPriorityIndex() {
+
+    return priorityIndex;
+  }
+
+  /**
+   * Getter method for the descriptions shared by the activities
+   *
+   * @return the pool of descriptions
+   */
+  public DescriptionPool getDescriptionPool() {
+
+    return descriptions;
+  }
+
+  /**
+   * Getter method for the activities ordered by due date
+   *
+   * @return the activities, sooner due date first, which can't be changed
+   */
+  public List<Activity> getDateList() {
+
+    return dateView;
+  }
+
+  /**
+   * Registers a listener to be notified of every change to the activities
+   *
+   * @param listener, The listener to be added
+   */
+  public void addListener(ActivityListener listener) {
+
+    listeners.add(listener);
+  }
+
+  /**
+   * Stops notifying a listener of changes
+   *
+   * @param listener, The listener to be removed
+   */
+  public void removeListener(ActivityListener listener) {
+
+    listeners.remove(listener);
+  }
+
+  /**
+   * Getter method for the total number of activities
+   *
+   * @return number of activities in the model
+   */
+  @Override
+  public int size() {
+
+    return activityNum;
+  }
+
+  /**
+   * Getter method for the activity of the model with an identifier
+   *
+   * @param id, The identifier
+   * @return the activity, null if the model holds none with the identifier
+   */
+  public Activity getActivity(long id) {
+
+    return byId.get(id);
+  }
+
+  /**
+   * Indicates if an activity is in the model, rather than an activity it replaced or one that was
+   * deleted or completed since, which a window may still hold
+   *
+   * @param activity, The activity
+   * @return true if the activity itself is in the model
+   */
+  public boolean contains(Activity activity) {
+
+    return activity != null && byId.get(activity.getId()) == activity;
+  }
+
+  /**
+   * Adds an activity to both the priority and the date list, assigning it an identifier if it
+   * doesn't have one yet
+   *
+   * @param activity, The activity to be added
+   */
+  public void addActivity(Activity activity) {
+
+    if (activity.getId() == 0) {
+      activity.setId(newId());
+    }
+    if (activity.getCreated() == 0) {
+      activity.setCreated(System.currentTimeMillis());
+    }
+
+    insert(activity);
+
+    for (ActivityListener listener : listeners) {
+      listener.activityAdded(activity);
+    }
+  }
+
+  /**
+   * Replaces an activity with its edited version, which keeps the identifier of the original.
+   * Nothing is done if the activity is no longer in the model.
+   *
+   * @param previous, The activity as it currently is in the model
+   * @param updated, The edited activity
+   * @return true if the activity was replaced, false if it was no longer in the model
+   */
+  public boolean editActivity(Activity previous, Activity updated) {
+
+    if (!contains(previous)) {
+      return false;
+    }
+    updated.setId(previous.getId());
+    updated.setCreated(previous.getCreated());
+    updated.setParent(previous.getParent());
+    updated.setDependencies(previous.getDependencies());
+    remove(previous);
+    insert(updated);
+
+    for (ActivityListener listener : listeners) {
+      listener.activityEdited(previous, updated);
+    }
+    return true;
+  }
+
+  /**
+   * Moves an activity to another place of the priority order, as when it is dragged by hand. The
+   * activity takes a priority between those of its new neighbors when there is one, keeping its
+   * own if it already lies between them, and otherwise joins the priority of the activity above
+   * it, right after that activity. The place is kept by the activity's position within its
+   * priority, so it outlives saving, loading and rebuilding the orderings.
+   *
+   * @param activity, The activity being moved
+   * @param rank, Number of other activities to come before it in the priority order
+   * @return true if the activity was moved, false if it was no longer in the model
+   */
+  public boolean moveActivity(Activity activity, int rank) {
+
+    if (!contains(activity)) {
+      return false;
+    }
+    priorityIndex.remove(activity);
+    dateList.remove(activity);
+
+    rank = Math.max(0, Math.min(rank, priorityIndex.size()));
+    Activity above = rank > 0 ? priorityIndex.get(rank - 1) : null;
+    Activity below = rank < priorityIndex.size() ? priorityIndex.get(rank) : null;
+
+    int high = above == null ? MAX_PRIORITY + 1 : above.getPriority();
+    int low = below == null ? MIN_PRIORITY - 1 : below.getPriority();
+
+    if (high - low >= 2) {
+      // no activity has a priority between its neighbors', so it will be alone in its bucket
+      if (activity.getPriority() <= low || activity.getPriority() >= high) {
+        activity.setPriority(low + (high - low) / 2);
+      }
+      priorityIndex.add(activity);
+    } else if (above != null) {
+      activity.setPriority(above.getPriority());
+      priorityIndex.add(activity, priorityIndex.positionOf(above) + 1);
+    } else {
+      activity.setPriority(below.getPriority());
+      priorityIndex.add(activity, 0);
+    }
+    addByDate(activity);
+
+    for (ActivityListener listener : listeners) {
+      listener.activityEdited(activity, activity);
+    }
+    return true;
+  }
+
+  /**
+   * Tells the listeners that the dependencies or parent of an activity were changed in place, which
+   * don't affect either ordering
+   *
+   * @param activity, The activity whose relations changed
+   */
+  public void relationsChanged(Activity activity) {
+
+    for (ActivityListener listener : listeners) {
+      listener.relationsChanged(activity);
+    }
+  }
+
+  /**
+   * Deletes activity from both the date and priority lists. Nothing is done if the activity is no
+   * longer in the model.
+   *
+   * @param activity, The activity being deleted
+   * @return true if the activity was deleted, false if it was no longer in the model
+   */
+  public boolean deleteActivity(Activity activity) {
+
+    if (!contains(activity)) {
+      return false;
+    }
+    remove(activity);
+
+    for (ActivityListener listener : listeners) {
+      listener.activityDeleted(activity);
+    }
+    return true;
+  }
+
+  /**
+   * Marks an activity as completed and takes it out of both the date and priority lists, so
+   * completed work no longer slows down the activities still to be done. Listeners are handed the
+   * completed activity to keep it, in an ActivityArchive for instance.
+   *
+   * @param activity, The activity being completed
+   * @return true if the activity was completed, false if it was no longer in the model
+   */
+  public boolean completeActivity(Activity activity) {
+
+    return completeActivity(activity, System.currentTimeMillis());
+  }
+
+  /**
+   * Marks an activity as completed at a given time, such as when another replica completed it, and
+   * takes it out of both lists the same way
+   *
+   * @param activity, The activity being completed
+   * @param completed, Time the activity was completed in epoch milliseconds
+   * @return true if the activity was completed, false if it was no longer in the model
+   */
+  public boolean completeActivity(Activity activity, long completed) {
+
+    if (!contains(activity)) {
+      return false;
+    }
+    remove(activity);
+    activity.setCompleted(completed);
+
+    for (ActivityListener listener : listeners) {
+      listener.activityCompleted(activity);
+    }
+    return true;
+  }
+
+  /**
+   * Deletes all the activities in the model
+   */
+  public void deleteAll() {
+
+    // the deleted activities are only copied when someone needs to know about them
+    List<Activity> deleted =
+        listeners.isEmpty() ? new ArrayList<Activity>() : new ArrayList<Activity>(dateList);
+
+    priorityIndex.clear();
+    dateList.clear();
+    byId.clear();
+    activityNum = 0;
+    descriptions.clear();
+
+    for (ActivityListener listener : listeners) {
+      listener.activitiesCleared(deleted);
+    }
+  }
+
+  /**
+   * Inserts an activity into both lists without notifying listeners
+   *
+   * @param activity, The activity to be inserted
+   */
+  private void insert(Activity activity) {
+
+    activity.setSequence(sequence++);
+
+    addByPriority(activity);
+    addByDate(activity);
+    byId.put(activity.getId(), activity);
+    ++activityNum;
+    share(activity);
+  }
+
+  /**
+   * Removes an activity from both lists without notifying listeners. The activity must be in the
+   * model, as contains() tells.
+   *
+   * @param activity, The activity to be removed
+   */
+  private void remove(Activity activity) {
+
+    priorityIndex.remove(activity);
+    dateList.remove(activity);
+    byId.remove(activity.getId());
+    --activityNum;
+    descriptions.release(activity.getEncodedDescription());
+  }
+
+  /**
+   * Makes an activity entering the model share its description with the activities holding the
+   * same one
+   *
+   * @param activity, The activity
+   */
+  private void share(Activity activity) {
+
+    activity.setEncodedDescription(descriptions.acquire(activity.getEncodedDescription()));
+  }
+
+  /**
+   * Creates a random identifier, random so that activities created on different machines don't
+   * end up sharing one
+   *
+   * @return a new non zero identifier
+   */
+  private long newId() {
+
+    long id = 0;
+    while (id == 0) {
+      id = ThreadLocalRandom.current().nextLong();
+    }
+    return id;
+  }
+
+  /**
+   * Re-derives both orderings from the activities currently held, using the common fork/join pool.
+   *
+   * @return The activities that no longer pass correctInputEntered() and were dropped
+   */
+  public List<Activity> rebuild() {
+
+    return rebuild(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Re-derives both orderings from the activities currently held. Meant for bulk changes such as
+   * reprioritizing many activities at once, where deleting and re-adding one at a time would cost a
+   * list traversal per activity. Activities are validated and sorted in parallel on the given pool.
+   *
+   * @param pool, The pool the validation and sorting tasks run on
+   * @return The activities that no longer pass correctInputEntered() and were dropped
+   */
+  public List<Activity> rebuild(ForkJoinPool pool) {
+
+    List<Activity> rejected = reorder(dateList.toArray(new Activity[0]), pool);
+
+    for (Activity activity : rejected) {
+      descriptions.release(activity.getEncodedDescription());
+      for (ActivityListener listener : listeners) {
+        listener.activityDeleted(activity);
+      }
+    }
+    return rejected;
+  }
+
+  /**
+   * Adds many activities at once, such as when loading or importing them. Instead of searching
+   * both lists for the place of every activity, the new activities are combined with the current
+   * ones and both orderings are rebuilt in parallel.
+   *
+   * @param added, The activities to be added
+   * @return The added activities that didn't pass correctInputEntered() and were left out
+   */
+  public List<Activity> addAll(Collection<Activity> added) {
+
+    List<Activity> rejected = new ArrayList<Activity>();
+
+    if (added.size() < BULK_THRESHOLD) {
+      for (Activity activity : added) {
+        if (correctInputEntered(activity).equals("Success")) {
+          addActivity(activity);
+        } else {
+          rejected.add(activity);
+        }
+      }
+      return rejected;
+    }
+
+    Activity[] all = new Activity[activityNum + added.size()];
+    int count = 0;
+    for (Activity activity : dateList) {
+      all[count++] = activity;
+    }
+
+    long now = System.currentTimeMillis();
+
+    // identifies the new activities among the rejected ones
+    Map<Activity, Boolean> isNew = new IdentityHashMap<Activity, Boolean>();
+    for (Activity activity : added) {
+      if (activity.getId() == 0) {
+        activity.setId(newId());
+      }
+      if (activity.getCreated() == 0) {
+        activity.setCreated(now);
+      }
+      activity.setSequence(sequence++);
+      all[count++] = activity;
+      isNew.put(activity, Boolean.TRUE);
+    }
+
+    for (Activity activity : reorder(all, ForkJoinPool.commonPool())) {
+      if (isNew.remove(activity) != null) {
+        rejected.add(activity);
+      } else {
+        descriptions.release(activity.getEncodedDescription());
+        for (ActivityListener listener : listeners) {
+          listener.activityDeleted(activity);
+        }
+      }
+    }
+
+    for (Activity activity : added) {
+      if (isNew.containsKey(activity)) {
+        share(activity);
+        for (ActivityListener listener : listeners) {
+          listener.activityAdded(activity);
+        }
+      }
+    }
+    return rejected;
+  }
+
+  /**
+   * Replaces both orderings with the given activities, validated and sorted in parallel, without
+   * notifying listeners
+   *
+   * @param all, Every activity the model is to hold
+   * @param pool, The pool the validation and sorting tasks run on
+   * @return The activities that didn't pass validation and were left out
+   */
+  private List<Activity> reorder(Activity[] all, ForkJoinPool pool) {
+
+    ParallelRebuild.Result result = ParallelRebuild.rebuild(this, all, pool);
+
+    priorityIndex.clear();
+    dateList.clear();
+
+    // the sorted arrays are already in the final order, so both orderings are built in one pass
+    priorityIndex.addAll(result.byPriority);
+    dateList.addAll(result.byDate);
+    byId.clear();
+    for (Activity activity : result.byDate) {
+      byId.put(activity.getId(), activity);
+    }
+
+    activityNum = result.byDate.length;
+    return result.rejected;
+  }
+
+  /**
+   * Collects the activities of a page when ordered by priority, beginning with activities of
+   * greater priority
+   *
+   * @param pageRank, The page, 1 being the first
+   * @return up to PAGE_SIZE activities
+   */
+  @Override
+  public List<Activity> priorityPage(int pageRank) {
+
+    // whole priorities before the page are skipped without being traversed
+    return priorityIndex.range((pageRank - 1) * PAGE_SIZE, PAGE_SIZE);
+  }
+
+  /**
+   * Getter method for a page of the activities accepted by a filter, ordered by priority
+   *
+   * @param pageRank, The page, starting at 1
+   * @param filter, Accepts the activities to be paged through
+   * @return at most PAGE_SIZE accepted activities, greater priority first
+   */
+  public List<Activity> priorityPage(int pageRank, Predicate<Activity> filter) {
+
+    List<Activity> page = new ArrayList<Activity>(PAGE_SIZE);
+    int skip = (pageRank - 1) * PAGE_SIZE; // accepted activities before the page
+
+    for (Activity activity : priorityIndex) {
+      if (!filter.test(activity)) {
+        continue;
+      }
+      if (skip > 0) {
+        --skip;
+      } else {
+        page.add(activity);
+        if (page.size() == PAGE_SIZE) {
+          break;
+        }
+      }
+    }
+    return page;
+  }
+
+
+  /**
+   * Collects the activities of a page when ordered by due date
+   *
+   * @param pageRank, The page, 1 being the first
+   * @return up to PAGE_SIZE activities
+   */
+  @Override
+  public List<Activity> datePage(int pageRank) {
+
+    // the activities before the page are skipped by the counts of the index
+    return dateList.range((pageRank - 1) * PAGE_SIZE, PAGE_SIZE);
+  }
+
+  /**
+   * Collects the activities due within a range of due minutes, in date order
+   *
+   * @param from, The first due minute of the range
+   * @param to, The due minute after the end of the range
+   * @return the activities due from 'from' up to but not including 'to'
+   */
+  public List<Activity> dueBetween(long from, long to) {
+
+    List<Activity> due = new ArrayList<Activity>();
+    for (Activity activity : dateList) {
+      // the list is in ascending order, no later activity can be within the range
+      if (activity.getDueMinute() >= to) {
+        break;
+      }
+      if (activity.getDueMinute() >= from) {
+        due.add(activity);
+      }
+    }
+    return due;
+  }
+
+  /**
+   * Adds a newly created activity to the priority index, in the bucket of the activity's priority.
+   * Activities of the same priority are ordered by their priority key, that is by sooner due date
+   * and then by insertion.
+   *
+   * @param addedActivity, The activity to be added
+   */
+  public void addByPriority(Activity addedActivity) {
+
+    priorityIndex.add(addedActivity);
+  }
+
+  /**
+   * Adds the newly created activity to the date index, inserted after activities with previous due
+   * dates. Activities with the same due minute are ordered by greater priority, and then by
+   * insertion, compared through the date key and the insertion sequence.
+   *
+   * @param addedActivity, The activity to be added
+   */
+  public void addByDate(Activity addedActivity) {
+
+    dateList.add(addedActivity);
+  }
+
+  /**
+   * Calculates the date of an activity as a long value representing the number of days that have
+   * passed
+   *
+   * @param addedActivity, The activity to be added
+   * @return The activity's date represented as the number of days so far accumulated
+   */
+  public long calculateDate(Activity addedActivity) {
+
+    long dateVal = 0;
+    String dateInput = addedActivity.getDate();
+
+    // activities without due date have their date calculated as the most posterior date possible
+    if (!addedActivity.hasDeadline()) {
+      return Long.MAX_VALUE;
+    }
+
+    dateInput = dateInput.trim();
+    String[] numbers = dateInput.split("/");
+
+    // correct date format input has been checked by correctInputEntered() method
+    try {
+      int month = Integer.parseInt(numbers[0]);
+      int day = Integer.parseInt(numbers[1]);
+      int year = Integer.parseInt(numbers[2]);
+
+      dateVal = dayNumber(month, day, year);
+
+    } catch (NumberFormatException e) {
+      e.printStackTrace();
+    }
+
+    return dateVal;
+  }
+
+  /**
+   * Calculates a date as a long value representing the number of days that have passed
+   *
+   * @param month, The month of the date
+   * @param day, The day of the date
+   * @param year, The year of the date
+   * @return The date represented as the number of days so far accumulated
+   */
+  public long dayNumber(int month, int day, int year) {
+
+    long dateVal;
+
+    if (year % 4 == 0) {
+      dateVal = (long) (day + daysSoFar[month - 1] + (year * 365.25));
+      // accounts for the extra day in the leap year
+      if (month > 2) {
+        ++dateVal;
+      }
+
+    } else {
+      int i = year % 4;
+      int j = year - i;
+      dateVal = (long) (day + daysSoFar[month - 1] + (j * 365.25 + i * 365));
+    }
+
+    return dateVal;
+  }
+
+  /**
+   * Checks if user entered activity fields in a correct format
+   *
+   * @param enteredActivity, The activity that is entered by the user
+   * @return String indicating if user used correct format for inputed fields
+   */
+  public String correctInputEntered(Activity enteredActivity) {
+
+    String description = enteredActivity.getDescription();
+    description = description.trim();
+
+    if (description.isEmpty()) {
+      return "Error: No activity description was entered.";
+    }
+
+    if (enteredActivity.getPriority() < MIN_PRIORITY
+        || enteredActivity.getPriority() > MAX_PRIORITY) {
+      return "Error: Priority must be between " + MIN_PRIORITY + " and " + MAX_PRIORITY + ".";
+    }
+
+    if (enteredActivity.hasDeadline() == true) {
+
+      String date = enteredActivity.getDate();
+      date = date.trim();
+      String[] numbers = date.split("/");
+
+      // multiple scenarios of bad input checked for, such as
+      if (numbers.length != 3) {
+        return "Error: Improper date format.";
+      }
+
+      int month;
+      int day;
+      int year;
+
+      try {
+        month = Integer.parseInt(numbers[0]);
+        day = Integer.parseInt(numbers[1]);
+        year = Integer.parseInt(numbers[2]);
+
+      } catch (NumberFormatException e) {
+        return "Error: Improper date format, numbers must be entered.";
+      }
+
+      if (!isValidDate(month, day, year)) {
+        return "Error: Improper values for date numbers.";
+      }
+
+      if (enteredActivity.hasTime()) {
+        String[] parts = enteredActivity.getTime().trim().split(":");
+
+        try {
+          if (parts.length != 2 || Integer.parseInt(parts[0]) < 0
+              || Integer.parseInt(parts[0]) > 23 || Integer.parseInt(parts[1]) < 0
+              || Integer.parseInt(parts[1]) > 59) {
+            return "Error: Improper time, format must be hh:mm.";
+          }
+        } catch (NumberFormatException e) {
+          return "Error: Improper time, format must be hh:mm.";
+        }
+      }
+
+      if (enteredActivity.getZone() != null) {
+        try {
+          ZoneId.of(enteredActivity.getZone());
+        } catch (DateTimeException e) {
+          return "Error: Unknown time zone.";
+        }
+      }
+    }
+
+    return "Success";
+  }
+
+  /**
+   * Checks if date entered by the user is valid or not
+   *
+   * @param month, The month the user specified
+   * @param day, The day the user specified
+   * @param year, The year the user specified
+   * @return true if the date is valid, false otherwise
+   */
+  public Boolean isValidDate(int month, int day, int year) {
+
+    if (year > 0) {
+
+      if (month > 12 || month < 1) {
+        return false;
+      }
+      // takes leap year into consideration
+      if (year % 4 == 0 && day == 29 && month == 2) {
+        return true;
+
+      } else {
+        if (day <= validDate[month - 1] && day >= 1) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
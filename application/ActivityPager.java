@@ -0,0 +1,44 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityPager.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.List;
+
+/**
+ * The following interface is implemented by whatever the main scenes read their pages of
+ * activities from, the model itself or a storage backend that pages through its own indexes.
+ *
+ * @author Luis J Finol
+ *
+ */
+public interface ActivityPager {
+
+  /**
+   * Getter method for the number of activities paged through
+   *
+   * @return number of activities
+   */
+  int size();
+
+  /**
+   * Getter method for a page of activities ordered by priority
+   *
+   * @param pageRank, The page, starting at 1
+   * @return up to ActivityModel.PAGE_SIZE activities, greater priority first
+   */
+  List<Activity> priorityPage(int pageRank);
+
+  /**
+   * Getter method for a page of activities ordered by due date
+   *
+   * @param pageRank, The page, starting at 1
+   * @return up to ActivityModel.PAGE_SIZE activities, earlier due date first
+   */
+  List<Activity> datePage(int pageRank);
+}
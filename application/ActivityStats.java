@@ -0,0 +1,362 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityStats.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The following class keeps statistics of the activities of a model up to date as activities are
+ * added, edited, completed and deleted, so they can be read at any time without going through the
+ * activities. Due dates are counted per day and priorities per value in Fenwick trees, which add
+ * up any range of days or priorities in logarithmic time, and due times are counted per minute so
+ * activities due earlier today can be told from those due later.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ActivityStats implements ActivityListener {
+
+  public static final int WEEKS = 8; // weeks whose due activities are shown one by one
+  public static final int PRIORITY_BAND = 100; // priorities whose activities are shown together
+
+  // days counted one by one, about 90 years before and after the day the statistics started,
+  // due dates outside them are only counted as before or after
+  private static final int DAY_WINDOW = 1 << 16;
+
+  /**
+   * What was counted for an activity, so it can be taken back even after the activity changed
+   */
+  private static class Counted {
+
+    int priority;
+    long dueMinute; // SortKey.NO_DEADLINE when the activity has no due date
+    long day; // due day in the statistics' zone
+    long created; // creation time in seconds
+  }
+
+  private final ZoneId zone; // the zone days are counted in
+  private final long firstDay; // epoch day counted at index 0 of byDay
+
+  private final FenwickTree byDay = new FenwickTree(DAY_WINDOW);
+  private int beforeWindow; // activities due before the days of byDay
+  private int afterWindow; // activities due after the days of byDay
+  private final TreeMap<Long, Integer> byMinute = new TreeMap<Long, Integer>(); // due minute counts
+  private final FenwickTree byPriority = new FenwickTree(ActivityModel.MAX_PRIORITY + 1);
+
+  private final Map<Activity, Counted> counted = new IdentityHashMap<Activity, Counted>();
+  private int undated; // activities without due date
+  private long createdSum; // sum of the creation times in seconds
+  private int completed; // activities completed, including those completed before
+  private int deleted; // activities deleted without being completed
+
+  /**
+   * Creates the statistics of a model's activities and keeps them up to date as the model changes
+   *
+   * @param model, The model whose activities are counted
+   * @param completedBefore, Number of activities completed before, such as those in the archive
+   */
+  public ActivityStats(ActivityModel model, int completedBefore) {
+
+    zone = ZoneId.systemDefault();
+    firstDay = LocalDate.now(zone).toEpochDay() - DAY_WINDOW / 2;
+    completed = completedBefore;
+
+    for (Activity activity : model.getDateList()) {
+      count(activity);
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Getter method for the number of activities
+   *
+   * @return number of activities not completed
+   */
+  public int size() {
+
+    return counted.size();
+  }
+
+  /**
+   * Getter method for the number of activities without due date
+   *
+   * @return number of activities without due date
+   */
+  public int undated() {
+
+    return undated;
+  }
+
+  /**
+   * Getter method for the number of activities whose due date and time have passed
+   *
+   * @return number of overdue activities
+   */
+  public int overdue() {
+
+    LocalDate today = LocalDate.now(zone);
+    long now = SortKey.toDueMinute(System.currentTimeMillis() / 60_000);
+
+    // whole days before today are counted by the tree, today's due times by minute
+    int overdue = dueBefore(today);
+    for (int count : byMinute.subMap(SortKey.startOfDay(today, zone), now).values()) {
+      overdue += count;
+    }
+    return overdue;
+  }
+
+  /**
+   * Getter method for the number of activities due within some days
+   *
+   * @param from, First day, inclusive
+   * @param to, Last day, exclusive
+   * @return number of activities due from one day to the other
+   */
+  public int dueBetween(LocalDate from, LocalDate to) {
+
+    return dueBefore(to) - dueBefore(from);
+  }
+
+  /**
+   * Getter method for the number of activities due each week, starting with the current one
+   *
+   * @param weeks, Number of weeks
+   * @return number of activities due in every week, weeks starting on Monday
+   */
+  public int[] dueByWeek(int weeks) {
+
+    LocalDate monday = LocalDate.now(zone).with(DayOfWeek.MONDAY);
+    int[] counts = new int[weeks];
+    for (int i = 0; i < weeks; ++i) {
+      counts[i] = dueBetween(monday.plusWeeks(i), monday.plusWeeks(i + 1));
+    }
+    return counts;
+  }
+
+  /**
+   * Getter method for the number of activities due on or after a day
+   *
+   * @param day, The day
+   * @return number of activities due from that day on
+   */
+  public int dueFrom(LocalDate day) {
+
+    return counted.size() - undated - dueBefore(day);
+  }
+
+  /**
+   * Getter method for the number of activities with priorities in a range
+   *
+   * @param from, Least priority, inclusive
+   * @param to, Greatest priority, inclusive
+   * @return number of activities with a priority from one to the other
+   */
+  public int priorityBetween(int from, int to) {
+
+    from = Math.max(from, ActivityModel.MIN_PRIORITY);
+    to = Math.min(to, ActivityModel.MAX_PRIORITY);
+    return from > to ? 0 : byPriority.range(from, to + 1);
+  }
+
+  /**
+   * Getter method for the number of activities in every band of PRIORITY_BAND priorities, the
+   * greatest priority being counted with the last band
+   *
+   * @return number of activities per band, the lowest priorities first
+   */
+  public int[] priorityBands() {
+
+    int[] counts =
+        new int[(ActivityModel.MAX_PRIORITY - ActivityModel.MIN_PRIORITY) / PRIORITY_BAND];
+    for (int i = 0; i < counts.length; ++i) {
+      int from = ActivityModel.MIN_PRIORITY + i * PRIORITY_BAND;
+      counts[i] = priorityBetween(from,
+          i == counts.length - 1 ? ActivityModel.MAX_PRIORITY : from + PRIORITY_BAND - 1);
+    }
+    return counts;
+  }
+
+  /**
+   * Getter method for the number of completed activities
+   *
+   * @return number of activities completed
+   */
+  public int completed() {
+
+    return completed;
+  }
+
+  /**
+   * Getter method for the share of activities that were completed, out of those completed, those
+   * still to be done and those deleted
+   *
+   * @return completion rate between 0 and 1, 0 if there have been no activities
+   */
+  public double completionRate() {
+
+    int total = completed + counted.size() + deleted;
+    return total == 0 ? 0 : (double) completed / total;
+  }
+
+  /**
+   * Getter method for the average time since the activities were created
+   *
+   * @return average age in milliseconds, 0 if there are no activities
+   */
+  public long averageAge() {
+
+    if (counted.isEmpty()) {
+      return 0;
+    }
+    long now = System.currentTimeMillis() / 1000;
+    return (now - createdSum / counted.size()) * 1000;
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    count(activity);
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    uncount(previous);
+    count(updated);
+  }
+
+  @Override
+  public void activityCompleted(Activity activity) {
+
+    if (uncount(activity)) {
+      ++completed;
+    }
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    if (uncount(activity)) {
+      ++deleted;
+    }
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> cleared) {
+
+    deleted += counted.size();
+    counted.clear();
+    byDay.clear();
+    byMinute.clear();
+    byPriority.clear();
+    beforeWindow = 0;
+    afterWindow = 0;
+    undated = 0;
+    createdSum = 0;
+  }
+
+  /**
+   * Counts the activities due before a day
+   *
+   * @param day, The day
+   * @return number of activities due before the day
+   */
+  private int dueBefore(LocalDate day) {
+
+    long index = day.toEpochDay() - firstDay;
+    if (index <= 0) {
+      return beforeWindow;
+    }
+    if (index >= DAY_WINDOW) {
+      return beforeWindow + byDay.prefix(DAY_WINDOW) + afterWindow;
+    }
+    return beforeWindow + byDay.prefix((int) index);
+  }
+
+  /**
+   * Adds an activity to the statistics
+   *
+   * @param activity, The activity
+   */
+  private void count(Activity activity) {
+
+    Counted values = new Counted();
+    values.priority = activity.getPriority();
+    values.dueMinute = activity.getDueMinute();
+    values.created = activity.getCreated() / 1000;
+
+    if (values.dueMinute == SortKey.NO_DEADLINE) {
+      ++undated;
+    } else {
+      values.day = Instant.ofEpochSecond(SortKey.toEpochMinute(values.dueMinute) * 60)
+          .atZone(zone).toLocalDate().toEpochDay();
+      countDue(values, 1);
+    }
+
+    byPriority.add(values.priority, 1);
+    createdSum += values.created;
+    counted.put(activity, values);
+  }
+
+  /**
+   * Takes back what was counted for an activity
+   *
+   * @param activity, The activity
+   * @return true if the activity was counted
+   */
+  private boolean uncount(Activity activity) {
+
+    Counted values = counted.remove(activity);
+    if (values == null) {
+      return false;
+    }
+
+    if (values.dueMinute == SortKey.NO_DEADLINE) {
+      --undated;
+    } else {
+      countDue(values, -1);
+    }
+
+    byPriority.add(values.priority, -1);
+    createdSum -= values.created;
+    return true;
+  }
+
+  /**
+   * Changes the count of a due day and minute
+   *
+   * @param values, What is counted for the activity
+   * @param delta, 1 to count it, -1 to take it back
+   */
+  private void countDue(Counted values, int delta) {
+
+    long index = values.day - firstDay;
+    if (index < 0) {
+      beforeWindow += delta;
+    } else if (index >= DAY_WINDOW) {
+      afterWindow += delta;
+    } else {
+      byDay.add((int) index, delta);
+    }
+
+    int count = byMinute.getOrDefault(values.dueMinute, 0) + delta;
+    if (count == 0) {
+      byMinute.remove(values.dueMinute);
+    } else {
+      byMinute.put(values.dueMinute, count);
+    }
+  }
+}
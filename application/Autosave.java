@@ -0,0 +1,216 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: Autosave.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The following class saves the activities of a model some time after they change, so they are
+ * not lost if the program ends unexpectedly, without writing the file on every change. The first
+ * change starts a window of time, and every change made within it is saved with a single write
+ * once it ends.
+ *
+ * The file is written on a background thread so the GUI never waits on the disk. When the window
+ * ends the activities are written into a buffer in memory on the thread the model is used from,
+ * which is all that thread waits for, and the buffer is handed to the background thread to be
+ * written to the file. There are two buffers, so the next changes can be written into one while
+ * the other is still being written to the file.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class Autosave implements ActivityListener, Closeable {
+
+  public static final long DEFAULT_WINDOW = 2000; // milliseconds changes are gathered for
+
+  private final ActivityModel model;
+  private final File file;
+  private final long window;
+  private final Executor modelThread; // runs tasks on the thread the model is used from
+  private final Flushable[] flushedFirst; // written before the file, such as the archive
+
+  private final ScheduledThreadPoolExecutor writer = new ScheduledThreadPoolExecutor(1, task -> {
+    Thread thread = new Thread(task, "autosave");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  // buffers not being written to the file
+  private final BlockingQueue<ByteArrayOutputStream> free =
+      new ArrayBlockingQueue<ByteArrayOutputStream>(2);
+
+  // only used from the model's thread
+  private boolean pending = false; // indicates if there are changes not written into a buffer
+  private boolean closed = false;
+
+  private volatile boolean failed = false; // indicates if the last write to the file failed
+
+  /**
+   * Starts saving the activities of a model as they change
+   *
+   * @param model, The model whose activities are saved
+   * @param file, The file they are saved to
+   * @param window, Milliseconds changes are gathered for before they are saved
+   * @param modelThread, Runs tasks on the thread the model is used from, such as
+   *        Platform::runLater
+   * @param flushedFirst, What is written before the file, such as the archive of completed
+   *        activities that must be saved before they leave the file
+   */
+  public Autosave(ActivityModel model, File file, long window, Executor modelThread,
+      Flushable... flushedFirst) {
+
+    this.model = model;
+    this.file = file;
+    this.window = window;
+    this.modelThread = modelThread;
+    this.flushedFirst = flushedFirst;
+
+    free.add(new ByteArrayOutputStream(1 << 16));
+    free.add(new ByteArrayOutputStream(1 << 16));
+    writer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    model.addListener(this);
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    changed();
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    changed();
+  }
+
+  @Override
+  public void relationsChanged(Activity activity) {
+
+    changed();
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    changed();
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> cleared) {
+
+    changed();
+  }
+
+  /**
+   * Stops saving in the background and saves the changes not saved yet, waiting for the file to be
+   * written. Meant to be called when the program is closed, from the model's thread.
+   *
+   * @throws IOException if the activities could not be saved
+   */
+  @Override
+  public void close() throws IOException {
+
+    closed = true;
+    writer.shutdown();
+    try {
+      // a buffer being written is finished before the last changes replace it
+      writer.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (pending || failed) {
+      pending = false;
+      for (Flushable flushable : flushedFirst) {
+        flushable.flush();
+      }
+      ActivityFile.save(file, model.getDateList());
+    }
+  }
+
+  /**
+   * Starts a window of time at the first change since the activities were last written
+   */
+  private void changed() {
+
+    if (!pending && !closed) {
+      pending = true;
+      schedule();
+    }
+  }
+
+  /**
+   * Writes the activities into a buffer once the window ends
+   */
+  private void schedule() {
+
+    writer.schedule(() -> modelThread.execute(this::snapshot), window, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Writes the activities into a free buffer and hands it to the background thread, on the model's
+   * thread. If both buffers are still waiting to be written, the changes wait for another window.
+   */
+  private void snapshot() {
+
+    if (closed) {
+      return;
+    }
+    ByteArrayOutputStream buffer = free.poll();
+    if (buffer == null) {
+      schedule();
+      return;
+    }
+
+    buffer.reset();
+    try {
+      ActivityFile.write(new DataOutputStream(buffer), model.getDateList());
+    } catch (IOException e) {
+      // not thrown by a buffer in memory
+      free.add(buffer);
+      throw new IllegalStateException(e);
+    }
+    pending = false;
+    writer.execute(() -> write(buffer));
+  }
+
+  /**
+   * Writes a buffer to the file, on the background thread. If it can't be written, the changes are
+   * saved again after another window.
+   *
+   * @param buffer, The buffer holding the activities
+   */
+  private void write(ByteArrayOutputStream buffer) {
+
+    try {
+      for (Flushable flushable : flushedFirst) {
+        flushable.flush();
+      }
+      ActivityFile.save(file, buffer);
+      failed = false;
+    } catch (IOException e) {
+      failed = true;
+      e.printStackTrace();
+      modelThread.execute(this::changed);
+    } finally {
+      free.add(buffer);
+    }
+  }
+}
@@ -0,0 +1,292 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: CalendarIndex.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The following class files the activities of a model by the day they are due, as numbered by
+ * ActivityModel.calculateDate(), so a calendar can show a month by looking up each of its days
+ * instead of going through the activities. The activities of a day are kept in an array ordered by
+ * priority, greater first, so the top ones are the first of the array.
+ *
+ * The arrays are copied on write: a change replaces the array of its day instead of changing it.
+ * Months can then be prepared on a background thread while the model changes, and a month
+ * prepared earlier is still up to date as long as the arrays of its days are the same.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class CalendarIndex implements ActivityListener {
+
+  public static final int TOP = 3; // activities shown for every day of a month
+
+  private static final Activity[] NONE = new Activity[0];
+
+  // greater priority first, then the sooner due
+  private static final Comparator<Activity> ORDER =
+      Comparator.comparingInt(Activity::getPriority).reversed()
+          .thenComparingLong(Activity::getDueMinute);
+
+  /**
+   * The activities of the days of a month, as they were when the month was prepared
+   */
+  public static class Month {
+
+    private final YearMonth month;
+    private final Activity[][] days; // activities of every day, the first day at 0
+
+    private Month(YearMonth month, Activity[][] days) {
+
+      this.month = month;
+      this.days = days;
+    }
+
+    /**
+     * Getter method for the month
+     *
+     * @return the month
+     */
+    public YearMonth getMonth() {
+
+      return month;
+    }
+
+    /**
+     * Getter method for the number of activities due on a day
+     *
+     * @param day, Day of the month, starting at 1
+     * @return number of activities due that day
+     */
+    public int count(int day) {
+
+      return days[day - 1].length;
+    }
+
+    /**
+     * Getter method for the activities of a day with the greatest priority
+     *
+     * @param day, Day of the month, starting at 1
+     * @return up to TOP activities, greater priority first
+     */
+    public Activity[] top(int day) {
+
+      Activity[] activities = days[day - 1];
+      return Arrays.copyOf(activities, Math.min(TOP, activities.length));
+    }
+  }
+
+  private final ActivityModel model;
+
+  // activities due every day, by day number, replaced rather than changed
+  private final Map<Long, Activity[]> days = new ConcurrentHashMap<Long, Activity[]>();
+
+  // day every activity was filed under, even if its date changed since
+  private final Map<Activity, Long> filed = new IdentityHashMap<Activity, Long>();
+
+  // months prepared in the background
+  private final Map<YearMonth, CompletableFuture<Month>> preloaded =
+      new ConcurrentHashMap<YearMonth, CompletableFuture<Month>>();
+
+  private final ExecutorService preloader = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "calendar");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Files the activities of a model and keeps them filed as the model changes
+   *
+   * @param model, The model
+   */
+  public CalendarIndex(ActivityModel model) {
+
+    this.model = model;
+    for (Activity activity : model.getDateList()) {
+      file(activity);
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Getter method for the activities due on a day
+   *
+   * @param date, The day
+   * @return the activities due that day, greater priority first, which must not be changed
+   */
+  public Activity[] day(LocalDate date) {
+
+    return days.getOrDefault(dayNumber(date), NONE);
+  }
+
+  /**
+   * Prepares a month, using the month prepared in the background if it is still up to date
+   *
+   * @param month, The month
+   * @return the activities of every day of the month
+   */
+  public Month month(YearMonth month) {
+
+    CompletableFuture<Month> future = preloaded.remove(month);
+    if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+      Month prepared = future.join();
+      if (isCurrent(prepared)) {
+        return prepared;
+      }
+    }
+    return prepare(month);
+  }
+
+  /**
+   * Starts preparing a month in the background, such as one next to the month shown
+   *
+   * @param month, The month
+   */
+  public void preload(YearMonth month) {
+
+    // the months kept are those next to the last one shown
+    preloaded.keySet().removeIf(kept -> Math.abs(kept.getYear() * 12L + kept.getMonthValue()
+        - month.getYear() * 12L - month.getMonthValue()) > 2);
+
+    preloaded.computeIfAbsent(month,
+        key -> CompletableFuture.supplyAsync(() -> prepare(key), preloader));
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    file(activity);
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    unfile(previous);
+    file(updated);
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    unfile(activity);
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> cleared) {
+
+    filed.clear();
+    days.clear();
+  }
+
+  /**
+   * Prepares a month by looking up each of its days
+   *
+   * @param month, The month
+   * @return the activities of every day of the month
+   */
+  private Month prepare(YearMonth month) {
+
+    Activity[][] activities = new Activity[month.lengthOfMonth()][];
+    for (int day = 1; day <= activities.length; ++day) {
+      activities[day - 1] = day(month.atDay(day));
+    }
+    return new Month(month, activities);
+  }
+
+  /**
+   * Indicates if the activities of every day of a prepared month are still the same
+   *
+   * @param month, The prepared month
+   * @return true if none of its days changed since
+   */
+  private boolean isCurrent(Month month) {
+
+    for (int day = 1; day <= month.days.length; ++day) {
+      if (day(month.month.atDay(day)) != month.days[day - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Getter method for the number ActivityModel.calculateDate() gives a day
+   *
+   * @param date, The day
+   * @return the day number
+   */
+  private long dayNumber(LocalDate date) {
+
+    return model.dayNumber(date.getMonthValue(), date.getDayOfMonth(), date.getYear());
+  }
+
+  /**
+   * Files an activity under the day it is due, if it has a due date
+   *
+   * @param activity, The activity
+   */
+  private void file(Activity activity) {
+
+    long day = model.calculateDate(activity);
+    if (day == Long.MAX_VALUE) {
+      return;
+    }
+
+    Activity[] activities = days.getOrDefault(day, NONE);
+    int position = Arrays.binarySearch(activities, activity, ORDER);
+    position = position < 0 ? -position - 1 : position;
+
+    Activity[] copy = new Activity[activities.length + 1];
+    System.arraycopy(activities, 0, copy, 0, position);
+    copy[position] = activity;
+    System.arraycopy(activities, position, copy, position + 1, activities.length - position);
+
+    days.put(day, copy);
+    filed.put(activity, day);
+  }
+
+  /**
+   * Takes an activity out of the day it was filed under
+   *
+   * @param activity, The activity
+   */
+  private void unfile(Activity activity) {
+
+    Long day = filed.remove(activity);
+    if (day == null) {
+      return;
+    }
+
+    // the activity may have changed since it was filed, so it is found by identity
+    Activity[] activities = days.get(day);
+    int position = 0;
+    while (activities[position] != activity) {
+      ++position;
+    }
+
+    if (activities.length == 1) {
+      days.remove(day);
+      return;
+    }
+    Activity[] copy = new Activity[activities.length - 1];
+    System.arraycopy(activities, 0, copy, 0, position);
+    System.arraycopy(activities, position + 1, copy, position, copy.length - position);
+    days.put(day, copy);
+  }
+}
@@ -0,0 +1,559 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: Cli.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The following class lets the activities be managed from the command line, without the GUI, for
+ * scripts and batch operations. It works on the same model and the same activities file as the
+ * GUI.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class Cli {
+
+  private static final String USAGE = String.join("\n",
+      "usage: opti-list [--data <file>] [--store <jdbc url>] <command>",
+      "  add <description> [--priority 0-1000] [--date mm/dd/yyyy] [--time hh:mm] [--zone <zone>]",
+      "  list [--order priority|date] [--page <n>] [--ready]",
+      "  due-today",
+      "  complete <id>         moves an activity to the history",
+      "  history [--page <n>]  lists completed activities, most recent first",
+      "  depend <id> <id>      makes the first activity wait on the second",
+      "  subtask <id> <id>     makes the first activity a subtask of the second",
+      "  import <file|->       adds activities in the text format",
+      "  export <file|->       writes activities in the text format",
+      "  import-ics <file|->   adds the VTODO entries of an iCalendar file",
+      "  export-ics <file|->   writes activities with a due date as iCalendar VTODO entries",
+      "  stats                 counts by due week and priority, overdue, completion rate",
+      "  check                 checks that the priority and date orders agree");
+
+  private final ActivityModel model = new ActivityModel();
+  private final PrintStream out;
+  private File dataFile = ActivityFile.defaultFile();
+  private String storeUrl; // JDBC URL of the database used instead of the activities file
+  private SqlActivityStore store;
+  private ActivityArchive archive;
+  private DependencyGraph graph;
+
+  /**
+   * Creates a command line interface writing to the given stream
+   *
+   * @param out, The stream results are written to
+   */
+  Cli(PrintStream out) {
+
+    this.out = out;
+  }
+
+  /**
+   * Runs a single command
+   *
+   * @param args, The command and its options
+   */
+  public static void main(String[] args) {
+
+    try {
+      System.exit(new Cli(System.out).run(args));
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Runs a command against the activities file
+   *
+   * @param args, The command and its options
+   * @return the exit status, 0 on success
+   * @throws IOException if the activities file could not be read or written
+   */
+  int run(String[] args) throws IOException {
+
+    List<String> arguments = new ArrayList<String>();
+    for (int i = 0; i < args.length; ++i) {
+      if (args[i].equals("--data") && i + 1 < args.length) {
+        dataFile = new File(args[++i]);
+      } else if (args[i].equals("--store") && i + 1 < args.length) {
+        storeUrl = args[++i];
+      } else {
+        arguments.add(args[i]);
+      }
+    }
+
+    if (arguments.isEmpty()) {
+      System.err.println(USAGE);
+      return 2;
+    }
+
+    if (storeUrl != null) {
+      store = new SqlActivityStore(storeUrl, model);
+    } else {
+      model.addAll(ActivityFile.load(dataFile));
+    }
+    archive = new ActivityArchive(ActivityArchive.fileFor(dataFile));
+    model.addListener(archive);
+    graph = new DependencyGraph(model);
+    String command = arguments.remove(0);
+
+    try {
+      switch (command) {
+        case "add":
+          return add(arguments);
+        case "list":
+          return list(arguments);
+        case "due-today":
+          return dueToday();
+        case "complete":
+          return complete(arguments);
+        case "history":
+          return history(arguments);
+        case "depend":
+        case "subtask":
+          return relate(command, arguments);
+        case "import":
+        case "import-ics":
+          return importActivities(arguments, command.equals("import-ics"));
+        case "export":
+        case "export-ics":
+          return exportActivities(arguments, command.equals("export-ics"));
+        case "stats":
+          return stats();
+        case "check":
+          return check();
+        default:
+          System.err.println(USAGE);
+          return 2;
+      }
+    } finally {
+      if (store != null) {
+        store.close();
+      }
+    }
+  }
+
+  /**
+   * Adds an activity
+   *
+   * @param arguments, The description followed by options
+   * @return the exit status
+   * @throws IOException if the activities could not be saved
+   */
+  private int add(List<String> arguments) throws IOException {
+
+    String description = null;
+    int priority = ActivityModel.DEFAULT_PRIORITY;
+    String date = null;
+    String time = null;
+    String zone = null;
+
+    for (int i = 0; i < arguments.size(); ++i) {
+      String argument = arguments.get(i);
+      if (argument.equals("--priority")) {
+        priority = Integer.parseInt(value(arguments, ++i, argument));
+      } else if (argument.equals("--date")) {
+        date = value(arguments, ++i, argument);
+      } else if (argument.equals("--time")) {
+        time = value(arguments, ++i, argument);
+      } else if (argument.equals("--zone")) {
+        zone = value(arguments, ++i, argument);
+      } else if (description == null) {
+        description = argument;
+      } else {
+        throw new IllegalArgumentException("Unexpected argument " + argument);
+      }
+    }
+
+    if (description == null) {
+      throw new IllegalArgumentException("No activity description was entered.");
+    }
+    if (date == null && (time != null || zone != null)) {
+      throw new IllegalArgumentException("A due time or zone needs a due date.");
+    }
+
+    Activity activity = date == null ? new Activity(description, priority)
+        : new Activity(description, priority, date, time, zone);
+
+    String result = model.correctInputEntered(activity);
+    if (!result.equals("Success")) {
+      System.err.println(result);
+      return 1;
+    }
+
+    model.addActivity(activity);
+    save();
+    out.println(Long.toHexString(activity.getId()));
+    return 0;
+  }
+
+  /**
+   * Prints a page of activities
+   *
+   * @param arguments, The order and page options
+   * @return the exit status
+   */
+  private int list(List<String> arguments) {
+
+    boolean byPriority = true;
+    boolean readyOnly = false;
+    int page = 1;
+
+    for (int i = 0; i < arguments.size(); ++i) {
+      String argument = arguments.get(i);
+      if (argument.equals("--order")) {
+        String order = value(arguments, ++i, argument);
+        if (!order.equals("priority") && !order.equals("date")) {
+          throw new IllegalArgumentException("Order must be priority or date.");
+        }
+        byPriority = order.equals("priority");
+      } else if (argument.equals("--page")) {
+        page = Integer.parseInt(value(arguments, ++i, argument));
+        if (page < 1) {
+          throw new IllegalArgumentException("Pages start at 1.");
+        }
+      } else if (argument.equals("--ready")) {
+        readyOnly = true;
+      } else {
+        throw new IllegalArgumentException("Unexpected argument " + argument);
+      }
+    }
+
+    if (readyOnly && !byPriority) {
+      throw new IllegalArgumentException("Only the priority order can be limited to ready ones.");
+    }
+
+    List<Activity> activities;
+    if (readyOnly) {
+      activities = model.priorityPage(page, graph::isReady);
+    } else {
+      activities = byPriority ? model.priorityPage(page) : model.datePage(page);
+    }
+    for (Activity activity : activities) {
+      print(activity);
+    }
+
+    int total = readyOnly ? graph.readyCount() : model.size();
+    int pages = (total + ActivityModel.PAGE_SIZE - 1) / ActivityModel.PAGE_SIZE;
+    out.println("-- page " + page + " of " + Math.max(1, pages) + " --");
+    return 0;
+  }
+
+  /**
+   * Prints the activities due today
+   *
+   * @return the exit status
+   */
+  private int dueToday() {
+
+    LocalDate today = LocalDate.now();
+    ZoneId zone = ZoneId.systemDefault();
+
+    for (Activity activity : model.dueBetween(SortKey.startOfDay(today, zone),
+        SortKey.startOfDay(today.plusDays(1), zone))) {
+      print(activity);
+    }
+    return 0;
+  }
+
+  /**
+   * Marks an activity as completed, moving it from the activities file to the archive
+   *
+   * @param arguments, The identifier of the activity, as printed by add
+   * @return the exit status
+   * @throws IOException if the activities could not be saved
+   */
+  private int complete(List<String> arguments) throws IOException {
+
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException("Expected the identifier of the activity.");
+    }
+
+    model.completeActivity(find(arguments.get(0)));
+    save();
+    return 0;
+  }
+
+  /**
+   * Makes an activity depend on another, or a subtask of another
+   *
+   * @param command, "depend" or "subtask"
+   * @param arguments, The identifiers of both activities
+   * @return the exit status
+   * @throws IOException if the activities could not be saved
+   */
+  private int relate(String command, List<String> arguments) throws IOException {
+
+    if (arguments.size() != 2) {
+      throw new IllegalArgumentException("Expected the identifiers of two activities.");
+    }
+
+    Activity activity = find(arguments.get(0));
+    Activity other = find(arguments.get(1));
+    if (command.equals("depend")) {
+      graph.addDependency(activity, other);
+    } else {
+      graph.setParent(activity, other);
+    }
+    save();
+    return 0;
+  }
+
+  /**
+   * Finds an activity by its identifier
+   *
+   * @param id, The identifier as printed by add
+   * @return the activity
+   * @throws IllegalArgumentException if no activity has the identifier
+   */
+  private Activity find(String id) {
+
+    long value = Long.parseUnsignedLong(id, 16);
+    for (Activity activity : model.getDateList()) {
+      if (activity.getId() == value) {
+        return activity;
+      }
+    }
+    throw new IllegalArgumentException("No activity with identifier " + id);
+  }
+
+  /**
+   * Prints a page of completed activities, the most recently completed first
+   *
+   * @param arguments, The page option
+   * @return the exit status
+   */
+  private int history(List<String> arguments) {
+
+    int page = 1;
+    if (arguments.size() == 2 && arguments.get(0).equals("--page")) {
+      page = Integer.parseInt(arguments.get(1));
+    } else if (!arguments.isEmpty()) {
+      throw new IllegalArgumentException("Unexpected argument " + arguments.get(0));
+    }
+    if (page < 1) {
+      throw new IllegalArgumentException("Pages start at 1.");
+    }
+
+    SimpleDateFormat format = new SimpleDateFormat("MM/dd/yyyy HH:mm");
+    for (Activity activity : archive.page(page)) {
+      out.print(format.format(new Date(activity.getCompleted())) + "  ");
+      print(activity);
+    }
+
+    int pages = (archive.size() + ActivityArchive.PAGE_SIZE - 1) / ActivityArchive.PAGE_SIZE;
+    out.println("-- page " + page + " of " + Math.max(1, pages) + " --");
+    return 0;
+  }
+
+  /**
+   * Adds the activities of a text or iCalendar file, or of the standard input for "-"
+   *
+   * @param arguments, The file to be imported
+   * @param ics, Indicates if the file is an iCalendar file
+   * @return the exit status
+   * @throws IOException if the file could not be read or the activities saved
+   */
+  private int importActivities(List<String> arguments, boolean ics) throws IOException {
+
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException("Expected the file to be imported.");
+    }
+
+    List<Activity> activities;
+    String source = arguments.get(0);
+    if (source.equals("-")) {
+      Reader reader = new InputStreamReader(System.in, StandardCharsets.UTF_8);
+      activities = ics ? IcsFile.importIcs(reader) : ActivityFile.importText(reader);
+    } else {
+      try (Reader reader =
+          new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8)) {
+        activities = ics ? IcsFile.importIcs(reader) : ActivityFile.importText(reader);
+      }
+    }
+
+    List<Activity> rejected = model.addAll(activities);
+    save();
+
+    for (Activity activity : rejected) {
+      System.err.println("Skipped " + activity.getDescription() + ": "
+          + model.correctInputEntered(activity));
+    }
+    out.println("Imported " + (activities.size() - rejected.size()) + " activities.");
+    return rejected.isEmpty() ? 0 : 1;
+  }
+
+  /**
+   * Writes every activity, in date order, to a text file or to the standard output for "-". An
+   * iCalendar file only holds the activities with a due date.
+   *
+   * @param arguments, The file to be written
+   * @param ics, Indicates if the file is an iCalendar file
+   * @return the exit status
+   * @throws IOException if the file could not be written
+   */
+  private int exportActivities(List<String> arguments, boolean ics) throws IOException {
+
+    if (arguments.size() != 1) {
+      throw new IllegalArgumentException("Expected the file to be exported to.");
+    }
+
+    String target = arguments.get(0);
+    if (target.equals("-")) {
+      export(new OutputStreamWriter(out, StandardCharsets.UTF_8), ics);
+    } else {
+      try (Writer writer = new BufferedWriter(
+          new OutputStreamWriter(new FileOutputStream(target), StandardCharsets.UTF_8))) {
+        export(writer, ics);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Writes every activity in date order, those with a due date only for an iCalendar file
+   *
+   * @param writer, Where the activities are written
+   * @param ics, Indicates if they are written as iCalendar
+   * @throws IOException if the activities could not be written
+   */
+  private void export(Writer writer, boolean ics) throws IOException {
+
+    if (ics) {
+      IcsFile.exportIcs(writer, model.getDateList());
+    } else {
+      ActivityFile.exportText(writer, model.getDateList());
+    }
+  }
+
+  /**
+   * Checks that both orderings of the activities loaded hold the same activities, each once, in
+   * the order of their sort keys. The command keeps no event log, so comparing the orderings with
+   * replayed events is left to the replay benchmark, whose log follows the model as it changes.
+   *
+   * @return the exit status, 1 if a problem was found
+   */
+  private int check() {
+
+    List<String> problems = ConsistencyChecker.check(model);
+
+    for (String problem : problems) {
+      out.println(problem);
+    }
+    out.println(problems.isEmpty() ? "Consistent: " + model.size() + " activities."
+        : "Found " + problems.size() + " problems.");
+    return problems.isEmpty() ? 0 : 1;
+  }
+
+  /**
+   * Prints a summary of the activities
+   *
+   * @return the exit status
+   */
+  private int stats() {
+
+    ActivityStats stats = new ActivityStats(model, archive.size());
+    LocalDate today = LocalDate.now();
+
+    out.println("activities: " + stats.size());
+    out.println("ready: " + graph.readyCount());
+    out.println("overdue: " + stats.overdue());
+    out.println("due today: " + stats.dueBetween(today, today.plusDays(1)));
+    int[] weeks = stats.dueByWeek(ActivityStats.WEEKS);
+    for (int i = 0; i < weeks.length; ++i) {
+      out.println("due week " + (i + 1) + ": " + weeks[i]);
+    }
+    LocalDate later = today.with(DayOfWeek.MONDAY).plusWeeks(ActivityStats.WEEKS);
+    out.println("due later: " + stats.dueFrom(later));
+    out.println("no due date: " + stats.undated());
+    int[] bands = stats.priorityBands();
+    for (int i = bands.length - 1; i >= 0; --i) {
+      int from = ActivityModel.MIN_PRIORITY + i * ActivityStats.PRIORITY_BAND;
+      int to = i == bands.length - 1 ? ActivityModel.MAX_PRIORITY
+          : from + ActivityStats.PRIORITY_BAND - 1;
+      out.println("priority " + from + "-" + to + ": " + bands[i]);
+    }
+    out.println("completed: " + stats.completed());
+    out.printf("completion rate: %.1f%%%n", stats.completionRate() * 100);
+    out.printf("average age: %.1f days%n", stats.averageAge() / 86_400_000.0);
+    return 0;
+  }
+
+  /**
+   * Prints an activity as its priority, due date and description
+   *
+   * @param activity, The activity to be printed
+   */
+  private void print(Activity activity) {
+
+    String due = "no due date";
+    if (activity.hasDeadline()) {
+      due = activity.getDate().trim();
+      if (activity.hasTime()) {
+        due = due + " " + activity.getTime().trim();
+      }
+      if (activity.getZone() != null) {
+        due = due + " " + activity.getZone();
+      }
+    }
+    String blocked = activity.getCompleted() == 0 && !graph.isReady(activity) ? " (blocked)" : "";
+    out.printf("%4d  %-28s %s%s%n", activity.getPriority(), due, activity.getDescription(),
+        blocked);
+  }
+
+  /**
+   * Saves the activities back to the activities file, and the completed ones to the archive
+   *
+   * @throws IOException if the file could not be written
+   */
+  private void save() throws IOException {
+
+    // completed activities are archived before they disappear from the activities file
+    archive.flush();
+    if (store != null) {
+      store.flush();
+    } else {
+      ActivityFile.save(dataFile, model.getDateList());
+    }
+  }
+
+  /**
+   * Getter for the value following an option
+   *
+   * @param arguments, The arguments
+   * @param index, Index of the value
+   * @param option, The option the value belongs to
+   * @return the value
+   */
+  private static String value(List<String> arguments, int index, String option) {
+
+    if (index >= arguments.size()) {
+      throw new IllegalArgumentException("Missing value for " + option);
+    }
+    return arguments.get(index);
+  }
+}
@@ -0,0 +1,197 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ConsistencyChecker.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The following class checks that the orderings of a model agree with each other, and with the
+ * views an EventProjection derives from the events recorded from the model, so the priority order,
+ * the date order and the activities due today can't silently diverge.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ConsistencyChecker {
+
+  static final int MAX_PROBLEMS = 20; // problems reported before the rest are left out
+
+  private ConsistencyChecker() {}
+
+  /**
+   * Checks that both orderings of a model hold the same activities, each once, in their order
+   *
+   * @param model, The model
+   * @return a description of every problem found, none if the orderings agree
+   */
+  public static List<String> check(ActivityModel model) {
+
+    List<String> problems = new ArrayList<String>();
+    PriorityIndex priorityIndex = model.getPriorityIndex();
+    List<Activity> dateList = model.getDateList();
+
+    if (priorityIndex.size() != model.size() || dateList.size() != model.size()) {
+      report(problems, "The model holds " + model.size() + " activities but its priority order "
+          + priorityIndex.size() + " and its date order " + dateList.size());
+    }
+
+    Map<Activity, Boolean> seen = new IdentityHashMap<Activity, Boolean>();
+    Activity previous = null;
+    int position = 0;
+    for (Activity activity : dateList) {
+      if (seen.put(activity, Boolean.TRUE) != null) {
+        report(problems, "Date order holds " + describe(activity) + " twice");
+      }
+      if (!priorityIndex.contains(activity)) {
+        report(problems, "Priority order is missing " + describe(activity));
+      }
+      if (previous != null && activity.compareByDate(previous) <= 0) {
+        report(problems, "Date order is out of order at " + position + ", " + describe(activity));
+      }
+      previous = activity;
+      ++position;
+    }
+
+    int previousPriority = Integer.MAX_VALUE;
+    long previousPosition = 0;
+    position = 0;
+    for (Activity activity : priorityIndex) {
+      if (!seen.containsKey(activity)) {
+        report(problems, "Date order is missing " + describe(activity));
+      }
+      if (activity.getPriority() > previousPriority) {
+        report(problems,
+            "Priority order is out of order at " + position + ", " + describe(activity));
+      } else if (activity.getPriority() == previousPriority
+          && activity.getPosition() <= previousPosition) {
+        report(problems, "Priority order has a position out of order at " + position + ", "
+            + describe(activity));
+      }
+      previousPriority = activity.getPriority();
+      previousPosition = activity.getPosition();
+      ++position;
+    }
+    return problems;
+  }
+
+  /**
+   * Compares the orderings of a model with the views derived from the events recorded from it.
+   * The date order must be the same, and the priority order must hold the same activities at every
+   * priority, whose order within it may have been given by hand.
+   *
+   * @param model, The model
+   * @param projection, The views derived from the events recorded from the model
+   * @return a description of every difference found, none if they agree
+   */
+  public static List<String> compare(ActivityModel model, EventProjection projection) {
+
+    List<String> problems = new ArrayList<String>();
+    if (projection.size() != model.size()) {
+      report(problems, "The model holds " + model.size() + " activities but the events "
+          + projection.size());
+    }
+
+    Iterator<Activity> projected = projection.getDateView().iterator();
+    int position = 0;
+    for (Activity activity : model.getDateList()) {
+      if (!projected.hasNext()) {
+        break;
+      }
+      Activity other = projected.next();
+      if (other.getId() != activity.getId() || other.getPriority() != activity.getPriority()
+          || other.getDueMinute() != activity.getDueMinute()
+          || !other.getDescription().equals(activity.getDescription())) {
+        report(problems, "Date order differs at " + position + ": " + describe(activity)
+            + " in the model, " + describe(other) + " from the events");
+      }
+      ++position;
+    }
+
+    // the activities of every priority are compared as sets
+    projected = projection.getPriorityView().iterator();
+    Set<Long> bucket = new HashSet<Long>();
+    Set<Long> projectedBucket = new HashSet<Long>();
+    int priority = Integer.MIN_VALUE;
+    for (Activity activity : model.getPriorityIndex()) {
+      if (!projected.hasNext()) {
+        break;
+      }
+      Activity other = projected.next();
+      if (activity.getPriority() != priority) {
+        compareBucket(problems, priority, bucket, projectedBucket);
+        priority = activity.getPriority();
+      }
+      if (other.getPriority() != priority) {
+        report(problems, "Priority order differs at priority " + priority + ": "
+            + describe(other) + " from the events has priority " + other.getPriority());
+      }
+      bucket.add(activity.getId());
+      projectedBucket.add(other.getId());
+    }
+    compareBucket(problems, priority, bucket, projectedBucket);
+
+    // the activities due today are found by going through the model
+    LocalDate today = LocalDate.now();
+    long day = model.dayNumber(today.getMonthValue(), today.getDayOfMonth(), today.getYear());
+    Set<Long> dueToday = new HashSet<Long>();
+    for (Activity activity : model.getDateList()) {
+      if (model.calculateDate(activity) == day) {
+        dueToday.add(activity.getId());
+      }
+    }
+    Set<Long> projectedToday = new HashSet<Long>();
+    for (Activity activity : projection.dueOn(today)) {
+      projectedToday.add(activity.getId());
+    }
+    if (!dueToday.equals(projectedToday)) {
+      report(problems, dueToday.size() + " activities are due today in the model but "
+          + projectedToday.size() + " from the events");
+    }
+    return problems;
+  }
+
+  /**
+   * Reports the activities of a priority found in only one of the priority orders, then empties
+   * both sets for the next priority
+   *
+   * @param problems, Where problems are reported
+   * @param priority, The priority
+   * @param bucket, Identifiers of the activities of the priority in the model
+   * @param projectedBucket, Identifiers of those derived from the events
+   */
+  private static void compareBucket(List<String> problems, int priority, Set<Long> bucket,
+      Set<Long> projectedBucket) {
+
+    if (!bucket.equals(projectedBucket)) {
+      report(problems, "Priority " + priority + " holds " + bucket.size()
+          + " activities in the model but " + projectedBucket.size() + " from the events");
+    }
+    bucket.clear();
+    projectedBucket.clear();
+  }
+
+  private static void report(List<String> problems, String problem) {
+
+    if (problems.size() < MAX_PROBLEMS) {
+      problems.add(problem);
+    }
+  }
+
+  private static String describe(Activity activity) {
+
+    return "\"" + activity.getDescription() + "\" (" + Long.toHexString(activity.getId()) + ")";
+  }
+}
@@ -0,0 +1,209 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DateIndex.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * The following class orders activities by due date, sooner due date first, then by greater
+ * priority and then by insertion, as compareByDate() does. The activities are kept in a RankTree
+ * and the node of every activity is mapped, so one can be inserted, found at a position or removed
+ * in logarithmic time instead of a list being searched for it.
+ *
+ * Activities always take the place their due date gives them, so the list can't insert or replace
+ * one at a given position. Its iterators fail as soon as the index is changed under them.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DateIndex extends AbstractList<Activity> {
+
+  private static final Comparator<Activity> DATE_ORDER = Activity::compareByDate;
+
+  private final RankTree tree = new RankTree(new Random());
+
+  private final Map<Activity, RankTree.Node> nodes = new IdentityHashMap<Activity, RankTree.Node>();
+
+  /**
+   * Getter method for the number of activities
+   *
+   * @return number of activities in the index
+   */
+  @Override
+  public int size() {
+
+    return nodes.size();
+  }
+
+  /**
+   * Indicates if an activity is in the index
+   *
+   * @param activity, The activity
+   * @return true if the activity is in the index
+   */
+  @Override
+  public boolean contains(Object activity) {
+
+    return nodes.containsKey(activity);
+  }
+
+  /**
+   * Adds an activity after the activities that come before it in date order
+   *
+   * @param activity, The activity to be added
+   * @return true
+   */
+  @Override
+  public boolean add(Activity activity) {
+
+    if (nodes.containsKey(activity)) {
+      throw new IllegalArgumentException("Activity already in the index");
+    }
+    nodes.put(activity, tree.insert(activity, tree.positionFor(activity, DATE_ORDER)));
+    ++modCount;
+    return true;
+  }
+
+  /**
+   * Removes an activity
+   *
+   * @param activity, The activity to be removed
+   * @return true if the activity was in the index
+   */
+  @Override
+  public boolean remove(Object activity) {
+
+    RankTree.Node node = nodes.remove(activity);
+    if (node == null) {
+      return false;
+    }
+    tree.remove(node);
+    ++modCount;
+    return true;
+  }
+
+  /**
+   * Removes every activity
+   */
+  @Override
+  public void clear() {
+
+    tree.clear();
+    nodes.clear();
+    ++modCount;
+  }
+
+  /**
+   * Replaces the activities with others already in date order, building the index in linear time
+   *
+   * @param ordered, The activities, sooner due date first
+   */
+  public void addAll(Activity[] ordered) {
+
+    clear();
+    tree.append(ordered, 0, ordered.length, nodes);
+  }
+
+  /**
+   * Getter method for the activity at a position of the order
+   *
+   * @param rank, Number of activities before it
+   * @return the activity
+   * @throws IndexOutOfBoundsException if there are not enough activities
+   */
+  @Override
+  public Activity get(int rank) {
+
+    if (rank < 0 || rank >= size()) {
+      throw new IndexOutOfBoundsException("Rank " + rank + " of " + size());
+    }
+    return tree.get(rank).activity;
+  }
+
+  /**
+   * Getter method for the position of an activity in the order
+   *
+   * @param activity, The activity
+   * @return number of activities before it, -1 if it is not in the index
+   */
+  @Override
+  public int indexOf(Object activity) {
+
+    RankTree.Node node = nodes.get(activity);
+    return node == null ? -1 : RankTree.positionOf(node);
+  }
+
+  @Override
+  public int lastIndexOf(Object activity) {
+
+    return indexOf(activity);
+  }
+
+  /**
+   * Getter method for consecutive activities of the order
+   *
+   * @param skip, Number of activities before the first one returned
+   * @param count, Maximum number of activities returned
+   * @return the activities, sooner due date first
+   */
+  public List<Activity> range(int skip, int count) {
+
+    List<Activity> range = new ArrayList<Activity>();
+    if (skip < 0 || skip >= size()) {
+      return range;
+    }
+    for (RankTree.Node node = tree.get(skip); node != null && range.size() < count;
+        node = RankTree.successor(node)) {
+      range.add(node.activity);
+    }
+    return range;
+  }
+
+  /**
+   * Iterates over every activity, sooner due date first
+   */
+  @Override
+  public Iterator<Activity> iterator() {
+
+    return new Iterator<Activity>() {
+
+      private RankTree.Node next = tree.first();
+      private final int expected = modCount;
+
+      @Override
+      public boolean hasNext() {
+
+        return next != null;
+      }
+
+      @Override
+      public Activity next() {
+
+        if (modCount != expected) {
+          throw new ConcurrentModificationException();
+        }
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Activity activity = next.activity;
+        next = RankTree.successor(next);
+        return activity;
+      }
+    };
+  }
+}
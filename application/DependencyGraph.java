@@ -0,0 +1,529 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DependencyGraph.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The following class keeps track of which activities block others. An activity is blocked by the
+ * activities it depends on and by its own subtasks, and it is ready to be worked on once none of
+ * them is left in the model.
+ *
+ * The activities are kept in a topological order, every activity after those blocking it, which
+ * is updated incrementally as relations are added (Pearce and Kelly's algorithm): only the
+ * activities between the two ends of a new relation that are connected to them are visited and
+ * renumbered, and a relation that would close a cycle is found during that same visit and
+ * refused. The set of ready activities is updated as relations and activities come and go.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DependencyGraph implements ActivityListener {
+
+  /**
+   * An activity together with the activities blocking it and blocked by it
+   */
+  private static class Node {
+
+    Activity activity;
+    int order; // position in the topological order, unique among the nodes
+    final Set<Node> blockers = new HashSet<Node>(); // activities to be done before this one
+    final Set<Node> blocked = new HashSet<Node>(); // activities waiting on this one
+
+    Node(Activity activity, int order) {
+
+      this.activity = activity;
+      this.order = order;
+    }
+  }
+
+  private static final Comparator<Node> BY_ORDER = (a, b) -> Integer.compare(a.order, b.order);
+
+  private final ActivityModel model; // told about every relation changed
+  private final Map<Long, Node> nodes = new HashMap<Long, Node>(); // activities by identifier
+
+  // activities blocked by nothing
+  private final Set<Activity> ready =
+      Collections.newSetFromMap(new IdentityHashMap<Activity, Boolean>());
+
+  private int nextOrder = 0; // position given to the next activity, after all others
+
+  /**
+   * Creates the graph of the relations between the activities of a model and keeps it up to date
+   * as the model changes
+   *
+   * @param model, The model whose activities are related
+   */
+  public DependencyGraph(ActivityModel model) {
+
+    this.model = model;
+
+    // every activity is known before the relations are linked, so relations saved in any order
+    // are found
+    for (Activity activity : model.getDateList()) {
+      Node node = new Node(activity, nextOrder++);
+      nodes.put(activity.getId(), node);
+      ready.add(activity);
+    }
+    for (Node node : nodes.values()) {
+      link(node);
+    }
+
+    model.addListener(this);
+  }
+
+  /**
+   * Indicates if an activity can be worked on
+   *
+   * @param activity, The activity
+   * @return true if nothing in the model blocks the activity
+   */
+  public boolean isReady(Activity activity) {
+
+    return ready.contains(activity);
+  }
+
+  /**
+   * Getter method for the number of activities ready to be worked on
+   *
+   * @return number of activities blocked by nothing
+   */
+  public int readyCount() {
+
+    return ready.size();
+  }
+
+  /**
+   * Getter method for the activities blocking an activity
+   *
+   * @param activity, The activity
+   * @return the dependencies and subtasks of the activity still in the model
+   */
+  public List<Activity> blockers(Activity activity) {
+
+    List<Activity> blockers = new ArrayList<Activity>();
+    Node node = nodes.get(activity.getId());
+    if (node != null) {
+      for (Node blocker : node.blockers) {
+        blockers.add(blocker.activity);
+      }
+    }
+    return blockers;
+  }
+
+  /**
+   * Getter method for the subtasks of an activity
+   *
+   * @param activity, The activity
+   * @return the activities that are subtasks of the activity
+   */
+  public List<Activity> subtasks(Activity activity) {
+
+    List<Activity> subtasks = new ArrayList<Activity>();
+    Node node = nodes.get(activity.getId());
+    if (node != null) {
+      for (Node blocker : node.blockers) {
+        if (blocker.activity.getParent() == activity.getId()) {
+          subtasks.add(blocker.activity);
+        }
+      }
+    }
+    return subtasks;
+  }
+
+  /**
+   * Getter method for all the activities ordered so that every activity comes after those
+   * blocking it
+   *
+   * @return the activities in topological order
+   */
+  public List<Activity> topologicalOrder() {
+
+    List<Node> ordered = new ArrayList<Node>(nodes.values());
+    ordered.sort(BY_ORDER);
+
+    List<Activity> activities = new ArrayList<Activity>(ordered.size());
+    for (Node node : ordered) {
+      activities.add(node.activity);
+    }
+    return activities;
+  }
+
+  /**
+   * Makes an activity depend on another one, so it is blocked until the other one is done. Like
+   * every change of relations, it is reported to the model's listeners so it gets saved.
+   *
+   * @param activity, The activity that depends on the other
+   * @param dependency, The activity to be done first
+   * @throws IllegalArgumentException if the dependency is already blocked by the activity
+   */
+  public void addDependency(Activity activity, Activity dependency) {
+
+    Node node = node(activity);
+    Node blocker = node(dependency);
+
+    connect(blocker, node);
+    if (!contains(activity.getDependencies(), dependency.getId())) {
+      long[] previous = activity.getDependencies();
+      long[] dependencies = new long[previous.length + 1];
+      System.arraycopy(previous, 0, dependencies, 0, previous.length);
+      dependencies[previous.length] = dependency.getId();
+      activity.setDependencies(dependencies);
+      model.relationsChanged(activity);
+    }
+  }
+
+  /**
+   * Removes the dependency of an activity on another one
+   *
+   * @param activity, The activity that depends on the other
+   * @param dependency, The activity no longer to be done first
+   */
+  public void removeDependency(Activity activity, Activity dependency) {
+
+    if (!contains(activity.getDependencies(), dependency.getId())) {
+      return;
+    }
+    activity.setDependencies(without(activity.getDependencies(), dependency.getId()));
+
+    Node node = nodes.get(activity.getId());
+    Node blocker = nodes.get(dependency.getId());
+    if (node != null && blocker != null && !blocks(blocker, node)) {
+      disconnect(blocker, node);
+    }
+    model.relationsChanged(activity);
+  }
+
+  /**
+   * Makes an activity a subtask of another one, which is blocked until all of its subtasks are
+   * done. An activity is a subtask of at most one other activity.
+   *
+   * @param subtask, The activity to become a subtask
+   * @param parent, The activity it is a subtask of, null for none
+   * @throws IllegalArgumentException if the subtask already waits on the parent
+   */
+  public void setParent(Activity subtask, Activity parent) {
+
+    Node node = node(subtask);
+    Node previous = nodes.get(subtask.getParent());
+
+    // the new relation is checked for cycles before the previous one is dropped
+    if (parent != null) {
+      connect(node, node(parent));
+    }
+
+    long parentId = parent == null ? 0 : parent.getId();
+    if (subtask.getParent() == parentId) {
+      return;
+    }
+    subtask.setParent(parentId);
+    if (previous != null && !blocks(node, previous)) {
+      disconnect(node, previous);
+    }
+    model.relationsChanged(subtask);
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    Node node = new Node(activity, nextOrder++);
+    nodes.put(activity.getId(), node);
+    ready.add(activity);
+    link(node);
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    Node node = nodes.get(previous.getId());
+    if (node == null) {
+      activityAdded(updated);
+      return;
+    }
+
+    node.activity = updated;
+    if (ready.remove(previous)) {
+      ready.add(updated);
+    }
+  }
+
+  @Override
+  public void relationsChanged(Activity activity) {
+
+    // the graph already linked the changes it made itself, those set on the activity elsewhere, by
+    // a sync for instance, are linked here
+    Node node = nodes.get(activity.getId());
+    if (node == null) {
+      return;
+    }
+    for (Node blocker : new ArrayList<Node>(node.blockers)) {
+      if (!blocks(blocker, node)) {
+        disconnect(blocker, node);
+      }
+    }
+    for (Node waiting : new ArrayList<Node>(node.blocked)) {
+      if (!blocks(node, waiting)) {
+        disconnect(node, waiting);
+      }
+    }
+    link(node);
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    Node node = nodes.remove(activity.getId());
+    if (node == null) {
+      return;
+    }
+    ready.remove(node.activity);
+
+    // subtasks of the activity are no longer subtasks of anything
+    List<Activity> changed = new ArrayList<Activity>();
+    for (Node blocker : node.blockers) {
+      blocker.blocked.remove(node);
+      if (blocker.activity.getParent() == activity.getId()) {
+        blocker.activity.setParent(0);
+        changed.add(blocker.activity);
+      }
+    }
+
+    // the activities waiting on this one forget about it, and are ready if nothing else blocks
+    // them
+    for (Node waiting : node.blocked) {
+      waiting.blockers.remove(node);
+      long[] dependencies = waiting.activity.getDependencies();
+      long[] remaining = without(dependencies, activity.getId());
+      if (remaining.length != dependencies.length) {
+        waiting.activity.setDependencies(remaining);
+        changed.add(waiting.activity);
+      }
+      if (waiting.blockers.isEmpty()) {
+        ready.add(waiting.activity);
+      }
+    }
+
+    for (Activity related : changed) {
+      model.relationsChanged(related);
+    }
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> deleted) {
+
+    nodes.clear();
+    ready.clear();
+  }
+
+  /**
+   * Links a node to the activities it depends on and to its parent, skipping those not in the
+   * model, those already linked and any relation that would close a cycle
+   *
+   * @param node, The node of an activity with its relations set
+   */
+  private void link(Node node) {
+
+    for (long id : node.activity.getDependencies()) {
+      Node blocker = nodes.get(id);
+      if (blocker != null) {
+        try {
+          connect(blocker, node);
+        } catch (IllegalArgumentException e) {
+          node.activity.setDependencies(without(node.activity.getDependencies(), id));
+        }
+      }
+    }
+
+    Node parent = nodes.get(node.activity.getParent());
+    if (parent != null) {
+      try {
+        connect(node, parent);
+      } catch (IllegalArgumentException e) {
+        node.activity.setParent(0);
+      }
+    }
+  }
+
+  /**
+   * Adds the relation of one node blocking another, renumbering the nodes in between if the
+   * blocked node comes first in the topological order
+   *
+   * @param blocker, The node to be done first
+   * @param node, The node blocked
+   * @throws IllegalArgumentException if the blocker is already blocked by the node
+   */
+  private void connect(Node blocker, Node node) {
+
+    if (blocker == node) {
+      throw new IllegalArgumentException("An activity cannot block itself.");
+    }
+    if (blocker.blocked.contains(node)) {
+      return;
+    }
+
+    if (blocker.order > node.order) {
+      reorder(blocker, node);
+    }
+
+    blocker.blocked.add(node);
+    node.blockers.add(blocker);
+    ready.remove(node.activity);
+  }
+
+  /**
+   * Removes the relation of one node blocking another
+   *
+   * @param blocker, The node that was to be done first
+   * @param node, The node that was blocked
+   */
+  private void disconnect(Node blocker, Node node) {
+
+    blocker.blocked.remove(node);
+    if (node.blockers.remove(blocker) && node.blockers.isEmpty()) {
+      ready.add(node.activity);
+    }
+  }
+
+  /**
+   * Moves the nodes that must come after a node to after the nodes that must come before the
+   * blocker, reusing their positions. Only nodes positioned between the two are visited.
+   *
+   * @param blocker, The node to be done first, currently after node
+   * @param node, The node blocked
+   * @throws IllegalArgumentException if the blocker can be reached from the node
+   */
+  private void reorder(Node blocker, Node node) {
+
+    int lower = node.order;
+    int upper = blocker.order;
+
+    // nodes blocked, directly or not, by node that are not after the blocker
+    List<Node> forward = new ArrayList<Node>();
+    Set<Node> visited = new HashSet<Node>();
+    Deque<Node> stack = new ArrayDeque<Node>();
+    stack.push(node);
+    visited.add(node);
+    while (!stack.isEmpty()) {
+      Node current = stack.pop();
+      forward.add(current);
+      for (Node next : current.blocked) {
+        if (next == blocker) {
+          throw new IllegalArgumentException(
+              "\"" + blocker.activity.getDescription() + "\" already waits on \""
+                  + node.activity.getDescription() + "\".");
+        }
+        if (next.order < upper && visited.add(next)) {
+          stack.push(next);
+        }
+      }
+    }
+
+    // nodes blocking, directly or not, the blocker that are not before node
+    List<Node> backward = new ArrayList<Node>();
+    stack.push(blocker);
+    visited.add(blocker);
+    while (!stack.isEmpty()) {
+      Node current = stack.pop();
+      backward.add(current);
+      for (Node previous : current.blockers) {
+        if (previous.order > lower && visited.add(previous)) {
+          stack.push(previous);
+        }
+      }
+    }
+
+    forward.sort(BY_ORDER);
+    backward.sort(BY_ORDER);
+
+    int[] positions = new int[forward.size() + backward.size()];
+    int i = 0;
+    for (Node current : backward) {
+      positions[i++] = current.order;
+    }
+    for (Node current : forward) {
+      positions[i++] = current.order;
+    }
+    Arrays.sort(positions);
+
+    i = 0;
+    for (Node current : backward) {
+      current.order = positions[i++];
+    }
+    for (Node current : forward) {
+      current.order = positions[i++];
+    }
+  }
+
+  /**
+   * Indicates if a relation still makes one node block another
+   *
+   * @param blocker, The node that may block
+   * @param node, The node that may be blocked
+   * @return true if node depends on blocker or blocker is a subtask of node
+   */
+  private static boolean blocks(Node blocker, Node node) {
+
+    return contains(node.activity.getDependencies(), blocker.activity.getId())
+        || blocker.activity.getParent() == node.activity.getId();
+  }
+
+  /**
+   * Getter method for the node of an activity in the model
+   *
+   * @param activity, The activity
+   * @return the node of the activity
+   * @throws IllegalArgumentException if the activity is not in the model
+   */
+  private Node node(Activity activity) {
+
+    Node node = nodes.get(activity.getId());
+    if (node == null) {
+      throw new IllegalArgumentException(
+          "\"" + activity.getDescription() + "\" is not in the list.");
+    }
+    return node;
+  }
+
+  private static boolean contains(long[] ids, long id) {
+
+    for (long element : ids) {
+      if (element == id) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long[] without(long[] ids, long id) {
+
+    if (!contains(ids, id)) {
+      return ids;
+    }
+    long[] remaining = new long[ids.length - 1];
+    int i = 0;
+    for (long element : ids) {
+      if (element != id) {
+        remaining[i++] = element;
+      }
+    }
+    return remaining;
+  }
+}
@@ -0,0 +1,152 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DescriptionPool.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The following class shares the descriptions of the activities in a model, so activities with the
+ * same description, such as recurring or imported ones, hold a single copy of it. Descriptions are
+ * kept as byte arrays, with one byte per character when every character fits in Latin-1 and in
+ * UTF-8 otherwise, and the first byte telling which. Every description in the pool counts the
+ * activities of the model holding it, and leaves the pool when the last of them does.
+ *
+ * Like the model, the pool is meant to be used from one thread at a time.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DescriptionPool {
+
+  private static final byte LATIN_1 = 0; // the characters follow as one byte each
+  private static final byte UTF_8 = 1; // the characters follow encoded in UTF-8
+
+  /**
+   * A description in the pool, compared by its bytes
+   */
+  private static class Entry {
+
+    final byte[] bytes;
+    final int hash;
+    int references; // activities of the model holding the description
+
+    Entry(byte[] bytes) {
+
+      this.bytes = bytes;
+      hash = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+
+      return other instanceof Entry && Arrays.equals(bytes, ((Entry) other).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+
+      return hash;
+    }
+  }
+
+  private final Map<Entry, Entry> entries = new HashMap<Entry, Entry>();
+
+  /**
+   * Encodes a description in its compact form
+   *
+   * @param description, The description
+   * @return the encoding byte followed by the characters
+   */
+  public static byte[] encode(String description) {
+
+    int length = description.length();
+    for (int i = 0; i < length; ++i) {
+      if (description.charAt(i) > 0xFF) {
+        byte[] utf8 = description.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[utf8.length + 1];
+        bytes[0] = UTF_8;
+        System.arraycopy(utf8, 0, bytes, 1, utf8.length);
+        return bytes;
+      }
+    }
+
+    byte[] bytes = new byte[length + 1];
+    bytes[0] = LATIN_1;
+    for (int i = 0; i < length; ++i) {
+      bytes[i + 1] = (byte) description.charAt(i);
+    }
+    return bytes;
+  }
+
+  /**
+   * Decodes a description from its compact form
+   *
+   * @param bytes, The description as returned by encode()
+   * @return the description
+   */
+  public static String decode(byte[] bytes) {
+
+    return new String(bytes, 1, bytes.length - 1,
+        bytes[0] == LATIN_1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Counts one more activity holding a description
+   *
+   * @param bytes, The description in compact form
+   * @return the copy of the description in the pool, which the activity should hold instead
+   */
+  public byte[] acquire(byte[] bytes) {
+
+    Entry entry = new Entry(bytes);
+    Entry shared = entries.get(entry);
+    if (shared == null) {
+      shared = entry;
+      entries.put(shared, shared);
+    }
+    ++shared.references;
+    return shared.bytes;
+  }
+
+  /**
+   * Counts one activity less holding a description, which leaves the pool once none holds it
+   *
+   * @param bytes, The description in compact form, as returned by acquire()
+   */
+  public void release(byte[] bytes) {
+
+    Entry entry = entries.get(new Entry(bytes));
+
+    // a description not acquired from the pool is not counted by it
+    if (entry != null && entry.bytes == bytes && --entry.references == 0) {
+      entries.remove(entry);
+    }
+  }
+
+  /**
+   * Empties the pool, as when every activity of the model is deleted
+   */
+  public void clear() {
+
+    entries.clear();
+  }
+
+  /**
+   * Getter method for the number of different descriptions
+   *
+   * @return number of descriptions in the pool
+   */
+  public int size() {
+
+    return entries.size();
+  }
+}
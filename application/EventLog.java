@@ -0,0 +1,137 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: EventLog.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The following class records every change made to the activities of a model as an ActivityEvent,
+ * in the order they were made. The log starts with an ADDED event for every activity the model
+ * already holds, in date order, so replaying it from the start derives the activities of the model
+ * and both of their orderings again.
+ *
+ * Projections following the log are handed every event as it is recorded, so they stay up to date
+ * incrementally instead of being rebuilt.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class EventLog implements ActivityListener {
+
+  private final ActivityModel model;
+  private final List<ActivityEvent> events = new ArrayList<ActivityEvent>();
+  private final List<EventProjection> following = new ArrayList<EventProjection>();
+
+  /**
+   * Starts recording the changes made to a model
+   *
+   * @param model, The model
+   */
+  public EventLog(ActivityModel model) {
+
+    this.model = model;
+    for (Activity activity : model.getDateList()) {
+      events.add(new ActivityEvent(ActivityEvent.Type.ADDED, activity, -1));
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Getter method for the events recorded
+   *
+   * @return the events, the oldest first, which can't be changed
+   */
+  public List<ActivityEvent> getEvents() {
+
+    return Collections.unmodifiableList(events);
+  }
+
+  /**
+   * Getter method for the number of events recorded
+   *
+   * @return number of events
+   */
+  public int size() {
+
+    return events.size();
+  }
+
+  /**
+   * Derives the activities and their orderings from the events recorded so far
+   *
+   * @return a projection of the events, which does not follow the log
+   */
+  public EventProjection replay() {
+
+    return EventProjection.replay(events);
+  }
+
+  /**
+   * Hands a projection every event recorded from now on. The projection must already reflect the
+   * events recorded so far, as one returned by replay() does.
+   *
+   * @param projection, The projection
+   */
+  public void follow(EventProjection projection) {
+
+    following.add(projection);
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    record(new ActivityEvent(ActivityEvent.Type.ADDED, activity, -1));
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    // an activity moved by hand is changed in place and keeps its place among equal sort keys
+    if (previous == updated) {
+      record(new ActivityEvent(ActivityEvent.Type.MOVED, updated,
+          model.getPriorityIndex().rankOf(updated)));
+    } else {
+      record(new ActivityEvent(ActivityEvent.Type.EDITED, updated, -1));
+    }
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    record(new ActivityEvent(ActivityEvent.Type.DELETED, activity, -1));
+  }
+
+  @Override
+  public void activityCompleted(Activity activity) {
+
+    record(new ActivityEvent(ActivityEvent.Type.COMPLETED, activity, -1));
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> cleared) {
+
+    record(new ActivityEvent(ActivityEvent.Type.CLEARED, null, -1));
+  }
+
+  /**
+   * Records an event and hands it to the projections following the log
+   *
+   * @param event, The event
+   */
+  private void record(ActivityEvent event) {
+
+    events.add(event);
+    for (EventProjection projection : following) {
+      projection.apply(event);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: EventProjection.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The following class derives from a list of events the views the program shows of the
+ * activities: the priority order, the date order and the activities due on a day. The views are
+ * kept in a model of their own, with a CalendarIndex filing its activities by day, so they are
+ * derived by the same code the program uses and can be compared with the program's model.
+ *
+ * A projection is either rebuilt by replaying a list of events, which only keeps the last state of
+ * every activity still there and adds them all at once, or updated incrementally by applying
+ * events one at a time as an EventLog records them.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class EventProjection {
+
+  private final ActivityModel model = new ActivityModel();
+  private final CalendarIndex days = new CalendarIndex(model); // the due today index
+  private final Map<Long, Activity> byId = new HashMap<Long, Activity>();
+
+  /**
+   * Creates a projection with no activities
+   */
+  public EventProjection() {}
+
+  /**
+   * Rebuilds the views from a list of events. Activities are added in the order they were last
+   * added or edited, so among activities of equal sort keys they come in the same order as in the
+   * model the events were recorded from. Places given by hand within a priority are not kept, as
+   * they aren't when the activities are loaded from a file.
+   *
+   * @param events, The events, the oldest first
+   * @return the projection of the events
+   */
+  public static EventProjection replay(List<ActivityEvent> events) {
+
+    // the last event of every activity still there, in the order they were last inserted
+    Map<Long, ActivityEvent> latest = new LinkedHashMap<Long, ActivityEvent>();
+    for (ActivityEvent event : events) {
+      switch (event.getType()) {
+        case ADDED:
+        case EDITED:
+          latest.remove(event.getId());
+          latest.put(event.getId(), event);
+          break;
+        case MOVED:
+          latest.put(event.getId(), event); // moved in place, keeping its insertion order
+          break;
+        case DELETED:
+        case COMPLETED:
+          latest.remove(event.getId());
+          break;
+        case CLEARED:
+          latest.clear();
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown event " + event.getType());
+      }
+    }
+
+    EventProjection projection = new EventProjection();
+    List<Activity> activities = new ArrayList<Activity>(latest.size());
+    for (ActivityEvent event : latest.values()) {
+      Activity activity = event.newState();
+      activities.add(activity);
+      projection.byId.put(activity.getId(), activity);
+    }
+    projection.model.addAll(activities);
+    return projection;
+  }
+
+  /**
+   * Updates the views with the next event
+   *
+   * @param event, The event
+   */
+  public void apply(ActivityEvent event) {
+
+    Activity activity;
+    switch (event.getType()) {
+      case ADDED:
+        activity = event.newState();
+        byId.put(activity.getId(), activity);
+        model.addActivity(activity);
+        break;
+      case EDITED:
+        activity = event.newState();
+        model.editActivity(byId.put(activity.getId(), activity), activity);
+        break;
+      case MOVED:
+        model.moveActivity(byId.get(event.getId()), event.getRank());
+        break;
+      case DELETED:
+        model.deleteActivity(byId.remove(event.getId()));
+        break;
+      case COMPLETED:
+        model.completeActivity(byId.remove(event.getId()));
+        break;
+      case CLEARED:
+        byId.clear();
+        model.deleteAll();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown event " + event.getType());
+    }
+  }
+
+  /**
+   * Getter method for the number of activities
+   *
+   * @return number of activities in the views
+   */
+  public int size() {
+
+    return model.size();
+  }
+
+  /**
+   * Getter method for the priority view
+   *
+   * @return the activities ordered by priority, which must not be changed
+   */
+  public PriorityIndex getPriorityView() {
+
+    return model.getPriorityIndex();
+  }
+
+  /**
+   * Getter method for the date view
+   *
+   * @return the activities ordered by due date, which must not be changed
+   */
+  public List<Activity> getDateView() {
+
+    return model.getDateList();
+  }
+
+  /**
+   * Getter method for the activities due on a day, such as today
+   *
+   * @param date, The day
+   * @return the activities due that day, greater priority first
+   */
+  public Activity[] dueOn(LocalDate date) {
+
+    return days.day(date);
+  }
+}
@@ -0,0 +1,92 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: FenwickTree.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.Arrays;
+
+/**
+ * The following class counts values in a fixed range of indexes, and can both change the count of
+ * an index and add up the counts of a range of indexes in logarithmic time. Every element of the
+ * tree holds the sum of a block of indexes whose length is the lowest set bit of its position.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class FenwickTree {
+
+  private final int[] tree; // tree[i] holds the counts of indexes i - lowbit(i) to i - 1
+
+  /**
+   * Creates a tree with every count at 0
+   *
+   * @param size, Number of indexes, from 0 to size - 1
+   */
+  public FenwickTree(int size) {
+
+    tree = new int[size + 1];
+  }
+
+  /**
+   * Getter method for the number of indexes
+   *
+   * @return number of indexes counted
+   */
+  public int size() {
+
+    return tree.length - 1;
+  }
+
+  /**
+   * Changes the count of an index
+   *
+   * @param index, The index, between 0 and size - 1
+   * @param delta, Amount added to its count, negative to subtract
+   */
+  public void add(int index, int delta) {
+
+    for (int i = index + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /**
+   * Adds up the counts of the first indexes
+   *
+   * @param end, Index after the last one added, between 0 and size
+   * @return sum of the counts of indexes 0 to end - 1
+   */
+  public int prefix(int end) {
+
+    int sum = 0;
+    for (int i = end; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    return sum;
+  }
+
+  /**
+   * Adds up the counts of a range of indexes
+   *
+   * @param from, First index, inclusive
+   * @param to, Last index, exclusive
+   * @return sum of the counts of indexes from to to - 1
+   */
+  public int range(int from, int to) {
+
+    return prefix(to) - prefix(from);
+  }
+
+  /**
+   * Sets every count back to 0
+   */
+  public void clear() {
+
+    Arrays.fill(tree, 0);
+  }
+}
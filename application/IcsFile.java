@@ -0,0 +1,546 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: IcsFile.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The following class exports activities with a due date to iCalendar files (RFC 5545), as VTODO
+ * components calendar tools can show, and imports the VTODO components of such files back as
+ * activities. The description is the SUMMARY of the component and the due date its DUE, and the
+ * priority is kept both as the iCalendar PRIORITY, from 1 for the greatest to 9, and exactly in
+ * X-OPTI-LIST-PRIORITY. A time due in a given zone is written in UTC, which calendar tools read
+ * without a VTIMEZONE, and its zone is kept in X-OPTI-LIST-TZID so it is imported in that zone
+ * again. The UID holds the identifier of the activity in hexadecimal, as the command line shows
+ * it. The parent and dependencies of an activity are not exported, since the
+ * activities imported get new identifiers the relations could not follow.
+ *
+ * Both directions stream: activities are written one component at a time, and a file is read one
+ * line at a time, so neither holds the text of the whole file. The components read are parsed in
+ * parallel in batches, with a bounded number of batches waiting to be parsed, and the activities
+ * are returned in the order of the file to be added to a model at once with addAll().
+ *
+ * @author Luis J Finol
+ *
+ */
+public class IcsFile {
+
+  static final int BATCH = 1024; // components parsed by one task
+  static final String PRIORITY_PROPERTY = "X-OPTI-LIST-PRIORITY";
+  static final String ZONE_PROPERTY = "X-OPTI-LIST-TZID";
+
+  private static final int MAX_OCTETS = 75; // octets of a line before it is folded
+  private static final DateTimeFormatter STAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  /**
+   * The lines of a VTODO component, unfolded, with the line of the file it starts at
+   */
+  private static class Component {
+
+    final int line;
+    final List<String> lines = new ArrayList<String>();
+
+    Component(int line) {
+
+      this.line = line;
+    }
+  }
+
+  private IcsFile() {}
+
+  /**
+   * Writes the activities with a due date as the VTODO components of a calendar. Activities
+   * without a due date are left out.
+   *
+   * @param writer, Where the calendar is written
+   * @param activities, The activities to be written
+   * @return the number of activities written
+   * @throws IOException if the calendar could not be written
+   */
+  public static int exportIcs(Writer writer, Collection<Activity> activities) throws IOException {
+
+    String stamp = STAMP.format(Instant.now());
+    StringBuilder lines = new StringBuilder();
+    int written = 0;
+
+    writeLine(writer, "BEGIN:VCALENDAR", lines);
+    writeLine(writer, "VERSION:2.0", lines);
+    writeLine(writer, "PRODID:-//Opti-List//Opti-List//EN", lines);
+
+    for (Activity activity : activities) {
+      if (!activity.hasDeadline()) {
+        continue;
+      }
+      writeLine(writer, "BEGIN:VTODO", lines);
+      String uid = activity.getId() != 0 ? Long.toHexString(activity.getId()) : "export-" + written;
+      writeLine(writer, "UID:" + uid + "@opti-list", lines);
+      writeLine(writer, "DTSTAMP:" + stamp, lines);
+      writeLine(writer, "SUMMARY:" + escape(activity.getDescription()), lines);
+      writeLine(writer, "PRIORITY:" + toIcsPriority(activity.getPriority()), lines);
+      writeLine(writer, PRIORITY_PROPERTY + ":" + activity.getPriority(), lines);
+      writeLine(writer, due(activity), lines);
+      if (activity.hasTime() && activity.getZone() != null) {
+        writeLine(writer, ZONE_PROPERTY + ":" + activity.getZone(), lines);
+      }
+      writeLine(writer, "END:VTODO", lines);
+      ++written;
+    }
+
+    writeLine(writer, "END:VCALENDAR", lines);
+    writer.flush();
+    return written;
+  }
+
+  /**
+   * Reads the VTODO components of a calendar as activities, skipping those already completed. A
+   * component without a DUE becomes an activity without a due date, and one without a priority
+   * gets the default priority.
+   *
+   * @param reader, Where the calendar is read from
+   * @return the activities read, in the order of the file
+   * @throws IOException if the calendar could not be read or a component is not valid
+   */
+  public static List<Activity> importIcs(Reader reader) throws IOException {
+
+    List<Activity> activities = new ArrayList<Activity>();
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    int inFlight = 2 * pool.getParallelism(); // batches read but not yet added to the result
+    Deque<Future<List<Activity>>> parsing = new ArrayDeque<Future<List<Activity>>>();
+
+    BufferedReader lines = new BufferedReader(reader);
+    List<Component> batch = new ArrayList<Component>(BATCH);
+    Component component = null;
+    int depth = 0; // components open within the current VTODO
+    String pending = null; // the line being unfolded
+    int pendingNumber = 0;
+    int number = 0;
+    String physical;
+
+    do {
+      physical = lines.readLine();
+      if (physical != null) {
+        ++number;
+        // a line starting with a space or tab continues the previous one
+        if (pending != null && !physical.isEmpty()
+            && (physical.charAt(0) == ' ' || physical.charAt(0) == '\t')) {
+          pending += physical.substring(1);
+          continue;
+        }
+      }
+
+      if (pending != null && !pending.isEmpty()) {
+        String line = pending;
+        if (component == null) {
+          if (line.equalsIgnoreCase("BEGIN:VTODO")) {
+            component = new Component(pendingNumber);
+          }
+        } else if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+          ++depth;
+        } else if (line.regionMatches(true, 0, "END:", 0, 4) && depth > 0) {
+          --depth;
+        } else if (line.equalsIgnoreCase("END:VTODO")) {
+          batch.add(component);
+          component = null;
+          if (batch.size() == BATCH) {
+            if (parsing.size() == inFlight) {
+              activities.addAll(join(parsing.removeFirst()));
+            }
+            List<Component> full = batch;
+            parsing.addLast(pool.submit(() -> parse(full)));
+            batch = new ArrayList<Component>(BATCH);
+          }
+        } else if (depth == 0) {
+          component.lines.add(line); // lines of alarms and other nested components are skipped
+        }
+      }
+
+      pending = physical;
+      pendingNumber = number;
+    } while (physical != null);
+
+    if (component != null) {
+      throw new IOException("Line " + component.line + ": VTODO is not ended");
+    }
+    if (!batch.isEmpty()) {
+      List<Component> last = batch;
+      parsing.addLast(pool.submit(() -> parse(last)));
+    }
+    while (!parsing.isEmpty()) {
+      activities.addAll(join(parsing.removeFirst()));
+    }
+    return activities;
+  }
+
+  /**
+   * Waits for a batch to be parsed
+   *
+   * @param future, The batch being parsed
+   * @return the activities of the batch
+   * @throws IOException if a component of the batch is not valid
+   */
+  private static List<Activity> join(Future<List<Activity>> future) throws IOException {
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while importing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Parses a batch of components, on a thread of the pool
+   *
+   * @param batch, The components
+   * @return the activities of the components not completed
+   * @throws IOException if a component is not valid
+   */
+  private static List<Activity> parse(List<Component> batch) throws IOException {
+
+    List<Activity> activities = new ArrayList<Activity>(batch.size());
+    for (Component component : batch) {
+      Activity activity = parse(component);
+      if (activity != null) {
+        activities.add(activity);
+      }
+    }
+    return activities;
+  }
+
+  /**
+   * Parses a component
+   *
+   * @param component, The component
+   * @return the activity of the component, null if it is completed
+   * @throws IOException if the component is not valid
+   */
+  private static Activity parse(Component component) throws IOException {
+
+    String description = null;
+    int priority = ActivityModel.DEFAULT_PRIORITY;
+    boolean exactPriority = false;
+    String[] due = null; // date, time and zone
+    String zone = null; // zone the time was due in before it was written in UTC
+
+    for (String line : component.lines) {
+      int colon = valueStart(line);
+      if (colon < 0) {
+        throw new IOException("Line " + component.line + ": expected a property in VTODO");
+      }
+      String[] nameAndParameters = line.substring(0, colon).split(";");
+      String name = nameAndParameters[0].toUpperCase(Locale.ROOT);
+      String value = line.substring(colon + 1);
+
+      try {
+        if (name.equals("SUMMARY")) {
+          description = unescape(value);
+        } else if (name.equals(PRIORITY_PROPERTY)) {
+          priority = Integer.parseInt(value.trim());
+          exactPriority = true;
+        } else if (name.equals("PRIORITY") && !exactPriority) {
+          priority = fromIcsPriority(Integer.parseInt(value.trim()));
+        } else if (name.equals("DUE")) {
+          due = parseDue(value.trim(), nameAndParameters);
+        } else if (name.equals(ZONE_PROPERTY)) {
+          zone = value.trim();
+        } else if (name.equals("STATUS") && value.trim().equalsIgnoreCase("COMPLETED")
+            || name.equals("COMPLETED")) {
+          return null;
+        }
+      } catch (NumberFormatException e) {
+        throw new IOException("Line " + component.line + ": " + name + " must be a number");
+      } catch (IllegalArgumentException e) {
+        throw new IOException("Line " + component.line + ": " + e.getMessage());
+      }
+    }
+
+    if (description == null) {
+      throw new IOException("Line " + component.line + ": VTODO has no SUMMARY");
+    }
+    if (due == null) {
+      return new Activity(description, priority);
+    }
+    if (zone != null && due[1] != null && "UTC".equals(due[2])) {
+      try {
+        due = inZone(due, ZoneId.of(zone));
+      } catch (DateTimeException e) {
+        throw new IOException("Line " + component.line + ": " + ZONE_PROPERTY + " is not a zone");
+      }
+    }
+    return new Activity(description, priority, due[0], due[1], due[2]);
+  }
+
+  /**
+   * Reads a DUE value, either a date, a floating time, a time in UTC ending in Z, or a time in the
+   * zone given by a TZID parameter. Seconds are dropped.
+   *
+   * @param value, The value
+   * @param nameAndParameters, The property name followed by its parameters
+   * @return the date as mm/dd/yyyy, the time as hh:mm or null, and the zone or null
+   * @throws IllegalArgumentException if the value is not a date or time
+   */
+  private static String[] parseDue(String value, String[] nameAndParameters) {
+
+    if (value.length() < 8 || !isDigits(value, 0, 8)) {
+      throw new IllegalArgumentException("DUE must be a date or a time");
+    }
+    String date = value.substring(4, 6) + "/" + value.substring(6, 8) + "/" + value.substring(0, 4);
+    if (value.length() == 8) {
+      return new String[] {date, null, null};
+    }
+
+    if (value.length() < 13 || value.charAt(8) != 'T' || !isDigits(value, 9, 13)) {
+      throw new IllegalArgumentException("DUE must be a date or a time");
+    }
+    String time = value.substring(9, 11) + ":" + value.substring(11, 13);
+    String zone = value.endsWith("Z") ? "UTC" : null;
+    for (int i = 1; i < nameAndParameters.length; ++i) {
+      if (nameAndParameters[i].regionMatches(true, 0, "TZID=", 0, 5)) {
+        zone = nameAndParameters[i].substring(5).replace("\"", "");
+      }
+    }
+    return new String[] {date, time, zone};
+  }
+
+  /**
+   * Converts a time in UTC to the same instant in another zone
+   *
+   * @param due, The date as mm/dd/yyyy, the time as hh:mm and the zone UTC
+   * @param zone, The zone
+   * @return the date, time and zone in the zone
+   */
+  private static String[] inZone(String[] due, ZoneId zone) {
+
+    String[] date = due[0].split("/");
+    String[] time = due[1].split(":");
+    ZonedDateTime utc = ZonedDateTime.of(Integer.parseInt(date[2]), Integer.parseInt(date[0]),
+        Integer.parseInt(date[1]), Integer.parseInt(time[0]), Integer.parseInt(time[1]), 0, 0,
+        ZoneOffset.UTC);
+    ZonedDateTime local = utc.withZoneSameInstant(zone);
+
+    StringBuilder day = new StringBuilder(10);
+    pad(day, local.getMonthValue(), 2);
+    day.append('/');
+    pad(day, local.getDayOfMonth(), 2);
+    day.append('/');
+    pad(day, local.getYear(), 4);
+    StringBuilder hour = new StringBuilder(5);
+    pad(hour, local.getHour(), 2);
+    hour.append(':');
+    pad(hour, local.getMinute(), 2);
+    return new String[] {day.toString(), hour.toString(), zone.getId()};
+  }
+
+  /**
+   * Writes the DUE property of an activity: a date for activities due on a day, a floating time for
+   * those due at a time of the system's zone, and a time in UTC for those of a given zone, whose
+   * zone is written in ZONE_PROPERTY
+   *
+   * @param activity, The activity, which has a due date
+   * @return the property
+   */
+  private static String due(Activity activity) {
+
+    String[] numbers = activity.getDate().trim().split("/");
+    StringBuilder value = new StringBuilder(16);
+    pad(value, Integer.parseInt(numbers[2].trim()), 4);
+    pad(value, Integer.parseInt(numbers[0].trim()), 2);
+    pad(value, Integer.parseInt(numbers[1].trim()), 2);
+    if (!activity.hasTime()) {
+      return "DUE;VALUE=DATE:" + value;
+    }
+
+    String[] parts = activity.getTime().trim().split(":");
+    if (activity.getZone() != null) {
+      ZonedDateTime local = ZonedDateTime.of(Integer.parseInt(numbers[2].trim()),
+          Integer.parseInt(numbers[0].trim()), Integer.parseInt(numbers[1].trim()),
+          Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()), 0, 0,
+          ZoneId.of(activity.getZone()));
+      return "DUE:" + STAMP.format(local.toInstant());
+    }
+    value.append('T');
+    pad(value, Integer.parseInt(parts[0].trim()), 2);
+    pad(value, Integer.parseInt(parts[1].trim()), 2);
+    value.append("00");
+    return "DUE:" + value;
+  }
+
+  /**
+   * Appends a number with leading zeros
+   *
+   * @param text, Where the number is appended
+   * @param number, The number, not negative
+   * @param digits, Least number of digits
+   */
+  private static void pad(StringBuilder text, int number, int digits) {
+
+    String written = Integer.toString(number);
+    for (int i = written.length(); i < digits; ++i) {
+      text.append('0');
+    }
+    text.append(written);
+  }
+
+  /**
+   * Converts a priority to the iCalendar scale, where 1 is the greatest and 9 the least
+   *
+   * @param priority, Priority between MIN_PRIORITY and MAX_PRIORITY
+   * @return the iCalendar priority
+   */
+  static int toIcsPriority(int priority) {
+
+    return 9 - Math.round(8f * (priority - ActivityModel.MIN_PRIORITY)
+        / (ActivityModel.MAX_PRIORITY - ActivityModel.MIN_PRIORITY));
+  }
+
+  /**
+   * Converts an iCalendar priority back, 0 meaning it is not given
+   *
+   * @param priority, The iCalendar priority
+   * @return priority between MIN_PRIORITY and MAX_PRIORITY
+   */
+  static int fromIcsPriority(int priority) {
+
+    if (priority < 1 || priority > 9) {
+      return ActivityModel.DEFAULT_PRIORITY;
+    }
+    return ActivityModel.MIN_PRIORITY
+        + (9 - priority) * (ActivityModel.MAX_PRIORITY - ActivityModel.MIN_PRIORITY) / 8;
+  }
+
+  /**
+   * Writes a content line, folded so no line is longer than 75 octets in UTF-8
+   *
+   * @param writer, Where the line is written
+   * @param line, The content line
+   * @param folded, Reused to build the folded line
+   * @throws IOException if the line could not be written
+   */
+  private static void writeLine(Writer writer, String line, StringBuilder folded)
+      throws IOException {
+
+    folded.setLength(0);
+    int octets = 0;
+    for (int i = 0; i < line.length();) {
+      int codePoint = line.codePointAt(i);
+      int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+      if (octets + size > MAX_OCTETS) {
+        folded.append("\r\n ");
+        octets = 1;
+      }
+      folded.appendCodePoint(codePoint);
+      octets += size;
+      i += Character.charCount(codePoint);
+    }
+    folded.append("\r\n");
+    writer.write(folded.toString());
+  }
+
+  /**
+   * Finds the colon separating the name and parameters of a property from its value, skipping
+   * colons within quoted parameter values
+   *
+   * @param line, The content line
+   * @return the position of the colon, -1 if there is none
+   */
+  private static int valueStart(String line) {
+
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); ++i) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ':' && !quoted) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isDigits(String text, int from, int to) {
+
+    for (int i = from; i < to; ++i) {
+      if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Escapes a description as an iCalendar text value
+   *
+   * @param text, The description
+   * @return the text with backslashes, semicolons, commas and line breaks escaped
+   */
+  private static String escape(String text) {
+
+    StringBuilder escaped = new StringBuilder(text.length() + 8);
+    for (int i = 0; i < text.length(); ++i) {
+      char c = text.charAt(i);
+      if (c == '\\' || c == ';' || c == ',') {
+        escaped.append('\\').append(c);
+      } else if (c == '\n') {
+        escaped.append("\\n");
+      } else if (c != '\r') {
+        escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+
+  /**
+   * Reverses escape()
+   *
+   * @param text, The iCalendar text value
+   * @return the description
+   */
+  private static String unescape(String text) {
+
+    if (text.indexOf('\\') < 0) {
+      return text;
+    }
+
+    StringBuilder result = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); ++i) {
+      char c = text.charAt(i);
+      if (c == '\\' && i + 1 < text.length()) {
+        char next = text.charAt(++i);
+        result.append(next == 'n' || next == 'N' ? '\n' : next);
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+}
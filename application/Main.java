@@ -1,7 +1,7 @@
 ///////////////////////////////////////////////////////////////////////////////
 // Title: Opti-List
 // File: Main.java
-// Last Changed: 9/1/2020
+// Last Changed: 10/19/2026
 //
 // Author: Luis Finol
 // Email: lfinol@wisc.edu
@@ -9,86 +9,374 @@
 
 package application;
 
+import application.sync.FileDropTransport;
+import application.sync.SyncEngine;
 import java.awt.Color;
 import java.awt.Insets;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
 import javafx.stage.Stage;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.TextField;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.TransferMode;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
 
 /**
  * The following class establishes a main stage for activities to be displayed and inserted with a
- * GUI the user can interact with. It creates a global data structure that holds two lists, one
- * holds instances of the activity class ordered by which has a sooner due date, and the other holds
- * an array list of 10 elements each representing a priority number from 1 - 10 and each holding a
- * linked list with the activities corresponding to the respective priority.
+ * GUI the user can interact with. The activities themselves, ordered both by priority and by due
+ * date, are held by an ActivityModel.
  * 
  * @author Luis J Finol
  *
  */
 public class Main extends Application {
 
+  // opens the quick open palette from the main scenes
+  private static final KeyCombination QUICK_OPEN =
+      new KeyCodeCombination(KeyCode.K, KeyCombination.SHORTCUT_DOWN);
+
+  // number of activities offered as the other end of a relation as the user types
+  private static final int RELATION_MATCHES = 5;
 
   private int pageRank = 1; // integer indicating which page of activities is displayed
   private Boolean mainSceneByPriority = true; // indicates if the main scene is currently in prior
 
-  // the main data structure that contains the array list ordering activities by priority and the
-  // linked list ordering activities by due date
-  private ArrayList<List> activities = new ArrayList<List>();
+  // the main data structure that contains the list ordering activities by priority and the list
+  // ordering activities by due date
+  private ActivityModel model = new ActivityModel();
+
+  private Scene mainScene; // the last main scene created, refreshed when activities sync
+
+  private ReminderService reminders; // reminds the user of activities as they become due
+
+  private SyncEngine sync; // exchanges activities with other replicas, null unless asked to
+
+  private File dataFile; // the file activities are loaded from and saved to
+
+  private SqlActivityStore store; // the database activities are kept in instead, if any
+
+  private Autosave autosave; // saves the activities file shortly after activities change
+
+  private ActivityPager pager = model; // what the main scenes read their pages from
+
+  private ActivityArchive archive; // completed activities, kept out of the model
+
+  private int historyPage = 1; // page of completed activities displayed in the history scene
+
+  private DependencyGraph graph; // which activities block others and which are ready
+
+  private ActivityStats stats; // statistics kept up to date as activities change
+
+  private CalendarIndex calendar; // activities filed by the day they are due
 
-  // each element corresponds to the number of days in a certain month, and their position
-  // corresponds to the specific month
-  private int[] validDate = new int[] {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+  private YearMonth calendarMonth = YearMonth.now(); // month displayed in the calendar scene
 
-  // each element is the total number of days in the year so far at the start of the corresponding
-  // month
-  private int[] daysSoFar = new int[] {0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334};
+  private TrigramIndex quickOpen; // finds activities by their description, despite typos
+
+  private boolean readyOnly = false; // indicates if the priority scene hides blocked activities
+
+  private Activity dragged; // activity being dragged to another place of the priority order
 
   // indicates if no due date checkbox is selected when adding
   // multiple activities at once
   private boolean selection = true;
 
-  private int activityNum = 0; // total number of activities
-
   /**
-   * Creates the global activities list and establishes the main stage of the program
+   * Establishes the main stage of the program
    */
   @Override
   public void start(Stage primaryStage) {
 
-    activities.add(new ArrayList<LinkedList<Activity>>());
+    Map<String, String> parameters = getParameters().getNamed();
 
-    // adds lists for every priority level, index 0 will correspond to priority 10, 1 to priority 9,
-    // and so on
-    for (int i = 0; i < 10; ++i) {
-      activities.get(0).add(new LinkedList<Activity>());
+    dataFile = parameters.containsKey("data") ? new File(parameters.get("data"))
+        : ActivityFile.defaultFile();
+    if (parameters.containsKey("store")) {
+      startStore(parameters.get("store"));
+    }
+    if (store == null) {
+      try {
+        model.addAll(ActivityFile.load(dataFile));
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
     }
 
-    activities.add(new LinkedList<Activity>()); // list for activities ordered by due date
+    archive = new ActivityArchive(ActivityArchive.fileFor(dataFile));
+    model.addListener(archive);
+    if (store == null) {
+      long window = parameters.containsKey("autosave")
+          ? Long.parseLong(parameters.get("autosave")) : Autosave.DEFAULT_WINDOW;
+      autosave = new Autosave(model, dataFile, window, Platform::runLater, archive);
+    }
+    graph = new DependencyGraph(model);
+    stats = new ActivityStats(model, archive.size());
+    calendar = new CalendarIndex(model);
+    quickOpen = new TrigramIndex(model);
+
+    if (parameters.containsKey("sync-dir")) {
+      startSync(primaryStage, parameters);
+    }
+
+    reminders = new ReminderService(model,
+        activity -> Platform.runLater(() -> showReminder(primaryStage, activity)));
+    reminders.start();
 
     primaryStage.setScene(createPriorityMainScene(primaryStage));
     primaryStage.show();
   }
 
+  /**
+   * Stops the background work of the program and saves the activities when it is closed
+   */
+  @Override
+  public void stop() {
+
+    if (reminders != null) {
+      reminders.stop();
+    }
+    if (sync != null) {
+      sync.close();
+    }
+
+    try {
+      // completed activities are archived before they disappear from the activities file
+      archive.close();
+      if (store != null) {
+        store.close();
+      } else {
+        autosave.close();
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Opens the database activities are kept in, whose pages the main scenes then read. Changes are
+   * written to it in batches every couple of seconds, and when the program is closed.
+   *
+   * @param url, JDBC URL of the database
+   */
+  private void startStore(String url) {
+
+    try {
+      store = new SqlActivityStore(url, model);
+      pager = store;
+    } catch (IOException e) {
+      // the activities file is used instead
+      e.printStackTrace();
+      return;
+    }
+
+    Timeline flush = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
+      try {
+        store.flush();
+      } catch (IOException exception) {
+        exception.printStackTrace();
+      }
+    }));
+    flush.setCycleCount(Animation.INDEFINITE);
+    flush.play();
+  }
+
+  /**
+   * Shows a secondary stage reminding the user that an activity is due, from which the activity can
+   * be edited. The reminder fires off the FX thread, so the activity is looked up again by its id
+   * both before showing it and before editing it, in case it left the list in the meantime.
+   *
+   * @param primaryStage, The main stage of the program
+   * @param due, The activity that is due
+   */
+  private void showReminder(Stage primaryStage, Activity due) {
+
+    long id = due.getId();
+    Activity activity = model.getActivity(id);
+    if (activity == null) {
+      return;
+    }
+
+    Stage secondaryStage = new Stage();
+    Label message = new Label("Reminder: " + RenderModel.of(activity).getLabel());
+    Button edit = new Button("Edit");
+    Button dismiss = new Button("Dismiss");
+
+    HBox hbox = new HBox(edit, dismiss);
+    hbox.setSpacing(10);
+    hbox.setAlignment(Pos.CENTER);
+    VBox vbox = new VBox(message, hbox);
+    vbox.setSpacing(30);
+    vbox.setAlignment(Pos.CENTER);
+
+    edit.setOnAction(e -> {
+      Activity current = model.getActivity(id);
+      if (current == null) {
+        message.setText("The activity is no longer in the list");
+        edit.setDisable(true);
+        return;
+      }
+      secondaryStage.close();
+      editActivity(primaryStage, current).show();
+    });
+    dismiss.setOnAction(e -> secondaryStage.close());
+
+    BorderPane pane = new BorderPane();
+    pane.setCenter(vbox);
+    secondaryStage.setScene(new Scene(pane, 400, 200));
+    secondaryStage.show();
+  }
+
+  /**
+   * Shows a palette where an activity can be found by typing part of its description, even with
+   * typos, and opened to be edited. The activities most alike are listed as the user types, from
+   * the trigram index rather than by going through every activity.
+   *
+   * @param primaryStage, The main stage of the program
+   */
+  private void showQuickOpen(Stage primaryStage) {
+
+    Stage secondaryStage = new Stage();
+    TextField query = new TextField();
+    query.setPromptText("Type part of a description");
+    ListView<Activity> found = new ListView<Activity>();
+    found.setCellFactory(list -> new ListCell<Activity>() {
+      @Override
+      protected void updateItem(Activity act, boolean empty) {
+        super.updateItem(act, empty);
+        setText(empty || act == null ? null : RenderModel.of(act).getLabel());
+      }
+    });
+
+    query.textProperty().addListener((observable, oldValue, newValue) -> {
+      found.getItems().setAll(quickOpen.search(newValue, ActivityModel.PAGE_SIZE));
+      found.getSelectionModel().selectFirst();
+    });
+
+    // the selected activity is opened with enter or a double click
+    EventHandler<ActionEvent> open = e -> {
+      Activity selected = found.getSelectionModel().getSelectedItem();
+      if (selected != null) {
+        secondaryStage.close();
+        editActivity(primaryStage, selected).show();
+      }
+    };
+    query.setOnAction(open);
+    query.setOnKeyPressed(e -> {
+      if (e.getCode() == KeyCode.DOWN) {
+        found.getSelectionModel().selectNext();
+        e.consume();
+      } else if (e.getCode() == KeyCode.UP) {
+        found.getSelectionModel().selectPrevious();
+        e.consume();
+      } else if (e.getCode() == KeyCode.ESCAPE) {
+        secondaryStage.close();
+      }
+    });
+    found.setOnMouseClicked(e -> {
+      if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+        open.handle(null);
+      }
+    });
+
+    VBox vbox = new VBox(query, found);
+    vbox.setSpacing(10);
+    BorderPane pane = new BorderPane();
+    pane.setCenter(vbox);
+    secondaryStage.setTitle("Quick Open");
+    secondaryStage.setScene(new Scene(pane, 500, 300));
+    secondaryStage.show();
+  }
+
+  /**
+   * Starts exchanging activities with other replicas through a shared directory, given by the
+   * --sync-dir parameter. Each machine should pass its own --replica number, otherwise one is
+   * derived from the host name.
+   *
+   * @param primaryStage, The main stage of the program
+   * @param parameters, The named parameters the program was started with
+   */
+  private void startSync(Stage primaryStage, Map<String, String> parameters) {
+
+    try {
+      int replica;
+      if (parameters.containsKey("replica")) {
+        replica = Integer.parseInt(parameters.get("replica"));
+      } else {
+        replica = InetAddress.getLocalHost().getHostName().hashCode() & 0x7FFFFFFF;
+      }
+
+      File directory = new File(parameters.get("sync-dir"));
+      sync = new SyncEngine(model, replica, new FileDropTransport(directory, replica),
+          SyncEngine.fileFor(dataFile), Platform::runLater);
+
+      // changes made within the same couple of seconds are sent together as one batch
+      Timeline exchange = new Timeline(new KeyFrame(Duration.seconds(2), e -> {
+        try {
+          sync.flush();
+          if (sync.poll() > 0 && primaryStage.getScene() == mainScene) {
+            if (mainSceneByPriority) {
+              primaryStage.setScene(createPriorityMainScene(primaryStage));
+            } else {
+              primaryStage.setScene(createDateMainScene(primaryStage));
+            }
+          }
+        } catch (IOException exception) {
+          exception.printStackTrace();
+        }
+      }));
+      exchange.setCycleCount(Animation.INDEFINITE);
+      exchange.play();
+
+    } catch (IOException | NumberFormatException e) {
+      e.printStackTrace();
+    }
+  }
+
   /**
    * Creates the scene that displays the activities ordered with respect to their priority number
    * 
@@ -108,9 +396,15 @@ public class Main extends Application {
       title.setStyle("-fx-text-fill: green; -fx-font-size: 16px;");
 
       Button dueToday = new Button("Due Today");
+      Button history = new Button("History");
+      Button statistics = new Button("Statistics");
+      Button calendarButton = new Button("Calendar");
+      Button find = new Button("Quick Open");
       Button add = new Button("Add Activity");
       Button delete = new Button("Delete All");
       Button order = new Button("Order By Due Date");
+      CheckBox ready = new CheckBox("Ready Only");
+      ready.setSelected(readyOnly);
       Button nextPage = new Button("Next Page");
       Button prevPage = new Button("Previous Page");
 
@@ -121,6 +415,16 @@ public class Main extends Application {
       VBox vbox = new VBox();
 
       dueToday.setOnAction(e -> primaryStage.setScene(dueToday(primaryStage)));
+      history.setOnAction(e -> {
+        historyPage = 1;
+        primaryStage.setScene(createHistoryScene(primaryStage));
+      });
+      statistics.setOnAction(e -> primaryStage.setScene(createStatsScene(primaryStage)));
+      calendarButton.setOnAction(e -> {
+        calendarMonth = YearMonth.now();
+        primaryStage.setScene(createCalendarScene(primaryStage));
+      });
+      find.setOnAction(e -> showQuickOpen(primaryStage));
       order.setOnAction(e -> {
         mainSceneByPriority = false; // now the main scene will be ordered by due date
         pageRank = 1;
@@ -128,93 +432,87 @@ public class Main extends Application {
       });
       add.setOnAction(e -> primaryStage.setScene(createAddActivityScene(primaryStage)));
       delete.setOnAction(e -> deleteAll(primaryStage));
+      ready.setOnAction(e -> {
+        readyOnly = ready.isSelected(); // activities blocked by others are hidden or shown
+        pageRank = 1;
+        primaryStage.setScene(createPriorityMainScene(primaryStage));
+      });
 
       // the buttons are inserted into HBoxes so that they can spread out evenly when the stage size
       // is readjusted
       HBox todayBox = new HBox(dueToday);
       HBox.setHgrow(todayBox, Priority.ALWAYS);
+      HBox historyBox = new HBox(history);
+      HBox.setHgrow(historyBox, Priority.ALWAYS);
+      HBox statisticsBox = new HBox(statistics);
+      HBox.setHgrow(statisticsBox, Priority.ALWAYS);
+      HBox calendarBox = new HBox(calendarButton);
+      HBox.setHgrow(calendarBox, Priority.ALWAYS);
+      HBox findBox = new HBox(find);
+      HBox.setHgrow(findBox, Priority.ALWAYS);
       HBox orderBox = new HBox(order);
       HBox.setHgrow(orderBox, Priority.ALWAYS);
       HBox indicationBox = new HBox(orderIndication);
       HBox.setHgrow(indicationBox, Priority.ALWAYS);
+      HBox readyBox = new HBox(ready);
+      HBox.setHgrow(readyBox, Priority.ALWAYS);
       HBox deleteBox = new HBox(delete);
       HBox.setHgrow(deleteBox, Priority.ALWAYS);
       HBox addBox = new HBox(add);
 
       HBox hbox = new HBox();
-      hbox.getChildren().addAll(todayBox, orderBox, indicationBox, deleteBox, addBox);
+      hbox.getChildren().addAll(todayBox, historyBox, statisticsBox, calendarBox, findBox,
+          orderBox, indicationBox, readyBox, deleteBox, addBox);
 
       HBox nextBox = new HBox(nextPage);
       HBox prevBox = new HBox(prevPage);
       HBox.setHgrow(prevBox, Priority.ALWAYS);
       HBox innerBox = new HBox();
 
-      // array list containing 10 elements each of which contains a list of activities corresponding
-      // to a respective priority number
-      ArrayList<LinkedList> priorityList = (ArrayList) activities.get(0);
-      // number of activities of all the priorities that have been traversed so far
-      int total = 0;
-
-      vbox.getChildren().removeAll(); // ensures list items are not repeated
-
-      // lower end of activities displayed depending on which page of activities the user is on
-      int lowerEnd = (pageRank * 10) - 10;
-      // higher end of activities
+      // higher end of activities displayed depending on which page of activities the user is on
       int higherEnd = (pageRank * 10) - 1;
-      int elementNum = 0; // number of activities displayed
-
-      // loop iterates over the priority list, displaying 10 activities per page at most, and
-      // beginning with activities of greater priority
-      for (int i = 0; i < priorityList.size(); ++i) {
-        total = total + priorityList.get(i).size();
-        if (total < lowerEnd) { // skips over unnecessary iterations of code
-          continue;
-        }
-
-        int diff = total - priorityList.get(i).size();
-        LinkedList<Activity> temp = priorityList.get(i);
-        int j = lowerEnd - diff;
-
-        // prevents index out of bounds exception when one of the displayed activities begins on a
-        // different priority level list
-        if (elementNum > 0 || j < 0) {
-          j = 0;
-        }
 
-        for (int m = j; m < priorityList.get(i).size(); ++m) {
-          Button button;
-          Activity act = temp.get(m);
-
-          if (act.hasDeadline()) {
-            button = new Button(act.getDescription() + " [" + temp.get(m).getDate() + "]");
-          } else {
-            button = new Button(act.getDescription() + " [no due date]");
+      // the page holds at most 10 activities, beginning with activities of greater priority
+      List<Activity> page =
+          readyOnly ? model.priorityPage(pageRank, graph::isReady) : pager.priorityPage(pageRank);
+      for (Activity act : page) {
+        Button button = row(act);
+        button.setTooltip(new Tooltip("Priority " + act.getPriority()));
+
+        // an activity dropped on another one takes its place, pushing it down
+        button.setOnDragDetected(e -> {
+          dragged = act;
+          ClipboardContent content = new ClipboardContent();
+          content.putString(act.getDescription());
+          button.startDragAndDrop(TransferMode.MOVE).setContent(content);
+          e.consume();
+        });
+        button.setOnDragOver(e -> {
+          if (dragged != null && dragged != act) {
+            e.acceptTransferModes(TransferMode.MOVE);
           }
-
-          if (act.getPriority() > 7) {
-            button.setStyle("-fx-text-fill: red; -fx-font-size: 18px;");
-          } else if (act.getPriority() < 5) {
-            button.setStyle("-fx-text-fill: green; -fx-font-size: 18px;");
-          } else {
-            button.setStyle("-fx-text-fill: orange; -fx-font-size: 18px;");
+          e.consume();
+        });
+        button.setOnDragDropped(e -> {
+          PriorityIndex index = model.getPriorityIndex();
+          int rank = index.rankOf(act);
+          if (index.rankOf(dragged) < rank) {
+            --rank; // the dragged activity no longer comes before the target once it is moved
           }
+          model.moveActivity(dragged, rank);
+          dragged = null;
+          e.setDropCompleted(true);
+          e.consume();
+          primaryStage.setScene(createPriorityMainScene(primaryStage));
+        });
+        button.setOnDragDone(e -> dragged = null);
 
-          button.setOnAction(e -> {
-            Stage newStage = editActivity(primaryStage, act);
-            newStage.show();
-          });
-
-          vbox.getChildren().add(button);
-          ++elementNum;
-
-          if (elementNum == 10) {
-            break;
-          }
-        }
+        button.setOnAction(e -> {
+          Stage newStage = editActivity(primaryStage, act);
+          newStage.show();
+        });
 
-        if (elementNum == 10) {
-          break;
-        }
+        vbox.getChildren().add(button);
       }
 
       root.setTop(title);
@@ -234,7 +532,8 @@ public class Main extends Application {
         });
       }
 
-      if (activityNum > higherEnd + 1) {
+      int total = readyOnly ? graph.readyCount() : pager.size();
+      if (total > higherEnd + 1) {
         innerBox.getChildren().add(nextPage);
         innerBox.setAlignment(Pos.BOTTOM_RIGHT);
         nextPage.setOnAction(e -> {
@@ -245,6 +544,8 @@ public class Main extends Application {
 
       scene = new Scene(root, 900, 500);
       scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+      scene.getAccelerators().put(QUICK_OPEN, () -> showQuickOpen(primaryStage));
+      mainScene = scene;
 
     } catch (Exception e) {
       e.printStackTrace();
@@ -270,6 +571,10 @@ public class Main extends Application {
       title.setStyle("-fx-text-fill: green; -fx-font-size: 16px;"); // fix thiss
 
       Button dueToday = new Button("Due Today");
+      Button history = new Button("History");
+      Button statistics = new Button("Statistics");
+      Button calendarButton = new Button("Calendar");
+      Button find = new Button("Quick Open");
       Button order = new Button("Order By Priority");
       Button add = new Button("Add Activity");
       Button delete = new Button("Delete All");
@@ -283,6 +588,16 @@ public class Main extends Application {
       VBox vbox = new VBox();
 
       dueToday.setOnAction(e -> primaryStage.setScene(dueToday(primaryStage)));
+      history.setOnAction(e -> {
+        historyPage = 1;
+        primaryStage.setScene(createHistoryScene(primaryStage));
+      });
+      statistics.setOnAction(e -> primaryStage.setScene(createStatsScene(primaryStage)));
+      calendarButton.setOnAction(e -> {
+        calendarMonth = YearMonth.now();
+        primaryStage.setScene(createCalendarScene(primaryStage));
+      });
+      find.setOnAction(e -> showQuickOpen(primaryStage));
       order.setOnAction(e -> {
         mainSceneByPriority = true;
         pageRank = 1;
@@ -294,6 +609,14 @@ public class Main extends Application {
       // buttons situated in HBoxes so they can spread out evenly on the scene
       HBox todayBox = new HBox(dueToday);
       HBox.setHgrow(todayBox, Priority.ALWAYS);
+      HBox historyBox = new HBox(history);
+      HBox.setHgrow(historyBox, Priority.ALWAYS);
+      HBox statisticsBox = new HBox(statistics);
+      HBox.setHgrow(statisticsBox, Priority.ALWAYS);
+      HBox calendarBox = new HBox(calendarButton);
+      HBox.setHgrow(calendarBox, Priority.ALWAYS);
+      HBox findBox = new HBox(find);
+      HBox.setHgrow(findBox, Priority.ALWAYS);
       HBox orderBox = new HBox(order);
       HBox.setHgrow(orderBox, Priority.ALWAYS);
       HBox indicationBox = new HBox(orderIndication);
@@ -303,44 +626,18 @@ public class Main extends Application {
       HBox addBox = new HBox(add);
 
       HBox hbox = new HBox();
-      hbox.getChildren().addAll(todayBox, orderBox, indicationBox, deleteBox, addBox);
+      hbox.getChildren().addAll(todayBox, historyBox, statisticsBox, calendarBox, findBox,
+          orderBox, indicationBox, deleteBox, addBox);
 
       HBox nextBox = new HBox(nextPage);
       HBox prevBox = new HBox(prevPage);
       HBox.setHgrow(prevBox, Priority.ALWAYS);
       HBox innerBox = new HBox();
 
-      // the linked list containing all the activities ordered by due date
-      LinkedList<Activity> dateList = (LinkedList) activities.get(1);
-
-      vbox.getChildren().removeAll(); // ensures list items are not repeated
-
-      int lowerEnd = (pageRank * 10) - 10;
       int higherEnd = (pageRank * 10) - 1;
-      int elementNum = 0;
 
-      // ensures that the high end is limited by the list size
-      if (higherEnd >= dateList.size()) {
-        higherEnd = dateList.size() - 1;
-      }
-
-      for (int i = lowerEnd; i <= higherEnd; ++i) {
-        Button button;
-        Activity act = dateList.get(i);
-        if (act.hasDeadline()) {
-          button =
-              new Button(dateList.get(i).getDescription() + " [" + dateList.get(i).getDate() + "]");
-        } else {
-          button = new Button(dateList.get(i).getDescription() + " [no due date]");
-        }
-
-        if (act.getPriority() > 7) {
-          button.setStyle("-fx-text-fill: red; -fx-font-size: 18px;");
-        } else if (act.getPriority() < 5) {
-          button.setStyle("-fx-text-fill: green; -fx-font-size: 18px;");
-        } else {
-          button.setStyle("-fx-text-fill: orange; -fx-font-size: 18px;");
-        }
+      for (Activity act : pager.datePage(pageRank)) {
+        Button button = row(act);
 
         button.setOnAction(e -> {
           Stage newStage = editActivity(primaryStage, act);
@@ -367,7 +664,7 @@ public class Main extends Application {
         });
       }
 
-      if (activityNum > higherEnd + 1) {
+      if (pager.size() > higherEnd + 1) {
         innerBox.getChildren().add(nextPage);
         innerBox.setAlignment(Pos.BOTTOM_RIGHT);
         nextPage.setOnAction(e -> {
@@ -378,6 +675,8 @@ public class Main extends Application {
 
       scene = new Scene(root, 900, 500);
       scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+      scene.getAccelerators().put(QUICK_OPEN, () -> showQuickOpen(primaryStage));
+      mainScene = scene;
 
     } catch (Exception e) {
       e.printStackTrace();
@@ -407,9 +706,7 @@ public class Main extends Application {
     description.setMaxWidth(500);
     description.setPromptText("Activity Description");
 
-    ComboBox priorityLevel = new ComboBox();
-    priorityLevel.getItems().addAll(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
-    priorityLevel.setValue(1);
+    Spinner<Integer> priorityLevel = createPrioritySpinner(ActivityModel.DEFAULT_PRIORITY);
 
     CheckBox noDate = new CheckBox("No Due Date");
     noDate.setSelected(selection);
@@ -418,6 +715,16 @@ public class Main extends Application {
     date.setMaxWidth(200);
     date.setPromptText("Format: mm/dd/yyyy");
 
+    TextField time = new TextField();
+    time.setMaxWidth(120);
+    time.setPromptText("hh:mm (optional)");
+
+    ComboBox<String> zone = createZoneBox(null);
+
+    // the due date, time and zone are shown and hidden together
+    HBox dateBox = new HBox(date, time, zone);
+    dateBox.setSpacing(10);
+
     HBox hbox = new HBox();
     hbox.setSpacing(10);
     hbox.getChildren().addAll(instructions, description, priorityLevel, noDate);
@@ -438,18 +745,18 @@ public class Main extends Application {
     // this allows for the date checkbox to remain selected or unselected when the user leaves the
     // add activity scene
     if (noDate.isSelected()) {
-      hbox.getChildren().remove(date);
+      hbox.getChildren().remove(dateBox);
     } else {
-      hbox.getChildren().add(3, date);
+      hbox.getChildren().add(3, dateBox);
     }
 
     // checkbox removes and introduces date text field if the user chooses to assign a due date
     noDate.setOnAction(e -> {
       if (noDate.isSelected()) {
-        hbox.getChildren().remove(date);
+        hbox.getChildren().remove(dateBox);
         selection = true;
       } else {
-        hbox.getChildren().add(3, date);
+        hbox.getChildren().add(3, dateBox);
         selection = false;
       }
     });
@@ -458,22 +765,20 @@ public class Main extends Application {
 
       Activity newActivity;
       if (!noDate.isSelected()) {
-        newActivity =
-            new Activity(description.getText(), (int) priorityLevel.getValue(), date.getText());
+        newActivity = new Activity(description.getText(), priorityInput(priorityLevel),
+            date.getText(), timeInput(time), zoneInput(zone));
       } else {
-        newActivity = new Activity(description.getText(), (int) priorityLevel.getValue());
+        newActivity = new Activity(description.getText(), priorityInput(priorityLevel));
       }
 
-      if (correctInputEntered(newActivity).equals("Success")) {
+      if (model.correctInputEntered(newActivity).equals("Success")) {
         // the new activity is added to both the date list and the priority list
-        addByPriority(newActivity);
-        addByDate(newActivity);
-        ++activityNum;
+        model.addActivity(newActivity);
         primaryStage.setScene(createAddActivityScene(primaryStage));
 
       } else {
         Stage secondaryStage = new Stage();
-        Label errorMessage = new Label(correctInputEntered(newActivity));
+        Label errorMessage = new Label(model.correctInputEntered(newActivity));
         BorderPane secondPane = new BorderPane();
         secondPane.setCenter(errorMessage);
         secondPane.setAlignment(errorMessage, Pos.CENTER);
@@ -496,7 +801,9 @@ public class Main extends Application {
   }
 
   /**
-   * Creates a secondary stage where a selected activity can be edited or deleted
+   * Creates a secondary stage where a selected activity can be edited or deleted. The stage closes
+   * itself once the activity leaves the model, whether it is edited, completed or deleted from
+   * another window, by a sync or by the stage itself.
    * 
    * @param primaryStage, The main stage of the program
    * @param activity, The activity to be edited
@@ -506,30 +813,137 @@ public class Main extends Application {
 
     Stage secondaryStage = new Stage(); // Stage to be returned
 
+    // the stage is closed later rather than while the model is still notifying its listeners
+    ActivityListener closer = new ActivityListener() {
+      @Override
+      public void activityEdited(Activity previous, Activity updated) {
+        if (previous == activity && updated != activity) {
+          Platform.runLater(secondaryStage::close);
+        }
+      }
+
+      @Override
+      public void activityDeleted(Activity deleted) {
+        if (deleted == activity) {
+          Platform.runLater(secondaryStage::close);
+        }
+      }
+    };
+    model.addListener(closer);
+    secondaryStage.setOnHidden(e -> model.removeListener(closer));
+
     BorderPane pane = new BorderPane();
     Label title = new Label("Edit Activity");
     Button apply = new Button("Apply and Close");
     Button cancel = new Button("Cancel");
+    Button complete = new Button("Mark Completed");
     Button delete = new Button("Delete Activity");
 
+    // the activities this one depends on or is a subtask of are found by typing part of their
+    // description, from the trigram index like the quick open palette, rather than listing them all
+    TextField otherQuery = new TextField();
+    otherQuery.setPromptText("Find Another Activity");
+    ListView<Activity> found = new ListView<Activity>();
+    found.setPrefHeight(100);
+    found.setCellFactory(list -> new ListCell<Activity>() {
+      @Override
+      protected void updateItem(Activity act, boolean empty) {
+        super.updateItem(act, empty);
+        setText(empty || act == null ? null : RenderModel.of(act).getLabel());
+      }
+    });
+    otherQuery.textProperty().addListener((observable, oldValue, newValue) -> {
+      List<Activity> matches = quickOpen.search(newValue, RELATION_MATCHES + 1);
+      matches.remove(activity);
+      found.getItems().setAll(matches.subList(0, Math.min(matches.size(), RELATION_MATCHES)));
+      found.getSelectionModel().selectFirst();
+    });
+    Supplier<Activity> other = () -> {
+      Activity selected = found.getSelectionModel().getSelectedItem();
+      return model.contains(selected) ? selected : null;
+    };
+
+    Button dependsOn = new Button("Depends On");
+    Button subtaskOf = new Button("Subtask Of");
+    Button clearRelations = new Button("Clear Relations");
+    Label relations = new Label(relationsLabel(activity));
+
+    VBox otherBox = new VBox(otherQuery, found);
+    otherBox.setSpacing(5);
+    HBox relationBox = new HBox(otherBox, dependsOn, subtaskOf, clearRelations);
+    relationBox.setSpacing(10);
+    relationBox.setAlignment(Pos.CENTER);
+
+    // relations take effect immediately, one that would make activities wait on each other is
+    // refused with an explanation
+    Runnable refresh = () -> {
+      relations.setText(relationsLabel(activity));
+      if (mainSceneByPriority) {
+        primaryStage.setScene(createPriorityMainScene(primaryStage));
+      } else {
+        primaryStage.setScene(createDateMainScene(primaryStage));
+      }
+    };
+    dependsOn.setOnAction(e -> {
+      Activity target = other.get();
+      if (target != null && model.contains(activity)) {
+        try {
+          graph.addDependency(activity, target);
+          refresh.run();
+        } catch (IllegalArgumentException exception) {
+          relations.setText(exception.getMessage());
+        }
+      }
+    });
+    subtaskOf.setOnAction(e -> {
+      Activity target = other.get();
+      if (target != null && model.contains(activity)) {
+        try {
+          graph.setParent(activity, target);
+          refresh.run();
+        } catch (IllegalArgumentException exception) {
+          relations.setText(exception.getMessage());
+        }
+      }
+    });
+    clearRelations.setOnAction(e -> {
+      if (!model.contains(activity)) {
+        return;
+      }
+      for (Activity blocker : graph.blockers(activity)) {
+        graph.removeDependency(activity, blocker);
+      }
+      graph.setParent(activity, null);
+      refresh.run();
+    });
+
     VBox vbox = new VBox();
     vbox.setSpacing(20);
-    vbox.getChildren().addAll(apply, delete, cancel);
+    vbox.getChildren().addAll(relationBox, relations, apply, complete, delete, cancel);
 
     TextField description = new TextField();
     description.setMaxWidth(500);
     description.setPromptText("Activity Description");
     description.setText(activity.getDescription());
 
-    ComboBox priorityLevel = new ComboBox();
-    priorityLevel.getItems().addAll(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
-    priorityLevel.setValue(activity.getPriority());
+    Spinner<Integer> priorityLevel = createPrioritySpinner(activity.getPriority());
 
     TextField date = new TextField();
     date.setMaxWidth(200);
     date.setPromptText("Format: mm/dd/yyyy");
     date.setText(activity.getDate());
 
+    TextField time = new TextField();
+    time.setMaxWidth(120);
+    time.setPromptText("hh:mm (optional)");
+    time.setText(activity.getTime());
+
+    ComboBox<String> zone = createZoneBox(activity.getZone());
+
+    // the due date, time and zone are shown and hidden together
+    HBox dateBox = new HBox(date, time, zone);
+    dateBox.setSpacing(10);
+
     CheckBox noDate = new CheckBox("No Due Date");
 
     HBox hbox = new HBox();
@@ -543,16 +957,16 @@ public class Main extends Application {
     }
 
     if (noDate.isSelected()) {
-      hbox.getChildren().remove(date);
+      hbox.getChildren().remove(dateBox);
     } else {
-      hbox.getChildren().add(2, date);
+      hbox.getChildren().add(2, dateBox);
     }
     // checkbox removes and introduces date text field if the user chooses to assign a due date
     noDate.setOnAction(e -> {
       if (noDate.isSelected()) {
-        hbox.getChildren().remove(date);
+        hbox.getChildren().remove(dateBox);
       } else {
-        hbox.getChildren().add(2, date);
+        hbox.getChildren().add(2, dateBox);
       }
     });
 
@@ -563,35 +977,35 @@ public class Main extends Application {
     pane.setCenter(hbox);
     hbox.setAlignment(Pos.CENTER);
 
-    // when changes are applied, the activity is deleted from the date and priority lists, and it is
-    // reintroduced with its new corresponding values
+    // when changes are applied, the activity is replaced in the date and priority lists by a new
+    // one with its new corresponding values
     apply.setOnAction(e -> {
 
-      deleteActivity(activity);
       Activity newActivity;
 
       if (!noDate.isSelected()) {
-        newActivity =
-            new Activity(description.getText(), (int) priorityLevel.getValue(), date.getText());
+        newActivity = new Activity(description.getText(), priorityInput(priorityLevel),
+            date.getText(), timeInput(time), zoneInput(zone));
       } else {
-        newActivity = new Activity(description.getText(), (int) priorityLevel.getValue());
+        newActivity = new Activity(description.getText(), priorityInput(priorityLevel));
       }
 
-      if (correctInputEntered(newActivity).equals("Success")) {
-        addByPriority(newActivity);
-        addByDate(newActivity);
-        ++activityNum;
+      if (model.correctInputEntered(newActivity).equals("Success")) {
+        // an activity that already left the model is not brought back by the edit
+        boolean edited = model.editActivity(activity, newActivity);
         secondaryStage.close();
 
-        if (mainSceneByPriority) {
-          primaryStage.setScene(createPriorityMainScene(primaryStage));
-        } else {
-          primaryStage.setScene(createDateMainScene(primaryStage));
+        if (edited) {
+          if (mainSceneByPriority) {
+            primaryStage.setScene(createPriorityMainScene(primaryStage));
+          } else {
+            primaryStage.setScene(createDateMainScene(primaryStage));
+          }
         }
 
       } else {
         Stage newStage = new Stage();
-        Label errorMessage = new Label(correctInputEntered(newActivity));
+        Label errorMessage = new Label(model.correctInputEntered(newActivity));
         BorderPane newPane = new BorderPane();
         newPane.setCenter(errorMessage);
         newPane.setAlignment(errorMessage, Pos.CENTER);
@@ -601,19 +1015,33 @@ public class Main extends Application {
       }
     });
 
+    // completed activities leave the main scenes and are kept in the history, an activity already
+    // gone is neither completed nor deleted a second time
+    complete.setOnAction(e -> {
+      if (model.completeActivity(activity)) {
+        if (mainSceneByPriority) {
+          primaryStage.setScene(createPriorityMainScene(primaryStage));
+        } else {
+          primaryStage.setScene(createDateMainScene(primaryStage));
+        }
+      }
+      secondaryStage.close();
+    });
+
     delete.setOnAction(e -> {
-      deleteActivity(activity);
-      if (mainSceneByPriority) {
-        primaryStage.setScene(createPriorityMainScene(primaryStage));
-      } else {
-        primaryStage.setScene(createDateMainScene(primaryStage));
+      if (model.deleteActivity(activity)) {
+        if (mainSceneByPriority) {
+          primaryStage.setScene(createPriorityMainScene(primaryStage));
+        } else {
+          primaryStage.setScene(createDateMainScene(primaryStage));
+        }
       }
       secondaryStage.close();
     });
 
     cancel.setOnAction(e -> secondaryStage.close());
 
-    Scene scene = new Scene(pane, 500, 300);
+    Scene scene = new Scene(pane, 700, 450);
     secondaryStage.setScene(scene);
 
     return secondaryStage;
@@ -627,17 +1055,26 @@ public class Main extends Application {
    */
   private Scene dueToday(Stage primaryStage) {
 
-    // values representing current date
+    // the current day as a range of due minutes, activities due at any time within it are due
+    // today, whatever zone they were entered in
     LocalDate currentDate = LocalDate.now();
-    int day = currentDate.getDayOfMonth();
-    int month = currentDate.getMonthValue();
-    int year = currentDate.getYear();
-
-    ArrayList<ArrayList> pairing = new ArrayList<ArrayList>(); // paring of labels and buttons
-
-    long today = 0; // long value representing the current date
+    long today = SortKey.startOfDay(currentDate, ZoneId.systemDefault());
+    long tomorrow = SortKey.startOfDay(currentDate.plusDays(1), ZoneId.systemDefault());
+
+    // the activities themselves are the choices, so activities with identical descriptions can be
+    // told apart without copying their descriptions
+    ComboBox<Activity> choice = new ComboBox<Activity>();
+    choice.setConverter(new StringConverter<Activity>() {
+      @Override
+      public String toString(Activity act) {
+        return act == null ? "" : act.getDescription();
+      }
 
-    ComboBox<String> choice = new ComboBox<String>();
+      @Override
+      public Activity fromString(String string) {
+        return null;
+      }
+    });
     BorderPane pane = new BorderPane();
     HBox hbox = new HBox();
     Label title = new Label("Activities Due Today");
@@ -647,58 +1084,14 @@ public class Main extends Application {
     hbox.getChildren().addAll(choice, edit);
     hbox.setSpacing(10);
 
-    // the current date is calculated in terms of days that have passed
-    if (year % 4 == 0) {
-      today = (long) (day + daysSoFar[month - 1] + (year * 365.25));
-      if (month > 2) { // accounts for the extra day in the leap year
-        ++today;
-      }
-    } else {
-      int i = year % 4;
-      int j = year - i;
-      today = (long) (day + daysSoFar[month - 1] + (j * 365.25 + i * 365));
-    }
-
-    List<Activity> dateList = activities.get(1); // the date ordered activity list
-
-    for (int i = 0; i < dateList.size(); ++i) {
-      Activity act = dateList.get(i);
-      // list is already ordered in ascending order, if next activity in list has a posterior date,
-      // there are no more activities due today
-      if (today < calculateDate(act)) {
-        break;
-      }
-
-      if (today == calculateDate(act)) {
-        String description = act.getDescription();
-        Button button = new Button();
-        choice.getItems().add(description);
-
-        button.setOnAction(e -> {
-          Stage newStage = editActivity(primaryStage, act);
-          newStage.show();
-        });
-
-        // this list will encapsulate the specific label and button for each activity
-        ArrayList list = new ArrayList();
-        list.add(description);
-        list.add(button);
-        pairing.add(list);
-      }
-    }
+    choice.getItems().addAll(model.dueBetween(today, tomorrow));
 
     edit.setOnAction(e -> {
-      String selectedActivity = choice.getValue();
+      Activity selectedActivity = choice.getValue();
       if (selectedActivity != null) {
-        for (int i = 0; i < pairing.size(); ++i) {
-          // by using == the specific label instance of an activity is checked, allowing for the
-          // existence of activities with identical descriptions
-          if (selectedActivity == pairing.get(i).get(0)) {
-            Button button = (Button) pairing.get(i).get(1);
-            button.fire();
-            choice.setValue(null);
-          }
-        }
+        Stage newStage = editActivity(primaryStage, selectedActivity);
+        newStage.show();
+        choice.setValue(null);
       }
     });
 
@@ -723,55 +1116,57 @@ public class Main extends Application {
   }
 
   /**
-   * Deletes activity from both the date and priority lists
-   * 
-   * @param activity, The activity being deleted
-   */
-  public void deleteActivity(Activity activity) {
-
-    int index = 10 - activity.getPriority(); // makes search through priority list faster
-    List<List> priorityList = activities.get(0);
-    List<List> dateList = activities.get(1);
-
-    priorityList.get(index).remove(activity);
-    dateList.remove(activity);
-    --activityNum;
-  }
-
-  /**
-   * Deletes all the activities in the program
+   * Creates the scene that displays completed activities, the most recently completed first. Only
+   * the page displayed is read from the archive.
    * 
    * @param primaryStage, The main stage of the program
+   * @return Scene displaying a page of completed activities
    */
-  public void deleteAll(Stage primaryStage) {
+  private Scene createHistoryScene(Stage primaryStage) {
 
     BorderPane pane = new BorderPane();
-    Label prompt = new Label("Are you sure you want to delete all activities?");
-    Button yes = new Button("Yes");
-    Button no = new Button("No");
+    Label title = new Label("Completed Activities");
+    title.setStyle("-fx-text-fill: green; -fx-font-size: 16px;");
+    Button close = new Button("Close");
+    Button nextPage = new Button("Next Page");
+    Button prevPage = new Button("Previous Page");
+
     VBox vbox = new VBox();
-    vbox.setSpacing(30);
-    vbox.getChildren().addAll(prompt, yes, no);
+    SimpleDateFormat format = new SimpleDateFormat("MM/dd/yyyy HH:mm");
 
-    pane.setCenter(vbox);
-    vbox.setAlignment(Pos.CENTER);
+    for (Activity act : archive.page(historyPage)) {
+      Label label = new Label(RenderModel.of(act).getLabel() + " completed "
+          + format.format(new Date(act.getCompleted())));
+      label.setStyle("-fx-font-size: 18px;");
+      vbox.getChildren().add(label);
+    }
 
-    Scene scene = new Scene(pane, 400, 200);
-    Stage secondaryStage = new Stage();
-    secondaryStage.setScene(scene);
+    if (vbox.getChildren().isEmpty()) {
+      vbox.getChildren().add(new Label("No activities have been completed yet"));
+    }
 
-    yes.setOnAction(e -> {
-      activityNum = 0;
-      pageRank = 1;
-      List<List> priorityList = activities.get(0);
+    HBox innerBox = new HBox();
+    innerBox.setSpacing(10);
 
-      for (int i = 0; i < priorityList.size(); ++i) {
-        priorityList.get(i).clear();
-      }
+    if (historyPage > 1) {
+      innerBox.getChildren().add(prevPage);
+      prevPage.setOnAction(e -> {
+        --historyPage;
+        primaryStage.setScene(createHistoryScene(primaryStage));
+      });
+    }
 
-      activities.get(1).clear();
-      secondaryStage.close();
+    innerBox.getChildren().add(close);
 
+    if (archive.size() > historyPage * ActivityArchive.PAGE_SIZE) {
+      innerBox.getChildren().add(nextPage);
+      nextPage.setOnAction(e -> {
+        ++historyPage;
+        primaryStage.setScene(createHistoryScene(primaryStage));
+      });
+    }
+
+    close.setOnAction(e -> {
       if (mainSceneByPriority) {
         primaryStage.setScene(createPriorityMainScene(primaryStage));
       } else {
@@ -779,237 +1174,356 @@ public class Main extends Application {
       }
     });
 
-    no.setOnAction(e -> secondaryStage.close());
+    pane.setTop(title);
+    pane.setAlignment(title, Pos.CENTER);
+    pane.setCenter(vbox);
+    vbox.setAlignment(Pos.CENTER);
+    pane.setBottom(innerBox);
+    innerBox.setAlignment(Pos.CENTER);
 
-    secondaryStage.show();
+    Scene scene = new Scene(pane, 900, 500);
+    scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+
+    return scene;
   }
 
   /**
-   * Adds a newly created activity to the priority list, inserting it in the sub list whose index
-   * corresponds to the activity's priority. Sublist at index 0 will hold activities of priority 10,
-   * sublist at index 1 will hold those of priority 9, and so on.
+   * Creates the scene that displays a month as a calendar, with the number of activities due every
+   * day and those of greater priority, which can be edited from it. Every day is looked up in the
+   * calendar index, and the months before and after are prepared in the background so moving to
+   * them doesn't wait.
    * 
-   * @param addedActivity, The activity to be added
+   * @param primaryStage, The main stage of the program
+   * @return Scene displaying the month in calendarMonth
    */
-  public void addByPriority(Activity addedActivity) {
+  private Scene createCalendarScene(Stage primaryStage) {
 
-    int priority = addedActivity.getPriority();
-    int index = (10 - priority); // the corresponding index for an activity with a specific priority
+    BorderPane pane = new BorderPane();
+    Label title = new Label(calendarMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.US)
+        + " " + calendarMonth.getYear());
+    title.setStyle("-fx-text-fill: green; -fx-font-size: 16px;");
+    Button close = new Button("Close");
+    Button nextMonth = new Button("Next Month");
+    Button prevMonth = new Button("Previous Month");
+
+    CalendarIndex.Month month = calendar.month(calendarMonth);
+    calendar.preload(calendarMonth.minusMonths(1));
+    calendar.preload(calendarMonth.plusMonths(1));
+
+    GridPane grid = new GridPane();
+    grid.setHgap(4);
+    grid.setVgap(4);
+    for (DayOfWeek day : DayOfWeek.values()) {
+      grid.add(new Label(day.getDisplayName(TextStyle.SHORT, Locale.US)), day.getValue() - 1, 0);
+    }
 
-    LinkedList<Activity> priorityList = (LinkedList<Activity>) activities.get(0).get(index); // this
+    LocalDate today = LocalDate.now();
+    int offset = calendarMonth.atDay(1).getDayOfWeek().getValue() - 1; // weeks start on Monday
+    for (int day = 1; day <= calendarMonth.lengthOfMonth(); ++day) {
+      VBox cell = new VBox();
+      cell.setPrefSize(125, 90);
+      cell.setStyle("-fx-border-color: lightgray;");
 
-    if (priorityList.size() == 0) {
-      priorityList.add(addedActivity);
-    } else {
-      // activities of the same priority will be sorted by their due date
-      if (addedActivity.hasDeadline()) {
-        for (int i = 0; i < priorityList.size(); ++i) {
-          // sort by which one has closest due date
-          if (calculateDate(addedActivity) < calculateDate(priorityList.get(i))) {
-            priorityList.add(i, addedActivity);
-            break;
-          } else if (i == priorityList.indexOf(priorityList.getLast())) {
-            priorityList.add(addedActivity);
-            break;
-          }
-        }
-      } else { // if activity has no deadline, it is not more important than others
-        priorityList.add(addedActivity);
+      Label number = new Label(day + (month.count(day) > 0 ? "  (" + month.count(day) + ")" : ""));
+      if (calendarMonth.atDay(day).equals(today)) {
+        number.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
+      }
+      cell.getChildren().add(number);
+
+      for (Activity act : month.top(day)) {
+        Button button = new Button(act.getDescription());
+        button.setMaxWidth(Double.MAX_VALUE);
+        button.setStyle("-fx-font-size: 10px;");
+        button.setTooltip(new Tooltip("Priority " + act.getPriority() + RenderModel.dueLabel(act)));
+        button.setOnAction(e -> {
+          Stage newStage = editActivity(primaryStage, act);
+          newStage.show();
+        });
+        cell.getChildren().add(button);
       }
+
+      grid.add(cell, (offset + day - 1) % 7, (offset + day - 1) / 7 + 1);
     }
+
+    prevMonth.setOnAction(e -> {
+      calendarMonth = calendarMonth.minusMonths(1);
+      primaryStage.setScene(createCalendarScene(primaryStage));
+    });
+    nextMonth.setOnAction(e -> {
+      calendarMonth = calendarMonth.plusMonths(1);
+      primaryStage.setScene(createCalendarScene(primaryStage));
+    });
+    close.setOnAction(e -> {
+      if (mainSceneByPriority) {
+        primaryStage.setScene(createPriorityMainScene(primaryStage));
+      } else {
+        primaryStage.setScene(createDateMainScene(primaryStage));
+      }
+    });
+
+    HBox innerBox = new HBox(prevMonth, close, nextMonth);
+    innerBox.setSpacing(10);
+    innerBox.setAlignment(Pos.CENTER);
+
+    pane.setTop(title);
+    pane.setAlignment(title, Pos.CENTER);
+    pane.setCenter(grid);
+    grid.setAlignment(Pos.CENTER);
+    pane.setBottom(innerBox);
+
+    Scene scene = new Scene(pane, 950, 650);
+    scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
+
+    return scene;
   }
 
   /**
-   * Adds the newly created activity to the date list, inserted after activities with previous due
-   * dates
+   * Creates the scene that displays statistics of the activities. The statistics are kept up to
+   * date as activities change, so reading them doesn't go through the activities, and the scene
+   * refreshes them every second while it is displayed.
    * 
-   * @param addedActivity, The activity to be added
+   * @param primaryStage, The main stage of the program
+   * @return Scene displaying the statistics of the activities
    */
-  public void addByDate(Activity addedActivity) {
+  private Scene createStatsScene(Stage primaryStage) {
 
-    int priority = addedActivity.getPriority();
-    LinkedList<Activity> dateList = (LinkedList<Activity>) activities.get(1);
-
-    if (dateList.size() == 0) {
-      dateList.add(addedActivity);
+    BorderPane pane = new BorderPane();
+    Label title = new Label("Statistics");
+    title.setStyle("-fx-text-fill: green; -fx-font-size: 16px;");
+    Button close = new Button("Close");
 
-    } else {
-      if (addedActivity.hasDeadline() == true) {
-        for (int i = 0; i < dateList.size(); ++i) {
-          // sort by which one has closest due date
-          if (calculateDate(addedActivity) < calculateDate(dateList.get(i))) {
-            dateList.add(i, addedActivity);
-            break;
+    VBox vbox = new VBox();
+    Label summary = new Label();
+    Label weeks = new Label();
+    Label priorities = new Label();
+    Label completion = new Label();
+    vbox.getChildren().addAll(summary, weeks, priorities, completion);
+    vbox.setSpacing(15);
+    for (Node node : vbox.getChildren()) {
+      node.setStyle("-fx-font-size: 16px;");
+    }
 
-          } else if (calculateDate(addedActivity) == calculateDate(dateList.get(i))) {
+    Runnable refresh = () -> {
+      summary.setText(stats.size() + " activities, " + graph.readyCount() + " ready, "
+          + stats.overdue() + " overdue, " + stats.undated() + " without due date");
 
-            // activities with the same due date are sorted by their priority
-            if (addedActivity.getPriority() > dateList.get(i).getPriority()) {
-              dateList.add(i, addedActivity);
+      LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+      StringBuilder due = new StringBuilder("Due per week:");
+      int[] counts = stats.dueByWeek(ActivityStats.WEEKS);
+      for (int i = 0; i < counts.length; ++i) {
+        due.append(i % 4 == 0 ? "\n" : "    ").append(
+            monday.plusWeeks(i).format(DateTimeFormatter.ofPattern("MM/dd")) + ": " + counts[i]);
+      }
+      due.append("\nLater: " + stats.dueFrom(monday.plusWeeks(ActivityStats.WEEKS)));
+      weeks.setText(due.toString());
+
+      StringBuilder bands = new StringBuilder("Activities per priority:");
+      int[] bandCounts = stats.priorityBands();
+      for (int i = bandCounts.length - 1; i >= 0; --i) {
+        int from = ActivityModel.MIN_PRIORITY + i * ActivityStats.PRIORITY_BAND;
+        int to = i == bandCounts.length - 1 ? ActivityModel.MAX_PRIORITY
+            : from + ActivityStats.PRIORITY_BAND - 1;
+        bands.append((bandCounts.length - 1 - i) % 5 == 0 ? "\n" : "    ")
+            .append(from + "-" + to + ": " + bandCounts[i]);
+      }
+      priorities.setText(bands.toString());
 
-            } else {
-              // 'if' statement used to prevent an out of bounds exception
-              if (i + 1 == dateList.size()) {
-                dateList.add(addedActivity);
-
-              } else {
-                if (calculateDate(addedActivity) == calculateDate(dateList.get(i + 1))) {
-                  continue;
-                }
-                // if next activity in the list doesn't have the same date, it means it has a
-                // posterior date, so new activity is inserted before it
-                dateList.add(i + 1, addedActivity);
-              }
-            }
-            break;
+      completion.setText(String.format(
+          "%d completed, completion rate %.1f%%, average age %.1f days", stats.completed(),
+          stats.completionRate() * 100, stats.averageAge() / 86_400_000.0));
+    };
+    refresh.run();
 
-          } else if (i == (dateList.size() - 1)) {
-            // if entire list is traversed the new activity is the one with latest due date
-            dateList.add(addedActivity);
-            break;
-          }
-        }
+    Timeline update = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh.run()));
+    update.setCycleCount(Animation.INDEFINITE);
+    update.play();
 
+    close.setOnAction(e -> {
+      update.stop();
+      if (mainSceneByPriority) {
+        primaryStage.setScene(createPriorityMainScene(primaryStage));
       } else {
-        if (dateList.getLast().hasDeadline()) {
-          dateList.add(addedActivity);
+        primaryStage.setScene(createDateMainScene(primaryStage));
+      }
+    });
 
-        } else {
-          if (addedActivity.getPriority() > dateList.getLast().getPriority()) {
-            dateList.add(dateList.indexOf(dateList.getLast()), addedActivity);
+    pane.setTop(title);
+    pane.setAlignment(title, Pos.CENTER);
+    pane.setCenter(vbox);
+    vbox.setAlignment(Pos.CENTER);
+    pane.setBottom(close);
+    pane.setAlignment(close, Pos.CENTER);
 
-          } else {
-            dateList.add(addedActivity);
-          }
-        }
-      }
-    }
+    Scene scene = new Scene(pane, 900, 500);
+    scene.getStylesheets().add(getClass().getResource("application.css").toExternalForm());
 
+    return scene;
   }
 
   /**
-   * Calculates the date of an activity as a long value representing the number of days that have
-   * passed
+   * Creates the button of an activity in the main scenes from its render model, which holds its
+   * label and the style class of its priority
    * 
-   * @param addedActivity, The activity to be added
-   * @return The activity's date represented as the number of days so far accumulated
+   * @param activity, The activity
+   * @return the button
    */
-  public long calculateDate(Activity addedActivity) {
+  private Button row(Activity activity) {
 
-    long dateVal = 0;
-    String dateInput = addedActivity.getDate();
+    RenderModel render = RenderModel.of(activity);
+    String blocked = blockedLabel(activity);
+    Button button = new Button(blocked.isEmpty() ? render.getLabel() : render.getLabel() + blocked);
+    button.getStyleClass().addAll(RenderModel.ROW_CLASS, render.getStyleClass());
+    return button;
+  }
 
-    // activities without due date have their date calculated as the most posterior date possible
-    if (!addedActivity.hasDeadline()) {
-      return Long.MAX_VALUE;
-    }
+  /**
+   * Creates the text shown next to an activity's description when other activities block it
+   * 
+   * @param activity, The activity
+   * @return number of activities blocking the activity in brackets, empty if it is ready
+   */
+  private String blockedLabel(Activity activity) {
 
-    dateInput = dateInput.trim();
+    if (graph.isReady(activity)) {
+      return "";
+    }
+    return " (blocked by " + graph.blockers(activity).size() + ")";
+  }
 
-    int month = 0;
-    int day = 0;
-    int year = 0;
-    String[] numbers = dateInput.split("/");
+  /**
+   * Creates the text describing what an activity waits on
+   * 
+   * @param activity, The activity
+   * @return the activities blocking the activity, or that it is ready
+   */
+  private String relationsLabel(Activity activity) {
 
-    // correct date format input has been checked by correctInputEntered() method
-    try {
-      month = Integer.parseInt(numbers[0]);
-      day = Integer.parseInt(numbers[1]);
-      year = Integer.parseInt(numbers[2]);
-
-      if (year % 4 == 0) {
-        dateVal = (long) (day + daysSoFar[month - 1] + (year * 365.25));
-        // accounts for the extra day in the leap year
-        if (month > 2) {
-          ++dateVal;
-        }
+    List<Activity> blockers = graph.blockers(activity);
+    if (blockers.isEmpty()) {
+      return "Ready to be worked on";
+    }
 
-      } else {
-        int i = year % 4;
-        int j = year - i;
-        dateVal = (long) (day + daysSoFar[month - 1] + (j * 365.25 + i * 365));
+    StringBuilder label = new StringBuilder("Waiting on: ");
+    for (int i = 0; i < blockers.size(); ++i) {
+      if (i > 0) {
+        label.append(", ");
+      }
+      label.append(blockers.get(i).getDescription());
+      if (blockers.get(i).getParent() == activity.getId()) {
+        label.append(" (subtask)");
       }
-
-    } catch (NumberFormatException e) {
-      e.printStackTrace();
     }
-
-    return dateVal;
+    return label.toString();
   }
 
   /**
-   * Checks if user entered activity fields in a correct format
+   * Creates a combo box listing every time zone
    * 
-   * @param enteredActivity, The activity that is entered by the user
-   * @return String indicating if user used correct format for inputed fields
+   * @param selected, The zone initially selected, null for the system default zone
+   * @return combo box of zone identifiers
    */
-  public String correctInputEntered(Activity enteredActivity) {
+  private ComboBox<String> createZoneBox(String selected) {
 
-    String description = enteredActivity.getDescription();
-    description = description.trim();
+    List<String> zones = new ArrayList<String>(ZoneId.getAvailableZoneIds());
+    Collections.sort(zones);
 
-    if (description.isEmpty()) {
-      return "Error: No activity description was entered.";
-    }
+    ComboBox<String> zone = new ComboBox<String>();
+    zone.getItems().addAll(zones);
+    zone.setValue(selected == null ? ZoneId.systemDefault().getId() : selected);
+    return zone;
+  }
 
-    if (enteredActivity.hasDeadline() == true) {
+  /**
+   * Creates a spinner for choosing a priority, in which a priority can also be typed
+   * 
+   * @param selected, The priority initially selected
+   * @return spinner of priorities between MIN_PRIORITY and MAX_PRIORITY
+   */
+  private Spinner<Integer> createPrioritySpinner(int selected) {
 
-      String date = enteredActivity.getDate();
-      date = date.trim();
-      String[] numbers = date.split("/");
+    Spinner<Integer> priority =
+        new Spinner<Integer>(ActivityModel.MIN_PRIORITY, ActivityModel.MAX_PRIORITY, selected, 10);
+    priority.setEditable(true);
+    priority.setMaxWidth(100);
+    return priority;
+  }
 
-      // multiple scenarios of bad input checked for, such as
-      if (numbers.length != 3) {
-        return "Error: Improper date format.";
-      }
+  /**
+   * Reads the priority entered by the user, including one typed but not yet committed
+   * 
+   * @param priority, The priority spinner
+   * @return the entered priority, -1 if what was typed is not a number
+   */
+  private int priorityInput(Spinner<Integer> priority) {
 
-      int month;
-      int day;
-      int year;
+    try {
+      return Integer.parseInt(priority.getEditor().getText().trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
 
-      try {
-        month = Integer.parseInt(numbers[0]);
-        day = Integer.parseInt(numbers[1]);
-        year = Integer.parseInt(numbers[2]);
+  /**
+   * Reads the due time entered by the user
+   * 
+   * @param time, The time text field
+   * @return the entered time, null if none was entered
+   */
+  private String timeInput(TextField time) {
 
-      } catch (NumberFormatException e) {
-        return "Error: Improper date format, numbers must be entered.";
-      }
+    String text = time.getText();
+    return text == null || text.trim().isEmpty() ? null : text;
+  }
 
-      if (!isValidDate(month, day, year)) {
-        return "Error: Improper values for date numbers.";
-      }
-    }
+  /**
+   * Reads the zone chosen by the user
+   * 
+   * @param zone, The zone combo box
+   * @return the chosen zone, null if the system default zone was left selected
+   */
+  private String zoneInput(ComboBox<String> zone) {
 
-    return "Success";
+    String value = zone.getValue();
+    return value == null || value.equals(ZoneId.systemDefault().getId()) ? null : value;
   }
 
   /**
-   * Checks if date entered by the user is valid or not
+   * Deletes all the activities in the program
    * 
-   * @param month, The month the user specified
-   * @param day, The day the user specified
-   * @param year, The year the user specified
-   * @return true if the date is valid, false otherwise
+   * @param primaryStage, The main stage of the program
    */
-  public Boolean isValidDate(int month, int day, int year) {
+  public void deleteAll(Stage primaryStage) {
 
-    if (year > 0) {
-      
-      if (month > 12 || month < 1) {
-        return false;
-      }
-      // takes leap year into consideration
-      if (year % 4 == 0 && day == 29 && month == 2) {
-        return true;
+    BorderPane pane = new BorderPane();
+    Label prompt = new Label("Are you sure you want to delete all activities?");
+    Button yes = new Button("Yes");
+    Button no = new Button("No");
+    VBox vbox = new VBox();
+    vbox.setSpacing(30);
+    vbox.getChildren().addAll(prompt, yes, no);
+
+    pane.setCenter(vbox);
+    vbox.setAlignment(Pos.CENTER);
 
+    Scene scene = new Scene(pane, 400, 200);
+    Stage secondaryStage = new Stage();
+    secondaryStage.setScene(scene);
+
+    yes.setOnAction(e -> {
+      pageRank = 1;
+      model.deleteAll();
+      secondaryStage.close();
+
+      if (mainSceneByPriority) {
+        primaryStage.setScene(createPriorityMainScene(primaryStage));
       } else {
-        if (day <= validDate[month - 1] && day >= 1) {
-          return true;
-        }
+        primaryStage.setScene(createDateMainScene(primaryStage));
       }
-    }
-    return false;
+    });
+
+    no.setOnAction(e -> secondaryStage.close());
+
+    secondaryStage.show();
   }
 
   /**
@@ -0,0 +1,257 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ParallelRebuild.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The following class re-derives the priority and date orderings of a set of activities in bulk.
+ * Activities are first validated with the rules of correctInputEntered() in parallel, and the ones
+ * that pass are then sorted with a parallel merge sort for each ordering. The sort keys and
+ * insertion sequence of every activity are read once during validation so the sorts only compare
+ * longs.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ParallelRebuild {
+
+  // below this many elements a task does its work sequentially instead of splitting further
+  static final int SEQUENTIAL_THRESHOLD = 8192;
+
+  // activities of greater priority first, those of the same priority by the position they were
+  // given, then by sooner due date, so the activities without a position come first
+  private static final Comparator<Entry> PRIORITY_ORDER = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry a, Entry b) {
+      int order = Long.compare(a.priorityKey >>> SortKey.MINUTE_BITS,
+          b.priorityKey >>> SortKey.MINUTE_BITS);
+      if (order == 0) {
+        order = Long.compare(a.position, b.position);
+      }
+      return order != 0 ? order
+          : SortKey.compare(a.priorityKey, a.sequence, b.priorityKey, b.sequence);
+    }
+  };
+
+  // activities with sooner due date first, those with the same due date by greater priority
+  private static final Comparator<Entry> DATE_ORDER = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry a, Entry b) {
+      return SortKey.compare(a.dateKey, a.sequence, b.dateKey, b.sequence);
+    }
+  };
+
+  /**
+   * The outcome of a rebuild, both orderings of the valid activities and the rejected ones
+   */
+  public static class Result {
+
+    public final Activity[] byPriority; // valid activities ordered by priority
+    public final Activity[] byDate; // valid activities ordered by due date
+    public final List<Activity> rejected; // activities that failed validation
+
+    Result(Activity[] byPriority, Activity[] byDate, List<Activity> rejected) {
+
+      this.byPriority = byPriority;
+      this.byDate = byDate;
+      this.rejected = rejected;
+    }
+  }
+
+  /**
+   * Validates and sorts the given activities on the given pool
+   *
+   * @param model, The model whose date and validation rules are used
+   * @param activities, The activities to be ordered, in their current date order
+   * @param pool, The pool the tasks run on
+   * @return Both orderings of the valid activities, and the activities that were rejected
+   */
+  public static Result rebuild(ActivityModel model, Activity[] activities, ForkJoinPool pool) {
+
+    Entry[] entries = new Entry[activities.length];
+    pool.invoke(new ValidateTask(model, activities, entries, 0, activities.length));
+
+    // valid entries are compacted in their original order so that the sorts stay stable with
+    // respect to the order the activities were in before the rebuild
+    List<Activity> rejected = new ArrayList<Activity>();
+    int valid = 0;
+    for (int i = 0; i < entries.length; ++i) {
+      if (entries[i] == null) {
+        rejected.add(activities[i]);
+      } else {
+        entries[valid++] = entries[i];
+      }
+    }
+
+    Entry[] byPriority = new Entry[valid];
+    Entry[] byDate = new Entry[valid];
+    System.arraycopy(entries, 0, byPriority, 0, valid);
+    System.arraycopy(entries, 0, byDate, 0, valid);
+
+    pool.invoke(new SortTask(byPriority, new Entry[valid], 0, valid, PRIORITY_ORDER));
+    pool.invoke(new SortTask(byDate, entries, 0, valid, DATE_ORDER));
+
+    return new Result(toActivities(byPriority), toActivities(byDate),
+        Collections.unmodifiableList(rejected));
+  }
+
+  /**
+   * Unwraps sorted entries into their activities
+   *
+   * @param entries, The sorted entries
+   * @return The activities in the same order
+   */
+  private static Activity[] toActivities(Entry[] entries) {
+
+    Activity[] result = new Activity[entries.length];
+    for (int i = 0; i < entries.length; ++i) {
+      result[i] = entries[i].activity;
+    }
+    return result;
+  }
+
+  /**
+   * An activity paired with its sort keys, insertion sequence and position, read once before
+   * sorting
+   */
+  private static class Entry {
+
+    final Activity activity;
+    final long priorityKey;
+    final long dateKey;
+    final long sequence;
+    final long position; // within the priority, 0 if the activity has none
+
+    Entry(Activity activity) {
+
+      this.activity = activity;
+      this.priorityKey = activity.getPriorityKey();
+      this.dateKey = activity.getDateKey();
+      this.sequence = activity.getSequence();
+      this.position = activity.getPosition();
+    }
+  }
+
+  /**
+   * Validates a range of activities, storing an entry for each valid one and null otherwise
+   */
+  private static class ValidateTask extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ActivityModel model;
+    private final Activity[] activities;
+    private final Entry[] entries;
+    private final int from;
+    private final int to;
+
+    ValidateTask(ActivityModel model, Activity[] activities, Entry[] entries, int from, int to) {
+
+      this.model = model;
+      this.activities = activities;
+      this.entries = entries;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * @return Number of valid activities in the range
+     */
+    @Override
+    protected Integer compute() {
+
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        int valid = 0;
+        for (int i = from; i < to; ++i) {
+          Activity activity = activities[i];
+          if (model.correctInputEntered(activity).equals("Success")) {
+            entries[i] = new Entry(activity);
+            ++valid;
+          }
+        }
+        return valid;
+      }
+
+      int mid = (from + to) >>> 1;
+      ValidateTask left = new ValidateTask(model, activities, entries, from, mid);
+      left.fork();
+      int right = new ValidateTask(model, activities, entries, mid, to).compute();
+      return left.join() + right;
+    }
+  }
+
+  /**
+   * Stable merge sort of a range, splitting both halves into parallel subtasks
+   */
+  private static class SortTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Entry[] array;
+    private final Entry[] buffer;
+    private final int from;
+    private final int to;
+    private final Comparator<Entry> order;
+
+    SortTask(Entry[] array, Entry[] buffer, int from, int to, Comparator<Entry> order) {
+
+      this.array = array;
+      this.buffer = buffer;
+      this.from = from;
+      this.to = to;
+      this.order = order;
+    }
+
+    @Override
+    protected void compute() {
+
+      if (to - from <= SEQUENTIAL_THRESHOLD) {
+        // Arrays.sort on objects is a stable merge sort as well
+        Arrays.sort(array, from, to, order);
+        return;
+      }
+
+      int mid = (from + to) >>> 1;
+      invokeAll(new SortTask(array, buffer, from, mid, order),
+          new SortTask(array, buffer, mid, to, order));
+
+      // already in order, happens often when only a few activities changed since the last rebuild
+      if (order.compare(array[mid - 1], array[mid]) <= 0) {
+        return;
+      }
+
+      System.arraycopy(array, from, buffer, from, to - from);
+      int i = from;
+      int j = mid;
+      int k = from;
+      while (i < mid && j < to) {
+        // taking from the left half on ties keeps the sort stable
+        if (order.compare(buffer[j], buffer[i]) < 0) {
+          array[k++] = buffer[j++];
+        } else {
+          array[k++] = buffer[i++];
+        }
+      }
+      while (i < mid) {
+        array[k++] = buffer[i++];
+      }
+      while (j < to) {
+        array[k++] = buffer[j++];
+      }
+    }
+  }
+}
@@ -0,0 +1,410 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: PriorityIndex.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * The following class orders activities by priority, greater priority first. There is a bucket
+ * for every priority some activity has, kept in a sorted map, so any range of priorities can be
+ * used without a list for every possible value. Within a bucket activities are kept in a sequence
+ * that can be rearranged by hand, stored as a RankTree, so an activity can be inserted at, found
+ * at, or removed from any position in logarithmic time.
+ *
+ * Activities are placed in their bucket by their priority key, sooner due date first, and then by
+ * insertion, unless a position is given. Every activity is also given a position number, spread
+ * apart from those of its neighbors and increasing along its bucket. The numbers are saved with
+ * the activities, so the order given by hand is found again when they are loaded or rebuilt. An
+ * activity placed between two others usually only needs a number between theirs, and a bucket is
+ * only renumbered when two neighbors run out of room between them.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class PriorityIndex implements Iterable<Activity> {
+
+  static final long POSITION_GAP = 1L << 20; // room left between the positions of neighbors
+
+  private static final Comparator<Activity> PRIORITY_ORDER = Activity::compareByPriority;
+  private static final Comparator<Activity> POSITION_ORDER =
+      Comparator.comparingLong(Activity::getPosition);
+
+  /**
+   * The activities of one priority
+   */
+  private static class Bucket extends RankTree {
+
+    final int priority;
+
+    Bucket(int priority, Random random) {
+
+      super(random);
+      this.priority = priority;
+    }
+  }
+
+  // buckets by priority, greater priority first, only priorities with activities have one
+  private final TreeMap<Integer, Bucket> buckets =
+      new TreeMap<Integer, Bucket>(Collections.reverseOrder());
+
+  private final Map<Activity, RankTree.Node> nodes = new IdentityHashMap<Activity, RankTree.Node>();
+
+  private final Random random = new Random();
+
+  /**
+   * Getter method for the number of activities
+   *
+   * @return number of activities in the index
+   */
+  public int size() {
+
+    return nodes.size();
+  }
+
+  /**
+   * Getter method for the priorities activities have
+   *
+   * @return the priorities with at least one activity, greater priority first
+   */
+  public NavigableSet<Integer> priorities() {
+
+    return Collections.unmodifiableNavigableSet(buckets.navigableKeySet());
+  }
+
+  /**
+   * Getter method for the number of activities of a priority
+   *
+   * @param priority, The priority
+   * @return number of activities with the priority
+   */
+  public int count(int priority) {
+
+    Bucket bucket = buckets.get(priority);
+    return bucket == null ? 0 : bucket.size();
+  }
+
+  /**
+   * Indicates if an activity is in the index
+   *
+   * @param activity, The activity
+   * @return true if the activity is in the index
+   */
+  public boolean contains(Activity activity) {
+
+    return nodes.containsKey(activity);
+  }
+
+  /**
+   * Adds an activity to the bucket of its priority. An activity that already has a position, such
+   * as one loaded from a file, goes by its position, and any other after the activities that come
+   * before it or with it in priority order.
+   *
+   * @param activity, The activity to be added
+   */
+  public void add(Activity activity) {
+
+    Bucket bucket = buckets.get(activity.getPriority());
+    if (bucket == null) {
+      add(activity, 0);
+    } else if (activity.getPosition() > 0) {
+      add(activity, bucket.positionFor(activity, POSITION_ORDER));
+    } else {
+      add(activity, bucket.positionFor(activity, PRIORITY_ORDER));
+    }
+  }
+
+  /**
+   * Adds an activity at a position within the bucket of its priority
+   *
+   * @param activity, The activity to be added
+   * @param position, Number of activities of the same priority to come before it
+   */
+  public void add(Activity activity, int position) {
+
+    if (nodes.containsKey(activity)) {
+      throw new IllegalArgumentException("Activity already in the index");
+    }
+    RankTree.Node node = bucketOf(activity.getPriority()).insert(activity, position);
+    nodes.put(activity, node);
+    place(node);
+  }
+
+  /**
+   * Removes an activity, dropping the bucket of its priority if it was the last one
+   *
+   * @param activity, The activity to be removed
+   * @return true if the activity was in the index
+   */
+  public boolean remove(Activity activity) {
+
+    RankTree.Node node = nodes.remove(activity);
+    if (node == null) {
+      return false;
+    }
+
+    Bucket bucket = (Bucket) node.tree;
+    bucket.remove(node);
+    if (bucket.size() == 0) {
+      buckets.remove(bucket.priority);
+    }
+    return true;
+  }
+
+  /**
+   * Removes every activity
+   */
+  public void clear() {
+
+    buckets.clear();
+    nodes.clear();
+  }
+
+  /**
+   * Adds activities already ordered by priority and, within a priority, by position, the ones
+   * without a position first and those by priority key. Every bucket the index doesn't have yet is
+   * built in time linear in its size, except for activities without a position joining others
+   * that have one, which are each placed by their priority key.
+   *
+   * @param ordered, The activities, greater priority first
+   */
+  public void addAll(Activity[] ordered) {
+
+    int start = 0;
+    while (start < ordered.length) {
+      int priority = ordered[start].getPriority();
+      int end = start + 1;
+      while (end < ordered.length && ordered[end].getPriority() == priority) {
+        ++end;
+      }
+
+      Bucket bucket = bucketOf(priority);
+      if (bucket.size() > 0) {
+        for (int i = start; i < end; ++i) {
+          add(ordered[i], bucket.size());
+        }
+        start = end;
+        continue;
+      }
+
+      int placed = start;
+      while (placed < end && ordered[placed].getPosition() <= 0) {
+        ++placed;
+      }
+      if (placed == end) {
+        // none has a position yet, such as activities of an older file
+        bucket.append(ordered, start, end, nodes);
+        renumber(bucket);
+      } else {
+        bucket.append(ordered, placed, end, nodes);
+        for (int i = placed + 1; i < end; ++i) {
+          // two activities given the same position, such as by a file edited by hand
+          if (ordered[i].getPosition() <= ordered[i - 1].getPosition()) {
+            renumber(bucket);
+            break;
+          }
+        }
+        for (int i = start; i < placed; ++i) {
+          add(ordered[i], bucket.positionFor(ordered[i], PRIORITY_ORDER));
+        }
+      }
+      start = end;
+    }
+  }
+
+  /**
+   * Getter method for the activity at a position of the whole order
+   *
+   * @param rank, Number of activities before it
+   * @return the activity
+   * @throws IndexOutOfBoundsException if there are not enough activities
+   */
+  public Activity get(int rank) {
+
+    if (rank < 0 || rank >= size()) {
+      throw new IndexOutOfBoundsException("Rank " + rank + " of " + size());
+    }
+    for (Bucket bucket : buckets.values()) {
+      if (rank < bucket.size()) {
+        return bucket.get(rank).activity;
+      }
+      rank -= bucket.size();
+    }
+    throw new IllegalStateException();
+  }
+
+  /**
+   * Getter method for the position of an activity in the whole order
+   *
+   * @param activity, The activity
+   * @return number of activities before it, -1 if it is not in the index
+   */
+  public int rankOf(Activity activity) {
+
+    RankTree.Node node = nodes.get(activity);
+    if (node == null) {
+      return -1;
+    }
+
+    int rank = RankTree.positionOf(node);
+    for (Bucket bucket : buckets.headMap(((Bucket) node.tree).priority, false).values()) {
+      rank += bucket.size();
+    }
+    return rank;
+  }
+
+  /**
+   * Getter method for the position of an activity among those of its priority
+   *
+   * @param activity, The activity
+   * @return number of activities of the same priority before it, -1 if it is not in the index
+   */
+  public int positionOf(Activity activity) {
+
+    RankTree.Node node = nodes.get(activity);
+    return node == null ? -1 : RankTree.positionOf(node);
+  }
+
+  /**
+   * Getter method for consecutive activities of the whole order. Whole buckets before them are
+   * skipped by their size.
+   *
+   * @param skip, Number of activities before the first one returned
+   * @param count, Maximum number of activities returned
+   * @return the activities, greater priority first
+   */
+  public List<Activity> range(int skip, int count) {
+
+    List<Activity> range = new ArrayList<Activity>(Math.max(0, Math.min(count, size() - skip)));
+    for (Bucket bucket : buckets.values()) {
+      if (skip >= bucket.size()) {
+        skip -= bucket.size();
+        continue;
+      }
+
+      for (RankTree.Node node = bucket.get(skip); node != null && range.size() < count;
+          node = RankTree.successor(node)) {
+        range.add(node.activity);
+      }
+      skip = 0;
+
+      if (range.size() == count) {
+        break;
+      }
+    }
+    return range;
+  }
+
+  /**
+   * Iterates over every activity, greater priority first
+   */
+  @Override
+  public Iterator<Activity> iterator() {
+
+    Iterator<Bucket> remaining = buckets.values().iterator();
+
+    return new Iterator<Activity>() {
+
+      private RankTree.Node next = remaining.hasNext() ? remaining.next().first() : null;
+
+      @Override
+      public boolean hasNext() {
+
+        return next != null;
+      }
+
+      @Override
+      public Activity next() {
+
+        if (next == null) {
+          throw new NoSuchElementException();
+        }
+        Activity activity = next.activity;
+        next = RankTree.successor(next);
+        if (next == null && remaining.hasNext()) {
+          next = remaining.next().first();
+        }
+        return activity;
+      }
+    };
+  }
+
+  /**
+   * Gives an activity just inserted a position between those of its neighbors, keeping its own if
+   * it already lies between them, and renumbers its bucket if there is no room left
+   *
+   * @param node, The node of the activity
+   */
+  private static void place(RankTree.Node node) {
+
+    RankTree.Node before = RankTree.predecessor(node);
+    RankTree.Node after = RankTree.successor(node);
+    long low = before == null ? 0 : before.activity.getPosition();
+    long own = node.activity.getPosition();
+
+    if (after == null) {
+      if (own > low) {
+        return;
+      }
+      if (low <= Long.MAX_VALUE - POSITION_GAP) {
+        node.activity.setPosition(low + POSITION_GAP);
+        return;
+      }
+    } else {
+      long high = after.activity.getPosition();
+      if (own > low && own < high) {
+        return;
+      }
+      if (high - low >= 2) {
+        node.activity.setPosition(low + Math.min(POSITION_GAP, (high - low) / 2));
+        return;
+      }
+    }
+    renumber((Bucket) node.tree);
+  }
+
+  /**
+   * Spreads the positions of every activity of a bucket evenly apart again, in its current order
+   *
+   * @param bucket, The bucket
+   */
+  private static void renumber(Bucket bucket) {
+
+    long position = 0;
+    for (RankTree.Node node = bucket.first(); node != null; node = RankTree.successor(node)) {
+      position += POSITION_GAP;
+      node.activity.setPosition(position);
+    }
+  }
+
+  /**
+   * Getter method for the bucket of a priority, created if no activity has the priority yet
+   *
+   * @param priority, The priority
+   * @return the bucket
+   */
+  private Bucket bucketOf(int priority) {
+
+    Bucket bucket = buckets.get(priority);
+    if (bucket == null) {
+      bucket = new Bucket(priority, random);
+      buckets.put(priority, bucket);
+    }
+    return bucket;
+  }
+}
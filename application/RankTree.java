@@ -0,0 +1,374 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: RankTree.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The following class keeps activities in a sequence stored as a treap ordered by position, whose
+ * nodes count the nodes below them, so an activity can be inserted at, found at, or removed from
+ * any position in logarithmic time. The tree has no order of its own: the indexes using it decide
+ * the position every activity goes to, and map each activity to its node to find it again.
+ *
+ * @author Luis J Finol
+ *
+ */
+class RankTree {
+
+  /**
+   * An activity in the treap
+   */
+  static final class Node {
+
+    final Activity activity;
+    final RankTree tree; // the tree the node is in
+    final int weight; // random, every node weighs more than its children, keeping the treap low
+    Node left;
+    Node right;
+    Node parent;
+    int size = 1; // number of nodes in the subtree of this node
+
+    Node(Activity activity, RankTree tree, int weight) {
+
+      this.activity = activity;
+      this.tree = tree;
+      this.weight = weight;
+    }
+  }
+
+  private final Random random; // weighs the nodes
+  private Node root;
+
+  /**
+   * Creates an empty tree
+   *
+   * @param random, Weighs the nodes, shared by the trees of an index
+   */
+  RankTree(Random random) {
+
+    this.random = random;
+  }
+
+  /**
+   * Getter method for the number of activities
+   *
+   * @return number of activities in the tree
+   */
+  int size() {
+
+    return size(root);
+  }
+
+  /**
+   * Inserts an activity at a position
+   *
+   * @param activity, The activity
+   * @param position, Number of activities to come before it, limited to the size of the tree
+   * @return the node of the activity
+   */
+  Node insert(Activity activity, int position) {
+
+    Node node = new Node(activity, this, random.nextInt());
+    position = Math.max(0, Math.min(position, size()));
+    Node[] halves = split(root, position);
+    root = merge(merge(halves[0], node), halves[1]);
+    root.parent = null;
+    return node;
+  }
+
+  /**
+   * Removes a node of the tree
+   *
+   * @param node, The node
+   */
+  void remove(Node node) {
+
+    Node[] halves = split(root, positionOf(node));
+    Node[] rest = split(halves[1], 1);
+    root = merge(halves[0], rest[1]);
+    if (root != null) {
+      root.parent = null;
+    }
+  }
+
+  /**
+   * Removes every activity
+   */
+  void clear() {
+
+    root = null;
+  }
+
+  /**
+   * Appends activities already in the order of the tree, building the tree in time linear in their
+   * number if it is empty, keeping the right spine of the treap built so far on a stack
+   *
+   * @param ordered, The activities
+   * @param start, Index of the first activity, inclusive
+   * @param end, Index of the last activity, exclusive
+   * @param nodes, Where the node of every activity is mapped
+   */
+  void append(Activity[] ordered, int start, int end, Map<Activity, Node> nodes) {
+
+    if (root != null) {
+      for (int i = start; i < end; ++i) {
+        nodes.put(ordered[i], insert(ordered[i], size()));
+      }
+      return;
+    }
+
+    Deque<Node> spine = new ArrayDeque<Node>();
+    for (int i = start; i < end; ++i) {
+      Node node = new Node(ordered[i], this, random.nextInt());
+      nodes.put(ordered[i], node);
+
+      Node lighter = null;
+      while (!spine.isEmpty() && spine.peek().weight < node.weight) {
+        lighter = spine.pop();
+      }
+      node.left = lighter;
+      if (!spine.isEmpty()) {
+        spine.peek().right = node;
+      }
+      spine.push(node);
+    }
+
+    root = spine.peekLast();
+    if (root != null) {
+      recount(root);
+      root.parent = null;
+    }
+  }
+
+  /**
+   * Getter method for the node at a position
+   *
+   * @param position, Number of nodes before it, which must be less than the size of the tree
+   * @return the node
+   */
+  Node get(int position) {
+
+    Node node = root;
+    while (true) {
+      int left = size(node.left);
+      if (position < left) {
+        node = node.left;
+      } else if (position == left) {
+        return node;
+      } else {
+        position -= left + 1;
+        node = node.right;
+      }
+    }
+  }
+
+  /**
+   * Getter method for the first node
+   *
+   * @return the first node, null if the tree is empty
+   */
+  Node first() {
+
+    return root == null ? null : first(root);
+  }
+
+  /**
+   * Finds the position after every node that comes before an activity or with it in an order the
+   * tree is sorted by
+   *
+   * @param activity, The activity being placed
+   * @param order, The order
+   * @return number of nodes before the position
+   */
+  int positionFor(Activity activity, Comparator<Activity> order) {
+
+    int position = 0;
+    Node node = root;
+    while (node != null) {
+      if (order.compare(activity, node.activity) < 0) {
+        node = node.left;
+      } else {
+        position += size(node.left) + 1;
+        node = node.right;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Getter method for the position of a node in its tree
+   *
+   * @param node, The node
+   * @return number of nodes before it
+   */
+  static int positionOf(Node node) {
+
+    int position = size(node.left);
+    while (node.parent != null) {
+      if (node == node.parent.right) {
+        position += size(node.parent.left) + 1;
+      }
+      node = node.parent;
+    }
+    return position;
+  }
+
+  /**
+   * Getter method for the node after another in its tree
+   *
+   * @param node, The node
+   * @return the next node, null if it is the last one
+   */
+  static Node successor(Node node) {
+
+    if (node.right != null) {
+      return first(node.right);
+    }
+    while (node.parent != null && node == node.parent.right) {
+      node = node.parent;
+    }
+    return node.parent;
+  }
+
+  /**
+   * Getter method for the node before another in its tree
+   *
+   * @param node, The node
+   * @return the previous node, null if it is the first one
+   */
+  static Node predecessor(Node node) {
+
+    if (node.left != null) {
+      node = node.left;
+      while (node.right != null) {
+        node = node.right;
+      }
+      return node;
+    }
+    while (node.parent != null && node == node.parent.left) {
+      node = node.parent;
+    }
+    return node.parent;
+  }
+
+  private static int size(Node node) {
+
+    return node == null ? 0 : node.size;
+  }
+
+  private static Node first(Node node) {
+
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  /**
+   * Recounts the subtree of a node after its children changed, and points them back at it
+   *
+   * @param node, The node whose children changed
+   */
+  private static void update(Node node) {
+
+    node.size = 1 + size(node.left) + size(node.right);
+    if (node.left != null) {
+      node.left.parent = node;
+    }
+    if (node.right != null) {
+      node.right.parent = node;
+    }
+  }
+
+  /**
+   * Splits a treap in two
+   *
+   * @param node, Root of the treap
+   * @param count, Number of nodes to go into the first part
+   * @return the roots of the first count nodes and of the rest
+   */
+  private static Node[] split(Node node, int count) {
+
+    if (node == null) {
+      return new Node[2];
+    }
+
+    Node[] halves;
+    if (size(node.left) >= count) {
+      halves = split(node.left, count);
+      node.left = halves[1];
+      update(node);
+      halves[1] = node;
+    } else {
+      halves = split(node.right, count - size(node.left) - 1);
+      node.right = halves[0];
+      update(node);
+      halves[0] = node;
+    }
+    node.parent = null;
+    return halves;
+  }
+
+  /**
+   * Joins two treaps, all the nodes of the first coming before those of the second
+   *
+   * @param first, Root of the first treap
+   * @param second, Root of the second treap
+   * @return the root of the joined treap
+   */
+  private static Node merge(Node first, Node second) {
+
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+
+    if (first.weight > second.weight) {
+      first.right = merge(first.right, second);
+      update(first);
+      return first;
+    }
+    second.left = merge(first, second.left);
+    update(second);
+    return second;
+  }
+
+  /**
+   * Recounts every subtree of a freshly built treap, children before parents
+   *
+   * @param root, Root of the treap
+   */
+  private static void recount(Node root) {
+
+    Deque<Node> pending = new ArrayDeque<Node>();
+    List<Node> order = new ArrayList<Node>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node node = pending.pop();
+      order.add(node);
+      if (node.left != null) {
+        pending.push(node.left);
+      }
+      if (node.right != null) {
+        pending.push(node.right);
+      }
+    }
+    for (int i = order.size() - 1; i >= 0; --i) {
+      update(order.get(i));
+    }
+  }
+}
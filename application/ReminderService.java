@@ -0,0 +1,205 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ReminderService.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The following class reminds the user of activities whose due date or time arrives. A reminder is
+ * scheduled on a timing wheel for every activity with a due date as it is added, moved when the
+ * activity is edited and cancelled when it is deleted, each in constant time. A background thread
+ * moves the wheel forward and hands the activities whose reminder is due to a callback.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ReminderService implements ActivityListener {
+
+  // activities that are only due on a day are reminded about at this time of that day, in the
+  // zone of their due date
+  private static final LocalTime REMINDER_TIME = LocalTime.of(9, 0);
+
+  private static final long TICK_MILLIS = 1000; // reminders are precise to the second
+
+  private final TimingWheel<Activity> wheel =
+      new TimingWheel<Activity>(TICK_MILLIS, System.currentTimeMillis());
+
+  // the pending reminder of every activity that has one
+  private final Map<Activity, TimingWheel.Timeout<Activity>> reminders =
+      new IdentityHashMap<Activity, TimingWheel.Timeout<Activity>>();
+
+  private final Consumer<Activity> callback; // called from the background thread
+  private ScheduledExecutorService ticker;
+
+  /**
+   * Creates a service that reminds about the activities of a model
+   *
+   * @param model, The model whose activities are reminded about
+   * @param callback, Receives every activity whose reminder is due, on a background thread
+   */
+  public ReminderService(ActivityModel model, Consumer<Activity> callback) {
+
+    this.callback = callback;
+
+    for (Activity activity : model.getDateList()) {
+      activityAdded(activity);
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Starts the background thread that moves the wheel forward once per tick
+   */
+  public synchronized void start() {
+
+    if (ticker != null) {
+      return;
+    }
+
+    ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "reminders");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    ticker.scheduleAtFixedRate(
+        () -> wheel.advance(System.currentTimeMillis(), this::remind), TICK_MILLIS, TICK_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops the background thread, pending reminders are kept
+   */
+  public synchronized void stop() {
+
+    if (ticker != null) {
+      ticker.shutdownNow();
+      ticker = null;
+    }
+  }
+
+  /**
+   * Getter method for the number of pending reminders
+   *
+   * @return number of reminders that are yet to be due
+   */
+  public int pending() {
+
+    return wheel.size();
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    schedule(activity);
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    cancel(previous);
+    schedule(updated);
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    cancel(activity);
+  }
+
+  /**
+   * Schedules the reminder of an activity with due date, unless it is no longer due. Activities
+   * due at a time are reminded about at that time, and those due on a day at REMINDER_TIME.
+   *
+   * @param activity, The activity to be reminded about
+   */
+  private void schedule(Activity activity) {
+
+    if (!activity.hasDeadline() || activity.getDueMinute() == SortKey.NO_DEADLINE) {
+      return;
+    }
+
+    long at;
+    if (activity.hasTime()) {
+      at = SortKey.toEpochMinute(activity.getDueMinute()) * 60_000;
+      if (at < System.currentTimeMillis()) {
+        return;
+      }
+
+    } else {
+      ZoneId zone =
+          activity.getZone() == null ? ZoneId.systemDefault() : ZoneId.of(activity.getZone());
+      LocalDate due = dueDate(activity);
+      if (due == null || due.isBefore(LocalDate.now(zone))) {
+        return;
+      }
+      at = due.atTime(REMINDER_TIME).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    synchronized (reminders) {
+      reminders.put(activity, wheel.schedule(at, activity));
+    }
+  }
+
+  /**
+   * Cancels the pending reminder of an activity, if it has one
+   *
+   * @param activity, The activity no longer to be reminded about
+   */
+  private void cancel(Activity activity) {
+
+    TimingWheel.Timeout<Activity> timeout;
+    synchronized (reminders) {
+      timeout = reminders.remove(activity);
+    }
+    if (timeout != null) {
+      wheel.cancel(timeout);
+    }
+  }
+
+  /**
+   * Hands an activity whose reminder is due to the callback. The reminder is only forgotten if it
+   * is still the one of the activity, since the activity may have been scheduled again after the
+   * wheel released it.
+   *
+   * @param timeout, The reminder that is due
+   */
+  private void remind(TimingWheel.Timeout<Activity> timeout) {
+
+    synchronized (reminders) {
+      reminders.remove(timeout.getValue(), timeout);
+    }
+    callback.accept(timeout.getValue());
+  }
+
+  /**
+   * Reads the due date of an activity, which correctInputEntered() has checked to be mm/dd/yyyy
+   *
+   * @param activity, The activity with due date
+   * @return the due date, null if it can't be read
+   */
+  private static LocalDate dueDate(Activity activity) {
+
+    String[] numbers = activity.getDate().trim().split("/");
+    try {
+      return LocalDate.of(Integer.parseInt(numbers[2]), Integer.parseInt(numbers[0]),
+          Integer.parseInt(numbers[1]));
+    } catch (RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: RenderModel.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+/**
+ * The following class holds what a row of the main scenes shows for an activity: its label, the
+ * description followed by the due date in brackets, and the style class its priority is colored
+ * with, which application.css defines. The render model of an activity is built the first time
+ * it is asked for and kept by the activity until the description, due date or priority change, so
+ * a page is built without putting strings together or parsing inline styles.
+ *
+ * @author Luis J Finol
+ *
+ */
+public final class RenderModel {
+
+  public static final String ROW_CLASS = "activity-row"; // every row of the main scenes
+  public static final String HIGH_CLASS = "priority-high";
+  public static final String MEDIUM_CLASS = "priority-medium";
+  public static final String LOW_CLASS = "priority-low";
+
+  private final String label;
+  private final String styleClass;
+
+  private RenderModel(Activity activity) {
+
+    label = activity.getDescription() + dueLabel(activity);
+    styleClass = styleClass(activity.getPriority());
+  }
+
+  /**
+   * Getter method for the render model of an activity, built if the activity has none yet
+   *
+   * @param activity, The activity
+   * @return its render model
+   */
+  public static RenderModel of(Activity activity) {
+
+    // two threads building it at once only build equal models
+    RenderModel render = activity.getRender();
+    if (render == null) {
+      render = new RenderModel(activity);
+      activity.setRender(render);
+    }
+    return render;
+  }
+
+  /**
+   * Getter method for the label of the activity
+   *
+   * @return its description followed by its due date, time and zone in brackets
+   */
+  public String getLabel() {
+
+    return label;
+  }
+
+  /**
+   * Getter method for the style class of the activity's priority
+   *
+   * @return HIGH_CLASS, MEDIUM_CLASS or LOW_CLASS
+   */
+  public String getStyleClass() {
+
+    return styleClass;
+  }
+
+  /**
+   * Creates the text shown next to an activity's description for its due date
+   *
+   * @param activity, The activity
+   * @return due date, time and zone of the activity in brackets
+   */
+  public static String dueLabel(Activity activity) {
+
+    if (!activity.hasDeadline()) {
+      return " [no due date]";
+    }
+
+    String label = activity.getDate();
+    if (activity.hasTime()) {
+      label = label + " " + activity.getTime().trim();
+    }
+    if (activity.getZone() != null) {
+      label = label + " " + activity.getZone();
+    }
+    return " [" + label + "]";
+  }
+
+  /**
+   * Chooses the style class of a priority. The classes split the priority range at the same points
+   * as the colors did on the original 1 - 10 scale.
+   *
+   * @param priority, The priority
+   * @return HIGH_CLASS, MEDIUM_CLASS or LOW_CLASS
+   */
+  static String styleClass(int priority) {
+
+    if (priority * 10 > 7 * ActivityModel.MAX_PRIORITY) {
+      return HIGH_CLASS;
+    }
+    if (priority * 10 < 5 * ActivityModel.MAX_PRIORITY) {
+      return LOW_CLASS;
+    }
+    return MEDIUM_CLASS;
+  }
+}
@@ -0,0 +1,161 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SortKey.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * The following class packs what the two orderings compare into a single long, so ordering
+ * activities takes one comparison of their keys, and one of their insertion sequences for the
+ * activities whose keys are equal. A key is made of two fields, from the most to the least
+ * significant bits:
+ *
+ * date key: due minute (33 bits) | inverted priority (10 bits)
+ * priority key: inverted priority (10 bits) | due minute (33 bits)
+ *
+ * The due minute counts minutes from shortly before 1/1/0001 in any zone, activities without due
+ * date having the greatest minute. The priority is inverted so greater priorities sort first. The
+ * sequence, the order in which activities were inserted, is a long of its own rather than a field
+ * of the key, so it never wraps around however many activities a model goes through.
+ *
+ * @author Luis J Finol
+ *
+ */
+public final class SortKey {
+
+  static final int PRIORITY_BITS = 10;
+  static final int MINUTE_BITS = 33;
+
+  public static final int MAX_PRIORITY = (1 << PRIORITY_BITS) - 1;
+
+  // due minute of the activities without due date, after every real due minute
+  public static final long NO_DEADLINE = (1L << MINUTE_BITS) - 1;
+
+  // minutes between 1/1/0001 in the zone furthest ahead of UTC and 1/1/1970 UTC, rounded up
+  private static final long MINUTE_OFFSET = 1_036_000_000L;
+
+  // activities that are only due on a day are due at the end of it, after those due at a time
+  private static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
+
+  private SortKey() {}
+
+  /**
+   * Calculates the due minute of an activity from its date, time and zone, checked beforehand by
+   * correctInputEntered()
+   *
+   * @param activity, The activity
+   * @return the due minute, NO_DEADLINE if the activity has no due date or it can't be read
+   */
+  public static long dueMinute(Activity activity) {
+
+    if (!activity.hasDeadline()) {
+      return NO_DEADLINE;
+    }
+
+    try {
+      String[] numbers = activity.getDate().trim().split("/");
+      LocalDate date = LocalDate.of(Integer.parseInt(numbers[2]), Integer.parseInt(numbers[0]),
+          Integer.parseInt(numbers[1]));
+
+      LocalTime time = END_OF_DAY;
+      if (activity.hasTime()) {
+        String[] parts = activity.getTime().trim().split(":");
+        time = LocalTime.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+      }
+
+      ZoneId zone = ZoneId.systemDefault();
+      if (activity.getZone() != null) {
+        zone = ZoneId.of(activity.getZone());
+      }
+
+      return toDueMinute(date.atTime(time).atZone(zone).toEpochSecond() / 60);
+
+    } catch (RuntimeException e) {
+      return NO_DEADLINE;
+    }
+  }
+
+  /**
+   * Converts minutes since 1/1/1970 UTC to a due minute
+   *
+   * @param epochMinute, Minutes since 1/1/1970 UTC
+   * @return the due minute, limited to the range a key can hold
+   */
+  public static long toDueMinute(long epochMinute) {
+
+    return Math.max(0, Math.min(NO_DEADLINE - 1, epochMinute + MINUTE_OFFSET));
+  }
+
+  /**
+   * Converts a due minute back to minutes since 1/1/1970 UTC
+   *
+   * @param dueMinute, The due minute, which must not be NO_DEADLINE
+   * @return minutes since 1/1/1970 UTC
+   */
+  public static long toEpochMinute(long dueMinute) {
+
+    return dueMinute - MINUTE_OFFSET;
+  }
+
+  /**
+   * Calculates the due minute at which a day starts in the given zone
+   *
+   * @param date, The day
+   * @param zone, The zone
+   * @return the due minute of the start of the day
+   * @throws DateTimeException if the day is out of range
+   */
+  public static long startOfDay(LocalDate date, ZoneId zone) {
+
+    return toDueMinute(date.atStartOfDay(zone).toEpochSecond() / 60);
+  }
+
+  /**
+   * Builds the key ordering activities by due date, then by greater priority
+   *
+   * @param dueMinute, The due minute of the activity
+   * @param priority, The priority of the activity, between 0 and MAX_PRIORITY
+   * @return the date key
+   */
+  public static long dateKey(long dueMinute, int priority) {
+
+    return (dueMinute << PRIORITY_BITS) | (MAX_PRIORITY - priority);
+  }
+
+  /**
+   * Builds the key ordering activities by greater priority, then by due date
+   *
+   * @param dueMinute, The due minute of the activity
+   * @param priority, The priority of the activity, between 0 and MAX_PRIORITY
+   * @return the priority key
+   */
+  public static long priorityKey(long dueMinute, int priority) {
+
+    return ((long) (MAX_PRIORITY - priority) << MINUTE_BITS) | dueMinute;
+  }
+
+  /**
+   * Compares two activities by one of the keys, then by insertion sequence
+   *
+   * @param key, The key of the first activity
+   * @param sequence, The insertion sequence of the first activity
+   * @param otherKey, The same key of the second activity
+   * @param otherSequence, The insertion sequence of the second activity
+   * @return a negative number, zero or a positive number as the first activity sorts before, with
+   *         or after the second
+   */
+  public static int compare(long key, long sequence, long otherKey, long otherSequence) {
+
+    int order = Long.compare(key, otherKey);
+    return order != 0 ? order : Long.compare(sequence, otherSequence);
+  }
+}
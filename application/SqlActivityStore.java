@@ -0,0 +1,765 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SqlActivityStore.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The following class keeps the activities of a model in an embedded database reached through
+ * JDBC, such as H2 or SQLite, instead of the activities file. The driver only has to be on the
+ * class path, the database is chosen by the JDBC URL.
+ *
+ * Every activity is a row holding its record as written by ActivityFile, next to indexed columns
+ * with its priority and date keys and columns with its parent and dependencies. Since activities
+ * moved by hand keep their place among those of the same priority, the priority key holds a
+ * position within the priority rather than the due date. Positions are spread apart so an
+ * activity placed between two others usually only needs a position between theirs, and the
+ * positions of a whole priority are only renumbered when two neighbors run out of room between
+ * them.
+ *
+ * Changes are gathered as the model notifies them and written together in one transaction when
+ * the store is flushed, so a burst of edits costs a single commit. Pages are read with keyset
+ * queries, which seek the index right after the last activity of the page before instead of
+ * counting rows with an offset. The rows of the activities changed since the last flush are
+ * passed over and the activities themselves are merged in from memory by the keys they will be
+ * written with, so reading never has to flush. The pages read are cached along with the page
+ * after them, and a change only forgets the pages from the one it falls in onwards.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class SqlActivityStore implements ActivityPager, ActivityListener, Closeable {
+
+  static final int CACHED_PAGES = 8; // pages of every order kept in memory
+
+  private static final int POSITION_BITS = 48; // the priority key is priority | position
+  private static final long POSITION_LIMIT = 1L << POSITION_BITS; // positions lie below it
+  private static final long POSITION_GAP = 1L << 20; // room left after a position
+  private static final int STORED_SEQUENCE_BITS = 20; // low bits of the date key left at 0
+
+  private static final String[] SCHEMA = {
+      "CREATE TABLE IF NOT EXISTS activities (id BIGINT PRIMARY KEY, priority_key BIGINT NOT NULL,"
+          + " date_key BIGINT NOT NULL, priority INTEGER NOT NULL, due_minute BIGINT NOT NULL,"
+          + " record BLOB NOT NULL)",
+      "CREATE INDEX IF NOT EXISTS activities_by_priority ON activities (priority_key, id)",
+      "CREATE INDEX IF NOT EXISTS activities_by_date ON activities (date_key, id)"};
+
+  // columns added after the first version, which databases it wrote are given when opened
+  private static final String[] RELATION_COLUMNS = {
+      "ALTER TABLE activities ADD COLUMN parent BIGINT NOT NULL DEFAULT 0",
+      "ALTER TABLE activities ADD COLUMN dependencies BLOB"};
+
+  private static final int PRIORITY = 0; // index of the priority key among an activity's keys
+  private static final int DATE = 1; // index of the date key among an activity's keys
+
+  /**
+   * One of the orders activities are paged in, with the pages read in that order
+   */
+  private class Ordering {
+
+    final int field; // PRIORITY or DATE, the key the order follows
+    final PreparedStatement first; // the activities from the beginning of the order
+    final PreparedStatement after; // the activities after a given key and identifier
+
+    // key and identifier of the last activity of every full page read, by page
+    final TreeMap<Integer, long[]> cursors = new TreeMap<Integer, long[]>();
+
+    // identifiers of the activities of the pages most recently used, by page
+    final Map<Integer, long[]> pages = new LinkedHashMap<Integer, long[]>(16, 0.75f, true) {
+
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+
+        return size() > CACHED_PAGES;
+      }
+    };
+
+    // key and identifier of the activities whose rows are out of date, in order, null until sorted
+    List<long[]> changes;
+
+    Ordering(int field, String key) throws SQLException {
+
+      this.field = field;
+      first = connection.prepareStatement(
+          "SELECT id, " + key + " FROM activities ORDER BY " + key + ", id");
+      after = connection.prepareStatement("SELECT id, " + key + " FROM activities WHERE " + key
+          + " > ? OR (" + key + " = ? AND id > ?) ORDER BY " + key + ", id");
+    }
+
+    /**
+     * Forgets the pages from the one holding a key and identifier onwards, along with their
+     * cursors
+     *
+     * @param key, The key of an activity that was changed, as the order knew it
+     * @param id, Identifier of the activity
+     */
+    void forgetFrom(long key, long id) {
+
+      // cursors follow the order, so those that stay are found from the last one backwards
+      int from = 1;
+      for (Map.Entry<Integer, long[]> cursor : cursors.descendingMap().entrySet()) {
+        if (compare(cursor.getValue()[0], cursor.getValue()[1], key, id) < 0) {
+          from = cursor.getKey() + 1;
+          break;
+        }
+      }
+      cursors.tailMap(from).clear();
+      int first = from;
+      pages.keySet().removeIf(rank -> rank >= first);
+    }
+
+    /**
+     * Forgets every page and cursor
+     */
+    void forget() {
+
+      cursors.clear();
+      pages.clear();
+      changes = null;
+    }
+  }
+
+  private final Connection connection;
+  private final PreparedStatement insert;
+  private final PreparedStatement delete;
+  private final Ordering byPriority;
+  private final Ordering byDate;
+  private final PreparedStatement reposition;
+  private final PriorityIndex priorityIndex; // the priority order the positions follow
+
+  private final Map<Long, Activity> live = new HashMap<Long, Activity>(); // model's activities
+
+  // priority and date keys of the activities placed, stored or not, by identifier
+  private final Map<Long, long[]> keys = new HashMap<Long, long[]>();
+
+  private final Map<Long, Activity> pending = new LinkedHashMap<Long, Activity>(); // null: delete
+  private final Set<Long> unplaced = new LinkedHashSet<Long>(); // pending without keys yet
+  private final Set<Long> repositioned = new LinkedHashSet<Long>(); // only the position changed
+  private boolean cleared = false; // indicates if every row is deleted on the next flush
+
+  /**
+   * Opens the database, creating its table the first time, and loads its activities into a model
+   * which the store then keeps up with
+   *
+   * @param url, JDBC URL of the database, jdbc:h2:~/opti-list for instance
+   * @param model, The model the activities are loaded into
+   * @throws IOException if the database could not be opened or read
+   */
+  public SqlActivityStore(String url, ActivityModel model) throws IOException {
+
+    try {
+      connection = DriverManager.getConnection(url);
+      try (Statement statement = connection.createStatement()) {
+        for (String sql : SCHEMA) {
+          statement.executeUpdate(sql);
+        }
+        addRelationColumns(statement);
+      }
+      connection.setAutoCommit(false);
+      connection.commit();
+
+      insert = connection.prepareStatement("INSERT INTO activities (id, priority_key, date_key,"
+          + " priority, due_minute, record, parent, dependencies)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+      delete = connection.prepareStatement("DELETE FROM activities WHERE id = ?");
+      reposition =
+          connection.prepareStatement("UPDATE activities SET priority_key = ? WHERE id = ?");
+      byPriority = new Ordering(PRIORITY, "priority_key");
+      byDate = new Ordering(DATE, "date_key");
+
+      priorityIndex = model.getPriorityIndex();
+      // rows the model turns down are deleted, so the orders hold the model's activities only
+      for (Activity rejected : model.addAll(load())) {
+        keys.remove(rejected.getId());
+        pending.put(rejected.getId(), null);
+      }
+      for (Activity activity : model.getDateList()) {
+        live.put(activity.getId(), activity);
+      }
+      checkPositions();
+
+    } catch (SQLException e) {
+      throw new IOException("Could not open " + url, e);
+    }
+    model.addListener(this);
+  }
+
+  @Override
+  public synchronized int size() {
+
+    return live.size(); // the database holds the same activities once the changes are written
+  }
+
+  @Override
+  public synchronized List<Activity> priorityPage(int pageRank) {
+
+    return page(byPriority, pageRank);
+  }
+
+  @Override
+  public synchronized List<Activity> datePage(int pageRank) {
+
+    return page(byDate, pageRank);
+  }
+
+  @Override
+  public synchronized void activityAdded(Activity activity) {
+
+    live.put(activity.getId(), activity);
+    changed(activity.getId(), activity);
+  }
+
+  @Override
+  public synchronized void activityEdited(Activity previous, Activity updated) {
+
+    if (previous.getId() != updated.getId()) {
+      live.remove(previous.getId());
+      changed(previous.getId(), null);
+    }
+    live.put(updated.getId(), updated);
+    changed(updated.getId(), updated);
+  }
+
+  @Override
+  public synchronized void activityDeleted(Activity activity) {
+
+    live.remove(activity.getId());
+    changed(activity.getId(), null);
+  }
+
+  @Override
+  public synchronized void relationsChanged(Activity activity) {
+
+    // the row is written again, in the same place of both orders
+    pending.put(activity.getId(), activity);
+    repositioned.remove(activity.getId());
+    byPriority.changes = null;
+    byDate.changes = null;
+  }
+
+  @Override
+  public synchronized void activitiesCleared(Collection<Activity> cleared) {
+
+    live.clear();
+    keys.clear();
+    pending.clear();
+    unplaced.clear();
+    repositioned.clear();
+    this.cleared = true;
+    byPriority.forget();
+    byDate.forget();
+  }
+
+  /**
+   * Writes the changes gathered since the last flush in a single transaction
+   *
+   * @throws IOException if the changes could not be written, they are then kept for the next flush
+   */
+  public synchronized void flush() throws IOException {
+
+    if (!cleared && pending.isEmpty() && repositioned.isEmpty()) {
+      return;
+    }
+    place();
+
+    try {
+      if (cleared) {
+        try (Statement statement = connection.createStatement()) {
+          statement.executeUpdate("DELETE FROM activities");
+        }
+      }
+
+      // rows are replaced by deleting and inserting them, which every database understands
+      for (Map.Entry<Long, Activity> change : pending.entrySet()) {
+        delete.setLong(1, change.getKey());
+        delete.addBatch();
+        if (change.getValue() != null) {
+          bind(change.getValue());
+          insert.addBatch();
+        }
+      }
+      for (Long id : repositioned) {
+        reposition.setLong(1, keys.get(id)[PRIORITY]);
+        reposition.setLong(2, id);
+        reposition.addBatch();
+      }
+      delete.executeBatch();
+      insert.executeBatch();
+      reposition.executeBatch();
+
+      connection.commit();
+      cleared = false;
+      pending.clear();
+      repositioned.clear();
+      byPriority.changes = null;
+      byDate.changes = null;
+
+    } catch (SQLException e) {
+      try {
+        connection.rollback();
+      } catch (SQLException rollback) {
+        e.addSuppressed(rollback);
+      }
+      // the changes and the keys they were given are written by the next flush
+      throw new IOException("Could not write activities", e);
+    }
+  }
+
+  /**
+   * Writes the pending changes and closes the database
+   *
+   * @throws IOException if the changes could not be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+
+    try {
+      flush();
+    } finally {
+      try {
+        connection.close();
+      } catch (SQLException e) {
+        throw new IOException(e);
+      }
+    }
+  }
+
+  /**
+   * Adds the parent and dependencies columns to a table created without them
+   *
+   * @param statement, A statement of the connection, which commits every update itself
+   * @throws SQLException if the columns could not be added
+   */
+  private static void addRelationColumns(Statement statement) throws SQLException {
+
+    try {
+      statement.executeQuery("SELECT parent, dependencies FROM activities WHERE 1 = 0").close();
+    } catch (SQLException missing) {
+      for (String sql : RELATION_COLUMNS) {
+        statement.executeUpdate(sql);
+      }
+    }
+  }
+
+  /**
+   * Reads every activity of the database
+   *
+   * @return the activities ordered by due date
+   * @throws SQLException if the database could not be read
+   * @throws IOException if a record could not be read
+   */
+  private List<Activity> load() throws SQLException, IOException {
+
+    List<Activity> activities = new ArrayList<Activity>();
+    try (Statement statement = connection.createStatement();
+        ResultSet rows = statement.executeQuery("SELECT record, priority_key, date_key, parent,"
+            + " dependencies FROM activities ORDER BY date_key, id")) {
+      while (rows.next()) {
+        Activity activity = ActivityFile.readRecord(
+            new DataInputStream(new ByteArrayInputStream(rows.getBytes(1))));
+        // rows written before the columns existed only have the relations in their record
+        byte[] dependencies = rows.getBytes(5);
+        if (dependencies != null) {
+          activity.setParent(rows.getLong(4));
+          activity.setDependencies(readDependencies(dependencies));
+        }
+        // the position in the record may be older than the one the priority key was updated to
+        activity.setPosition(rows.getLong(2) & (POSITION_LIMIT - 1));
+        keys.put(activity.getId(), new long[] {rows.getLong(2), rows.getLong(3)});
+        activities.add(activity);
+      }
+    }
+    connection.commit();
+    return activities;
+  }
+
+  /**
+   * Records a change to be written with the next flush, and forgets the pages the activity was in
+   * the way it was stored. The pages it moves to are forgotten when it is placed.
+   *
+   * @param id, Identifier of the activity changed
+   * @param activity, The activity as it is now, null if it was removed
+   */
+  private void changed(long id, Activity activity) {
+
+    long[] previous = keys.remove(id);
+    if (previous != null) {
+      byPriority.forgetFrom(previous[PRIORITY], id);
+      byDate.forgetFrom(previous[DATE], id);
+    }
+    pending.put(id, activity);
+    repositioned.remove(id);
+    if (activity != null) {
+      unplaced.add(id);
+    } else {
+      unplaced.remove(id);
+    }
+    byPriority.changes = null;
+    byDate.changes = null;
+  }
+
+  /**
+   * Gives the activities changed since they were last placed a position between those of their
+   * neighbors in the priority order, in that order so every activity placed is a neighbor the
+   * next can be placed after
+   */
+  private void place() {
+
+    if (unplaced.isEmpty()) {
+      return;
+    }
+
+    Map<Activity, Integer> ranks = new IdentityHashMap<Activity, Integer>();
+    for (Long id : unplaced) {
+      Activity activity = pending.get(id);
+      ranks.put(activity, priorityIndex.rankOf(activity));
+    }
+    unplaced.clear();
+    List<Activity> placed = new ArrayList<Activity>(ranks.keySet());
+    placed.sort((a, b) -> Integer.compare(ranks.get(a), ranks.get(b)));
+
+    for (Activity activity : placed) {
+      int rank = ranks.get(activity);
+      int priority = activity.getPriority();
+
+      long before = 0;
+      if (rank > 0 && priorityIndex.get(rank - 1).getPriority() == priority) {
+        before = position(priorityIndex.get(rank - 1).getId());
+      }
+      // activities of the priority not placed yet have no position and are passed over
+      long after = POSITION_LIMIT;
+      for (int next = rank + 1; next < priorityIndex.size(); ++next) {
+        Activity neighbor = priorityIndex.get(next);
+        if (neighbor.getPriority() != priority) {
+          break;
+        }
+        long[] neighborKeys = keys.get(neighbor.getId());
+        if (neighborKeys != null) {
+          after = neighborKeys[PRIORITY] & (POSITION_LIMIT - 1);
+          break;
+        }
+      }
+
+      if (after - before >= 2) {
+        setPosition(activity, before + Math.min(POSITION_GAP, (after - before) / 2));
+        byPriority.forgetFrom(keys.get(activity.getId())[PRIORITY], activity.getId());
+      } else {
+        for (Activity renumbered : renumber(rank - priorityIndex.positionOf(activity), priority)) {
+          if (!pending.containsKey(renumbered.getId())) {
+            repositioned.add(renumbered.getId());
+          }
+        }
+        // the keys of the whole priority changed, along with the cursors among them
+        byPriority.forgetFrom(priorityKey(priority, 0), Long.MIN_VALUE);
+      }
+      byDate.forgetFrom(keys.get(activity.getId())[DATE], activity.getId());
+    }
+    byPriority.changes = null;
+    byDate.changes = null;
+  }
+
+  /**
+   * Spreads the positions of every activity of a priority evenly apart again
+   *
+   * @param start, Rank of the first activity of the priority
+   * @param priority, The priority
+   * @return the activities of the priority
+   */
+  private List<Activity> renumber(int start, int priority) {
+
+    List<Activity> activities = priorityIndex.range(start, priorityIndex.count(priority));
+    for (int i = 0; i < activities.size(); ++i) {
+      setPosition(activities.get(i), (i + 1) * POSITION_GAP);
+    }
+    return activities;
+  }
+
+  /**
+   * Renumbers the priorities whose stored positions don't follow the order of the model, which
+   * orders activities of the same priority by due date once they are loaded
+   *
+   * @throws SQLException if the new positions could not be written
+   */
+  private void checkPositions() throws SQLException {
+
+    int rank = 0;
+    for (int priority : priorityIndex.priorities()) {
+      int count = priorityIndex.count(priority);
+      long last = 0;
+      for (Activity activity : priorityIndex.range(rank, count)) {
+        long[] stored = keys.get(activity.getId());
+        if (stored == null || (stored[PRIORITY] & (POSITION_LIMIT - 1)) <= last) {
+          for (Activity renumbered : renumber(rank, priority)) {
+            reposition.setLong(1, keys.get(renumbered.getId())[PRIORITY]);
+            reposition.setLong(2, renumbered.getId());
+            reposition.addBatch();
+          }
+          break;
+        }
+        last = stored[PRIORITY] & (POSITION_LIMIT - 1);
+      }
+      rank += count;
+    }
+    reposition.executeBatch();
+    connection.commit();
+  }
+
+  /**
+   * Getter method for the position of an activity within its priority
+   *
+   * @param id, Identifier of the activity, which must have been placed
+   * @return the position
+   */
+  private long position(long id) {
+
+    return keys.get(id)[PRIORITY] & (POSITION_LIMIT - 1);
+  }
+
+  /**
+   * Gives an activity a position within its priority, along with the keys it is ordered by
+   *
+   * @param activity, The activity
+   * @param position, Its position
+   */
+  private void setPosition(Activity activity, long position) {
+
+    // the date key is stored shifted the way it was when keys held the insertion sequence, so
+    // rows written by earlier versions keep their order
+    keys.put(activity.getId(), new long[] {priorityKey(activity.getPriority(), position),
+        SortKey.dateKey(activity.getDueMinute(), activity.getPriority()) << STORED_SEQUENCE_BITS});
+  }
+
+  /**
+   * Builds the key ordering an activity by priority in the database
+   *
+   * @param priority, The priority of the activity
+   * @param position, Its position within the priority
+   * @return inverted priority followed by the position within the priority
+   */
+  private static long priorityKey(int priority, long position) {
+
+    return ((long) (ActivityModel.MAX_PRIORITY - priority) << POSITION_BITS) | position;
+  }
+
+  /**
+   * Sets the parameters of the insert statement to an activity's values
+   *
+   * @param activity, The activity to be inserted, which must have been placed
+   * @throws SQLException if a parameter could not be set
+   */
+  private void bind(Activity activity) throws SQLException {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      ActivityFile.writeRecord(out, activity);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // not thrown by an array
+    }
+
+    // the insertion sequence only orders activities within one run, the identifier does here
+    long[] activityKeys = keys.get(activity.getId());
+    insert.setLong(1, activity.getId());
+    insert.setLong(2, activityKeys[PRIORITY]);
+    insert.setLong(3, activityKeys[DATE]);
+    insert.setInt(4, activity.getPriority());
+    insert.setLong(5, activity.getDueMinute());
+    insert.setBytes(6, bytes.toByteArray());
+    insert.setLong(7, activity.getParent());
+    insert.setBytes(8, writeDependencies(activity.getDependencies()));
+  }
+
+  /**
+   * Packs the identifiers of an activity's dependencies for the dependencies column
+   *
+   * @param dependencies, The identifiers
+   * @return 8 bytes for every identifier
+   */
+  private static byte[] writeDependencies(long[] dependencies) {
+
+    ByteBuffer bytes = ByteBuffer.allocate(dependencies.length * Long.BYTES);
+    bytes.asLongBuffer().put(dependencies);
+    return bytes.array();
+  }
+
+  /**
+   * Unpacks the identifiers of an activity's dependencies from the dependencies column
+   *
+   * @param bytes, 8 bytes for every identifier
+   * @return the identifiers
+   */
+  private static long[] readDependencies(byte[] bytes) {
+
+    long[] dependencies = new long[bytes.length / Long.BYTES];
+    ByteBuffer.wrap(bytes).asLongBuffer().get(dependencies);
+    return dependencies;
+  }
+
+  /**
+   * Getter method for a page of activities in one order. A page not cached is read from the
+   * nearest page before it whose last activity is known, through the page after it, so that going
+   * to the next page usually finds it cached. Rows of activities changed since the last flush are
+   * passed over, the activities being merged in from memory instead.
+   *
+   * @param order, The order of the page
+   * @param pageRank, The page, starting at 1
+   * @return up to ActivityModel.PAGE_SIZE activities of the model
+   */
+  private List<Activity> page(Ordering order, int pageRank) {
+
+    place();
+    long[] ids = order.pages.get(pageRank);
+
+    if (ids == null) {
+      Map.Entry<Integer, long[]> start = order.cursors.floorEntry(pageRank - 1);
+      int startRank = start == null ? 1 : start.getKey() + 1;
+      int wanted = (pageRank + 2 - startRank) * ActivityModel.PAGE_SIZE;
+
+      List<long[]> changes = changes(order);
+      int next = 0; // first change after the start
+      if (start != null) {
+        while (next < changes.size() && compare(changes.get(next)[0], changes.get(next)[1],
+            start.getValue()[0], start.getValue()[1]) <= 0) {
+          ++next;
+        }
+      }
+
+      List<long[]> read = new ArrayList<long[]>(wanted); // key and identifier, in order
+      try {
+        if (!cleared) {
+          PreparedStatement query = start == null ? order.first : order.after;
+          if (start != null) {
+            query.setLong(1, start.getValue()[0]);
+            query.setLong(2, start.getValue()[0]);
+            query.setLong(3, start.getValue()[1]);
+          }
+          // every row passed over is one more to read
+          query.setMaxRows(wanted + pending.size() + repositioned.size());
+
+          try (ResultSet rows = query.executeQuery()) {
+            while (read.size() < wanted && rows.next()) {
+              long id = rows.getLong(1);
+              if (pending.containsKey(id) || repositioned.contains(id)) {
+                continue;
+              }
+              long key = rows.getLong(2);
+              while (read.size() < wanted && next < changes.size()
+                  && compare(changes.get(next)[0], changes.get(next)[1], key, id) < 0) {
+                read.add(changes.get(next++));
+              }
+              if (read.size() < wanted) {
+                read.add(new long[] {key, id});
+              }
+            }
+          }
+          connection.commit();
+        }
+      } catch (SQLException e) {
+        throw new UncheckedIOException(new IOException(e));
+      }
+      while (read.size() < wanted && next < changes.size()) {
+        read.add(changes.get(next++));
+      }
+
+      int rank = startRank;
+      for (int from = 0; from < read.size(); from += ActivityModel.PAGE_SIZE, ++rank) {
+        long[] page = new long[Math.min(ActivityModel.PAGE_SIZE, read.size() - from)];
+        for (int i = 0; i < page.length; ++i) {
+          page[i] = read.get(from + i)[1];
+        }
+        order.pages.put(rank, page);
+        if (page.length == ActivityModel.PAGE_SIZE) {
+          order.cursors.put(rank, read.get(from + page.length - 1));
+        }
+      }
+      if (read.isEmpty()) {
+        order.pages.put(startRank, new long[0]);
+      }
+
+      ids = order.pages.get(pageRank);
+      if (ids == null) {
+        return new ArrayList<Activity>(); // past the last page
+      }
+    }
+
+    List<Activity> page = new ArrayList<Activity>(ids.length);
+    for (long id : ids) {
+      Activity activity = live.get(id);
+      if (activity != null) {
+        page.add(activity);
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Getter method for the activities whose rows are out of date, sorted in one order by the keys
+   * they will be written with
+   *
+   * @param order, The order
+   * @return key and identifier of every activity changed or repositioned since the last flush
+   */
+  private List<long[]> changes(Ordering order) {
+
+    if (order.changes == null) {
+      List<long[]> changes = new ArrayList<long[]>();
+      for (Map.Entry<Long, Activity> change : pending.entrySet()) {
+        if (change.getValue() != null) {
+          changes.add(new long[] {keys.get(change.getKey())[order.field], change.getKey()});
+        }
+      }
+      for (Long id : repositioned) {
+        changes.add(new long[] {keys.get(id)[order.field], id});
+      }
+      changes.sort((a, b) -> compare(a[0], a[1], b[0], b[1]));
+      order.changes = changes;
+    }
+    return order.changes;
+  }
+
+  /**
+   * Compares two activities the way the orders of the database do, by key then identifier
+   *
+   * @param key, The key of the first activity
+   * @param id, Identifier of the first activity
+   * @param otherKey, The key of the second activity
+   * @param otherId, Identifier of the second activity
+   * @return a negative number, zero or a positive number as the first activity comes before, at
+   *         or after the second
+   */
+  private static int compare(long key, long id, long otherKey, long otherId) {
+
+    int order = Long.compare(key, otherKey);
+    return order != 0 ? order : Long.compare(id, otherId);
+  }
+}
@@ -0,0 +1,260 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: TimingWheel.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The following class is a hierarchical timing wheel, which keeps any number of pending timeouts
+ * while scheduling and cancelling each of them in constant time. Time is divided in ticks, and the
+ * wheel has several levels of 64 slots each. A slot of the first level holds the timeouts of a
+ * single tick, a slot of the second level those of 64 ticks, and so on. Timeouts are placed in the
+ * lowest level that can tell them apart from the current tick, and are moved down a level each time
+ * the wheel reaches the span of their slot, until they expire from the first level.
+ *
+ * @author Luis J Finol
+ *
+ * @param <T> The type of the values attached to the timeouts
+ */
+public class TimingWheel<T> {
+
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS; // slots per level
+  private static final int LEVELS = 6; // 64^6 ticks, over two thousand years with one second ticks
+
+  private final long tickMillis; // length of a tick in milliseconds
+  private long currentTick; // the last tick processed
+
+  // every slot holds a circular doubly linked list with a sentinel node
+  private final Timeout<T>[][] wheel;
+  private final Timeout<T> overdue = new Timeout<T>(0, null); // timeouts already due when scheduled
+
+  private int size = 0; // number of pending timeouts
+
+  /**
+   * A pending timeout, which can be cancelled through this handle
+   *
+   * @param <T> The type of the value attached to the timeout
+   */
+  public static class Timeout<T> {
+
+    private final long deadline; // the tick the timeout expires on
+    private final T value;
+    private Timeout<T> prev = this;
+    private Timeout<T> next = this;
+
+    private Timeout(long deadline, T value) {
+
+      this.deadline = deadline;
+      this.value = value;
+    }
+
+    /**
+     * Getter method for the value attached to the timeout
+     *
+     * @return the value
+     */
+    public T getValue() {
+
+      return value;
+    }
+
+    /**
+     * Indicates if the timeout is still waiting to expire
+     *
+     * @return true if it has neither expired nor been cancelled
+     */
+    public boolean isPending() {
+
+      return next != this;
+    }
+  }
+
+  /**
+   * Creates a wheel starting at the given time
+   *
+   * @param tickMillis, Length of a tick in milliseconds
+   * @param nowMillis, The current time in milliseconds
+   */
+  public TimingWheel(long tickMillis, long nowMillis) {
+
+    this.tickMillis = tickMillis;
+    this.currentTick = nowMillis / tickMillis;
+    @SuppressWarnings("unchecked") // arrays of a generic type can only be created raw
+    Timeout<T>[][] slots = (Timeout<T>[][]) new Timeout<?>[LEVELS][SLOTS];
+    wheel = slots;
+
+    for (int level = 0; level < LEVELS; ++level) {
+      for (int slot = 0; slot < SLOTS; ++slot) {
+        wheel[level][slot] = new Timeout<T>(0, null);
+      }
+    }
+  }
+
+  /**
+   * Schedules a value to expire at a given time
+   *
+   * @param deadlineMillis, The time in milliseconds the value expires at
+   * @param value, The value handed back when it expires
+   * @return handle used to cancel the timeout
+   */
+  public synchronized Timeout<T> schedule(long deadlineMillis, T value) {
+
+    // rounded up so a timeout never expires before its deadline
+    long deadline = (deadlineMillis + tickMillis - 1) / tickMillis;
+    Timeout<T> timeout = new Timeout<T>(deadline, value);
+    place(timeout);
+    ++size;
+    return timeout;
+  }
+
+  /**
+   * Cancels a pending timeout
+   *
+   * @param timeout, The handle returned when the timeout was scheduled
+   * @return true if the timeout was pending, false if it had already expired or been cancelled
+   */
+  public synchronized boolean cancel(Timeout<T> timeout) {
+
+    if (!timeout.isPending()) {
+      return false;
+    }
+    unlink(timeout);
+    --size;
+    return true;
+  }
+
+  /**
+   * Getter method for the number of pending timeouts
+   *
+   * @return number of timeouts that have neither expired nor been cancelled
+   */
+  public synchronized int size() {
+
+    return size;
+  }
+
+  /**
+   * Moves the wheel forward to the given time, handing every timeout whose deadline has passed to
+   * the given consumer, in order of expiration. The consumer gets the timeouts rather than their
+   * values, so it can tell them from timeouts scheduled for the same value in the meantime.
+   *
+   * @param nowMillis, The current time in milliseconds
+   * @param expired, Receives the expired timeouts
+   */
+  public void advance(long nowMillis, Consumer<Timeout<T>> expired) {
+
+    long target = nowMillis / tickMillis;
+    List<Timeout<T>> fired = new ArrayList<Timeout<T>>();
+
+    // timeouts are collected under the lock and handed out after releasing it, so the consumer can
+    // schedule or cancel other timeouts
+    synchronized (this) {
+      expire(overdue, fired);
+
+      while (currentTick < target) {
+        ++currentTick;
+        cascade();
+        // cascading places the timeouts due exactly on this tick with the overdue ones
+        expire(overdue, fired);
+        expire(wheel[0][(int) (currentTick & (SLOTS - 1))], fired);
+      }
+    }
+
+    for (Timeout<T> timeout : fired) {
+      expired.accept(timeout);
+    }
+  }
+
+  /**
+   * Moves the timeouts of the higher level slots that the current tick just reached one or more
+   * levels down
+   */
+  private void cascade() {
+
+    for (int level = 1; level < LEVELS; ++level) {
+      // the slot of a level is only reached when all the lower bits of the tick are zero
+      if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+        return;
+      }
+
+      int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+      Timeout<T> sentinel = wheel[level][slot];
+      Timeout<T> timeout = sentinel.next;
+      sentinel.prev = sentinel;
+      sentinel.next = sentinel;
+
+      while (timeout != sentinel) {
+        Timeout<T> next = timeout.next;
+        place(timeout);
+        timeout = next;
+      }
+    }
+  }
+
+  /**
+   * Links a timeout into the slot its deadline belongs to
+   *
+   * @param timeout, The timeout to be placed
+   */
+  private void place(Timeout<T> timeout) {
+
+    if (timeout.deadline <= currentTick) {
+      linkBefore(overdue, timeout);
+      return;
+    }
+
+    // the lowest level where the deadline and the current tick only differ within the slot span
+    int level = 0;
+    while (level < LEVELS - 1) {
+      int shift = SLOT_BITS * (level + 1);
+      if ((timeout.deadline >>> shift) == (currentTick >>> shift)) {
+        break;
+      }
+      ++level;
+    }
+
+    int slot = (int) ((timeout.deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    linkBefore(wheel[level][slot], timeout);
+  }
+
+  /**
+   * Unlinks every timeout of a slot, collecting them
+   *
+   * @param sentinel, Sentinel of the slot emptied
+   * @param fired, Receives the timeouts
+   */
+  private void expire(Timeout<T> sentinel, List<Timeout<T>> fired) {
+
+    while (sentinel.next != sentinel) {
+      Timeout<T> timeout = sentinel.next;
+      unlink(timeout);
+      fired.add(timeout);
+      --size;
+    }
+  }
+
+  private void linkBefore(Timeout<T> sentinel, Timeout<T> timeout) {
+
+    timeout.prev = sentinel.prev;
+    timeout.next = sentinel;
+    sentinel.prev.next = timeout;
+    sentinel.prev = timeout;
+  }
+
+  private void unlink(Timeout<T> timeout) {
+
+    timeout.prev.next = timeout.next;
+    timeout.next.prev = timeout.prev;
+    timeout.prev = timeout;
+    timeout.next = timeout;
+  }
+}
@@ -0,0 +1,330 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: TrigramIndex.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The following class finds activities by their description while tolerating typos and missing
+ * words. Every description is split into trigrams, its runs of three characters, and the index
+ * lists the descriptions holding each trigram. A query is split the same way and descriptions are
+ * ranked by how many of its trigrams they share, so a typo only loses the few trigrams it touches.
+ *
+ * The trigrams shared by the fewest descriptions are looked up first, and the most common ones
+ * are skipped once enough candidates are found, so a query only reads a bounded part of the index
+ * however many activities there are. The best candidates are then scored exactly.
+ *
+ * Descriptions are indexed once however many activities share them, and a description no longer
+ * held by any activity is dropped from the index when the index is next compacted.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class TrigramIndex implements ActivityListener {
+
+  static final int BUDGET = 1 << 18; // index entries read by a query before common trigrams
+  static final int CANDIDATES = 256; // candidates scored exactly
+
+  private static final int[] EMPTY = new int[0];
+
+  /**
+   * A description and the activities holding it
+   */
+  private static class Text {
+
+    final String lower; // the description in lower case
+    final List<Activity> holders = new ArrayList<Activity>(1);
+
+    Text(String lower) {
+
+      this.lower = lower;
+    }
+  }
+
+  private final List<Text> texts = new ArrayList<Text>(); // by number
+  private final Map<String, Integer> numbers = new HashMap<String, Integer>(); // text numbers
+  private final Map<Long, int[]> postings = new HashMap<Long, int[]>(); // text numbers by trigram
+  private final Map<Long, Integer> lengths = new HashMap<Long, Integer>(); // used part of postings
+  private final Map<Activity, Integer> indexed = new IdentityHashMap<Activity, Integer>();
+  private int unused = 0; // texts no activity holds any more
+
+  private int[] counts = new int[0]; // trigrams shared with the query, by text number
+  private int[] touched = new int[0]; // texts sharing a trigram with the query
+
+  /**
+   * Indexes the activities of a model and keeps the index up to date as the model changes
+   *
+   * @param model, The model
+   */
+  public TrigramIndex(ActivityModel model) {
+
+    for (Activity activity : model.getDateList()) {
+      add(activity);
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Finds the activities whose description is most like a query
+   *
+   * @param query, The text typed, possibly with typos or only part of the description
+   * @param limit, Maximum number of activities returned
+   * @return the activities found, the most alike first
+   */
+  public List<Activity> search(String query, int limit) {
+
+    List<Activity> found = new ArrayList<Activity>(limit);
+    String lower = normalize(query);
+    long[] grams = trigrams(lower);
+    if (grams.length == 0 || limit <= 0) {
+      return found;
+    }
+
+    // the rarest trigrams are read first, those shared by the most descriptions only if the
+    // budget allows it
+    long[][] order = new long[grams.length][];
+    for (int i = 0; i < grams.length; ++i) {
+      order[i] = new long[] {lengths.getOrDefault(grams[i], 0), grams[i]};
+    }
+    Arrays.sort(order, (a, b) -> Long.compare(a[0], b[0]));
+
+    if (counts.length < texts.size()) {
+      counts = new int[texts.size()];
+    }
+    int touchedCount = 0;
+    int read = 0;
+    int maxCount = 0;
+
+    for (long[] gram : order) {
+      int length = (int) gram[0];
+      if (length == 0) {
+        continue;
+      }
+      if (read > 0 && read + length > BUDGET) {
+        break;
+      }
+      read += length;
+
+      int[] posting = postings.get(gram[1]);
+      if (touched.length < touchedCount + length) {
+        touched = Arrays.copyOf(touched, Math.min(texts.size(), 2 * (touchedCount + length)));
+      }
+      for (int i = 0; i < length; ++i) {
+        int number = posting[i];
+        if (counts[number]++ == 0) {
+          touched[touchedCount++] = number;
+        }
+        maxCount = Math.max(maxCount, counts[number]);
+      }
+    }
+
+    // the candidates sharing the most of the trigrams read are scored exactly
+    int[] perCount = new int[maxCount + 2];
+    for (int i = 0; i < touchedCount; ++i) {
+      ++perCount[counts[touched[i]]];
+    }
+    int threshold = maxCount;
+    int kept = perCount[maxCount];
+    while (threshold > 1 && kept + perCount[threshold - 1] <= CANDIDATES) {
+      kept += perCount[--threshold];
+    }
+
+    List<double[]> scored = new ArrayList<double[]>();
+    for (int i = 0; i < touchedCount; ++i) {
+      int number = touched[i];
+      if (counts[number] >= threshold && !texts.get(number).holders.isEmpty()) {
+        scored.add(new double[] {score(lower, grams, texts.get(number).lower), number});
+      }
+      counts[number] = 0;
+    }
+    scored.sort((a, b) -> Double.compare(b[0], a[0]));
+
+    for (double[] candidate : scored) {
+      for (Activity activity : texts.get((int) candidate[1]).holders) {
+        if (found.size() == limit) {
+          return found;
+        }
+        found.add(activity);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    add(activity);
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    remove(previous);
+    add(updated);
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    remove(activity);
+  }
+
+  @Override
+  public void activitiesCleared(Collection<Activity> cleared) {
+
+    texts.clear();
+    numbers.clear();
+    postings.clear();
+    lengths.clear();
+    indexed.clear();
+    unused = 0;
+  }
+
+  /**
+   * Scores how alike a description is to a query, mostly by the share of the query's trigrams it
+   * holds, then by how much of the description the query covers
+   *
+   * @param query, The query in lower case
+   * @param grams, The trigrams of the query
+   * @param text, The description in lower case
+   * @return the score, greater for more alike descriptions
+   */
+  private static double score(String query, long[] grams, String text) {
+
+    long[] own = trigrams(text);
+    int shared = 0;
+    for (long gram : grams) {
+      if (Arrays.binarySearch(own, gram) >= 0) {
+        ++shared;
+      }
+    }
+
+    double score = (double) shared / grams.length + (double) shared / (own.length + grams.length);
+    if (text.contains(query)) {
+      score += 1; // the query typed exactly is the best match
+    }
+    return score;
+  }
+
+  /**
+   * Prepares text to be split into trigrams
+   *
+   * @param text, The text
+   * @return the text in lower case with its spaces collapsed
+   */
+  private static String normalize(String text) {
+
+    return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+  }
+
+  /**
+   * Splits text into trigrams, with a space added at both ends so the beginning and end of the
+   * text count as well
+   *
+   * @param text, The normalized text
+   * @return the different trigrams of the text, sorted
+   */
+  private static long[] trigrams(String text) {
+
+    if (text.isEmpty()) {
+      return new long[0];
+    }
+    String padded = " " + text + " ";
+    long[] grams = new long[padded.length() - 2];
+    for (int i = 0; i < grams.length; ++i) {
+      grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16)
+          | padded.charAt(i + 2);
+    }
+
+    Arrays.sort(grams);
+    int different = 0;
+    for (int i = 0; i < grams.length; ++i) {
+      if (i == 0 || grams[i] != grams[i - 1]) {
+        grams[different++] = grams[i];
+      }
+    }
+    return Arrays.copyOf(grams, different);
+  }
+
+  /**
+   * Adds an activity to the index, indexing its description if no other activity holds it
+   *
+   * @param activity, The activity
+   */
+  private void add(Activity activity) {
+
+    String lower = normalize(activity.getDescription());
+    Integer number = numbers.get(lower);
+
+    if (number == null) {
+      number = texts.size();
+      texts.add(new Text(lower));
+      numbers.put(lower, number);
+      for (long gram : trigrams(lower)) {
+        int length = lengths.getOrDefault(gram, 0);
+        int[] posting = postings.getOrDefault(gram, EMPTY);
+        if (length == posting.length) {
+          posting = Arrays.copyOf(posting, Math.max(4, length * 2));
+          postings.put(gram, posting);
+        }
+        posting[length] = number;
+        lengths.put(gram, length + 1);
+      }
+    } else if (texts.get(number).holders.isEmpty()) {
+      --unused;
+    }
+
+    texts.get(number).holders.add(activity);
+    indexed.put(activity, number);
+  }
+
+  /**
+   * Removes an activity from the index, compacting the index once most descriptions in it are no
+   * longer held by any activity
+   *
+   * @param activity, The activity
+   */
+  private void remove(Activity activity) {
+
+    Integer number = indexed.remove(activity);
+    if (number == null) {
+      return;
+    }
+
+    List<Activity> holders = texts.get(number).holders;
+    for (int i = 0; i < holders.size(); ++i) {
+      if (holders.get(i) == activity) {
+        holders.remove(i);
+        break;
+      }
+    }
+    if (holders.isEmpty() && ++unused > 1024 && unused * 2 > texts.size()) {
+      compact();
+    }
+  }
+
+  /**
+   * Indexes again the descriptions still held by some activity
+   */
+  private void compact() {
+
+    List<Activity> activities = new ArrayList<Activity>(indexed.keySet());
+    activitiesCleared(activities);
+    for (Activity activity : activities) {
+      add(activity);
+    }
+  }
+}
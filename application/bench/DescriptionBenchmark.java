@@ -0,0 +1,139 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DescriptionBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import application.DescriptionPool;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the heap taken by the descriptions of a realistic set of activities, where recurring
+ * chores and imported tasks repeat the same text, once as a separate String per activity as they
+ * are read from a file, and once as shared compact byte arrays from a DescriptionPool. The heap is
+ * measured after a full collection, so run it with a single large enough heap and nothing else
+ * running in the JVM.
+ *
+ * Usage: java -Xmx4g application.bench.DescriptionBenchmark [activities]
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DescriptionBenchmark {
+
+  private static final String[] CHORES = {"Pay rent", "Water the plants", "Weekly team meeting",
+      "Take out the trash", "Call mom", "Gym - leg day", "Grocery shopping", "Laundry",
+      "Review budget", "Back up the laptop", "Dentist appointment", "Pick up the kids",
+      "Caf\u00e9 with Zo\u00eb", "Read 30 pages", "Clean the kitchen", "Submit timesheet",
+      "\u4f1a\u8bae notes"};
+
+  private static final String[] PROJECTS = {"website redesign", "quarterly report", "mobile app",
+      "database migration", "onboarding guide", "tax return", "garden", "thesis"};
+
+  private static final String[] ACTIONS = {"Draft", "Review", "Fix", "Test", "Plan", "Email about",
+      "Research", "Finish"};
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, Optional number of activities (default 1,000,000)
+   */
+  public static void main(String[] args) {
+
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    System.out.println("activities: " + count + ", java " + System.getProperty("java.version"));
+
+    long empty = usedHeap();
+    String[] strings = generate(count, new Random(42));
+    long asStrings = usedHeap() - empty;
+
+    DescriptionPool pool = new DescriptionPool();
+    byte[][] shared = new byte[count][];
+    for (int i = 0; i < count; ++i) {
+      shared[i] = pool.acquire(DescriptionPool.encode(strings[i]));
+    }
+    strings = null;
+    long asShared = usedHeap() - empty;
+
+    System.out.printf("separate strings: %,d bytes, %.1f per activity%n", asStrings,
+        (double) asStrings / count);
+    System.out.printf("shared compact:   %,d bytes, %.1f per activity, %,d different%n", asShared,
+        (double) asShared / count, pool.size());
+    System.out.printf("saved: %.1f%%%n", 100.0 * (asStrings - asShared) / asStrings);
+
+    // the model shares them the same way, shown here for the size of the whole model
+    shared = null;
+    pool = null;
+    long before = usedHeap();
+    ActivityModel model = new ActivityModel();
+    Random random = new Random(42);
+    String[] descriptions = generate(count, random);
+    Activity[] activities = new Activity[count];
+    for (int i = 0; i < count; ++i) {
+      activities[i] = new Activity(descriptions[i], random.nextInt(ActivityModel.MAX_PRIORITY + 1));
+    }
+    descriptions = null;
+    model.addAll(Arrays.asList(activities));
+    activities = null;
+    long modelHeap = usedHeap() - before;
+    System.out.printf("whole model:      %,d bytes, %.1f per activity, %,d different%n",
+        modelHeap, (double) modelHeap / count, model.getDescriptionPool().size());
+  }
+
+  /**
+   * Creates the descriptions of activities: a third are recurring chores, half are tasks of a few
+   * projects numbered as imported issues are, and the rest are unique
+   *
+   * @param count, Number of descriptions
+   * @param random, Source of randomness
+   * @return a separate String for every description
+   */
+  static String[] generate(int count, Random random) {
+
+    String[] descriptions = new String[count];
+    for (int i = 0; i < count; ++i) {
+      int kind = random.nextInt(6);
+      StringBuilder description = new StringBuilder();
+      if (kind < 2) {
+        description.append(CHORES[random.nextInt(CHORES.length)]);
+      } else if (kind < 5) {
+        description.append(ACTIONS[random.nextInt(ACTIONS.length)]).append(' ')
+            .append(PROJECTS[random.nextInt(PROJECTS.length)]).append(" #")
+            .append(1 + random.nextInt(500));
+      } else {
+        description.append("Note ").append(Long.toHexString(random.nextLong()));
+      }
+      // built like a description read from a file, so no two activities share a String
+      descriptions[i] = description.toString();
+    }
+    return descriptions;
+  }
+
+  /**
+   * Measures the heap in use after collecting garbage
+   *
+   * @return bytes of heap in use
+   */
+  private static long usedHeap() {
+
+    Runtime runtime = Runtime.getRuntime();
+    long used = Long.MAX_VALUE;
+    for (int i = 0; i < 5; ++i) {
+      System.gc();
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+    }
+    return used;
+  }
+}
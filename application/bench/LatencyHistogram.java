@@ -0,0 +1,155 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: LatencyHistogram.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import java.util.Arrays;
+
+/**
+ * The following class counts durations in buckets whose width grows with the duration, so any
+ * number of them can be recorded in a fixed amount of memory and percentiles read back within
+ * about 3% of the actual durations. Every power of two is split into 32 buckets.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BITS = 5; // every power of two is split into 1 << SUB_BITS buckets
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+  private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_BUCKETS];
+  private long count = 0;
+  private long total = 0;
+  private long max = 0;
+
+  /**
+   * Records a duration
+   *
+   * @param nanos, The duration in nanoseconds
+   */
+  public void record(long nanos) {
+
+    nanos = Math.max(0, nanos);
+    ++counts[bucket(nanos)];
+    ++count;
+    total += nanos;
+    max = Math.max(max, nanos);
+  }
+
+  /**
+   * Adds the durations recorded by another histogram
+   *
+   * @param other, The other histogram
+   */
+  public void add(LatencyHistogram other) {
+
+    for (int i = 0; i < counts.length; ++i) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    total += other.total;
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Forgets every duration recorded
+   */
+  public void reset() {
+
+    Arrays.fill(counts, 0);
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+
+  /**
+   * Getter method for the number of durations recorded
+   *
+   * @return number of durations
+   */
+  public long count() {
+
+    return count;
+  }
+
+  /**
+   * Getter method for the mean duration
+   *
+   * @return mean in nanoseconds, 0 if none was recorded
+   */
+  public double mean() {
+
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  /**
+   * Getter method for the longest duration
+   *
+   * @return longest duration in nanoseconds, exactly
+   */
+  public long max() {
+
+    return max;
+  }
+
+  /**
+   * Getter method for a percentile of the durations
+   *
+   * @param percentile, The percentile, between 0 and 100
+   * @return the duration in nanoseconds that the given percentage of durations don't exceed, as
+   *         the upper end of its bucket and never more than the longest duration
+   */
+  public long percentile(double percentile) {
+
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; ++i) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(max, upperEnd(i));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Finds the bucket of a duration
+   *
+   * @param nanos, The duration, not negative
+   * @return the index of its bucket
+   */
+  private static int bucket(long nanos) {
+
+    if (nanos < SUB_BUCKETS) {
+      return (int) nanos;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS; // bits below the sub bucket
+    int sub = (int) (nanos >>> exponent) - SUB_BUCKETS;
+    return (exponent + 1) * SUB_BUCKETS + sub;
+  }
+
+  /**
+   * Getter method for the greatest duration of a bucket
+   *
+   * @param bucket, The index of the bucket
+   * @return the greatest duration it counts
+   */
+  private static long upperEnd(int bucket) {
+
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int exponent = bucket / SUB_BUCKETS - 1;
+    long sub = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    return ((sub + 1) << exponent) - 1;
+  }
+}
@@ -0,0 +1,799 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: OffHeapActivityStore.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityFile;
+import application.ActivityListener;
+import application.ActivityModel;
+import application.ActivityPager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The following class keeps activities outside of the Java heap, so however many it holds the
+ * garbage collector never has to trace them. Every activity is a fixed size record holding its
+ * identifier, keys, due minute, priority and flags, along with the offset and length of its text:
+ * the record ActivityFile writes for it, description included. The priority and date orders are
+ * arrays of record slots kept sorted off the heap as well, and so is a table from identifiers to
+ * slots. Only the activities of a page are read back onto the heap, as new objects, when it is
+ * asked for.
+ *
+ * The regions holding all of this are direct buffers, or files mapped into memory when the store
+ * is given a directory, in which case its activities are found there again the next time it is
+ * opened. Activities of the same priority are ordered by their priority key, so an activity moved
+ * by hand keeps the priority the move gives it but not its place among the others, as when a model
+ * is loaded. Activities whose keys are equal are ordered by identifier, since the insertion
+ * sequence of a model isn't kept in a record.
+ *
+ * Neither the GUI nor the command line program uses the store, since both keep their activities in
+ * a model, whose objects the collector traces whether or not a store follows it. The store lives
+ * with the benchmarks and is only constructed by OffHeapBenchmark, which pages through it in place
+ * of a model to measure the pauses it saves.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class OffHeapActivityStore implements ActivityPager, ActivityListener, Closeable {
+
+  static final int RECORD_BYTES = 48; // bytes of the record of an activity
+
+  // offsets of the fields of a record
+  private static final int ID = 0;
+  private static final int PRIORITY_KEY = 8;
+  private static final int DATE_KEY = 16;
+  private static final int DUE_MINUTE = 24;
+  private static final int PRIORITY = 32;
+  private static final int FLAGS = 36;
+  private static final int TEXT_OFFSET = 40; // in a free slot, the next free slot or -1
+  private static final int TEXT_LENGTH = 44;
+
+  private static final int FREE = 1; // flag of a slot no activity holds
+  private static final int DATED = 2; // flag of an activity with a due date
+
+  private static final int MAGIC = 0x4f48414c; // begins the records of a store
+  private static final int HEADER_BYTES = 32; // counters kept before the first record
+  private static final int ENTRY_BYTES = 16; // identifier table entry: identifier, slot + 1
+  private static final int INITIAL_SLOTS = 1024;
+  private static final int MIN_COMPACTION = 1 << 20; // text bytes left unused before compacting
+  private static final int CHUNK = 1 << 16; // bytes moved at a time within a region
+
+  private static final Comparator<Activity> PRIORITY_ORDER =
+      Comparator.comparingLong(Activity::getPriorityKey).thenComparingLong(Activity::getId);
+  private static final Comparator<Activity> DATE_ORDER =
+      Comparator.comparingLong(Activity::getDateKey).thenComparingLong(Activity::getId);
+
+  /**
+   * A growable block of memory outside of the heap, mapped from a file or not
+   */
+  private static final class Region {
+
+    private final FileChannel channel; // null if the region is not mapped from a file
+    private ByteBuffer buffer;
+
+    /**
+     * Allocates a region
+     *
+     * @param file, The file mapped, null for direct memory
+     * @param capacity, Bytes the region holds at first, more if the file is longer
+     * @throws IOException if the file could not be mapped
+     */
+    Region(File file, int capacity) throws IOException {
+
+      if (file == null) {
+        channel = null;
+        buffer = ByteBuffer.allocateDirect(capacity);
+      } else {
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        long length = Math.min(Integer.MAX_VALUE, Math.max(capacity, channel.size()));
+        buffer = channel.map(MapMode.READ_WRITE, 0, length);
+      }
+    }
+
+    /**
+     * Makes the region hold at least a number of bytes, at least doubling it if it has to grow
+     *
+     * @param bytes, Number of bytes
+     * @throws IllegalStateException if a region that big can't be addressed
+     */
+    void ensure(long bytes) {
+
+      if (bytes <= buffer.capacity()) {
+        return;
+      }
+      if (bytes > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Off-heap region can't hold " + bytes + " bytes");
+      }
+      int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(bytes, 2L * buffer.capacity()));
+
+      if (channel == null) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(capacity);
+        ByteBuffer old = buffer.duplicate();
+        old.clear();
+        grown.put(old);
+        grown.clear();
+        buffer = grown;
+      } else {
+        try {
+          buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+
+    /**
+     * Moves bytes within the region, the source and destination possibly overlapping
+     *
+     * @param from, Offset of the bytes
+     * @param to, Offset they are moved to
+     * @param length, Number of bytes
+     * @param scratch, Array the bytes go through
+     */
+    void move(int from, int to, int length, byte[] scratch) {
+
+      ByteBuffer view = buffer.duplicate();
+      // bytes are copied a chunk at a time, from the end when moving them up
+      for (int done = 0; done < length;) {
+        int count = Math.min(scratch.length, length - done);
+        int offset = to > from ? length - done - count : done;
+        view.position(from + offset);
+        view.get(scratch, 0, count);
+        view.position(to + offset);
+        view.put(scratch, 0, count);
+        done += count;
+      }
+    }
+
+    /**
+     * Reads bytes of the region
+     *
+     * @param offset, Offset of the bytes
+     * @param bytes, Where they are read to, as many as it holds
+     */
+    void read(int offset, byte[] bytes) {
+
+      ByteBuffer view = buffer.duplicate();
+      view.position(offset);
+      view.get(bytes);
+    }
+
+    /**
+     * Writes bytes to the region, which must be big enough
+     *
+     * @param offset, Where the bytes go
+     * @param bytes, The bytes
+     * @param length, Number of them written
+     */
+    void write(int offset, byte[] bytes, int length) {
+
+      ByteBuffer view = buffer.duplicate();
+      view.position(offset);
+      view.put(bytes, 0, length);
+    }
+
+    /**
+     * Writes zeros over the beginning of the region
+     *
+     * @param length, Number of bytes zeroed, a multiple of 8
+     */
+    void zero(int length) {
+
+      for (int offset = 0; offset < length; offset += 8) {
+        buffer.putLong(offset, 0);
+      }
+    }
+
+    void close() throws IOException {
+
+      if (channel != null) {
+        ((MappedByteBuffer) buffer).force();
+        channel.close();
+      }
+    }
+  }
+
+  /**
+   * Keeps the bytes written to it reachable without copying them
+   */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+
+    byte[] bytes() {
+
+      return buf;
+    }
+  }
+
+  private final Region records; // the header, then the record of every slot
+  private final Region text; // the text of every record, one after another
+  private final Region byPriority; // slots in priority order
+  private final Region byDate; // slots in date order
+  private final Region ids; // slot of every identifier, by open addressing
+
+  private int size = 0; // activities held
+  private int slots = 0; // slots ever used, free ones included
+  private int freeSlot = -1; // first of the free slots, which are chained
+  private int textEnd = 0; // bytes of the text region written
+  private int textLive = 0; // bytes of them which are the text of an activity held
+  private int idCapacity = 2 * INITIAL_SLOTS; // entries of the identifier table, a power of 2
+
+  private final RecordBuffer written = new RecordBuffer();
+  private final DataOutputStream out = new DataOutputStream(written);
+  private final byte[] scratch = new byte[CHUNK];
+
+  /**
+   * Allocates a store, empty unless it finds the activities kept in its directory before
+   *
+   * @param directory, Directory of the files the store maps into memory, null to keep the
+   *        activities in direct memory only
+   * @throws IOException if the files could not be created or mapped
+   */
+  public OffHeapActivityStore(File directory) throws IOException {
+
+    if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+    records = new Region(file(directory, "records"), HEADER_BYTES + INITIAL_SLOTS * RECORD_BYTES);
+    text = new Region(file(directory, "text"), INITIAL_SLOTS * 64);
+    byPriority = new Region(file(directory, "by-priority"), INITIAL_SLOTS * 4);
+    byDate = new Region(file(directory, "by-date"), INITIAL_SLOTS * 4);
+    ids = new Region(file(directory, "ids"), idCapacity * ENTRY_BYTES);
+
+    ByteBuffer header = records.buffer;
+    if (header.getInt(0) == MAGIC) {
+      size = header.getInt(4);
+      slots = header.getInt(8);
+      freeSlot = header.getInt(12);
+      textEnd = header.getInt(16);
+      textLive = header.getInt(20);
+      idCapacity = header.getInt(24);
+    } else {
+      writeHeader();
+    }
+  }
+
+  /**
+   * Allocates a store holding the activities of a model, which the store then keeps up with
+   *
+   * @param model, The model
+   * @param directory, Directory of the files the store maps into memory, null to keep the
+   *        activities in direct memory only
+   * @throws IOException if the files could not be created or mapped
+   */
+  public OffHeapActivityStore(ActivityModel model, File directory) throws IOException {
+
+    this(directory);
+    clear();
+    addAll(model.getDateList());
+    model.addListener(this);
+  }
+
+  @Override
+  public synchronized int size() {
+
+    return size;
+  }
+
+  @Override
+  public synchronized List<Activity> priorityPage(int pageRank) {
+
+    return page(byPriority, pageRank);
+  }
+
+  @Override
+  public synchronized List<Activity> datePage(int pageRank) {
+
+    return page(byDate, pageRank);
+  }
+
+  /**
+   * Collects the activities due within a range of due minutes, in date order
+   *
+   * @param from, The first due minute of the range
+   * @param to, The due minute after the end of the range
+   * @return the activities due from 'from' up to but not including 'to', read from their records
+   */
+  public synchronized List<Activity> dueBetween(long from, long to) {
+
+    // due minutes grow along the date order, whose first activity due in time is searched for
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (field(byDate.buffer.getInt(middle * 4), DUE_MINUTE) < from) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    List<Activity> due = new ArrayList<Activity>();
+    for (int i = low; i < size; ++i) {
+      int slot = byDate.buffer.getInt(i * 4);
+      if (field(slot, DUE_MINUTE) >= to) {
+        break;
+      }
+      due.add(read(slot));
+    }
+    return due;
+  }
+
+  /**
+   * Adds activities, an activity already held being replaced and those without identifier being
+   * assigned one
+   *
+   * @param added, The activities
+   */
+  public synchronized void addAll(Collection<Activity> added) {
+
+    if (size == 0) {
+      if (fill(added)) {
+        writeHeader();
+        return;
+      }
+      clear();
+    }
+    for (Activity activity : added) {
+      add(activity);
+    }
+    writeHeader();
+  }
+
+  @Override
+  public synchronized void activityAdded(Activity activity) {
+
+    add(activity);
+    writeHeader();
+  }
+
+  @Override
+  public synchronized void activityEdited(Activity previous, Activity updated) {
+
+    if (updated.getId() == 0) {
+      updated.setId(previous.getId());
+    }
+    remove(previous.getId());
+    add(updated);
+    writeHeader();
+  }
+
+  @Override
+  public synchronized void activityDeleted(Activity activity) {
+
+    remove(activity.getId());
+    writeHeader();
+  }
+
+  @Override
+  public synchronized void activitiesCleared(Collection<Activity> cleared) {
+
+    clear();
+  }
+
+  /**
+   * Removes every activity, keeping the memory the store has grown to
+   */
+  public synchronized void clear() {
+
+    size = 0;
+    slots = 0;
+    freeSlot = -1;
+    textEnd = 0;
+    textLive = 0;
+    ids.zero(idCapacity * ENTRY_BYTES);
+    writeHeader();
+  }
+
+  /**
+   * Writes the files of the store to disk, if it has any, and closes them. The store can't be used
+   * afterwards.
+   *
+   * @throws IOException if a file could not be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+
+    IOException failure = null;
+    for (Region region : new Region[] {records, text, byPriority, byDate, ids}) {
+      try {
+        region.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Adds an activity to the records and both orders, replacing one with the same identifier and
+   * assigning it an identifier if it doesn't have one yet
+   *
+   * @param activity, The activity
+   */
+  private void add(Activity activity) {
+
+    while (activity.getId() == 0) {
+      activity.setId(ThreadLocalRandom.current().nextLong());
+    }
+    remove(activity.getId());
+    int slot = store(activity);
+    insert(byPriority, slot, PRIORITY_KEY);
+    insert(byDate, slot, DATE_KEY);
+  }
+
+  /**
+   * Fills an empty store, writing its orders whole instead of shifting them for every activity
+   *
+   * @param added, The activities
+   * @return true, false if two of them have the same identifier and the store must be emptied
+   */
+  private boolean fill(Collection<Activity> added) {
+
+    Activity[] ordered = added.toArray(new Activity[0]);
+    for (Activity activity : ordered) {
+      while (activity.getId() == 0) {
+        activity.setId(ThreadLocalRandom.current().nextLong());
+      }
+    }
+    Arrays.sort(ordered, DATE_ORDER);
+    byDate.ensure(4L * ordered.length);
+    for (int i = 0; i < ordered.length; ++i) {
+      if (slotOf(ordered[i].getId()) >= 0) {
+        return false;
+      }
+      byDate.buffer.putInt(i * 4, store(ordered[i]));
+    }
+
+    Arrays.sort(ordered, PRIORITY_ORDER);
+    byPriority.ensure(4L * ordered.length);
+    for (int i = 0; i < ordered.length; ++i) {
+      byPriority.buffer.putInt(i * 4, slotOf(ordered[i].getId()));
+    }
+    return true;
+  }
+
+  /**
+   * Removes an activity from the records and both orders
+   *
+   * @param id, Identifier of the activity
+   */
+  private void remove(long id) {
+
+    int slot = slotOf(id);
+    if (slot < 0) {
+      return;
+    }
+    delete(byPriority, slot, PRIORITY_KEY);
+    delete(byDate, slot, DATE_KEY);
+    removeId(id);
+
+    int at = offset(slot);
+    textLive -= records.buffer.getInt(at + TEXT_LENGTH);
+    records.buffer.putInt(at + FLAGS, FREE);
+    records.buffer.putInt(at + TEXT_OFFSET, freeSlot);
+    freeSlot = slot;
+    --size;
+
+    if (textEnd - textLive > Math.max(MIN_COMPACTION, textLive)) {
+      compact();
+    }
+  }
+
+  /**
+   * Writes the record and text of an activity, in a free slot if there is one, without adding it
+   * to the orders
+   *
+   * @param activity, The activity
+   * @return its slot
+   */
+  private int store(Activity activity) {
+
+    written.reset();
+    try {
+      ActivityFile.writeRecord(out, activity);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); // not thrown writing to memory
+    }
+    int length = written.size();
+    text.ensure((long) textEnd + length);
+    text.write(textEnd, written.bytes(), length);
+
+    int slot;
+    if (freeSlot >= 0) {
+      slot = freeSlot;
+      freeSlot = records.buffer.getInt(offset(slot) + TEXT_OFFSET);
+    } else {
+      slot = slots++;
+      records.ensure((long) HEADER_BYTES + (long) slots * RECORD_BYTES);
+    }
+
+    int at = offset(slot);
+    ByteBuffer record = records.buffer;
+    record.putLong(at + ID, activity.getId());
+    record.putLong(at + PRIORITY_KEY, activity.getPriorityKey());
+    record.putLong(at + DATE_KEY, activity.getDateKey());
+    record.putLong(at + DUE_MINUTE, activity.getDueMinute());
+    record.putInt(at + PRIORITY, activity.getPriority());
+    record.putInt(at + FLAGS, activity.hasDeadline() ? DATED : 0);
+    record.putInt(at + TEXT_OFFSET, textEnd);
+    record.putInt(at + TEXT_LENGTH, length);
+
+    textEnd += length;
+    textLive += length;
+    putId(activity.getId(), slot);
+    ++size;
+    return slot;
+  }
+
+  /**
+   * Reads the activity of a slot back onto the heap
+   *
+   * @param slot, The slot
+   * @return a new activity, equal to the one stored
+   */
+  private Activity read(int slot) {
+
+    int at = offset(slot);
+    byte[] bytes = new byte[records.buffer.getInt(at + TEXT_LENGTH)];
+    text.read(records.buffer.getInt(at + TEXT_OFFSET), bytes);
+    try {
+      return ActivityFile.readRecord(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads the activities of a page of an order
+   *
+   * @param order, The order
+   * @param pageRank, The page, starting at 1
+   * @return up to ActivityModel.PAGE_SIZE activities
+   */
+  private List<Activity> page(Region order, int pageRank) {
+
+    int from = (pageRank - 1) * ActivityModel.PAGE_SIZE;
+    if (from < 0 || from >= size) {
+      return Collections.emptyList();
+    }
+    int to = Math.min(size, from + ActivityModel.PAGE_SIZE);
+    List<Activity> page = new ArrayList<Activity>(to - from);
+    for (int i = from; i < to; ++i) {
+      page.add(read(order.buffer.getInt(i * 4)));
+    }
+    return page;
+  }
+
+  /**
+   * Inserts a slot in an order, after the slots whose key and identifier are smaller. The slot
+   * must already be counted in the size.
+   *
+   * @param order, The order
+   * @param slot, The slot
+   * @param keyField, Offset of the key the order follows within a record
+   */
+  private void insert(Region order, int slot, int keyField) {
+
+    int count = size - 1; // slots in the order before this one
+    int position = search(order, count, field(slot, keyField), field(slot, ID), keyField);
+    order.ensure(4L * size);
+    order.move(position * 4, position * 4 + 4, (count - position) * 4, scratch);
+    order.buffer.putInt(position * 4, slot);
+  }
+
+  /**
+   * Removes a slot from an order, before the size no longer counts it
+   *
+   * @param order, The order
+   * @param slot, The slot
+   * @param keyField, Offset of the key the order follows within a record
+   */
+  private void delete(Region order, int slot, int keyField) {
+
+    int position = search(order, size, field(slot, keyField), field(slot, ID), keyField);
+    order.move(position * 4 + 4, position * 4, (size - position - 1) * 4, scratch);
+  }
+
+  /**
+   * Searches an order for the first slot whose key and identifier aren't smaller than the given
+   *
+   * @param order, The order
+   * @param count, Number of slots in it
+   * @param key, The key
+   * @param id, The identifier
+   * @param keyField, Offset of the key the order follows within a record
+   * @return position of the slot, count if there is none
+   */
+  private int search(Region order, int count, long key, long id, int keyField) {
+
+    int low = 0;
+    int high = count;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int slot = order.buffer.getInt(middle * 4);
+      long other = field(slot, keyField);
+      if (other < key || (other == key && field(slot, ID) < id)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the slot of an activity in the identifier table
+   *
+   * @param id, Identifier of the activity
+   * @return the slot, -1 if the store doesn't hold the activity
+   */
+  private int slotOf(long id) {
+
+    int mask = idCapacity - 1;
+    for (int i = hash(id) & mask;; i = (i + 1) & mask) {
+      int slot = ids.buffer.getInt(i * ENTRY_BYTES + 8) - 1;
+      if (slot < 0 || ids.buffer.getLong(i * ENTRY_BYTES) == id) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * Adds an identifier to the identifier table, which doubles once it would be half full
+   *
+   * @param id, The identifier, not in the table
+   * @param slot, Slot of its activity
+   */
+  private void putId(long id, int slot) {
+
+    if (2L * (size + 1) > idCapacity) {
+      idCapacity *= 2;
+      ids.ensure((long) idCapacity * ENTRY_BYTES);
+      ids.zero(idCapacity * ENTRY_BYTES);
+      for (int other = 0; other < slots; ++other) {
+        if (other != slot && (field(other, FLAGS) & FREE) == 0) {
+          placeId(field(other, ID), other);
+        }
+      }
+    }
+    placeId(id, slot);
+  }
+
+  private void placeId(long id, int slot) {
+
+    int mask = idCapacity - 1;
+    int i = hash(id) & mask;
+    while (ids.buffer.getInt(i * ENTRY_BYTES + 8) != 0) {
+      i = (i + 1) & mask;
+    }
+    ids.buffer.putLong(i * ENTRY_BYTES, id);
+    ids.buffer.putInt(i * ENTRY_BYTES + 8, slot + 1);
+  }
+
+  /**
+   * Removes an identifier from the identifier table, moving back the entries after it which
+   * could no longer be found otherwise
+   *
+   * @param id, The identifier, in the table
+   */
+  private void removeId(long id) {
+
+    int mask = idCapacity - 1;
+    int hole = hash(id) & mask;
+    while (ids.buffer.getLong(hole * ENTRY_BYTES) != id
+        || ids.buffer.getInt(hole * ENTRY_BYTES + 8) == 0) {
+      hole = (hole + 1) & mask;
+    }
+
+    for (int i = (hole + 1) & mask; ids.buffer.getInt(i * ENTRY_BYTES + 8) != 0;
+        i = (i + 1) & mask) {
+      int home = hash(ids.buffer.getLong(i * ENTRY_BYTES)) & mask;
+      // the entry stays unless the hole lies between its home and itself
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        ids.buffer.putLong(hole * ENTRY_BYTES, ids.buffer.getLong(i * ENTRY_BYTES));
+        ids.buffer.putInt(hole * ENTRY_BYTES + 8, ids.buffer.getInt(i * ENTRY_BYTES + 8));
+        hole = i;
+      }
+    }
+    ids.buffer.putLong(hole * ENTRY_BYTES, 0);
+    ids.buffer.putInt(hole * ENTRY_BYTES + 8, 0);
+  }
+
+  /**
+   * Moves the text of every activity held to the beginning of the text region, in the order it
+   * was written, leaving the unused bytes after it
+   */
+  private void compact() {
+
+    // offsets and slots are sorted together, the offset in the upper half
+    long[] texts = new long[size];
+    int count = 0;
+    for (int slot = 0; slot < slots; ++slot) {
+      if ((field(slot, FLAGS) & FREE) == 0) {
+        texts[count++] = field(slot, TEXT_OFFSET) << 32 | slot;
+      }
+    }
+    Arrays.sort(texts, 0, count);
+
+    int end = 0;
+    for (int i = 0; i < count; ++i) {
+      int at = offset((int) texts[i]);
+      int length = records.buffer.getInt(at + TEXT_LENGTH);
+      text.move((int) (texts[i] >>> 32), end, length, scratch);
+      records.buffer.putInt(at + TEXT_OFFSET, end);
+      end += length;
+    }
+    textEnd = end;
+  }
+
+  /**
+   * Reads a field of a record, an int field being widened
+   *
+   * @param slot, Slot of the record
+   * @param field, Offset of the field
+   * @return the value of the field
+   */
+  private long field(int slot, int field) {
+
+    int at = offset(slot) + field;
+    return field < PRIORITY ? records.buffer.getLong(at) : records.buffer.getInt(at);
+  }
+
+  private void writeHeader() {
+
+    ByteBuffer header = records.buffer;
+    header.putInt(0, MAGIC);
+    header.putInt(4, size);
+    header.putInt(8, slots);
+    header.putInt(12, freeSlot);
+    header.putInt(16, textEnd);
+    header.putInt(20, textLive);
+    header.putInt(24, idCapacity);
+  }
+
+  private static int offset(int slot) {
+
+    return HEADER_BYTES + slot * RECORD_BYTES;
+  }
+
+  private static int hash(long id) {
+
+    long mixed = id * 0x9e3779b97f4a7c15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  private static File file(File directory, String name) {
+
+    return directory == null ? null : new File(directory, name);
+  }
+}
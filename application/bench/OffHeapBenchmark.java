@@ -0,0 +1,194 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: OffHeapBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import application.ActivityPager;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Measures the garbage collection pauses an application suffers while a large list of activities
+ * is held in one of two layouts: a model, whose activities are objects linked from its date list
+ * and priority index, or an OffHeapActivityStore, whose records the collector never sees. The
+ * list is filled with activities from a Workload, then a number of pages are read, the first ones
+ * most often, and objects are allocated alongside, some of them kept long enough to reach the old
+ * generation so the collector has to deal with it too. Every thousand pages, an activity of the
+ * page is replaced by a new one. The heap kept alive by the layout, the memory outside of the heap
+ * and the pauses are printed.
+ *
+ * Every layout should be measured in its own JVM with the same collector, and with its initial
+ * heap being its maximum so both start from the same generations. The direct memory allowed must
+ * be raised for large stores:
+ *
+ * java -Xms2g -Xmx2g -XX:MaxDirectMemorySize=2g application.bench.OffHeapBenchmark model|offheap
+ * [activities] [pages] [directory]
+ *
+ * The off-heap store maps its files from the directory if one is given.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class OffHeapBenchmark {
+
+  private static final int KEPT = 200_000; // objects kept around before they become garbage
+  private static final int KEPT_BYTES = 256;
+  private static final int TEMPORARY_BYTES = 1024; // allocated and dropped by every page read
+  private static final int READS = 1000; // pages read for every activity replaced
+
+  private static final LatencyHistogram pauses = new LatencyHistogram();
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, The layout, model or offheap, optional number of activities (default 1,000,000),
+   *        pages read (default 2,000,000) and directory of the store's files
+   * @throws IOException if the store's files could not be mapped
+   */
+  public static void main(String[] args) throws IOException {
+
+    if (args.length < 1 || !(args[0].equals("model") || args[0].equals("offheap"))) {
+      System.err.println(
+          "usage: OffHeapBenchmark model|offheap [activities] [pages] [directory]");
+      System.exit(2);
+    }
+    boolean offHeap = args[0].equals("offheap");
+    int count = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+    long pagesRead = args.length > 2 ? Long.parseLong(args[2]) : 2_000_000;
+    File directory = args.length > 3 ? new File(args[3]) : null;
+
+    Workload workload = new Workload(new HashMap<String, String>());
+    long heapBefore = liveHeap();
+    long start = System.nanoTime();
+
+    List<Activity> activities = new ArrayList<Activity>(count);
+    for (int i = 0; i < count; ++i) {
+      activities.add(workload.newActivity());
+    }
+    ActivityModel model = null;
+    OffHeapActivityStore store = null;
+    if (offHeap) {
+      store = new OffHeapActivityStore(directory);
+      store.clear();
+      store.addAll(activities);
+    } else {
+      model = new ActivityModel();
+      model.addAll(activities);
+    }
+    activities = null;
+    ActivityPager pager = offHeap ? store : model;
+
+    System.out.printf("layout: %s, activities: %,d, filled in %,d ms%n", args[0], pager.size(),
+        (System.nanoTime() - start) / 1_000_000);
+    System.out.printf("heap kept: %,d KB, memory outside of the heap: %,d KB%n",
+        (liveHeap() - heapBefore) / 1024, outsideHeap() / 1024);
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      System.out.print(collector.getName() + "; ");
+    }
+    System.out.println();
+
+    listenToCollections();
+    byte[][] kept = new byte[KEPT][];
+    byte[][] recent = new byte[64][]; // the temporary objects, which only live a little while
+    int pages = (pager.size() + ActivityModel.PAGE_SIZE - 1) / ActivityModel.PAGE_SIZE;
+    start = System.nanoTime();
+
+    for (long reads = 1; reads <= pagesRead; ++reads) {
+      boolean byPriority = workload.below(2) == 0;
+      int pageRank = workload.page(pages);
+      List<Activity> page = byPriority ? pager.priorityPage(pageRank) : pager.datePage(pageRank);
+      if (reads % READS == 0 && !page.isEmpty()) {
+        Activity previous = page.get(workload.below(page.size()));
+        Activity updated = workload.newActivity();
+        if (offHeap) {
+          store.activityEdited(previous, updated);
+        } else {
+          model.editActivity(previous, updated);
+        }
+      }
+
+      recent[(int) (reads % recent.length)] = new byte[TEMPORARY_BYTES];
+      kept[(int) (reads % KEPT)] = new byte[KEPT_BYTES];
+    }
+    long elapsed = System.nanoTime() - start;
+
+    synchronized (pauses) {
+      System.out.printf("pages read: %,d in %,d ms, activities replaced: %,d%n", pagesRead,
+          elapsed / 1_000_000, pagesRead / READS);
+      System.out.printf("pauses: %,d, total %,d ms, mean %.2f ms, p50 %.2f ms, p99 %.2f ms,"
+          + " max %.2f ms%n", pauses.count(), (long) (pauses.mean() * pauses.count() / 1e6),
+          pauses.mean() / 1e6, pauses.percentile(50) / 1e6, pauses.percentile(99) / 1e6,
+          pauses.max() / 1e6);
+    }
+    if (store != null) {
+      store.close();
+    }
+  }
+
+  /**
+   * Records the pause of every garbage collection, as the collectors report them, except those
+   * requested by liveHeap()
+   */
+  private static void listenToCollections() {
+
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (!(collector instanceof NotificationEmitter)) {
+        continue;
+      }
+      ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+        if (!notification.getType()
+            .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+          return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!info.getGcCause().equals("System.gc()")) {
+          synchronized (pauses) {
+            pauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+          }
+        }
+      }, null, null);
+    }
+  }
+
+  /**
+   * Measures the heap still in use after a full collection
+   *
+   * @return bytes of heap in use
+   */
+  private static long liveHeap() {
+
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Measures the memory of the direct and mapped buffers
+   *
+   * @return bytes of memory outside of the heap
+   */
+  private static long outsideHeap() {
+
+    long used = 0;
+    for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+      used += pool.getMemoryUsed();
+    }
+    return used;
+  }
+}
@@ -0,0 +1,101 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: RebuildBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import application.ParallelRebuild;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how the bulk rebuild of both orderings scales with the number of cores. Runs the rebuild
+ * on pools of 1, 2, 4, 8, 16 and 32 threads over the same activities and prints, for each, the time
+ * of the parallel sort alone and of ActivityModel.rebuild() end to end, which also builds the
+ * priority and date indexes from the sorted activities, and the speedup of the latter over a single
+ * thread.
+ *
+ * Usage: java -Xmx8g application.bench.RebuildBenchmark [activities] [repetitions]
+ *
+ * @author Luis J Finol
+ *
+ */
+public class RebuildBenchmark {
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, Optional number of activities (default 10,000,000) and repetitions (default 3)
+   */
+  public static void main(String[] args) {
+
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+    int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+    ActivityModel model = new ActivityModel();
+    Activity[] activities = generate(count, new Random(42));
+    model.addAll(Arrays.asList(activities));
+
+    System.out.println("activities: " + count + ", available cores: "
+        + Runtime.getRuntime().availableProcessors());
+    System.out.println("threads\tsort ms\trebuild ms\tspeedup");
+
+    double singleThread = 0;
+    for (int threads = 1; threads <= 32; threads *= 2) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      long bestSort = Long.MAX_VALUE;
+      long bestRebuild = Long.MAX_VALUE;
+
+      // the first run only warms up the JIT
+      for (int i = 0; i <= repetitions; ++i) {
+        long start = System.nanoTime();
+        ParallelRebuild.rebuild(model, activities, pool);
+        long sorted = System.nanoTime();
+        model.rebuild(pool);
+        long rebuilt = System.nanoTime();
+        if (i > 0) {
+          bestSort = Math.min(bestSort, sorted - start);
+          bestRebuild = Math.min(bestRebuild, rebuilt - sorted);
+        }
+      }
+      pool.shutdown();
+
+      double millis = bestRebuild / 1e6;
+      if (threads == 1) {
+        singleThread = millis;
+      }
+      System.out.printf("%d\t%.1f\t%.1f\t%.2fx%n", threads, bestSort / 1e6, millis,
+          singleThread / millis);
+    }
+  }
+
+  /**
+   * Creates activities with random priorities and due dates, a tenth of them without due date
+   *
+   * @param count, Number of activities
+   * @param random, Source of randomness
+   * @return The generated activities
+   */
+  static Activity[] generate(int count, Random random) {
+
+    Activity[] activities = new Activity[count];
+    for (int i = 0; i < count; ++i) {
+      int priority = random.nextInt(ActivityModel.MAX_PRIORITY + 1);
+      if (random.nextInt(10) == 0) {
+        activities[i] = new Activity("activity " + i, priority);
+      } else {
+        String date = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/"
+            + (2020 + random.nextInt(10));
+        activities[i] = new Activity("activity " + i, priority, date);
+      }
+    }
+    return activities;
+  }
+}
@@ -0,0 +1,154 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: RenderBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import application.RenderModel;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Measures what building the rows of a page costs before the buttons themselves are created. The
+ * inline way puts the description and due date of every activity together and chooses one of three
+ * inline styles by its priority whenever a page is shown, while the render model of an activity is
+ * built once and reused until the activity is edited. Pages of a model filled from a Workload are
+ * read in priority order, an activity of the page being edited every so often, and the nanoseconds
+ * and bytes allocated per row, reading the pages aside, are printed for both ways.
+ *
+ * Usage: java application.bench.RenderBenchmark [activities] [pages] [pages between edits]
+ *
+ * @author Luis J Finol
+ *
+ */
+public class RenderBenchmark {
+
+  private static final int REPETITIONS = 5; // measured runs of each way, after one to warm up
+
+  private static long sink = 0; // keeps the rows from being optimized away
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, Optional number of activities (default 100,000), pages read by every run
+   *        (default 200,000) and pages read between two edits (default 100)
+   */
+  public static void main(String[] args) {
+
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    int pages = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+    int editEvery = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+    Workload workload = new Workload(new HashMap<String, String>());
+    ActivityModel model = new ActivityModel();
+    for (int i = 0; i < count; ++i) {
+      model.addActivity(workload.newActivity());
+    }
+    System.out.printf("activities: %,d, pages per run: %,d, an edit every %,d pages%n", count,
+        pages, editEvery);
+
+    for (boolean cached : new boolean[] {false, true}) {
+      long[] best = {Long.MAX_VALUE, Long.MAX_VALUE, 0};
+      for (int i = 0; i <= REPETITIONS; ++i) {
+        long[] measured = run(model, workload, pages, editEvery, cached);
+        if (i > 0) {
+          best[0] = Math.min(best[0], measured[0]);
+          best[1] = Math.min(best[1], measured[1]);
+          best[2] = measured[2];
+        }
+      }
+      System.out.printf("%-13s %6.1f ns/row, %6.1f bytes/row%n",
+          cached ? "render model:" : "inline:", (double) best[0] / best[2],
+          (double) best[1] / best[2]);
+    }
+  }
+
+  /**
+   * Builds the rows of pages one after another, starting over after the last page. Pages are read
+   * a batch at a time between two edits, and only building their rows is measured.
+   *
+   * @param model, The model
+   * @param workload, Creates the edited activities
+   * @param pages, Number of pages read
+   * @param editEvery, Pages read between two edits
+   * @param cached, Indicates if the rows come from render models instead of being built inline
+   * @return the nanoseconds spent and bytes allocated building rows, and the number of rows
+   */
+  private static long[] run(ActivityModel model, Workload workload, int pages, int editEvery,
+      boolean cached) {
+
+    int pageCount = (model.size() + ActivityModel.PAGE_SIZE - 1) / ActivityModel.PAGE_SIZE;
+    List<List<Activity>> batch = new ArrayList<List<Activity>>(editEvery);
+    long[] measured = new long[3];
+
+    for (int read = 0; read < pages;) {
+      batch.clear();
+      while (batch.size() < editEvery && read < pages) {
+        batch.add(model.priorityPage(1 + read++ % pageCount));
+      }
+
+      long bytes = allocated();
+      long start = System.nanoTime();
+      for (List<Activity> page : batch) {
+        for (Activity activity : page) {
+          if (cached) {
+            RenderModel render = RenderModel.of(activity);
+            sink += render.getLabel().length() + render.getStyleClass().length();
+          } else {
+            String label = activity.getDescription() + RenderModel.dueLabel(activity);
+            sink += label.length() + inlineStyle(activity.getPriority()).length();
+          }
+        }
+        measured[2] += page.size();
+      }
+      measured[0] += System.nanoTime() - start;
+      measured[1] += allocated() - bytes;
+
+      List<Activity> page = batch.get(batch.size() - 1);
+      if (!page.isEmpty()) {
+        model.editActivity(page.get(workload.below(page.size())), workload.newActivity());
+      }
+    }
+    return measured;
+  }
+
+  /**
+   * Chooses the inline style of a row the way the main scenes did before render models
+   *
+   * @param priority, The priority of the activity
+   * @return the style
+   */
+  private static String inlineStyle(int priority) {
+
+    if (priority * 10 > 7 * ActivityModel.MAX_PRIORITY) {
+      return "-fx-text-fill: red; -fx-font-size: 18px;";
+    } else if (priority * 10 < 5 * ActivityModel.MAX_PRIORITY) {
+      return "-fx-text-fill: green; -fx-font-size: 18px;";
+    }
+    return "-fx-text-fill: orange; -fx-font-size: 18px;";
+  }
+
+  /**
+   * Measures the bytes allocated by the current thread so far
+   *
+   * @return bytes allocated, 0 if the JVM can't tell
+   */
+  private static long allocated() {
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,162 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ReplayBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityEvent;
+import application.ActivityModel;
+import application.ConsistencyChecker;
+import application.EventLog;
+import application.EventProjection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how fast the views of the activities are derived from recorded events. A model goes
+ * through a random mix of additions, edits, moves by hand, deletions and completions while an
+ * EventLog records them and a projection follows it. The benchmark then replays the whole log to
+ * rebuild the views, and applies it again one event at a time to a new projection, printing the
+ * events per second of both. Every projection is checked against the model with the
+ * ConsistencyChecker, and any difference is printed.
+ *
+ * Usage: java application.bench.ReplayBenchmark [changes] [repetitions]
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ReplayBenchmark {
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, Optional number of changes (default 50,000) and repetitions (default 3)
+   */
+  public static void main(String[] args) {
+
+    int count = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+    int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+    ActivityModel model = new ActivityModel();
+    EventLog log = new EventLog(model);
+    EventProjection followed = new EventProjection();
+    log.follow(followed);
+
+    long start = System.nanoTime();
+    change(model, count, new Random(42));
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("changes: %,d, events: %,d, activities left: %,d%n", count, log.size(),
+        model.size());
+    System.out.printf("model changed and projection followed in %,d ms%n", elapsed / 1_000_000);
+
+    List<String> problems = ConsistencyChecker.check(model);
+    problems.addAll(ConsistencyChecker.compare(model, followed));
+
+    List<ActivityEvent> events = log.getEvents();
+    long best = Long.MAX_VALUE;
+    EventProjection replayed = null;
+
+    // the first run only warms up the JIT
+    for (int i = 0; i <= repetitions; ++i) {
+      start = System.nanoTime();
+      replayed = EventProjection.replay(events);
+      elapsed = System.nanoTime() - start;
+      if (i > 0) {
+        best = Math.min(best, elapsed);
+      }
+    }
+    System.out.printf("replay:      %,d ms, %,.0f events/s%n", best / 1_000_000,
+        events.size() * 1e9 / best);
+    problems.addAll(ConsistencyChecker.compare(model, replayed));
+
+    start = System.nanoTime();
+    EventProjection applied = new EventProjection();
+    for (ActivityEvent event : events) {
+      applied.apply(event);
+    }
+    elapsed = System.nanoTime() - start;
+    System.out.printf("incremental: %,d ms, %,.0f events/s%n", elapsed / 1_000_000,
+        events.size() * 1e9 / elapsed);
+    problems.addAll(ConsistencyChecker.compare(model, applied));
+
+    for (String problem : problems) {
+      System.out.println(problem);
+    }
+    System.out.println(problems.isEmpty() ? "consistent" : problems.size() + " problems");
+  }
+
+  /**
+   * Makes random changes to a model: six in ten add an activity due within two months of today,
+   * and the rest edit, move, delete or complete one
+   *
+   * @param model, The model
+   * @param count, Number of changes
+   * @param random, Source of randomness
+   */
+  private static void change(ActivityModel model, int count, Random random) {
+
+    List<Activity> activities = new ArrayList<Activity>();
+    LocalDate today = LocalDate.now();
+
+    for (int i = 0; i < count; ++i) {
+      int kind = activities.isEmpty() ? 0 : random.nextInt(20);
+      if (kind < 12) {
+        Activity activity = create(i, today, random);
+        model.addActivity(activity);
+        activities.add(activity);
+        continue;
+      }
+
+      int index = random.nextInt(activities.size());
+      Activity activity = activities.get(index);
+      if (kind < 15) {
+        Activity edited = create(i, today, random);
+        model.editActivity(activity, edited);
+        activities.set(index, edited);
+      } else if (kind < 17) {
+        model.moveActivity(activity, random.nextInt(model.size()));
+      } else {
+        // the last activity takes the place of the one removed
+        activities.set(index, activities.get(activities.size() - 1));
+        activities.remove(activities.size() - 1);
+        if (kind < 19) {
+          model.deleteActivity(activity);
+        } else {
+          model.completeActivity(activity);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates an activity, a tenth of them without due date and a third of the rest due at a time
+   *
+   * @param number, Number of the change creating it
+   * @param today, The current day
+   * @param random, Source of randomness
+   * @return the activity
+   */
+  private static Activity create(int number, LocalDate today, Random random) {
+
+    String description = "Activity " + number;
+    int priority = random.nextInt(ActivityModel.MAX_PRIORITY + 1);
+    if (random.nextInt(10) == 0) {
+      return new Activity(description, priority);
+    }
+
+    LocalDate due = today.plusDays(random.nextInt(61) - 30);
+    String date = due.getMonthValue() + "/" + due.getDayOfMonth() + "/" + due.getYear();
+    if (random.nextInt(3) == 0) {
+      return new Activity(description, priority, date,
+          String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)), null);
+    }
+    return new Activity(description, priority, date);
+  }
+}
@@ -0,0 +1,450 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SoakTest.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import application.ActivityStats;
+import application.CalendarIndex;
+import application.DependencyGraph;
+import application.SortKey;
+import application.TrigramIndex;
+import application.bench.Workload.Operation;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Drives the model headlessly with a synthetic Workload for a long time, the way the GUI does with
+ * the same listeners attached, to find leaks and regressions before a release. Every interval it
+ * reports the throughput, the latency percentiles of every operation, the garbage collection
+ * pauses and the heap still in use after a full collection, and at the end it sums up the whole run
+ * and how fast the heap grew. The report is printed and written to a file.
+ *
+ * Usage: java -Xmx1g application.bench.SoakTest [duration=10m] [interval=60s]
+ * [report=soak-report.txt] [workload settings...]
+ *
+ * Durations are given in seconds, or with an s, m or h suffix. The workload settings are described
+ * by Workload.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class SoakTest {
+
+  private final Workload workload;
+  private final ActivityModel model = new ActivityModel();
+  private final TrigramIndex quickOpen;
+
+  // activities of the model, to pick the one an operation is performed on
+  private final List<Activity> activities = new ArrayList<Activity>();
+  private final Map<Activity, Integer> positions = new IdentityHashMap<Activity, Integer>();
+
+  private final Map<Operation, LatencyHistogram> interval =
+      new EnumMap<Operation, LatencyHistogram>(Operation.class);
+  private final Map<Operation, LatencyHistogram> total =
+      new EnumMap<Operation, LatencyHistogram>(Operation.class);
+  private final LatencyHistogram pauses = new LatencyHistogram(); // collections of the interval
+  private final LatencyHistogram allPauses = new LatencyHistogram();
+
+  /**
+   * Prepares a run: the model, the listeners the GUI attaches to it, and the initial activities
+   *
+   * @param workload, The workload
+   */
+  SoakTest(Workload workload) {
+
+    this.workload = workload;
+    for (Operation operation : Operation.values()) {
+      interval.put(operation, new LatencyHistogram());
+      total.put(operation, new LatencyHistogram());
+    }
+
+    List<Activity> initial = new ArrayList<Activity>();
+    for (int i = 0; i < workload.initial(); ++i) {
+      initial.add(workload.newActivity());
+    }
+    model.addAll(initial);
+    for (Activity activity : model.getDateList()) {
+      track(activity);
+    }
+
+    new DependencyGraph(model);
+    new ActivityStats(model, 0);
+    new CalendarIndex(model);
+    quickOpen = new TrigramIndex(model);
+  }
+
+  /**
+   * Runs the soak test
+   *
+   * @param args, Settings as name=value
+   * @throws IOException if the report could not be written
+   */
+  public static void main(String[] args) throws IOException {
+
+    Map<String, String> given = new HashMap<String, String>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (equals < 0) {
+        throw new IllegalArgumentException("Expected name=value: " + arg);
+      }
+      given.put(arg.substring(0, equals), arg.substring(equals + 1));
+    }
+    long duration = seconds(given.getOrDefault("duration", "10m"));
+    long every = seconds(given.getOrDefault("interval", "60s"));
+    String file = given.getOrDefault("report", "soak-report.txt");
+    given.keySet().removeAll(Arrays.asList("duration", "interval", "report"));
+
+    Workload workload = new Workload(given);
+    if (!given.isEmpty()) {
+      throw new IllegalArgumentException("Unknown settings: " + given.keySet());
+    }
+
+    try (PrintWriter report = new PrintWriter(
+        new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), true)) {
+      new SoakTest(workload).run(duration, every, new Report(report));
+    }
+  }
+
+  /**
+   * Performs operations until the duration has passed, reporting every interval
+   *
+   * @param duration, Seconds to run for
+   * @param every, Seconds between reports
+   * @param report, Where reports are written
+   */
+  void run(long duration, long every, Report report) {
+
+    listenToCollections();
+    report.line("soak test started " + LocalDateTime.now() + ", java "
+        + System.getProperty("java.version") + ", max heap "
+        + Runtime.getRuntime().maxMemory() / (1 << 20) + " MB");
+    report.line("workload: " + workload.describe());
+    report.line("duration " + duration + " s, report every " + every + " s, initial activities "
+        + model.size());
+
+    long start = System.nanoTime();
+    long end = start + duration * 1_000_000_000L;
+    long nextReport = start + every * 1_000_000_000L;
+    long operations = 0;
+    long intervalOperations = 0;
+    long intervalStart = start;
+    List<long[]> heap = new ArrayList<long[]>(); // seconds since start and live heap
+
+    while (true) {
+      Operation operation = workload.next(model.size());
+      long before = System.nanoTime();
+      perform(operation);
+      long after = System.nanoTime();
+      interval.get(operation).record(after - before);
+      ++intervalOperations;
+
+      if (after >= nextReport || after >= end) {
+        long seconds = (after - start) / 1_000_000_000L;
+        long used = liveHeap();
+        heap.add(new long[] {seconds, used});
+        report.interval(seconds, intervalOperations * 1e9 / (after - intervalStart), model.size(),
+            used, interval, pauses);
+
+        for (Operation each : Operation.values()) {
+          total.get(each).add(interval.get(each));
+          interval.get(each).reset();
+        }
+        synchronized (pauses) {
+          allPauses.add(pauses);
+          pauses.reset();
+        }
+        operations += intervalOperations;
+        intervalOperations = 0;
+        intervalStart = after;
+        nextReport += every * 1_000_000_000L;
+        if (after >= end) {
+          break;
+        }
+      }
+    }
+
+    report.summary((System.nanoTime() - start) / 1e9, operations, model.size(), total, allPauses,
+        heap);
+  }
+
+  /**
+   * Performs an operation the way the GUI does
+   *
+   * @param operation, The operation
+   */
+  private void perform(Operation operation) {
+
+    switch (operation) {
+      case ADD:
+        Activity added = workload.newActivity();
+        if (model.correctInputEntered(added).equals("Success")) {
+          model.addActivity(added);
+          track(added);
+        }
+        break;
+      case EDIT:
+        Activity previous = pick();
+        Activity updated = workload.newActivity();
+        model.editActivity(previous, updated);
+        untrack(previous);
+        track(updated);
+        break;
+      case DELETE:
+        Activity deleted = pick();
+        model.deleteActivity(deleted);
+        untrack(deleted);
+        break;
+      case COMPLETE:
+        Activity completed = pick();
+        model.completeActivity(completed);
+        untrack(completed);
+        break;
+      case MOVE:
+        model.moveActivity(pick(), workload.below(model.size()));
+        break;
+      case PRIORITY_PAGE:
+        model.priorityPage(workload.page(pages()));
+        break;
+      case DATE_PAGE:
+        model.datePage(workload.page(pages()));
+        break;
+      case DUE_TODAY:
+        LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.systemDefault();
+        model.dueBetween(SortKey.startOfDay(today, zone),
+            SortKey.startOfDay(today.plusDays(1), zone));
+        break;
+      case SEARCH:
+        if (!activities.isEmpty()) {
+          quickOpen.search(workload.query(pick().getDescription()), ActivityModel.PAGE_SIZE);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown operation " + operation);
+    }
+  }
+
+  private int pages() {
+
+    return Math.max(1, (model.size() + ActivityModel.PAGE_SIZE - 1) / ActivityModel.PAGE_SIZE);
+  }
+
+  private Activity pick() {
+
+    return activities.get(workload.below(activities.size()));
+  }
+
+  private void track(Activity activity) {
+
+    positions.put(activity, activities.size());
+    activities.add(activity);
+  }
+
+  /**
+   * Stops picking an activity, moving the last activity to its place
+   *
+   * @param activity, The activity
+   */
+  private void untrack(Activity activity) {
+
+    int position = positions.remove(activity);
+    Activity last = activities.remove(activities.size() - 1);
+    if (last != activity) {
+      activities.set(position, last);
+      positions.put(last, position);
+    }
+  }
+
+  /**
+   * Records the pause of every garbage collection, as the collectors report them, except those
+   * requested by liveHeap()
+   */
+  private void listenToCollections() {
+
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (!(collector instanceof NotificationEmitter)) {
+        continue;
+      }
+      ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+        if (!notification.getType()
+            .equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+          return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (!info.getGcCause().equals("System.gc()")) {
+          synchronized (pauses) {
+            pauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+          }
+        }
+      }, null, null);
+    }
+  }
+
+  /**
+   * Measures the heap still in use after a full collection, between two operations so their
+   * latencies don't include it. Unlike the heap in use after the collections of the workload, which
+   * leave garbage in the old generation, it only keeps growing if something leaks.
+   *
+   * @return bytes of heap in use
+   */
+  private static long liveHeap() {
+
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Reads a duration
+   *
+   * @param text, Seconds, or a number followed by s, m or h
+   * @return the duration in seconds
+   */
+  static long seconds(String text) {
+
+    char unit = text.charAt(text.length() - 1);
+    if (Character.isDigit(unit)) {
+      return Long.parseLong(text);
+    }
+    long number = Long.parseLong(text.substring(0, text.length() - 1));
+    switch (unit) {
+      case 's':
+        return number;
+      case 'm':
+        return number * 60;
+      case 'h':
+        return number * 3600;
+      default:
+        throw new IllegalArgumentException("Unknown unit of duration: " + text);
+    }
+  }
+
+  /**
+   * Writes the report, both printed and to a file
+   */
+  static class Report {
+
+    private final PrintWriter file;
+
+    Report(PrintWriter file) {
+
+      this.file = file;
+    }
+
+    void line(String line) {
+
+      System.out.println(line);
+      file.println(line);
+    }
+
+    /**
+     * Reports an interval
+     *
+     * @param seconds, Seconds since the start
+     * @param throughput, Operations per second during the interval
+     * @param size, Activities in the model
+     * @param heap, Bytes of heap in use after a full collection
+     * @param latencies, Latencies of every operation during the interval
+     * @param pauses, Collection pauses during the interval
+     */
+    void interval(long seconds, double throughput, int size, long heap,
+        Map<Operation, LatencyHistogram> latencies, LatencyHistogram pauses) {
+
+      synchronized (pauses) {
+        line(String.format("%n[%ds] %,.0f ops/s, %,d activities, live heap %,d KB, "
+            + "gc %d pauses, %.1f ms total, %.1f ms max", seconds, throughput, size, heap >> 10,
+            pauses.count(), pauses.mean() * pauses.count() / 1e6, pauses.max() / 1e6));
+      }
+      latencies(latencies);
+    }
+
+    /**
+     * Sums up the run
+     *
+     * @param seconds, Seconds the run took
+     * @param operations, Operations performed
+     * @param size, Activities in the model at the end
+     * @param latencies, Latencies of every operation during the run
+     * @param pauses, Collection pauses during the run
+     * @param heap, Seconds since the start and live heap at every report
+     */
+    void summary(double seconds, long operations, int size,
+        Map<Operation, LatencyHistogram> latencies, LatencyHistogram pauses, List<long[]> heap) {
+
+      line(String.format("%n=== summary: %.0f s, %,d operations, %,.0f ops/s, %,d activities",
+          seconds, operations, operations / seconds, size));
+      latencies(latencies);
+      line(String.format("gc: %d pauses, %.1f ms total, p99 %.1f ms, max %.1f ms, %.2f%% of time",
+          pauses.count(), pauses.mean() * pauses.count() / 1e6, pauses.percentile(99) / 1e6,
+          pauses.max() / 1e6, pauses.mean() * pauses.count() / 1e7 / seconds));
+
+      // the growth of the heap is the slope of a least squares line through the measurements,
+      // leaving out the first half of the run while the model fills up
+      List<long[]> settled = heap.subList(heap.size() / 2, heap.size());
+      if (settled.size() >= 2) {
+        double meanTime = 0;
+        double meanHeap = 0;
+        for (long[] point : settled) {
+          meanTime += point[0];
+          meanHeap += point[1];
+        }
+        meanTime /= settled.size();
+        meanHeap /= settled.size();
+        double covariance = 0;
+        double variance = 0;
+        for (long[] point : settled) {
+          covariance += (point[0] - meanTime) * (point[1] - meanHeap);
+          variance += (point[0] - meanTime) * (point[0] - meanTime);
+        }
+        double slope = variance == 0 ? 0 : covariance / variance;
+        line(String.format("live heap: %,d KB at the end, growing %,.1f KB per hour over "
+            + "the second half", heap.get(heap.size() - 1)[1] >> 10, slope * 3600 / 1024));
+      }
+    }
+
+    /**
+     * Reports the latency percentiles of every operation performed
+     *
+     * @param latencies, Latencies of every operation
+     */
+    private void latencies(Map<Operation, LatencyHistogram> latencies) {
+
+      line(String.format("%-14s %10s %9s %9s %9s %9s %9s", "operation", "count", "p50 us",
+          "p90 us", "p99 us", "p99.9 us", "max us"));
+      for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+        LatencyHistogram histogram = entry.getValue();
+        if (histogram.count() > 0) {
+          line(String.format("%-14s %,10d %9.1f %9.1f %9.1f %9.1f %9.1f",
+              entry.getKey().setting(), histogram.count(), histogram.percentile(50) / 1e3,
+              histogram.percentile(90) / 1e3, histogram.percentile(99) / 1e3,
+              histogram.percentile(99.9) / 1e3, histogram.max() / 1e3));
+        }
+      }
+    }
+  }
+}
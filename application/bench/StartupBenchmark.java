@@ -0,0 +1,135 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: StartupBenchmark.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how long the command line interface takes to start, run a command and exit, with class
+ * data sharing turned off, with only the JDK's default archive, and with an archive of the
+ * application's classes dumped by a first run. Every configuration is run as a new process several
+ * times and the median wall clock time is printed.
+ *
+ * Class data sharing only archives classes loaded from jars, so the benchmark has to be run from
+ * the application jar, and the application archive needs JDK 13 or newer.
+ *
+ * Usage: java -cp opti-list.jar application.bench.StartupBenchmark [runs] [command...]
+ *
+ * @author Luis J Finol
+ *
+ */
+public class StartupBenchmark {
+
+  /**
+   * Runs the benchmark
+   *
+   * @param args, Optional number of runs per configuration (default 20) followed by the command
+   *        given to the command line interface (default "stats")
+   * @throws IOException if a process could not be started
+   * @throws InterruptedException if interrupted while waiting for a process
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+
+    int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+    List<String> command = args.length > 1 ? Arrays.asList(args).subList(1, args.length)
+        : Arrays.asList("stats");
+
+    String classPath = System.getProperty("java.class.path");
+    if (!classPath.endsWith(".jar")) {
+      System.err.println("Run the benchmark from the application jar, class data sharing only "
+          + "archives classes loaded from jars.");
+    }
+
+    File directory = File.createTempFile("opti-list-startup", "");
+    directory.delete();
+    directory.mkdirs();
+    File data = new File(directory, "activities.dat");
+    File archive = new File(directory, "opti-list.jsa");
+
+    // the first run creates the activities file and dumps the archive
+    run(classPath, data, command, "-XX:ArchiveClassesAtExit=" + archive);
+
+    System.out.println("runs: " + runs + ", command: " + String.join(" ", command));
+    System.out.println("configuration\tmedian ms");
+    report("no sharing", runs, classPath, data, command, "-Xshare:off");
+    report("jdk archive", runs, classPath, data, command, "-Xshare:auto");
+    if (archive.exists()) {
+      report("app archive", runs, classPath, data, command, "-XX:SharedArchiveFile=" + archive);
+    } else {
+      System.out.println("app archive\tnot supported by this JDK");
+    }
+
+    archive.delete();
+    data.delete();
+    new File(directory, "output.log").delete();
+    directory.delete();
+  }
+
+  /**
+   * Runs one configuration several times and prints its median time
+   *
+   * @param name, Name of the configuration
+   * @param runs, Number of runs
+   * @param classPath, Class path of the command line interface
+   * @param data, Activities file
+   * @param command, Command given to the command line interface
+   * @param option, JVM option of the configuration
+   * @throws IOException if a process could not be started
+   * @throws InterruptedException if interrupted while waiting for a process
+   */
+  private static void report(String name, int runs, String classPath, File data,
+      List<String> command, String option) throws IOException, InterruptedException {
+
+    long[] times = new long[runs];
+    for (int i = 0; i < runs; ++i) {
+      times[i] = run(classPath, data, command, option);
+    }
+    Arrays.sort(times);
+    System.out.printf("%s\t%.1f%n", name, times[runs / 2] / 1e6);
+  }
+
+  /**
+   * Runs the command line interface once in a new JVM
+   *
+   * @param classPath, Class path of the command line interface
+   * @param data, Activities file
+   * @param command, Command given to the command line interface
+   * @param option, Additional JVM option
+   * @return the nanoseconds from starting the process to its exit
+   * @throws IOException if the process could not be started
+   * @throws InterruptedException if interrupted while waiting for the process
+   */
+  private static long run(String classPath, File data, List<String> command, String option)
+      throws IOException, InterruptedException {
+
+    List<String> arguments = new ArrayList<String>();
+    arguments.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+    arguments.add(option);
+    arguments.add("-XX:TieredStopAtLevel=1");
+    arguments.add("-cp");
+    arguments.add(classPath);
+    arguments.add("application.Cli");
+    arguments.add("--data");
+    arguments.add(data.getPath());
+    arguments.addAll(command);
+
+    ProcessBuilder builder = new ProcessBuilder(arguments);
+    builder.redirectErrorStream(true);
+    builder.redirectOutput(new File(data.getParentFile(), "output.log"));
+
+    long start = System.nanoTime();
+    Process process = builder.start();
+    process.waitFor();
+    return System.nanoTime() - start;
+  }
+}
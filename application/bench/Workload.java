@@ -0,0 +1,260 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: Workload.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.bench;
+
+import application.Activity;
+import application.ActivityModel;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The following class generates a synthetic workload: the operations a user performs on the
+ * activities, in a configurable mix, and the activities they add, with configurable priorities and
+ * due dates. Every setting is given as name=value, and those not given keep their default:
+ *
+ * seed=42 source of randomness, the same seed generating the same workload
+ * initial=10000 activities added before the workload starts
+ * max=50000 activities at most, adds becoming deletes beyond it
+ * skew=1.0 how much priorities concentrate around the default priority, 0 for uniform
+ * undated=0.1 share of activities without due date
+ * timed=0.3 share of activities with a due date that are due at a time of the day
+ * due-mean=14 mean number of days between today and due dates
+ * overdue=0.1 share of due dates in the past
+ * and the weight of every operation in the mix: add=25 edit=10 delete=8 complete=7 move=5
+ * priority-page=20 date-page=10 due-today=10 search=5
+ *
+ * Like the model, a workload is meant to be used from one thread.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class Workload {
+
+  /**
+   * The operations of the mix, which correspond to what the GUI does
+   */
+  public enum Operation {
+    ADD, EDIT, DELETE, COMPLETE, MOVE, PRIORITY_PAGE, DATE_PAGE, DUE_TODAY, SEARCH;
+
+    /**
+     * Getter method for the name of the operation's setting
+     *
+     * @return the name, such as priority-page
+     */
+    public String setting() {
+
+      return name().toLowerCase().replace('_', '-');
+    }
+  }
+
+  private static final String[] WORDS = {"pay", "call", "review", "draft", "email", "plan",
+      "budget", "report", "meeting", "groceries", "dentist", "invoice", "thesis", "garden",
+      "laundry", "backup", "taxes", "slides", "release", "interview"};
+
+  private final Random random;
+  private final int initial;
+  private final int max;
+  private final double undated;
+  private final double timed;
+  private final double dueMean;
+  private final double overdue;
+
+  private final double[] priorityCumulative = new double[ActivityModel.MAX_PRIORITY + 1];
+  private final double[] operationCumulative = new double[Operation.values().length];
+  private final Map<String, String> settings = new LinkedHashMap<String, String>();
+
+  private int created = 0; // activities created so far, numbering their descriptions
+
+  /**
+   * Configures a workload
+   *
+   * @param given, Settings given as name to value, from which the settings used are removed
+   * @throws IllegalArgumentException if a setting is not a number or is out of range
+   */
+  public Workload(Map<String, String> given) {
+
+    random = new Random(setting(given, "seed", 42));
+    initial = (int) setting(given, "initial", 10_000);
+    max = (int) setting(given, "max", 50_000);
+    double skew = setting(given, "skew", 1.0);
+    undated = setting(given, "undated", 0.1);
+    timed = setting(given, "timed", 0.3);
+    dueMean = setting(given, "due-mean", 14);
+    overdue = setting(given, "overdue", 0.1);
+
+    double[] weights = {25, 10, 8, 7, 5, 20, 10, 10, 5};
+    double sum = 0;
+    for (Operation operation : Operation.values()) {
+      sum += setting(given, operation.setting(), weights[operation.ordinal()]);
+      operationCumulative[operation.ordinal()] = sum;
+    }
+    if (sum <= 0 || initial < 0 || max < 1 || skew < 0 || dueMean <= 0) {
+      throw new IllegalArgumentException("Settings out of range: " + settings);
+    }
+
+    // priorities are ranked by their distance to the default one, the nearest being most likely
+    sum = 0;
+    for (int priority = 0; priority <= ActivityModel.MAX_PRIORITY; ++priority) {
+      int rank = 1 + Math.abs(priority - ActivityModel.DEFAULT_PRIORITY);
+      sum += 1 / Math.pow(rank, skew);
+      priorityCumulative[priority] = sum;
+    }
+  }
+
+  /**
+   * Getter method for the settings used, defaults included
+   *
+   * @return the settings as name=value separated by spaces
+   */
+  public String describe() {
+
+    StringBuilder description = new StringBuilder();
+    for (Map.Entry<String, String> setting : settings.entrySet()) {
+      description.append(description.length() > 0 ? " " : "").append(setting.getKey())
+          .append('=').append(setting.getValue());
+    }
+    return description.toString();
+  }
+
+  /**
+   * Getter method for the number of activities added before the workload starts
+   *
+   * @return number of activities
+   */
+  public int initial() {
+
+    return initial;
+  }
+
+  /**
+   * Chooses the next operation. Adds become deletes once the model holds max activities, and
+   * operations on an activity become adds while it holds none.
+   *
+   * @param size, Number of activities the model holds
+   * @return the operation
+   */
+  public Operation next(int size) {
+
+    double chosen = random.nextDouble() * operationCumulative[operationCumulative.length - 1];
+    int index = Arrays.binarySearch(operationCumulative, chosen);
+    Operation operation = Operation.values()[index < 0 ? -index - 1 : index];
+
+    if (operation == Operation.ADD && size >= max) {
+      return Operation.DELETE;
+    }
+    if (size == 0 && (operation == Operation.EDIT || operation == Operation.DELETE
+        || operation == Operation.COMPLETE || operation == Operation.MOVE)) {
+      return Operation.ADD;
+    }
+    return operation;
+  }
+
+  /**
+   * Creates an activity with a priority and due date drawn from their distributions
+   *
+   * @return the activity
+   */
+  public Activity newActivity() {
+
+    String description = WORDS[random.nextInt(WORDS.length)] + " "
+        + WORDS[random.nextInt(WORDS.length)] + " #" + (++created);
+    int index = Arrays.binarySearch(priorityCumulative,
+        random.nextDouble() * priorityCumulative[priorityCumulative.length - 1]);
+    int priority = Math.min(ActivityModel.MAX_PRIORITY, index < 0 ? -index - 1 : index);
+
+    if (random.nextDouble() < undated) {
+      return new Activity(description, priority);
+    }
+
+    // days away from today are exponentially distributed, a share of them in the past
+    long days = Math.round(-dueMean * Math.log(1 - random.nextDouble()));
+    LocalDate due = LocalDate.now().plusDays(random.nextDouble() < overdue ? -days : days);
+    String date = due.getMonthValue() + "/" + due.getDayOfMonth() + "/" + due.getYear();
+    if (random.nextDouble() < timed) {
+      return new Activity(description, priority, date,
+          String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)), null);
+    }
+    return new Activity(description, priority, date);
+  }
+
+  /**
+   * Chooses a page, the first pages being the most viewed
+   *
+   * @param pages, Number of pages
+   * @return the page, starting at 1
+   */
+  public int page(int pages) {
+
+    return 1 + Math.min(Math.max(0, pages - 1), (int) (-3 * Math.log(1 - random.nextDouble())));
+  }
+
+  /**
+   * Chooses a number below a bound, such as the activity an operation is performed on
+   *
+   * @param bound, The bound
+   * @return the number, from 0 up to but not including the bound
+   */
+  public int below(int bound) {
+
+    return random.nextInt(bound);
+  }
+
+  /**
+   * Creates a search query from a description, keeping one of its words with a typo
+   *
+   * @param description, The description
+   * @return the query
+   */
+  public String query(String description) {
+
+    String[] words = description.split(" ");
+    char[] word = words[random.nextInt(words.length)].toCharArray();
+    if (word.length > 2) {
+      int i = random.nextInt(word.length - 1);
+      char swapped = word[i];
+      word[i] = word[i + 1];
+      word[i + 1] = swapped;
+    }
+    return new String(word);
+  }
+
+  /**
+   * Reads a setting, removing it from those given and remembering the value used
+   *
+   * @param given, The settings given
+   * @param name, The name of the setting
+   * @param otherwise, The default value
+   * @return the value
+   */
+  private double setting(Map<String, String> given, String name, double otherwise) {
+
+    String value = given.remove(name);
+    double number;
+    try {
+      number = value == null ? otherwise : Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Setting " + name + " must be a number: " + value);
+    }
+    settings.put(name, value == null ? format(otherwise) : value);
+    return number;
+  }
+
+  private long setting(Map<String, String> given, String name, long otherwise) {
+
+    return (long) setting(given, name, (double) otherwise);
+  }
+
+  private static String format(double number) {
+
+    return number == Math.rint(number) ? Long.toString((long) number) : Double.toString(number);
+  }
+}
@@ -0,0 +1,102 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: Delta.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+/**
+ * The following class describes a single change made to an activity on some replica, to be
+ * replayed on the other replicas. Added and edited activities carry all of their fields, their
+ * parent and dependencies included, deleted ones only their identifier and completed ones their
+ * identifier and completion time.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class Delta {
+
+  /**
+   * The kind of change a delta describes
+   */
+  public enum Type {
+    ADD, EDIT, DELETE, COMPLETE
+  }
+
+  final Type type; // the kind of change
+  final long id; // identifier of the changed activity
+  final int origin; // replica the change was made on
+  final VersionVector version; // version of the activity after the change
+  final String description; // null for deletions and completions
+  final int priority;
+  final String date; // null for deletions, completions and activities without due date
+  final String time; // null unless the activity is due at a time
+  final String zone; // null for the system default zone
+  final long completed; // completion time in epoch milliseconds, 0 unless completed
+  final long parent; // identifier of the activity this is a subtask of, 0 if none
+  // identifiers of the activities blocking this one, null if the delta doesn't carry relations, as
+  // deltas of older replicas and deletions don't
+  final long[] dependencies;
+
+  /**
+   * Creates a delta
+   *
+   * @param type, The kind of change
+   * @param id, Identifier of the changed activity
+   * @param origin, Replica the change was made on
+   * @param version, Version of the activity after the change
+   * @param description, Description of the activity, null for deletions
+   * @param priority, Priority of the activity
+   * @param date, Due date of the activity, null if it has none
+   * @param time, Due time of the activity, null if it has none
+   * @param zone, Zone of the due date, null for the system default zone
+   * @param parent, Identifier of the activity this is a subtask of, 0 if none
+   * @param dependencies, Identifiers of the activities blocking this one, null if unknown
+   */
+  Delta(Type type, long id, int origin, VersionVector version, String description, int priority,
+      String date, String time, String zone, long parent, long[] dependencies) {
+
+    this(type, id, origin, version, description, priority, date, time, zone, 0, parent,
+        dependencies);
+  }
+
+  /**
+   * Creates the delta of a completed activity
+   *
+   * @param id, Identifier of the completed activity
+   * @param origin, Replica the activity was completed on
+   * @param version, Version of the activity after the change
+   * @param completed, Time the activity was completed in epoch milliseconds
+   */
+  Delta(long id, int origin, VersionVector version, long completed) {
+
+    this(Type.COMPLETE, id, origin, version, null, 0, null, null, null, completed, 0, null);
+  }
+
+  private Delta(Type type, long id, int origin, VersionVector version, String description,
+      int priority, String date, String time, String zone, long completed, long parent,
+      long[] dependencies) {
+
+    this.type = type;
+    this.id = id;
+    this.origin = origin;
+    this.version = version;
+    this.description = description;
+    this.priority = priority;
+    this.date = date;
+    this.time = time;
+    this.zone = zone;
+    this.completed = completed;
+    this.parent = parent;
+    this.dependencies = dependencies;
+  }
+
+  @Override
+  public String toString() {
+
+    return type + " " + Long.toHexString(id) + " from " + origin + " " + version;
+  }
+}
@@ -0,0 +1,389 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DeltaCodec.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The following class encodes batches of deltas into a compact binary form and back. Numbers are
+ * written as variable length integers so small counters and priorities take a single byte, and
+ * batches large enough to benefit are deflated as a whole.
+ *
+ * Batch layout: magic byte, format version, flags, then the (possibly deflated) body holding the
+ * sender replica, the number of the batch among those it sent, the number of the last batch it
+ * received from every other replica, the number of deltas and the deltas themselves. Batches of
+ * the previous formats, without the relations of the activities or without the numbers either, are
+ * still read.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DeltaCodec {
+
+  private static final int MAGIC = 0x4F; // 'O'
+  private static final int FORMAT = 4;
+  private static final int UNRELATED_FORMAT = 3; // batches without the relations of activities
+  private static final int UNNUMBERED_FORMAT = 2; // batches without their number and receipts
+  private static final int DEFLATED = 1; // flag set when the body is deflated
+
+  // bodies smaller than this are sent as they are, deflating them rarely pays off
+  private static final int DEFLATE_THRESHOLD = 256;
+
+  /**
+   * A decoded batch, the deltas together with the replica that sent them and what it had received
+   */
+  public static class Batch {
+
+    public final int sender;
+    public final long number; // 0 for batches of the unnumbered format
+    public final Map<Integer, Long> received; // last batch received from every other replica
+    public final List<Delta> deltas;
+
+    Batch(int sender, long number, Map<Integer, Long> received, List<Delta> deltas) {
+
+      this.sender = sender;
+      this.number = number;
+      this.received = received;
+      this.deltas = deltas;
+    }
+  }
+
+  /**
+   * Encodes a batch of deltas
+   *
+   * @param sender, The replica sending the batch
+   * @param number, Number of the batch among those the sender sent, starting at 1
+   * @param received, Number of the last batch the sender received from every other replica
+   * @param deltas, The deltas in the batch
+   * @return the encoded batch
+   */
+  public static byte[] encode(int sender, long number, Map<Integer, Long> received,
+      List<Delta> deltas) {
+
+    Output body = new Output();
+    body.writeVarLong(sender);
+    body.writeVarLong(number);
+    body.writeVarLong(received.size());
+    for (Map.Entry<Integer, Long> entry : received.entrySet()) {
+      body.writeVarLong(entry.getKey());
+      body.writeVarLong(entry.getValue());
+    }
+    body.writeVarLong(deltas.size());
+
+    for (Delta delta : deltas) {
+      body.write(delta.type.ordinal());
+      body.writeLong(delta.id);
+      body.writeVarLong(delta.origin);
+
+      Map<Integer, Long> counters = delta.version.counters();
+      body.writeVarLong(counters.size());
+      for (Map.Entry<Integer, Long> entry : counters.entrySet()) {
+        body.writeVarLong(entry.getKey());
+        body.writeVarLong(entry.getValue());
+      }
+
+      if (delta.type == Delta.Type.COMPLETE) {
+        body.writeVarLong(delta.completed);
+      } else if (delta.type != Delta.Type.DELETE) {
+        body.writeString(delta.description);
+        body.writeVarLong(delta.priority);
+        body.writeString(delta.date);
+        body.writeString(delta.time);
+        body.writeString(delta.zone);
+
+        // the number of dependencies and whether there is a parent share a single number, a delta
+        // read from an older batch goes on without relations
+        long[] dependencies = delta.dependencies == null ? new long[0] : delta.dependencies;
+        body.writeVarLong((long) dependencies.length << 1 | (delta.parent != 0 ? 1 : 0));
+        if (delta.parent != 0) {
+          body.writeLong(delta.parent);
+        }
+        for (long dependency : dependencies) {
+          body.writeLong(dependency);
+        }
+      }
+    }
+
+    byte[] raw = body.toByteArray();
+    int flags = 0;
+
+    if (raw.length >= DEFLATE_THRESHOLD) {
+      byte[] deflated = deflate(raw);
+      if (deflated.length < raw.length) {
+        raw = deflated;
+        flags |= DEFLATED;
+      }
+    }
+
+    byte[] batch = new byte[raw.length + 3];
+    batch[0] = (byte) MAGIC;
+    batch[1] = (byte) FORMAT;
+    batch[2] = (byte) flags;
+    System.arraycopy(raw, 0, batch, 3, raw.length);
+    return batch;
+  }
+
+  /**
+   * Decodes a batch of deltas
+   *
+   * @param batch, The encoded batch
+   * @return the sender and the deltas of the batch
+   * @throws IOException if the batch is not in the expected format
+   */
+  public static Batch decode(byte[] batch) throws IOException {
+
+    if (batch.length < 3 || batch[0] != MAGIC || (batch[1] != FORMAT
+        && batch[1] != UNRELATED_FORMAT && batch[1] != UNNUMBERED_FORMAT)) {
+      throw new IOException("Not a delta batch");
+    }
+
+    byte[] raw = new byte[batch.length - 3];
+    System.arraycopy(batch, 3, raw, 0, raw.length);
+    if ((batch[2] & DEFLATED) != 0) {
+      raw = inflate(raw);
+    }
+
+    Input body = new Input(raw);
+    int sender = (int) body.readVarLong();
+    long number = 0;
+    Map<Integer, Long> received = new TreeMap<Integer, Long>();
+    if (batch[1] != UNNUMBERED_FORMAT) {
+      number = body.readVarLong();
+      int replicas = (int) body.readVarLong();
+      for (int i = 0; i < replicas; ++i) {
+        received.put((int) body.readVarLong(), body.readVarLong());
+      }
+    }
+    int count = (int) body.readVarLong();
+    List<Delta> deltas = new ArrayList<Delta>(count);
+
+    for (int i = 0; i < count; ++i) {
+      int typeIndex = body.read();
+      if (typeIndex >= Delta.Type.values().length) {
+        throw new IOException("Unknown delta type " + typeIndex);
+      }
+      Delta.Type type = Delta.Type.values()[typeIndex];
+      long id = body.readLong();
+      int origin = (int) body.readVarLong();
+
+      VersionVector version = new VersionVector();
+      int replicas = (int) body.readVarLong();
+      for (int j = 0; j < replicas; ++j) {
+        int replica = (int) body.readVarLong();
+        version.set(replica, body.readVarLong());
+      }
+
+      if (type == Delta.Type.COMPLETE) {
+        deltas.add(new Delta(id, origin, version, body.readVarLong()));
+        continue;
+      }
+
+      String description = null;
+      int priority = 0;
+      String date = null;
+      String time = null;
+      String zone = null;
+      long parent = 0;
+      long[] dependencies = null;
+      if (type != Delta.Type.DELETE) {
+        description = body.readString();
+        priority = (int) body.readVarLong();
+        date = body.readString();
+        time = body.readString();
+        zone = body.readString();
+      }
+      if (type != Delta.Type.DELETE && batch[1] == FORMAT) {
+        long relations = body.readVarLong();
+        if ((relations >>> 1) > raw.length / 8) {
+          throw new IOException("Truncated delta batch");
+        }
+        if ((relations & 1) != 0) {
+          parent = body.readLong();
+        }
+        dependencies = new long[(int) (relations >>> 1)];
+        for (int j = 0; j < dependencies.length; ++j) {
+          dependencies[j] = body.readLong();
+        }
+      }
+
+      deltas.add(new Delta(type, id, origin, version, description, priority, date, time, zone,
+          parent, dependencies));
+    }
+
+    return new Batch(sender, number, received, deltas);
+  }
+
+  /**
+   * Deflates bytes
+   *
+   * @param raw, The bytes to be deflated
+   * @return the deflated bytes
+   */
+  private static byte[] deflate(byte[] raw) {
+
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(raw);
+    deflater.finish();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+    byte[] buffer = new byte[4096];
+    while (!deflater.finished()) {
+      out.write(buffer, 0, deflater.deflate(buffer));
+    }
+    deflater.end();
+    return out.toByteArray();
+  }
+
+  /**
+   * Inflates bytes deflated by deflate()
+   *
+   * @param deflated, The deflated bytes
+   * @return the original bytes
+   * @throws IOException if the bytes are corrupted
+   */
+  private static byte[] inflate(byte[] deflated) throws IOException {
+
+    Inflater inflater = new Inflater();
+    inflater.setInput(deflated);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 3);
+    byte[] buffer = new byte[4096];
+    try {
+      while (!inflater.finished()) {
+        int length = inflater.inflate(buffer);
+        if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated delta batch");
+        }
+        out.write(buffer, 0, length);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted delta batch", e);
+    } finally {
+      inflater.end();
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Byte array output with variable length integers and strings
+   */
+  static class Output extends ByteArrayOutputStream {
+
+    /**
+     * Writes a non negative number 7 bits at a time, the high bit marking that more bytes follow
+     *
+     * @param value, The number to be written
+     */
+    void writeVarLong(long value) {
+
+      while ((value & ~0x7FL) != 0) {
+        write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      write((int) value);
+    }
+
+    /**
+     * Writes a number as 8 bytes, used for random identifiers which rarely fit in fewer
+     *
+     * @param value, The number to be written
+     */
+    void writeLong(long value) {
+
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        write((int) (value >>> shift));
+      }
+    }
+
+    /**
+     * Writes a string as its UTF-8 length plus one followed by its bytes, a null string being
+     * written as a length of 0
+     *
+     * @param value, The string to be written, may be null
+     */
+    void writeString(String value) {
+
+      if (value == null) {
+        writeVarLong(0);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(bytes.length + 1);
+      write(bytes, 0, bytes.length);
+    }
+  }
+
+  /**
+   * Reader of the values written by Output
+   */
+  static class Input {
+
+    private final byte[] bytes;
+    private int position = 0;
+
+    Input(byte[] bytes) {
+
+      this.bytes = bytes;
+    }
+
+    int read() throws IOException {
+
+      if (position >= bytes.length) {
+        throw new IOException("Truncated delta batch");
+      }
+      return bytes[position++] & 0xFF;
+    }
+
+    long readVarLong() throws IOException {
+
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int b = read();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed number in delta batch");
+    }
+
+    long readLong() throws IOException {
+
+      long value = 0;
+      for (int i = 0; i < 8; ++i) {
+        value = (value << 8) | read();
+      }
+      return value;
+    }
+
+    String readString() throws IOException {
+
+      int length = (int) readVarLong();
+      if (length == 0) {
+        return null;
+      }
+      --length;
+      if (length > bytes.length - position) {
+        throw new IOException("Truncated delta batch");
+      }
+      String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+  }
+}
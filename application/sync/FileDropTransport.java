@@ -0,0 +1,170 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: FileDropTransport.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The following class moves batches through a shared directory, such as a network drive or a
+ * synced folder. Every replica writes its batches into its own sub directory, named after their
+ * numbers, and reads the sub directories of the other replicas. Readers never delete files, so any
+ * number of replicas can share the directory. A replica only deletes its own batches, once every
+ * other replica with a sub directory has received them.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class FileDropTransport implements SyncTransport {
+
+  private static final String SUFFIX = ".delta";
+
+  private final File root; // the shared directory
+  private final File outbox; // the sub directory of this replica
+
+  // sub directory name of every other replica mapped to the number of the last batch read from it
+  private final Map<String, Long> read = new HashMap<String, Long>();
+
+  /**
+   * Creates a transport over a shared directory
+   *
+   * @param root, The shared directory
+   * @param replica, Identifier of this replica
+   * @throws IOException if the directory of this replica could not be created
+   */
+  public FileDropTransport(File root, int replica) throws IOException {
+
+    this.root = root;
+    this.outbox = new File(root, Integer.toString(replica));
+
+    if (!outbox.isDirectory() && !outbox.mkdirs()) {
+      throw new IOException("Could not create " + outbox);
+    }
+  }
+
+  @Override
+  public void send(long number, byte[] batch) throws IOException {
+
+    File temporary = new File(outbox, number + ".tmp");
+    File target = new File(outbox, String.format("%016d%s", number, SUFFIX));
+
+    Files.write(temporary.toPath(), batch);
+    // readers must never see a partially written batch
+    Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public List<byte[]> receive() throws IOException {
+
+    List<byte[]> batches = new ArrayList<byte[]>();
+    File[] replicas = root.listFiles(File::isDirectory);
+    if (replicas == null) {
+      return batches;
+    }
+
+    for (File replica : replicas) {
+      if (replica.equals(outbox)) {
+        continue;
+      }
+
+      long last = read.containsKey(replica.getName()) ? read.get(replica.getName()) : 0;
+      for (long number : batchNumbers(replica)) {
+        if (number > last) {
+          File file = new File(replica, String.format("%016d%s", number, SUFFIX));
+          batches.add(Files.readAllBytes(file.toPath()));
+          last = number;
+        }
+      }
+      read.put(replica.getName(), last);
+    }
+
+    return batches;
+  }
+
+  @Override
+  public void skip(int replica, long number) {
+
+    read.merge(Integer.toString(replica), number, Math::max);
+  }
+
+  @Override
+  public void discard(long number) throws IOException {
+
+    for (long sent : batchNumbers(outbox)) {
+      if (sent > number) {
+        break;
+      }
+      File file = new File(outbox, String.format("%016d%s", sent, SUFFIX));
+      if (!file.delete() && file.exists()) {
+        throw new IOException("Could not delete " + file);
+      }
+    }
+  }
+
+  @Override
+  public Set<Integer> peers() {
+
+    Set<Integer> peers = new HashSet<Integer>();
+    File[] replicas = root.listFiles(File::isDirectory);
+    if (replicas != null) {
+      for (File replica : replicas) {
+        try {
+          if (!replica.equals(outbox)) {
+            peers.add(Integer.parseInt(replica.getName()));
+          }
+        } catch (NumberFormatException e) {
+          // not the directory of a replica
+        }
+      }
+    }
+    return peers;
+  }
+
+  /**
+   * Lists the numbers of the batches in a replica directory, in ascending order
+   *
+   * @param directory, The replica directory
+   * @return the batch numbers
+   */
+  private static long[] batchNumbers(File directory) {
+
+    String[] names = directory.list((dir, name) -> name.endsWith(SUFFIX));
+    if (names == null) {
+      return new long[0];
+    }
+
+    long[] numbers = new long[names.length];
+    int count = 0;
+    for (String name : names) {
+      try {
+        numbers[count] = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        ++count;
+      } catch (NumberFormatException e) {
+        // not a batch written by this transport
+      }
+    }
+
+    numbers = Arrays.copyOf(numbers, count);
+    Arrays.sort(numbers);
+    return numbers;
+  }
+
+  @Override
+  public void close() {}
+}
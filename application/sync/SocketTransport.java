@@ -0,0 +1,130 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SocketTransport.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The following class moves batches between two replicas over a TCP connection, one replica
+ * listening and the other connecting. Every batch is sent as its length followed by its bytes. A
+ * background thread reads incoming batches so receive() never blocks.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class SocketTransport implements SyncTransport {
+
+  private static final int MAX_BATCH = 64 * 1024 * 1024; // guards against corrupted lengths
+
+  private final Socket socket;
+  private final DataOutputStream out;
+  private final ConcurrentLinkedQueue<byte[]> received = new ConcurrentLinkedQueue<byte[]>();
+  private volatile IOException failure; // set by the reader thread when the connection breaks
+
+  /**
+   * Waits for the other replica to connect on a port
+   *
+   * @param port, The port to listen on
+   * @return the connected transport
+   * @throws IOException if the connection could not be established
+   */
+  public static SocketTransport listen(int port) throws IOException {
+
+    try (ServerSocket server = new ServerSocket(port)) {
+      return new SocketTransport(server.accept());
+    }
+  }
+
+  /**
+   * Connects to a replica listening on a port
+   *
+   * @param host, The host the other replica runs on
+   * @param port, The port it listens on
+   * @return the connected transport
+   * @throws IOException if the connection could not be established
+   */
+  public static SocketTransport connect(String host, int port) throws IOException {
+
+    return new SocketTransport(new Socket(host, port));
+  }
+
+  /**
+   * Creates a transport over a connected socket and starts reading from it
+   *
+   * @param socket, The connected socket
+   * @throws IOException if the socket streams could not be opened
+   */
+  private SocketTransport(Socket socket) throws IOException {
+
+    this.socket = socket;
+    socket.setTcpNoDelay(true);
+    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+
+    Thread reader = new Thread(() -> {
+      try {
+        while (true) {
+          int length = in.readInt();
+          if (length < 0 || length > MAX_BATCH) {
+            throw new IOException("Invalid batch length " + length);
+          }
+          byte[] batch = new byte[length];
+          in.readFully(batch);
+          received.add(batch);
+        }
+      } catch (EOFException e) {
+        failure = new IOException("Connection closed by the other replica");
+      } catch (IOException e) {
+        failure = e;
+      }
+    }, "sync-socket-reader");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  @Override
+  public synchronized void send(long number, byte[] batch) throws IOException {
+
+    out.writeInt(batch.length);
+    out.write(batch);
+    out.flush();
+  }
+
+  @Override
+  public List<byte[]> receive() throws IOException {
+
+    List<byte[]> batches = new ArrayList<byte[]>();
+    byte[] batch;
+    while ((batch = received.poll()) != null) {
+      batches.add(batch);
+    }
+
+    // batches that arrived before the connection broke are still delivered
+    if (batches.isEmpty() && failure != null) {
+      throw failure;
+    }
+    return batches;
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    socket.close();
+  }
+}
@@ -0,0 +1,809 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SyncEngine.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import application.Activity;
+import application.ActivityFile;
+import application.ActivityListener;
+import application.ActivityModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The following class keeps the activities of a model in sync with the models of other replicas.
+ * Every local change is recorded as a delta and held in an outbox until flush() sends all of them
+ * in a single batch, and poll() applies the batches sent by the other replicas. A completed
+ * activity is sent with its completion time, so the other replicas complete it instead of deleting
+ * it.
+ *
+ * Each activity carries a version vector. A delta is applied only if its version includes changes
+ * the local version doesn't have. When two replicas change the same activity concurrently, a
+ * completion is kept over any other change, so an activity done on one replica is not brought back
+ * by an edit made elsewhere in the meantime. Otherwise every replica keeps the version with the
+ * most changes in total, and if both have the same number the one made on the replica with the
+ * greater identifier, so all replicas end up with the same result.
+ * Deltas whose activity doesn't pass correctInputEntered() are ignored, as addAll() leaves such
+ * activities out of a model. The parent and dependencies of an activity travel with its additions
+ * and edits, and are set once the whole batch is applied, since they may name activities added
+ * later in the batch.
+ *
+ * Batches are numbered, and every batch tells which batches its sender received from the others.
+ * The versions, the activities deleted, the batches received and the deltas not sent yet are
+ * saved in a file next to the activities file, so a replica started again neither applies a batch
+ * twice nor takes back a deleted activity. A deleted activity is only forgotten, and a batch only
+ * discarded from the transport, once every other replica has received it.
+ *
+ * The state is written into a buffer in memory on the thread the engine is used from, and the
+ * buffer is written to the file on a background thread, the way Autosave writes activities, so
+ * that thread never waits on the disk. The background thread sends every batch only after the
+ * state holding it is written.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class SyncEngine implements ActivityListener, Closeable {
+
+  private static final int MAGIC = 0x4F53594E; // "OSYN"
+  private static final int FORMAT = 1;
+
+  private static final int LIVE = 1; // flag of a saved state whose activity is in the model
+  private static final int COMPLETED = 2; // flag of a saved state whose activity was completed
+
+  private final ActivityModel model;
+  private final int replica; // identifier of this replica
+  private final SyncTransport transport;
+  private final File file; // where the state of the engine is saved
+  private final Executor modelThread; // runs the outcome of a write on the engine's thread
+
+  // writes the state and sends the batches, null to do it on the thread the engine is used from
+  private final ExecutorService writer;
+  private boolean writing = false; // indicates if a batch handed to the writer isn't sent yet
+
+  // activity identifier mapped to what this replica knows of it, deleted activities included so
+  // that late edits don't bring them back
+  private final Map<Long, State> states = new HashMap<Long, State>();
+  private final Set<Long> tombstones = new HashSet<Long>(); // deleted activities among states
+
+  // pending deltas by activity identifier, later changes to an activity replace earlier ones
+  private final LinkedHashMap<Long, Delta> outbox = new LinkedHashMap<Long, Delta>();
+
+  private long sent = 0; // number of the last batch sent
+  private long discarded = 0; // number of the last batch the transport was told to discard
+  private byte[] unsent; // the last batch if it may not have been sent, null otherwise
+  private boolean receiptDue = false; // indicates if deltas were received since the last batch
+
+  // number of the last batch received from every other replica
+  private final TreeMap<Integer, Long> received = new TreeMap<Integer, Long>();
+
+  // every other replica mapped to the batches it had received when it sent its last batch
+  private final Map<Integer, Map<Integer, Long>> receipts =
+      new HashMap<Integer, Map<Integer, Long>>();
+
+  // true while remote deltas are applied, so they are not sent back out as local changes
+  private boolean applying = false;
+
+  // deltas applied whose relations are yet to be set, by activity identifier
+  private final Map<Long, Delta> unrelated = new LinkedHashMap<Long, Delta>();
+
+  /**
+   * What a replica knows about an activity
+   */
+  private static class State {
+
+    Activity activity; // the activity in the model, null if it was deleted
+    boolean completed; // indicates if the change currently applied completed the activity
+    VersionVector version = new VersionVector();
+    int origin; // replica that made the change currently applied
+    int deletedBy; // replica whose batch deleted the activity
+    long deletedIn; // number of that batch, 0 until the deletion is sent
+  }
+
+  /**
+   * Creates an engine that writes its state and sends its batches on the thread it is used from
+   *
+   * @param model, The model kept in sync, with its activities already loaded
+   * @param replica, Identifier of this replica, unique among the replicas sharing activities
+   * @param transport, The transport batches are exchanged through
+   * @param file, The file the state of the engine is saved in, see fileFor()
+   * @throws IOException if the saved state could not be read, or belongs to another replica
+   */
+  public SyncEngine(ActivityModel model, int replica, SyncTransport transport, File file)
+      throws IOException {
+
+    this(model, replica, transport, file, null);
+  }
+
+  /**
+   * Creates an engine, loading the state saved by the previous run if there is one, and starts
+   * recording the changes made to a model. Activities the saved state doesn't know are queued as
+   * added, and those it knows but the model no longer holds as deleted, so only what changed while
+   * the engine wasn't running is sent.
+   *
+   * @param model, The model kept in sync, with its activities already loaded
+   * @param replica, Identifier of this replica, unique among the replicas sharing activities
+   * @param transport, The transport batches are exchanged through, sent to from a background
+   *        thread
+   * @param file, The file the state of the engine is saved in, see fileFor()
+   * @param modelThread, Runs tasks on the thread the model is used from, such as
+   *        Platform::runLater, null to write and send on that thread instead of a background one
+   * @throws IOException if the saved state could not be read, or belongs to another replica
+   */
+  public SyncEngine(ActivityModel model, int replica, SyncTransport transport, File file,
+      Executor modelThread) throws IOException {
+
+    this.model = model;
+    this.replica = replica;
+    this.transport = transport;
+    this.file = file;
+    this.modelThread = modelThread;
+    this.writer = modelThread == null ? null : Executors.newSingleThreadExecutor(task -> {
+      Thread thread = new Thread(task, "sync");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    Map<Long, Activity> activities = new LinkedHashMap<Long, Activity>();
+    for (Activity activity : model.getDateList()) {
+      activities.put(activity.getId(), activity);
+    }
+
+    List<Long> missing = file.exists() ? load(activities) : new ArrayList<Long>();
+    for (long id : missing) {
+      record(Delta.Type.DELETE, id, null);
+    }
+    for (Activity activity : activities.values()) {
+      if (!states.containsKey(activity.getId())) {
+        record(Delta.Type.ADD, activity.getId(), activity);
+      }
+    }
+    for (Map.Entry<Integer, Long> last : received.entrySet()) {
+      transport.skip(last.getKey(), last.getValue());
+    }
+    model.addListener(this);
+  }
+
+  /**
+   * Getter method for the file the state of an engine is kept in, next to the activities file
+   *
+   * @param dataFile, The activities file
+   * @return the file of the engine's state
+   */
+  public static File fileFor(File dataFile) {
+
+    return new File(dataFile.getAbsoluteFile().getParentFile(), "sync.dat");
+  }
+
+  /**
+   * Sends all the pending deltas as one batch, also sent without deltas to tell the others which
+   * of their deltas arrived. The state is saved before the batch is sent, so its number is never
+   * used again. Both are done in the background, and while they are the deltas wait for the next
+   * flush. A batch whose state could not be saved, or that could not be sent, is sent again by the
+   * next flush, followed by the deltas pending once it is.
+   *
+   * @return number of bytes handed to the background thread to be sent
+   */
+  public int flush() {
+
+    if (writing) {
+      return 0;
+    }
+    boolean again = unsent != null; // the batch is sent again, the pending deltas right after
+    if (!again) {
+      if (outbox.isEmpty() && !receiptDue) {
+        return 0;
+      }
+
+      long number = sent + 1;
+      List<Delta> deltas = new ArrayList<Delta>(outbox.values());
+      for (Delta delta : deltas) {
+        State state = states.get(delta.id);
+        if (delta.type != Delta.Type.ADD && delta.type != Delta.Type.EDIT && state != null
+            && state.activity == null) {
+          state.deletedBy = replica;
+          state.deletedIn = number;
+        }
+      }
+
+      unsent = DeltaCodec.encode(replica, number, received, deltas);
+      sent = number;
+      receiptDue = false;
+      outbox.clear();
+    }
+
+    byte[] batch = unsent;
+    long number = sent;
+    ByteArrayOutputStream state = snapshot();
+    writing = true;
+    write(() -> {
+      boolean done = false;
+      try {
+        ActivityFile.save(file, state);
+        transport.send(number, batch);
+        done = true;
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+      boolean delivered = done;
+      return () -> {
+        writing = false;
+        if (delivered && unsent == batch) {
+          unsent = null;
+          if (again) {
+            flush();
+          }
+        }
+      };
+    });
+    return batch.length;
+  }
+
+  /**
+   * Applies the batches received from other replicas, skipping those applied before, then forgets
+   * what every replica has received and saves the state
+   *
+   * @return number of deltas that changed the model
+   * @throws IOException if a batch could not be received or decoded
+   */
+  public int poll() throws IOException {
+
+    int changed = 0;
+    boolean receivedAny = false;
+    for (byte[] bytes : transport.receive()) {
+      DeltaCodec.Batch batch = DeltaCodec.decode(bytes);
+      Long last = received.get(batch.sender);
+      if (batch.sender == replica || (batch.number > 0 && last != null && batch.number <= last)) {
+        continue;
+      }
+
+      for (Delta delta : batch.deltas) {
+        if (apply(delta, batch.sender, batch.number)) {
+          ++changed;
+        }
+      }
+      if (batch.number > 0) {
+        received.put(batch.sender, batch.number);
+        receipts.put(batch.sender, batch.received);
+      }
+      receiptDue |= !batch.deltas.isEmpty();
+      receivedAny = true;
+    }
+
+    if (receivedAny) {
+      relate();
+      collect();
+      ByteArrayOutputStream state = snapshot();
+      write(() -> {
+        try {
+          ActivityFile.save(file, state);
+        } catch (IOException e) {
+          // the next flush or poll saves the state again
+          e.printStackTrace();
+        }
+        return null;
+      });
+    }
+    return changed;
+  }
+
+  /**
+   * Getter method for the number of deltas waiting to be sent
+   *
+   * @return number of pending deltas
+   */
+  public int pending() {
+
+    return outbox.size();
+  }
+
+  @Override
+  public void activityAdded(Activity activity) {
+
+    if (!applying) {
+      record(Delta.Type.ADD, activity.getId(), activity);
+    }
+  }
+
+  @Override
+  public void activityEdited(Activity previous, Activity updated) {
+
+    if (!applying) {
+      record(Delta.Type.EDIT, updated.getId(), updated);
+    }
+  }
+
+  @Override
+  public void activityDeleted(Activity activity) {
+
+    if (!applying) {
+      record(Delta.Type.DELETE, activity.getId(), null);
+    }
+  }
+
+  @Override
+  public void activityCompleted(Activity activity) {
+
+    if (!applying) {
+      record(Delta.Type.COMPLETE, activity.getId(), activity);
+    }
+  }
+
+  /**
+   * Records a local change and queues its delta
+   *
+   * @param type, The kind of change
+   * @param id, Identifier of the changed activity
+   * @param activity, The activity after the change, null for deletions
+   */
+  private void record(Delta.Type type, long id, Activity activity) {
+
+    State state = states.get(id);
+    if (state == null) {
+      state = new State();
+      states.put(id, state);
+    }
+
+    long completed = 0;
+    if (type == Delta.Type.COMPLETE) {
+      // the completed activity is out of the model like a deleted one
+      completed = activity.getCompleted();
+      activity = null;
+    }
+
+    state.activity = activity;
+    state.completed = type == Delta.Type.COMPLETE;
+    state.version.increment(replica);
+    state.origin = replica;
+    state.deletedIn = 0;
+    if (activity == null) {
+      tombstones.add(id);
+    } else {
+      tombstones.remove(id);
+    }
+
+    Delta delta;
+    if (type == Delta.Type.COMPLETE) {
+      delta = new Delta(id, replica, state.version.copy(), completed);
+    } else if (activity == null) {
+      delta = new Delta(type, id, replica, state.version.copy(), null, 0, null, null, null, 0,
+          null);
+    } else if (activity.hasDeadline()) {
+      delta = new Delta(type, id, replica, state.version.copy(), activity.getDescription(),
+          activity.getPriority(), activity.getDate(), activity.getTime(), activity.getZone(),
+          activity.getParent(), activity.getDependencies());
+    } else {
+      delta = new Delta(type, id, replica, state.version.copy(), activity.getDescription(),
+          activity.getPriority(), null, null, null, activity.getParent(),
+          activity.getDependencies());
+    }
+
+    Delta queued = outbox.remove(id);
+    if (queued != null && queued.type == Delta.Type.ADD) {
+      if (type == Delta.Type.DELETE || type == Delta.Type.COMPLETE) {
+        // no other replica has seen the activity yet, so there is nothing to send or remember
+        states.remove(id);
+        tombstones.remove(id);
+        return;
+      }
+      // an activity edited before it was ever sent still reaches the others as an addition
+      delta = new Delta(Delta.Type.ADD, id, replica, delta.version, delta.description,
+          delta.priority, delta.date, delta.time, delta.zone, delta.parent, delta.dependencies);
+    }
+    outbox.put(id, delta);
+  }
+
+  /**
+   * Applies a delta received from another replica if it is newer than what this replica has
+   *
+   * @param delta, The received delta
+   * @param sender, The replica whose batch held the delta
+   * @param batch, Number of that batch, 0 if it had none
+   * @return true if the model was changed
+   */
+  boolean apply(Delta delta, int sender, long batch) {
+
+    Activity updated = null;
+    if (delta.type == Delta.Type.ADD || delta.type == Delta.Type.EDIT) {
+      updated = delta.date == null ? new Activity(delta.description, delta.priority)
+          : new Activity(delta.description, delta.priority, delta.date, delta.time, delta.zone);
+      updated.setId(delta.id);
+      if (!model.correctInputEntered(updated).equals("Success")) {
+        return false;
+      }
+    }
+
+    State state = states.get(delta.id);
+    if (state == null) {
+      state = new State();
+      states.put(delta.id, state);
+    }
+
+    VersionVector.Order order = delta.version.compare(state.version);
+    boolean wins = order == VersionVector.Order.AFTER
+        || (order == VersionVector.Order.CONCURRENT && winsConflict(delta, state));
+
+    state.version.merge(delta.version);
+
+    // the merged version replaces the local one even when the delta loses, so the next local
+    // change includes both versions and is accepted everywhere
+    if (!wins) {
+      return false;
+    }
+
+    state.origin = delta.origin;
+    state.completed = delta.type == Delta.Type.COMPLETE;
+    applying = true;
+    try {
+      if (delta.type == Delta.Type.DELETE || delta.type == Delta.Type.COMPLETE) {
+        state.deletedBy = sender;
+        state.deletedIn = batch;
+        tombstones.add(delta.id);
+        if (state.activity == null) {
+          return false;
+        }
+        if (delta.type == Delta.Type.COMPLETE) {
+          model.completeActivity(state.activity, delta.completed);
+        } else {
+          model.deleteActivity(state.activity);
+        }
+        state.activity = null;
+
+      } else {
+        tombstones.remove(delta.id);
+        if (state.activity == null) {
+          model.addActivity(updated);
+        } else {
+          model.editActivity(state.activity, updated);
+        }
+        state.activity = updated;
+        if (delta.dependencies != null) {
+          unrelated.put(delta.id, delta);
+        }
+      }
+    } finally {
+      applying = false;
+    }
+    return true;
+  }
+
+  /**
+   * Sets the relations carried by the deltas applied, once every activity they name had the chance
+   * to be added. The model keeps the relations of an activity through an edit, so they are set in
+   * place and reported as changed relations, which links them in the dependency graph.
+   */
+  private void relate() {
+
+    applying = true;
+    try {
+      for (Delta delta : unrelated.values()) {
+        State state = states.get(delta.id);
+        Activity activity = state == null ? null : state.activity;
+        if (activity == null || !model.contains(activity)) {
+          continue;
+        }
+        boolean same = activity.getParent() == delta.parent
+            && Arrays.equals(activity.getDependencies(), delta.dependencies);
+        if (same && delta.parent == 0 && delta.dependencies.length == 0) {
+          continue;
+        }
+        activity.setParent(delta.parent);
+        activity.setDependencies(delta.dependencies);
+        model.relationsChanged(activity);
+      }
+    } finally {
+      applying = false;
+      unrelated.clear();
+    }
+  }
+
+  /**
+   * Forgets the deleted activities and discards the batches of this replica that every other
+   * replica has received. Nothing is forgotten while no other replica is known, since one may
+   * still join.
+   *
+   * @throws IOException if the transport could not discard the batches
+   */
+  private void collect() throws IOException {
+
+    Set<Integer> peers = new HashSet<Integer>(transport.peers());
+    peers.addAll(receipts.keySet());
+    peers.remove(replica);
+    if (peers.isEmpty()) {
+      return;
+    }
+
+    long everywhere = sent;
+    for (int peer : peers) {
+      everywhere = Math.min(everywhere, receivedBy(peer, replica));
+    }
+    if (everywhere > discarded && unsent == null) {
+      transport.discard(everywhere);
+      discarded = everywhere;
+    }
+
+    // a replica that received the deletion only sends later versions of the activity, once its
+    // batches up to the one saying so are applied here
+    for (Iterator<Long> ids = tombstones.iterator(); ids.hasNext();) {
+      long id = ids.next();
+      State state = states.get(id);
+      if (state.deletedIn == 0) {
+        continue;
+      }
+      boolean everyone = true;
+      for (int peer : peers) {
+        if (peer != state.deletedBy && receivedBy(peer, state.deletedBy) < state.deletedIn) {
+          everyone = false;
+          break;
+        }
+      }
+      if (everyone) {
+        states.remove(id);
+        ids.remove();
+      }
+    }
+  }
+
+  /**
+   * Getter method for the number of the last batch of a replica another one had received
+   *
+   * @param peer, The replica that received the batches
+   * @param sender, The replica that sent them
+   * @return number of the last batch, 0 if the peer never said
+   */
+  private long receivedBy(int peer, int sender) {
+
+    Map<Integer, Long> receipt = receipts.get(peer);
+    Long number = receipt == null ? null : receipt.get(sender);
+    return number == null ? 0 : number;
+  }
+
+  /**
+   * Stops writing in the background, waiting for the writes handed to the background thread, then
+   * sends the deltas still pending. Meant to be called when the program is closed, from the
+   * model's thread.
+   */
+  @Override
+  public void close() {
+
+    if (writer != null) {
+      writer.shutdown();
+      try {
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    // the outcome of the last write may never reach the model's thread, so its batch is sent
+    // again, which the other replicas skip
+    writing = false;
+    flush();
+  }
+
+  /**
+   * Runs a write of the state on the background thread, then its outcome on the model's thread.
+   * Once the background thread is stopped, or if there is none, both run on the calling thread.
+   *
+   * @param task, Writes and returns what is to be done with the result, null for nothing
+   */
+  private void write(Supplier<Runnable> task) {
+
+    if (writer == null || writer.isShutdown()) {
+      Runnable outcome = task.get();
+      if (outcome != null) {
+        outcome.run();
+      }
+      return;
+    }
+    writer.execute(() -> {
+      Runnable outcome = task.get();
+      if (outcome != null) {
+        modelThread.execute(outcome);
+      }
+    });
+  }
+
+  /**
+   * Writes the state of the engine into a buffer, to be saved to the file, replacing it the same
+   * way activities files are
+   *
+   * @return the buffer holding the state
+   */
+  private ByteArrayOutputStream snapshot() {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      writeState(new DataOutputStream(bytes));
+    } catch (IOException e) {
+      // not thrown by a buffer in memory
+      throw new IllegalStateException(e);
+    }
+    return bytes;
+  }
+
+  /**
+   * Writes the state of the engine
+   *
+   * @param out, Where the state is written
+   * @throws IOException if the state could not be written
+   */
+  private void writeState(DataOutputStream out) throws IOException {
+
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT);
+    out.writeInt(replica);
+    out.writeLong(sent);
+    out.writeLong(discarded);
+    out.writeBoolean(receiptDue);
+    writeNumbers(out, received);
+
+    out.writeInt(receipts.size());
+    for (Map.Entry<Integer, Map<Integer, Long>> receipt : receipts.entrySet()) {
+      out.writeInt(receipt.getKey());
+      writeNumbers(out, receipt.getValue());
+    }
+
+    out.writeInt(states.size());
+    for (Map.Entry<Long, State> entry : states.entrySet()) {
+      State state = entry.getValue();
+      out.writeLong(entry.getKey());
+      out.writeByte((state.activity != null ? LIVE : 0) | (state.completed ? COMPLETED : 0));
+      out.writeInt(state.origin);
+      out.writeInt(state.deletedBy);
+      out.writeLong(state.deletedIn);
+      writeNumbers(out, state.version.counters());
+    }
+
+    // the pending deltas are kept as a batch of their own, which is never sent
+    writeBytes(out, DeltaCodec.encode(replica, 0, new TreeMap<Integer, Long>(),
+        new ArrayList<Delta>(outbox.values())));
+    writeBytes(out, unsent);
+  }
+
+  /**
+   * Loads the state saved by save(), finding the activities it mentions in the model
+   *
+   * @param activities, The activities of the model by identifier
+   * @return identifiers of the activities saved as live that the model no longer holds
+   * @throws IOException if the file could not be read, or belongs to another replica
+   */
+  private List<Long> load(Map<Long, Activity> activities) throws IOException {
+
+    List<Long> missing = new ArrayList<Long>();
+    DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())));
+    if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+      throw new IOException(file + " is not a sync state file");
+    }
+    int saved = in.readInt();
+    if (saved != replica) {
+      throw new IOException(file + " is the sync state of replica " + saved);
+    }
+    sent = in.readLong();
+    discarded = in.readLong();
+    receiptDue = in.readBoolean();
+    readNumbers(in, received);
+
+    for (int peers = in.readInt(); peers > 0; --peers) {
+      int peer = in.readInt();
+      Map<Integer, Long> receipt = new TreeMap<Integer, Long>();
+      readNumbers(in, receipt);
+      receipts.put(peer, receipt);
+    }
+
+    for (int count = in.readInt(); count > 0; --count) {
+      long id = in.readLong();
+      State state = new State();
+      int flags = in.readByte();
+      boolean live = (flags & LIVE) != 0;
+      state.completed = (flags & COMPLETED) != 0;
+      state.origin = in.readInt();
+      state.deletedBy = in.readInt();
+      state.deletedIn = in.readLong();
+      Map<Integer, Long> counters = new TreeMap<Integer, Long>();
+      readNumbers(in, counters);
+      for (Map.Entry<Integer, Long> counter : counters.entrySet()) {
+        state.version.set(counter.getKey(), counter.getValue());
+      }
+      state.activity = live ? activities.get(id) : null;
+      if (state.activity == null) {
+        tombstones.add(id);
+        if (live) {
+          missing.add(id);
+        }
+      }
+      states.put(id, state);
+    }
+
+    for (Delta delta : DeltaCodec.decode(readBytes(in)).deltas) {
+      outbox.put(delta.id, delta);
+    }
+    unsent = readBytes(in);
+    return missing;
+  }
+
+  private static void writeNumbers(DataOutputStream out, Map<Integer, Long> numbers)
+      throws IOException {
+
+    out.writeInt(numbers.size());
+    for (Map.Entry<Integer, Long> number : numbers.entrySet()) {
+      out.writeInt(number.getKey());
+      out.writeLong(number.getValue());
+    }
+  }
+
+  private static void readNumbers(DataInputStream in, Map<Integer, Long> numbers)
+      throws IOException {
+
+    for (int count = in.readInt(); count > 0; --count) {
+      numbers.put(in.readInt(), in.readLong());
+    }
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+
+    out.writeInt(bytes == null ? -1 : bytes.length);
+    if (bytes != null) {
+      out.write(bytes);
+    }
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Decides which of two concurrent versions of an activity is kept, the same way on every
+   * replica. A completion is kept over any other change.
+   *
+   * @param delta, The received version
+   * @param state, The local version
+   * @return true if the received version is kept
+   */
+  private static boolean winsConflict(Delta delta, State state) {
+
+    boolean theirsCompleted = delta.type == Delta.Type.COMPLETE;
+    if (theirsCompleted != state.completed) {
+      return theirsCompleted;
+    }
+
+    long theirs = delta.version.total();
+    long ours = state.version.total();
+    if (theirs != ours) {
+      return theirs > ours;
+    }
+    return delta.origin > state.origin;
+  }
+}
@@ -0,0 +1,71 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: SyncTransport.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The following interface is implemented by the ways encoded delta batches can travel between
+ * replicas. A transport only moves bytes, it doesn't need to know what they contain.
+ *
+ * @author Luis J Finol
+ *
+ */
+public interface SyncTransport extends Closeable {
+
+  /**
+   * Sends a batch to the other replicas. The same batch may be sent again under the same number
+   * when the replica could not tell whether it was sent.
+   *
+   * @param number, Number of the batch among those this replica sent, starting at 1
+   * @param batch, The encoded batch
+   * @throws IOException if the batch could not be sent
+   */
+  void send(long number, byte[] batch) throws IOException;
+
+  /**
+   * Collects the batches that arrived from other replicas since the last call, without waiting
+   *
+   * @return the batches received, in the order they arrived
+   * @throws IOException if the batches could not be read
+   */
+  List<byte[]> receive() throws IOException;
+
+  /**
+   * Tells the transport that the batches of a replica up to a number were received in an earlier
+   * run, so it doesn't have to deliver them again
+   *
+   * @param replica, The replica that sent the batches
+   * @param number, Number of the last batch received from it
+   */
+  default void skip(int replica, long number) {}
+
+  /**
+   * Tells the transport that the batches this replica sent up to a number reached every other
+   * replica, so it no longer has to keep them
+   *
+   * @param number, Number of the last batch every other replica received
+   * @throws IOException if the batches could not be removed
+   */
+  default void discard(long number) throws IOException {}
+
+  /**
+   * Getter method for the other replicas the transport knows of before they send anything
+   *
+   * @return their identifiers, empty if the transport can't tell
+   */
+  default Set<Integer> peers() {
+
+    return Collections.emptySet();
+  }
+}
@@ -0,0 +1,159 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: VersionVector.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The following class counts, for every replica, how many changes it has made to an activity. Two
+ * versions of an activity can then be compared to tell if one already includes the other, or if
+ * they were changed concurrently on different replicas.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class VersionVector {
+
+  /**
+   * The outcome of comparing two version vectors
+   */
+  public enum Order {
+    BEFORE, AFTER, EQUAL, CONCURRENT
+  }
+
+  // replica identifier mapped to the number of changes made on that replica, kept sorted so the
+  // vector is always encoded the same way
+  private final TreeMap<Integer, Long> counters = new TreeMap<Integer, Long>();
+
+  /**
+   * Getter method for the number of changes a replica has made
+   *
+   * @param replica, The replica identifier
+   * @return number of changes, 0 if the replica never changed the activity
+   */
+  public long get(int replica) {
+
+    Long counter = counters.get(replica);
+    return counter == null ? 0 : counter;
+  }
+
+  /**
+   * Setter method for the number of changes a replica has made
+   *
+   * @param replica, The replica identifier
+   * @param counter, The number of changes
+   */
+  public void set(int replica, long counter) {
+
+    counters.put(replica, counter);
+  }
+
+  /**
+   * Records one more change made on a replica
+   *
+   * @param replica, The replica making the change
+   */
+  public void increment(int replica) {
+
+    set(replica, get(replica) + 1);
+  }
+
+  /**
+   * Takes the greatest counter of each replica from both vectors
+   *
+   * @param other, The vector merged into this one
+   */
+  public void merge(VersionVector other) {
+
+    for (Map.Entry<Integer, Long> entry : other.counters.entrySet()) {
+      if (entry.getValue() > get(entry.getKey())) {
+        counters.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Compares this vector with another
+   *
+   * @param other, The vector compared against
+   * @return BEFORE if other includes every change of this vector and more, AFTER for the opposite,
+   *         EQUAL if both are the same, and CONCURRENT if each has changes the other doesn't
+   */
+  public Order compare(VersionVector other) {
+
+    boolean less = false;
+    boolean greater = false;
+
+    for (Map.Entry<Integer, Long> entry : counters.entrySet()) {
+      long theirs = other.get(entry.getKey());
+      if (entry.getValue() < theirs) {
+        less = true;
+      } else if (entry.getValue() > theirs) {
+        greater = true;
+      }
+    }
+    for (Map.Entry<Integer, Long> entry : other.counters.entrySet()) {
+      if (!counters.containsKey(entry.getKey()) && entry.getValue() > 0) {
+        less = true;
+      }
+    }
+
+    if (less && greater) {
+      return Order.CONCURRENT;
+    } else if (less) {
+      return Order.BEFORE;
+    } else if (greater) {
+      return Order.AFTER;
+    }
+    return Order.EQUAL;
+  }
+
+  /**
+   * Sum of all the counters, used to break ties between concurrent versions
+   *
+   * @return total number of changes in the vector
+   */
+  public long total() {
+
+    long total = 0;
+    for (long counter : counters.values()) {
+      total += counter;
+    }
+    return total;
+  }
+
+  /**
+   * Getter method for the counters, sorted by replica identifier
+   *
+   * @return the counters of every replica
+   */
+  Map<Integer, Long> counters() {
+
+    return counters;
+  }
+
+  /**
+   * Creates an independent copy of the vector
+   *
+   * @return the copy
+   */
+  public VersionVector copy() {
+
+    VersionVector copy = new VersionVector();
+    copy.counters.putAll(counters);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+
+    return counters.toString();
+  }
+}
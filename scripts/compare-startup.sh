@@ -0,0 +1,79 @@
+#!/bin/sh
+###############################################################################
+# Title: Opti-List
+# File: compare-startup.sh
+# Last Changed: 10/19/2026
+#
+# Author: Luis Finol
+# Email: lfinol@wisc.edu
+###############################################################################
+#
+# Compares the native executable built by native-image.sh with the same jar
+# run on the JVM, with and without the options opti-list-cli.sh uses to start
+# faster. Every configuration runs a command of the command line interface
+# several times on the same activities file, and the median wall clock time
+# and median peak resident set size are printed.
+#
+# Usage: compare-startup.sh [runs, default 20] [command..., default stats]
+#
+# Needs GNU date and GNU time (/usr/bin/time).
+#
+# OPTI_LIST_NATIVE  directory built by native-image.sh (default: build/native)
+# OPTI_LIST_SIZE    activities in the file the commands run on (default 1000)
+
+set -e
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+NATIVE=${OPTI_LIST_NATIVE:-$ROOT/build/native}
+RUNS=${1:-20}
+[ $# -gt 0 ] && shift
+[ $# -eq 0 ] && set -- stats
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ ! -x "$NATIVE/opti-list" ] || [ ! -f "$NATIVE/opti-list.jar" ]; then
+  echo "$NATIVE/opti-list not found, build it with scripts/native-image.sh" >&2
+  exit 1
+fi
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+DATA=$WORK/activities.dat
+
+# the activities file every configuration reads
+i=0
+while [ "$i" -lt "${OPTI_LIST_SIZE:-1000}" ]; do
+  printf '%d\t%d/%d/2026\t-\t-\tActivity %d\n' $((i % 1001)) $((i % 12 + 1)) \
+    $((i % 28 + 1)) "$i"
+  i=$((i + 1))
+done > "$WORK/activities.txt"
+"$NATIVE/opti-list" --data "$DATA" import "$WORK/activities.txt" > /dev/null
+
+# prints the median of the numbers read, one per line
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# runs a configuration and prints its median time and peak resident set size
+measure() {
+  name=$1
+  shift
+  : > "$WORK/times"
+  : > "$WORK/rss"
+  run=0
+  while [ "$run" -lt "$RUNS" ]; do
+    start=$(date +%s%N)
+    /usr/bin/time -f %M -o "$WORK/last" "$@" > /dev/null
+    end=$(date +%s%N)
+    echo $(((end - start) / 1000)) >> "$WORK/times"
+    tail -n 1 "$WORK/last" >> "$WORK/rss"
+    run=$((run + 1))
+  done
+  awk -v name="$name" -v us="$(median < "$WORK/times")" -v rss="$(median < "$WORK/rss")" \
+    'BEGIN { printf "%-22s %10.1f %10d\n", name, us / 1000, rss }'
+}
+
+echo "runs: $RUNS, command: $*, activities: ${OPTI_LIST_SIZE:-1000}"
+printf '%-22s %10s %10s\n' configuration "median ms" "rss KB"
+measure "jvm" "$JAVA" -cp "$NATIVE/opti-list.jar" application.Cli --data "$DATA" "$@"
+measure "jvm, c1 and cds" "$JAVA" -XX:TieredStopAtLevel=1 -Xshare:auto \
+  -cp "$NATIVE/opti-list.jar" application.Cli --data "$DATA" "$@"
+measure "native" "$NATIVE/opti-list" --data "$DATA" "$@"
@@ -0,0 +1,61 @@
+#!/bin/sh
+###############################################################################
+# Title: Opti-List
+# File: native-image.sh
+# Last Changed: 10/19/2026
+#
+# Author: Luis Finol
+# Email: lfinol@wisc.edu
+###############################################################################
+#
+# Builds the command line interface into a native executable with GraalVM
+# native-image, so it starts in a few milliseconds instead of starting a JVM.
+# Only the classes that don't use JavaFX are compiled, and the jar they are
+# put in is also what compare-startup.sh runs on the JVM. The options of the
+# build are in META-INF/native-image/application/opti-list.
+#
+# Usage: native-image.sh [output directory, default: build/native]
+#
+# GRAALVM_HOME     GraalVM 22.3 or newer with native-image (default: JAVA_HOME)
+# OPTI_LIST_CP     additional class path, such as a JDBC driver for --store
+# OPTI_LIST_AGENT  command line interface arguments to first run the jar with
+#                  on the JVM under the tracing agent, such as
+#                  "--store jdbc:h2:/tmp/agent stats", recording the
+#                  configuration the additional class path needs into
+#                  META-INF/native-image/application/opti-list
+
+set -e
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+OUT=${1:-$ROOT/build/native}
+GRAAL=${GRAALVM_HOME:-$JAVA_HOME}
+CONFIG=META-INF/native-image/application/opti-list
+
+if [ ! -x "$GRAAL/bin/native-image" ]; then
+  echo "native-image not found in $GRAAL/bin, set GRAALVM_HOME" >&2
+  exit 1
+fi
+
+rm -rf "$OUT/classes"
+mkdir -p "$OUT/classes"
+
+# the headless classes, leaving out the GUI and the benchmarks
+cd "$ROOT"
+find application -name '*.java' ! -path 'application/bench/*' \
+  -exec grep -L 'javafx' {} + > "$OUT/sources.txt"
+"$GRAAL/bin/javac" -nowarn -d "$OUT/classes" @"$OUT/sources.txt"
+mkdir -p "$OUT/classes/$CONFIG"
+cp "$CONFIG"/* "$OUT/classes/$CONFIG/"
+
+"$GRAAL/bin/jar" cfe "$OUT/opti-list.jar" application.Cli -C "$OUT/classes" .
+CP=$OUT/opti-list.jar${OPTI_LIST_CP:+:$OPTI_LIST_CP}
+
+if [ -n "$OPTI_LIST_AGENT" ]; then
+  # shellcheck disable=SC2086 # the arguments are split on purpose
+  "$GRAAL/bin/java" -agentlib:native-image-agent=config-merge-dir="$ROOT/$CONFIG" \
+    -cp "$CP" application.Cli $OPTI_LIST_AGENT > /dev/null
+  cp "$CONFIG"/* "$OUT/classes/$CONFIG/"
+  "$GRAAL/bin/jar" cfe "$OUT/opti-list.jar" application.Cli -C "$OUT/classes" .
+fi
+
+"$GRAAL/bin/native-image" -cp "$CP" -o "$OUT/opti-list"
+echo "built $OUT/opti-list"
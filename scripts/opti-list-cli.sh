@@ -0,0 +1,48 @@
+#!/bin/sh
+###############################################################################
+# Title: Opti-List
+# File: opti-list-cli.sh
+# Last Changed: 10/19/2026
+#
+# Author: Luis Finol
+# Email: lfinol@wisc.edu
+###############################################################################
+#
+# Runs the command line interface with an application class-data sharing
+# archive, so the JVM maps already parsed and verified classes instead of
+# loading them from the jar on every run. The archive is dumped by the first
+# run and reused afterwards. Needs JDK 13 or newer (-XX:ArchiveClassesAtExit),
+# older JDKs simply run without the archive.
+#
+# Usage: opti-list-cli.sh [--data <file>] <command> ...
+#
+# OPTI_LIST_JAR  jar with the compiled classes (default: opti-list.jar next to
+#                this script); CDS only archives classes loaded from jars
+# OPTI_LIST_JSA  archive location (default: the jar with a .jsa extension)
+
+DIR=$(cd "$(dirname "$0")" && pwd)
+JAR=${OPTI_LIST_JAR:-$DIR/opti-list.jar}
+JSA=${OPTI_LIST_JSA:-${JAR%.jar}.jsa}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+if [ ! -f "$JAR" ]; then
+  echo "$JAR not found, build it with: jar cf $JAR -C <classes directory> ." >&2
+  exit 1
+fi
+
+# the archive is only valid for the jar it was dumped from
+if [ -f "$JSA" ] && [ "$JAR" -nt "$JSA" ]; then
+  rm -f "$JSA"
+fi
+
+if [ -f "$JSA" ]; then
+  exec "$JAVA" -XX:SharedArchiveFile="$JSA" -XX:TieredStopAtLevel=1 -cp "$JAR" \
+    application.Cli "$@"
+fi
+
+if "$JAVA" -XX:+PrintFlagsFinal -version 2> /dev/null | grep -q ArchiveClassesAtExit; then
+  exec "$JAVA" -XX:ArchiveClassesAtExit="$JSA" -XX:TieredStopAtLevel=1 -cp "$JAR" \
+    application.Cli "$@"
+fi
+
+exec "$JAVA" -Xshare:auto -XX:TieredStopAtLevel=1 -cp "$JAR" application.Cli "$@"
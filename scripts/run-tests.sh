@@ -0,0 +1,46 @@
+#!/bin/sh
+###############################################################################
+# Title: Opti-List
+# File: run-tests.sh
+# Last Changed: 10/19/2026
+#
+# Author: Luis Finol
+# Email: lfinol@wisc.edu
+###############################################################################
+#
+# Compiles the program, leaving out the classes that need JavaFX, together
+# with the tests under test/, and runs every test. A test is a class whose name
+# ends in Test, in the package of the classes it checks, with a main method
+# that throws as soon as a check fails, so no test library is needed.
+#
+# Usage: run-tests.sh [test class...]
+#
+# Runs every test when no class is given, and exits with the number of tests
+# that failed.
+
+set -e
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAVAC=${JAVA_HOME:+$JAVA_HOME/bin/}javac
+
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+cd "$ROOT"
+find application test -name '*.java' | xargs grep -L javafx > "$WORK/sources"
+"$JAVAC" -nowarn -encoding UTF-8 -d "$WORK/classes" @"$WORK/sources"
+
+if [ $# -eq 0 ]; then
+  set -- $(cd test && find . -name '*Test.java' | sed 's|^\./||; s|\.java$||; s|/|.|g' | sort)
+fi
+
+failed=0
+for test in "$@"; do
+  if "$JAVA" -ea -cp "$WORK/classes" "$test"; then
+    echo "passed: $test"
+  else
+    echo "FAILED: $test"
+    failed=$((failed + 1))
+  fi
+done
+exit "$failed"
@@ -0,0 +1,213 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: ActivityModelTest.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the priority index and the date index of a model while activities are randomly added,
+ * edited, moved by hand and deleted: the rank or position of every activity finds that activity
+ * again, both orders stay sorted, a moved activity lands where it was moved, and the order given
+ * by hand outlives rebuilding the orderings and saving and loading the activities.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class ActivityModelTest {
+
+  /**
+   * Runs the checks
+   *
+   * @param args, Not used
+   * @throws IOException if the activities can't be saved or loaded
+   */
+  public static void main(String[] args) throws IOException {
+
+    Random random = new Random(33);
+    ActivityModel model = new ActivityModel();
+
+    for (int step = 0; step < 3000; ++step) {
+      int operation = random.nextInt(10);
+      if (operation < 4 || model.size() < 10) {
+        model.addActivity(activity(random, "added " + step));
+      } else if (operation < 7) {
+        // few priorities, so moves often land among activities of the same priority
+        Activity activity = model.getPriorityIndex().get(random.nextInt(model.size()));
+        int rank = random.nextInt(model.size() + 2) - 1;
+        check(model.moveActivity(activity, rank), "activity in the model moved");
+        int expected = Math.max(0, Math.min(rank, model.size() - 1));
+        check(model.getPriorityIndex().rankOf(activity) == expected,
+            "moved to rank " + rank + " but found at " + model.getPriorityIndex().rankOf(activity));
+      } else if (operation < 8) {
+        Activity previous = model.getDateList().get(random.nextInt(model.size()));
+        check(model.editActivity(previous, activity(random, "edited " + step)), "edited");
+        check(!model.contains(previous), "edited activity replaced");
+        check(!model.moveActivity(previous, 0), "replaced activity not moved");
+      } else {
+        Activity activity = model.getDateList().get(random.nextInt(model.size()));
+        check(model.deleteActivity(activity), "activity in the model deleted");
+        check(!model.deleteActivity(activity), "activity deleted twice");
+      }
+      verify(model);
+
+      if (step % 500 == 499) {
+        List<Activity> before = priorityOrder(model);
+        check(model.rebuild().isEmpty(), "no activity dropped by rebuilding");
+        verify(model);
+        check(priorityOrder(model).equals(before), "order given by hand kept by rebuilding");
+      }
+    }
+
+    reloads(model);
+    dateView(model);
+  }
+
+  /**
+   * Creates an activity of one of a few priorities, with or without a due date
+   *
+   * @param random, Source of randomness
+   * @param description, Its description
+   * @return the activity
+   */
+  private static Activity activity(Random random, String description) {
+
+    int priority = 100 * random.nextInt(4);
+    if (random.nextInt(4) == 0) {
+      return new Activity(description, priority);
+    }
+    String date = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/"
+        + (2026 + random.nextInt(3));
+    return new Activity(description, priority, date);
+  }
+
+  /**
+   * Checks both indexes against each other and against the order they must keep
+   *
+   * @param model, The model
+   */
+  private static void verify(ActivityModel model) {
+
+    PriorityIndex priorities = model.getPriorityIndex();
+    List<Activity> dates = model.getDateList();
+    check(priorities.size() == model.size() && dates.size() == model.size(), "sizes");
+
+    Iterator<Activity> iterator = priorities.iterator();
+    Activity previous = null;
+    int position = 0;
+    for (int rank = 0; rank < priorities.size(); ++rank) {
+      Activity activity = priorities.get(rank);
+      check(iterator.next() == activity, "iterator follows the ranks");
+      check(priorities.rankOf(activity) == rank, "rank of the activity at rank " + rank);
+      check(dates.contains(activity) && model.contains(activity), "activity in every index");
+
+      if (previous != null && previous.getPriority() == activity.getPriority()) {
+        ++position;
+        check(previous.getPosition() < activity.getPosition(), "positions within a priority");
+      } else {
+        position = 0;
+        check(previous == null || previous.getPriority() > activity.getPriority(),
+            "greater priority first");
+      }
+      check(priorities.positionOf(activity) == position, "position at rank " + rank);
+      previous = activity;
+    }
+    check(!iterator.hasNext(), "iterator ends with the ranks");
+
+    int skip = model.size() / 3;
+    check(priorities.range(skip, 7).equals(priorityOrder(model).subList(skip,
+        Math.min(skip + 7, model.size()))), "range of the priority order");
+
+    for (int rank = 0; rank < dates.size(); ++rank) {
+      Activity activity = dates.get(rank);
+      check(dates.indexOf(activity) == rank, "index of the activity at index " + rank);
+      check(rank == 0 || dates.get(rank - 1).compareByDate(activity) < 0, "date order");
+    }
+  }
+
+  /**
+   * Saves the activities, loads them into another model, and checks it orders them the same way
+   *
+   * @param model, The model
+   * @throws IOException if the activities can't be saved or loaded
+   */
+  private static void reloads(ActivityModel model) throws IOException {
+
+    File file = File.createTempFile("activities", ".dat");
+    try {
+      ActivityFile.save(file, model.getDateList());
+      ActivityModel loaded = new ActivityModel();
+      check(loaded.addAll(ActivityFile.load(file)).isEmpty(), "every activity loaded");
+      verify(loaded);
+
+      List<Activity> expected = priorityOrder(model);
+      List<Activity> actual = priorityOrder(loaded);
+      check(actual.size() == expected.size(), "as many activities loaded");
+      for (int rank = 0; rank < expected.size(); ++rank) {
+        check(actual.get(rank).getId() == expected.get(rank).getId(),
+            "order given by hand kept by saving and loading, at rank " + rank);
+      }
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * The date order can't be changed from outside, and its iterators fail once the model changes
+   *
+   * @param model, The model
+   */
+  private static void dateView(ActivityModel model) {
+
+    List<Activity> dates = model.getDateList();
+    try {
+      dates.remove(0);
+      throw new AssertionError("date order changed from outside");
+    } catch (UnsupportedOperationException e) {
+      // refused as it should be
+    }
+
+    Iterator<Activity> iterator = dates.iterator();
+    iterator.next();
+    model.addActivity(new Activity("late", 0));
+    try {
+      iterator.next();
+      throw new AssertionError("iterator went on after the index changed");
+    } catch (ConcurrentModificationException e) {
+      // refused as it should be
+    }
+  }
+
+  /**
+   * Getter method for the activities in priority order
+   *
+   * @param model, The model
+   * @return the activities, greater priority first
+   */
+  private static List<Activity> priorityOrder(ActivityModel model) {
+
+    List<Activity> order = new ArrayList<Activity>(model.size());
+    for (Activity activity : model.getPriorityIndex()) {
+      order.add(activity);
+    }
+    return order;
+  }
+
+  private static void check(boolean condition, String message) {
+
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}
@@ -0,0 +1,198 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DependencyGraphTest.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks a dependency graph against the relations held by the activities themselves while
+ * relations are added, removed and set from outside the graph and activities are deleted: a
+ * relation is refused exactly when it would close a cycle, the topological order keeps every
+ * activity after those blocking it, and an activity is ready exactly when nothing blocks it.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DependencyGraphTest {
+
+  /**
+   * Runs the checks
+   *
+   * @param args, Not used
+   */
+  public static void main(String[] args) {
+
+    Random random = new Random(32);
+    ActivityModel model = new ActivityModel();
+    for (int i = 0; i < 60; ++i) {
+      model.addActivity(new Activity("activity " + i, random.nextInt(1001)));
+    }
+    DependencyGraph graph = new DependencyGraph(model);
+
+    Activity any = model.getDateList().get(0);
+    try {
+      graph.addDependency(any, any);
+      throw new AssertionError("activity depends on itself");
+    } catch (IllegalArgumentException e) {
+      // refused as it should be
+    }
+
+    int refused = 0;
+    for (int step = 0; step < 4000; ++step) {
+      List<Activity> activities = new ArrayList<Activity>(model.getDateList());
+      Activity activity = activities.get(random.nextInt(activities.size()));
+      Activity other = activities.get(random.nextInt(activities.size()));
+      int operation = random.nextInt(10);
+
+      if (operation < 5 && activity != other) {
+        // the dependency closes a cycle if the activity already blocks the other one
+        boolean cycle = reaches(model, activity, other);
+        try {
+          graph.addDependency(activity, other);
+          check(!cycle, "dependency closing a cycle accepted");
+        } catch (IllegalArgumentException e) {
+          check(cycle, "dependency refused without a cycle: " + e.getMessage());
+          ++refused;
+        }
+      } else if (operation < 7) {
+        List<Activity> blockers = graph.blockers(activity);
+        if (!blockers.isEmpty()) {
+          graph.removeDependency(activity, blockers.get(random.nextInt(blockers.size())));
+        }
+      } else if (operation < 8 && activity != other) {
+        boolean cycle = reaches(model, other, activity);
+        Activity parent = random.nextInt(4) == 0 ? null : other;
+        try {
+          graph.setParent(activity, parent);
+          check(parent == null || !cycle, "parent closing a cycle accepted");
+        } catch (IllegalArgumentException e) {
+          check(parent != null && cycle, "parent refused without a cycle");
+          ++refused;
+        }
+      } else if (operation < 9) {
+        // relations set on the activity itself, as a sync does, are linked once reported
+        activity.setDependencies(new long[] {other.getId()});
+        model.relationsChanged(activity);
+      } else if (activities.size() > 20) {
+        model.deleteActivity(activity);
+      } else {
+        model.addActivity(new Activity("added " + step, random.nextInt(1001)));
+      }
+
+      verify(model, graph);
+    }
+    check(refused > 0, "no cycle was ever attempted");
+  }
+
+  /**
+   * Compares the graph with the relations held by the activities of the model
+   *
+   * @param model, The model
+   * @param graph, The graph of its activities
+   */
+  private static void verify(ActivityModel model, DependencyGraph graph) {
+
+    Map<Activity, Integer> order = new IdentityHashMap<Activity, Integer>();
+    for (Activity activity : graph.topologicalOrder()) {
+      order.put(activity, order.size());
+    }
+    check(order.size() == model.size(), "every activity ordered once");
+
+    Map<Activity, Set<Activity>> blockers = blockers(model);
+    for (Activity activity : model.getDateList()) {
+      Set<Activity> expected = blockers.get(activity);
+      Set<Activity> actual = new HashSet<Activity>(graph.blockers(activity));
+      check(actual.equals(expected), "blockers of " + activity.getDescription());
+      for (Activity blocker : expected) {
+        check(order.get(blocker) < order.get(activity),
+            blocker.getDescription() + " ordered after " + activity.getDescription());
+      }
+      check(graph.isReady(activity) == expected.isEmpty(),
+          "readiness of " + activity.getDescription());
+    }
+  }
+
+  /**
+   * Finds the activities blocking each activity from the dependencies and parents they hold
+   *
+   * @param model, The model
+   * @return every activity mapped to those blocking it
+   */
+  private static Map<Activity, Set<Activity>> blockers(ActivityModel model) {
+
+    Map<Long, Activity> byId = new HashMap<Long, Activity>();
+    Map<Activity, Set<Activity>> blockers = new IdentityHashMap<Activity, Set<Activity>>();
+    for (Activity activity : model.getDateList()) {
+      byId.put(activity.getId(), activity);
+      blockers.put(activity, new HashSet<Activity>());
+    }
+    for (Activity activity : model.getDateList()) {
+      for (long id : activity.getDependencies()) {
+        if (byId.containsKey(id)) {
+          blockers.get(activity).add(byId.get(id));
+        }
+      }
+      Activity parent = byId.get(activity.getParent());
+      if (parent != null) {
+        blockers.get(parent).add(activity);
+      }
+    }
+    return blockers;
+  }
+
+  /**
+   * Indicates if one activity blocks another, directly or through others
+   *
+   * @param model, The model
+   * @param from, The activity that may block
+   * @param to, The activity that may be blocked
+   * @return true if the other activity waits on the first one
+   */
+  private static boolean reaches(ActivityModel model, Activity from, Activity to) {
+
+    Map<Activity, List<Activity>> blocked = new IdentityHashMap<Activity, List<Activity>>();
+    for (Map.Entry<Activity, Set<Activity>> entry : blockers(model).entrySet()) {
+      for (Activity blocker : entry.getValue()) {
+        blocked.computeIfAbsent(blocker, key -> new ArrayList<Activity>()).add(entry.getKey());
+      }
+    }
+
+    Set<Activity> visited = new HashSet<Activity>();
+    Deque<Activity> stack = new ArrayDeque<Activity>();
+    stack.push(from);
+    while (!stack.isEmpty()) {
+      Activity current = stack.pop();
+      if (current == to) {
+        return true;
+      }
+      if (visited.add(current) && blocked.containsKey(current)) {
+        for (Activity next : blocked.get(current)) {
+          stack.push(next);
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void check(boolean condition, String message) {
+
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}
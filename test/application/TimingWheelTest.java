@@ -0,0 +1,145 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: TimingWheelTest.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Checks that a timing wheel hands out every timeout on the first advance past its deadline and
+ * never before, across all the levels its timeouts cascade through, that cancelled timeouts never
+ * expire, and that timeouts already due when scheduled expire on the next advance.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class TimingWheelTest {
+
+  private static final long TICK = 1000; // milliseconds of a tick
+
+  /**
+   * Runs the checks
+   *
+   * @param args, Not used
+   */
+  public static void main(String[] args) {
+
+    roundsUp();
+    cascades(new Random(28));
+    overdue();
+  }
+
+  /**
+   * A deadline within a tick expires at the end of that tick
+   */
+  private static void roundsUp() {
+
+    TimingWheel<String> wheel = new TimingWheel<String>(TICK, 0);
+    wheel.schedule(1500, "due");
+    List<String> fired = new ArrayList<String>();
+    wheel.advance(1999, timeout -> fired.add(timeout.getValue()));
+    check(fired.isEmpty(), "expired before its deadline");
+    wheel.advance(2000, timeout -> fired.add(timeout.getValue()));
+    check(fired.size() == 1 && wheel.size() == 0, "expired once its tick passed");
+  }
+
+  /**
+   * Schedules timeouts spread over four levels of the wheel, cancels some of them, and advances by
+   * random steps, checking each step hands out exactly the timeouts that became due
+   *
+   * @param random, Source of randomness
+   */
+  private static void cascades(Random random) {
+
+    long start = 5 * TICK;
+    TimingWheel<Long> wheel = new TimingWheel<Long>(TICK, start);
+    long span = 64L * 64 * 64 * 64; // ticks covered by the first four levels
+
+    List<TimingWheel.Timeout<Long>> timeouts = new ArrayList<TimingWheel.Timeout<Long>>();
+    Set<TimingWheel.Timeout<Long>> pending = new HashSet<TimingWheel.Timeout<Long>>();
+    for (int i = 0; i < 20000; ++i) {
+      // as many deadlines within every level, so each level cascades
+      long ticks = 1 + (long) (Math.pow(span, random.nextDouble()));
+      TimingWheel.Timeout<Long> timeout = wheel.schedule(start + ticks * TICK, ticks);
+      timeouts.add(timeout);
+      pending.add(timeout);
+    }
+
+    for (int i = 0; i < timeouts.size(); i += 7) {
+      TimingWheel.Timeout<Long> timeout = timeouts.get(i);
+      check(wheel.cancel(timeout), "pending timeout cancelled");
+      check(!wheel.cancel(timeout), "timeout cancelled twice");
+      check(!timeout.isPending(), "cancelled timeout still pending");
+      pending.remove(timeout);
+    }
+    check(wheel.size() == pending.size(), "size after cancelling");
+
+    long now = start;
+    while (!pending.isEmpty()) {
+      now += (1 + random.nextInt(3 * 64 * 64)) * TICK;
+      long current = now;
+      List<TimingWheel.Timeout<Long>> fired = new ArrayList<TimingWheel.Timeout<Long>>();
+      wheel.advance(now, fired::add);
+
+      for (TimingWheel.Timeout<Long> timeout : fired) {
+        check(pending.remove(timeout), "expired timeout was pending");
+        check(start + timeout.getValue() * TICK <= current, "expired before its deadline");
+        check(!timeout.isPending(), "expired timeout still pending");
+      }
+      for (TimingWheel.Timeout<Long> timeout : pending) {
+        check(start + timeout.getValue() * TICK > current, "due timeout did not expire, due at "
+            + timeout.getValue() + " ticks, now " + (current - start) / TICK);
+      }
+      check(wheel.size() == pending.size(), "size after advancing");
+    }
+
+    for (TimingWheel.Timeout<Long> timeout : timeouts) {
+      check(!wheel.cancel(timeout), "expired or cancelled timeout cancelled");
+    }
+  }
+
+  /**
+   * Timeouts already due when scheduled, even from the consumer of an advance, expire on the next
+   * advance without the wheel moving
+   */
+  private static void overdue() {
+
+    TimingWheel<String> wheel = new TimingWheel<String>(TICK, 10 * TICK);
+    wheel.schedule(3 * TICK, "past");
+    wheel.schedule(10 * TICK, "now");
+
+    List<String> fired = new ArrayList<String>();
+    wheel.advance(10 * TICK, timeout -> {
+      fired.add(timeout.getValue());
+      if (timeout.getValue().equals("past")) {
+        wheel.schedule(0, "from the consumer");
+      }
+    });
+    check(fired.size() == 2 && fired.contains("past") && fired.contains("now"),
+        "overdue timeouts expired on the next advance");
+    check(wheel.size() == 1, "timeout scheduled by the consumer pending");
+
+    TimingWheel.Timeout<String> cancelled = wheel.schedule(0, "cancelled");
+    check(wheel.cancel(cancelled), "overdue timeout cancelled");
+    wheel.advance(10 * TICK, timeout -> fired.add(timeout.getValue()));
+    check(fired.size() == 3 && fired.get(2).equals("from the consumer"),
+        "timeout scheduled by the consumer expired, the cancelled one did not");
+    check(wheel.size() == 0, "no timeout left");
+  }
+
+  private static void check(boolean condition, String message) {
+
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}
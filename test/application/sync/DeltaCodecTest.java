@@ -0,0 +1,200 @@
+///////////////////////////////////////////////////////////////////////////////
+// Title: Opti-List
+// File: DeltaCodecTest.java
+// Last Changed: 10/19/2026
+//
+// Author: Luis Finol
+// Email: lfinol@wisc.edu
+//////////////////////////////////////////////////////////////////////////////
+package application.sync;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Checks that batches of deltas decode to what was encoded, whether or not they are deflated and
+ * including batches of the previous format, and that every truncated batch is refused with an
+ * IOException rather than decoded or failing otherwise.
+ *
+ * @author Luis J Finol
+ *
+ */
+public class DeltaCodecTest {
+
+  /**
+   * Runs the checks
+   *
+   * @param args, Not used
+   * @throws IOException if a batch that should decode does not
+   */
+  public static void main(String[] args) throws IOException {
+
+    Random random = new Random(26);
+    Map<Integer, Long> received = new TreeMap<Integer, Long>();
+    received.put(2, 17L);
+    received.put(300, 1L << 40);
+
+    // a batch small enough to be sent as it is, and one large enough to be deflated
+    List<Delta> few = deltas(random, 4);
+    List<Delta> many = deltas(random, 500);
+    byte[] plain = DeltaCodec.encode(7, 3, received, few);
+    byte[] deflated = DeltaCodec.encode(7, 4, received, many);
+    check((plain[2] & 1) == 0, "small batch not deflated");
+    check((deflated[2] & 1) != 0, "large batch deflated");
+
+    roundTrip(plain, 7, 3, received, few);
+    roundTrip(deflated, 7, 4, received, many);
+    roundTrip(DeltaCodec.encode(1, 1, new TreeMap<Integer, Long>(), new ArrayList<Delta>()), 1, 1,
+        new TreeMap<Integer, Long>(), new ArrayList<Delta>());
+
+    truncated(plain);
+    truncated(deflated);
+    previousFormat();
+  }
+
+  /**
+   * Creates deltas of every type, with and without due dates and relations
+   *
+   * @param random, Source of randomness
+   * @param count, Number of deltas
+   * @return the deltas
+   */
+  private static List<Delta> deltas(Random random, int count) {
+
+    List<Delta> deltas = new ArrayList<Delta>(count);
+    for (int i = 0; i < count; ++i) {
+      VersionVector version = new VersionVector();
+      version.set(random.nextInt(5), 1 + random.nextInt(1000));
+      long id = random.nextLong();
+      int origin = random.nextInt(1 << 20);
+
+      switch (i % 5) {
+        case 0:
+          deltas.add(new Delta(Delta.Type.ADD, id, origin, version, "add " + i + " \u00e9\u4f1a",
+              random.nextInt(1001), "10/19/2026", "08:30", "Europe/Paris", random.nextLong(),
+              new long[] {random.nextLong(), random.nextLong()}));
+          break;
+        case 1:
+          deltas.add(new Delta(Delta.Type.EDIT, id, origin, version, "edit " + i, 0, null, null,
+              null, 0, new long[0]));
+          break;
+        case 2:
+          deltas.add(new Delta(Delta.Type.DELETE, id, origin, version, null, 0, null, null, null,
+              0, null));
+          break;
+        case 3:
+          deltas.add(new Delta(id, origin, version, Math.abs(random.nextLong())));
+          break;
+        default:
+          deltas.add(new Delta(Delta.Type.EDIT, id, origin, version, "", 1000, "1/2/2030", null,
+              null, 0, new long[] {-1}));
+      }
+    }
+    return deltas;
+  }
+
+  /**
+   * Decodes a batch and compares it with what was encoded
+   *
+   * @param batch, The encoded batch
+   * @param sender, The replica it was encoded for
+   * @param number, Its number
+   * @param received, The receipts encoded in it
+   * @param deltas, The deltas encoded in it
+   * @throws IOException if the batch does not decode
+   */
+  private static void roundTrip(byte[] batch, int sender, long number,
+      Map<Integer, Long> received, List<Delta> deltas) throws IOException {
+
+    DeltaCodec.Batch decoded = DeltaCodec.decode(batch);
+    check(decoded.sender == sender, "sender");
+    check(decoded.number == number, "number");
+    check(decoded.received.equals(received), "received");
+    check(decoded.deltas.size() == deltas.size(), "number of deltas");
+    for (int i = 0; i < deltas.size(); ++i) {
+      Delta expected = deltas.get(i);
+      Delta actual = decoded.deltas.get(i);
+      boolean relations = expected.type == Delta.Type.ADD || expected.type == Delta.Type.EDIT;
+      check(expected.type == actual.type && expected.id == actual.id
+          && expected.origin == actual.origin
+          && expected.version.counters().equals(actual.version.counters())
+          && Objects.equals(expected.description, actual.description)
+          && expected.priority == actual.priority && Objects.equals(expected.date, actual.date)
+          && Objects.equals(expected.time, actual.time)
+          && Objects.equals(expected.zone, actual.zone) && expected.completed == actual.completed
+          && expected.parent == actual.parent
+          && (relations ? Arrays.equals(expected.dependencies, actual.dependencies)
+              : actual.dependencies == null),
+          "delta " + i + " " + expected + " decoded as " + actual);
+    }
+  }
+
+  /**
+   * Decodes every strict prefix of a batch, each of which must be refused with an IOException
+   *
+   * @param batch, The encoded batch
+   */
+  private static void truncated(byte[] batch) {
+
+    for (int length = 0; length < batch.length; ++length) {
+      try {
+        DeltaCodec.decode(Arrays.copyOf(batch, length));
+        throw new AssertionError("batch truncated to " + length + " of " + batch.length
+            + " bytes decoded");
+      } catch (IOException e) {
+        // refused as it should be
+      }
+    }
+  }
+
+  /**
+   * Decodes a batch of the format before relations were sent, whose deltas carry none
+   *
+   * @throws IOException if the batch does not decode
+   */
+  private static void previousFormat() throws IOException {
+
+    DeltaCodec.Output body = new DeltaCodec.Output();
+    body.writeVarLong(5); // sender
+    body.writeVarLong(9); // number
+    body.writeVarLong(0); // no receipts
+    body.writeVarLong(1); // one delta
+    body.write(Delta.Type.EDIT.ordinal());
+    body.writeLong(-42);
+    body.writeVarLong(5); // origin
+    body.writeVarLong(1); // one counter
+    body.writeVarLong(5);
+    body.writeVarLong(3);
+    body.writeString("old");
+    body.writeVarLong(12);
+    body.writeString(null);
+    body.writeString(null);
+    body.writeString(null);
+
+    byte[] raw = body.toByteArray();
+    byte[] batch = new byte[raw.length + 3];
+    batch[0] = 0x4F;
+    batch[1] = 3;
+    System.arraycopy(raw, 0, batch, 3, raw.length);
+
+    DeltaCodec.Batch decoded = DeltaCodec.decode(batch);
+    Delta delta = decoded.deltas.get(0);
+    check(decoded.sender == 5 && decoded.number == 9, "previous format header");
+    check(delta.id == -42 && "old".equals(delta.description) && delta.priority == 12,
+        "previous format delta");
+    check(delta.parent == 0 && delta.dependencies == null, "previous format carries no relations");
+  }
+
+  private static void check(boolean condition, String message) {
+
+    if (!condition) {
+      throw new AssertionError(message);
+    }
+  }
+}